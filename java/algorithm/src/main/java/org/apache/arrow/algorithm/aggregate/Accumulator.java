@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.aggregate;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FloatingPointVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * The state of an aggregate function for all the groups, kept in vectors indexed by group id.
+ */
+abstract class Accumulator implements AutoCloseable {
+
+  /**
+   * Creates the accumulator of a function.
+   * @param function the aggregate function.
+   * @param inputField the field of the input column, or null for <code>COUNT(*)</code>.
+   * @param allocator the allocator for the state.
+   */
+  static Accumulator create(AggregateFunction function, Field inputField, BufferAllocator allocator) {
+    switch (function.getKind()) {
+      case COUNT_ALL:
+      case COUNT:
+        return new CountAccumulator(function.getName(), allocator);
+      case SUM:
+        return new SumAccumulator(function.getName(), isFloatingPoint(function, inputField, allocator), allocator);
+      case AVG:
+        isFloatingPoint(function, inputField, allocator);
+        return new AvgAccumulator(function.getName(), allocator);
+      case MIN:
+        return new MinMaxAccumulator(function.getName(), inputField, false, allocator);
+      case MAX:
+        return new MinMaxAccumulator(function.getName(), inputField, true, allocator);
+      case COUNT_DISTINCT:
+        return new CountDistinctAccumulator(function.getName(), inputField, allocator);
+      default:
+        throw new UnsupportedOperationException("Unsupported aggregate function " + function);
+    }
+  }
+
+  private static boolean isFloatingPoint(AggregateFunction function, Field inputField, BufferAllocator allocator) {
+    try (ValueVector vector = inputField.createVector(allocator)) {
+      if (vector instanceof BaseIntVector) {
+        return false;
+      } else if (vector instanceof FloatingPointVector) {
+        return true;
+      }
+    }
+    throw new IllegalArgumentException(function + " is not supported for column type " + inputField.getType());
+  }
+
+  /**
+   * Gets the field of the output column.
+   */
+  abstract Field getField();
+
+  /**
+   * Updates the state with a batch.
+   * @param input the input column, or null for <code>COUNT(*)</code>.
+   * @param groupIds the group ids of the rows.
+   * @param rowCount the number of rows.
+   * @param groupCount the number of groups, including those first seen in this batch.
+   */
+  abstract void update(ValueVector input, IntVector groupIds, int rowCount, int groupCount);
+
+  /**
+   * Moves the results to the output column, and resets the state.
+   * @param output the output vector, of the type of {@link #getField()}.
+   * @param groupCount the number of groups.
+   */
+  abstract void emit(FieldVector output, int groupCount);
+
+  /**
+   * Grows a vector of the state, so that it can hold a number of groups.
+   * The values of the new groups are zero and null.
+   */
+  static void ensureCapacity(BaseFixedWidthVector vector, int groupCount) {
+    while (vector.getValueCapacity() < groupCount) {
+      vector.reAlloc();
+    }
+  }
+
+  /**
+   * Moves a vector of the state to the output, and reallocates it.
+   */
+  static void transfer(BaseFixedWidthVector vector, FieldVector output, int groupCount) {
+    vector.setValueCount(groupCount);
+    vector.makeTransferPair(output).transfer();
+    vector.allocateNew();
+  }
+
+  /**
+   * Gets the address of the group id of the first row.
+   */
+  static long groupIdAddress(IntVector groupIds) {
+    return groupIds.getDataBuffer().memoryAddress();
+  }
+
+  /**
+   * Gets the group id of a row.
+   */
+  static int groupId(long groupIdAddress, int row) {
+    return PlatformDependent.getInt(groupIdAddress + (long) row * IntVector.TYPE_WIDTH);
+  }
+
+  @Override
+  public abstract void close();
+}
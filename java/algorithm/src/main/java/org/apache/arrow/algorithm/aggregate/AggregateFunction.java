@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.aggregate;
+
+import org.apache.arrow.util.Preconditions;
+
+/**
+ * An aggregate function computed for each group by a {@link HashAggregator}, like
+ * <code>COUNT(*)</code> or <code>SUM(column)</code>.
+ */
+public final class AggregateFunction {
+
+  /**
+   * The kinds of aggregate functions.
+   */
+  public enum Kind {
+    /**
+     * The number of rows.
+     */
+    COUNT_ALL,
+    /**
+     * The number of non-null values.
+     */
+    COUNT,
+    /**
+     * The sum of the non-null values, which is a 64-bit integer for integer columns and a double for
+     * floating point columns, or null if there are none.
+     */
+    SUM,
+    /**
+     * The least non-null value, or null if there are none.
+     */
+    MIN,
+    /**
+     * The greatest non-null value, or null if there are none.
+     */
+    MAX,
+    /**
+     * The average of the non-null values, as a double, or null if there are none.
+     */
+    AVG,
+    /**
+     * The number of distinct non-null values.
+     */
+    COUNT_DISTINCT
+  }
+
+  private final Kind kind;
+
+  private final String column;
+
+  private final String name;
+
+  private AggregateFunction(Kind kind, String column, String name) {
+    this.kind = kind;
+    this.column = column;
+    this.name = name;
+  }
+
+  private static AggregateFunction of(Kind kind, String column) {
+    Preconditions.checkNotNull(column, "The column must not be null");
+    return new AggregateFunction(kind, column, kind.name().toLowerCase() + "(" + column + ")");
+  }
+
+  /**
+   * Creates a <code>COUNT(*)</code> function, named "count".
+   */
+  public static AggregateFunction countAll() {
+    return new AggregateFunction(Kind.COUNT_ALL, null, "count");
+  }
+
+  /**
+   * Creates a <code>COUNT(column)</code> function, named "count(column)".
+   */
+  public static AggregateFunction count(String column) {
+    return of(Kind.COUNT, column);
+  }
+
+  /**
+   * Creates a <code>SUM(column)</code> function, named "sum(column)".
+   */
+  public static AggregateFunction sum(String column) {
+    return of(Kind.SUM, column);
+  }
+
+  /**
+   * Creates a <code>MIN(column)</code> function, named "min(column)".
+   */
+  public static AggregateFunction min(String column) {
+    return of(Kind.MIN, column);
+  }
+
+  /**
+   * Creates a <code>MAX(column)</code> function, named "max(column)".
+   */
+  public static AggregateFunction max(String column) {
+    return of(Kind.MAX, column);
+  }
+
+  /**
+   * Creates an <code>AVG(column)</code> function, named "avg(column)".
+   */
+  public static AggregateFunction avg(String column) {
+    return of(Kind.AVG, column);
+  }
+
+  /**
+   * Creates a <code>COUNT(DISTINCT column)</code> function, named "count_distinct(column)".
+   */
+  public static AggregateFunction countDistinct(String column) {
+    return of(Kind.COUNT_DISTINCT, column);
+  }
+
+  /**
+   * Gets the same function with another name.
+   * @param name the name of the output column.
+   */
+  public AggregateFunction as(String name) {
+    return new AggregateFunction(kind, column, name);
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Gets the name of the input column, or null for <code>COUNT(*)</code>.
+   */
+  public String getColumn() {
+    return column;
+  }
+
+  /**
+   * Gets the name of the output column.
+   */
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.aggregate;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.FloatingPointVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Averages the non-null values of each group, from their sum and count.
+ */
+class AvgAccumulator extends Accumulator {
+
+  private final Field field;
+
+  private final Float8Vector sums;
+
+  private final BigIntVector counts;
+
+  AvgAccumulator(String name, BufferAllocator allocator) {
+    this.field = Field.nullable(name, new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE));
+    this.sums = new Float8Vector(field, allocator);
+    this.counts = new BigIntVector(name, allocator);
+    sums.allocateNew();
+    counts.allocateNew();
+  }
+
+  @Override
+  Field getField() {
+    return field;
+  }
+
+  @Override
+  void update(ValueVector input, IntVector groupIds, int rowCount, int groupCount) {
+    ensureCapacity(sums, groupCount);
+    ensureCapacity(counts, groupCount);
+    final long sumAddress = sums.getDataBuffer().memoryAddress();
+    final long countAddress = counts.getDataBuffer().memoryAddress();
+    final long idAddress = groupIdAddress(groupIds);
+    final boolean noNulls = input.getNullCount() == 0;
+    final FloatingPointVector floatingPointValues = input instanceof FloatingPointVector ?
+        (FloatingPointVector) input : null;
+    for (int row = 0; row < rowCount; row++) {
+      if (noNulls || !input.isNull(row)) {
+        final long offset = (long) groupId(idAddress, row) * Float8Vector.TYPE_WIDTH;
+        final double value = floatingPointValues != null ?
+            floatingPointValues.getValueAsDouble(row) : ((BaseIntVector) input).getValueAsLong(row);
+        final double sum = Double.longBitsToDouble(PlatformDependent.getLong(sumAddress + offset)) + value;
+        PlatformDependent.putLong(sumAddress + offset, Double.doubleToRawLongBits(sum));
+        PlatformDependent.putLong(countAddress + offset, PlatformDependent.getLong(countAddress + offset) + 1);
+      }
+    }
+  }
+
+  @Override
+  void emit(FieldVector output, int groupCount) {
+    ensureCapacity(sums, groupCount);
+    ensureCapacity(counts, groupCount);
+    final Float8Vector averages = (Float8Vector) output;
+    averages.allocateNew(groupCount);
+    final long sumAddress = sums.getDataBuffer().memoryAddress();
+    final long countAddress = counts.getDataBuffer().memoryAddress();
+    for (int group = 0; group < groupCount; group++) {
+      final long offset = (long) group * Float8Vector.TYPE_WIDTH;
+      final long count = PlatformDependent.getLong(countAddress + offset);
+      if (count == 0) {
+        averages.setNull(group);
+      } else {
+        averages.set(group, Double.longBitsToDouble(PlatformDependent.getLong(sumAddress + offset)) / count);
+      }
+    }
+    averages.setValueCount(groupCount);
+    sums.allocateNew();
+    counts.allocateNew();
+  }
+
+  @Override
+  public void close() {
+    sums.close();
+    counts.close();
+  }
+}
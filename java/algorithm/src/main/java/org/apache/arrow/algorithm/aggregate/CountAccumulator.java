@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.aggregate;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Counts the rows, or the non-null values, of each group.
+ */
+class CountAccumulator extends Accumulator {
+
+  private final Field field;
+
+  private final BigIntVector counts;
+
+  CountAccumulator(String name, BufferAllocator allocator) {
+    this.field = new Field(name, new FieldType(false, new ArrowType.Int(64, true), null), null);
+    this.counts = new BigIntVector(field, allocator);
+    counts.allocateNew();
+  }
+
+  @Override
+  Field getField() {
+    return field;
+  }
+
+  @Override
+  void update(ValueVector input, IntVector groupIds, int rowCount, int groupCount) {
+    ensureCapacity(counts, groupCount);
+    final long countAddress = counts.getDataBuffer().memoryAddress();
+    final long idAddress = groupIdAddress(groupIds);
+    if (input == null || input.getNullCount() == 0) {
+      for (int row = 0; row < rowCount; row++) {
+        final long address = countAddress + (long) groupId(idAddress, row) * BigIntVector.TYPE_WIDTH;
+        PlatformDependent.putLong(address, PlatformDependent.getLong(address) + 1);
+      }
+    } else {
+      for (int row = 0; row < rowCount; row++) {
+        if (!input.isNull(row)) {
+          final long address = countAddress + (long) groupId(idAddress, row) * BigIntVector.TYPE_WIDTH;
+          PlatformDependent.putLong(address, PlatformDependent.getLong(address) + 1);
+        }
+      }
+    }
+  }
+
+  @Override
+  void emit(FieldVector output, int groupCount) {
+    ensureCapacity(counts, groupCount);
+    BitVectorHelper.setAllBitsToOne(counts.getValidityBuffer(), groupCount);
+    transfer(counts, output, groupCount);
+  }
+
+  @Override
+  public void close() {
+    counts.close();
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.aggregate;
+
+import java.util.Arrays;
+
+import org.apache.arrow.algorithm.hash.GroupTable;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Counts the distinct non-null values of each group, with a {@link GroupTable} of the distinct
+ * (group id, value) pairs: a group is counted once more each time a pair is added for it.
+ */
+class CountDistinctAccumulator extends Accumulator {
+
+  private final Field field;
+
+  private final GroupTable pairs;
+
+  private final IntVector pairIds;
+
+  private final BigIntVector counts;
+
+  CountDistinctAccumulator(String name, Field inputField, BufferAllocator allocator) {
+    this.field = new Field(name, new FieldType(false, new ArrowType.Int(64, true), null), null);
+    final Field groupField = new Field("group", new FieldType(false, new ArrowType.Int(32, true), null), null);
+    this.pairs = new GroupTable(Arrays.asList(groupField, inputField), allocator);
+    this.pairIds = new IntVector("pair", allocator);
+    this.counts = new BigIntVector(field, allocator);
+    counts.allocateNew();
+  }
+
+  @Override
+  Field getField() {
+    return field;
+  }
+
+  @Override
+  void update(ValueVector input, IntVector groupIds, int rowCount, int groupCount) {
+    ensureCapacity(counts, groupCount);
+    int nextPairId = pairs.getGroupCount();
+    pairs.insert(Arrays.asList(groupIds, input), rowCount, pairIds);
+    final long countAddress = counts.getDataBuffer().memoryAddress();
+    final long idAddress = groupIdAddress(groupIds);
+    final long pairIdAddress = groupIdAddress(pairIds);
+    for (int row = 0; row < rowCount; row++) {
+      // the new pairs get consecutive ids, in the order of their first row
+      if (groupId(pairIdAddress, row) == nextPairId) {
+        nextPairId++;
+        if (!input.isNull(row)) {
+          final long address = countAddress + (long) groupId(idAddress, row) * BigIntVector.TYPE_WIDTH;
+          PlatformDependent.putLong(address, PlatformDependent.getLong(address) + 1);
+        }
+      }
+    }
+  }
+
+  @Override
+  void emit(FieldVector output, int groupCount) {
+    ensureCapacity(counts, groupCount);
+    BitVectorHelper.setAllBitsToOne(counts.getValidityBuffer(), groupCount);
+    transfer(counts, output, groupCount);
+    pairs.clear();
+  }
+
+  @Override
+  public void close() {
+    pairs.close();
+    pairIds.close();
+    counts.close();
+  }
+}
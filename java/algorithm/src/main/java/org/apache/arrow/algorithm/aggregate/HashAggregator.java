@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.aggregate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.algorithm.hash.GroupTable;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * Groups the rows of a stream of vector schema roots by one or more key columns, and computes
+ * aggregate functions for each group, like <code>SELECT keys, functions ... GROUP BY keys</code>.
+ *
+ * <p>The batches are processed as they are added: the rows of a batch are first mapped to group ids
+ * by a {@link GroupTable}, then each function updates its state column by column. The state of the
+ * functions is kept in vectors indexed by group id, so the memory used is proportional to the number
+ * of groups, and not to the number of rows.
+ *
+ * <p>The result has one row per group, in the order of the first row of the groups, with the key
+ * columns followed by the functions (see {@link #getOutputSchema()}). Without key columns, all the rows
+ * make a single group, which exists even if no rows were added.
+ */
+public class HashAggregator implements AutoCloseable {
+
+  private final List<String> keyColumns;
+
+  private final List<AggregateFunction> functions;
+
+  private final Schema outputSchema;
+
+  /**
+   * The table of the groups, or null if there are no key columns.
+   */
+  private final GroupTable groups;
+
+  private final List<Accumulator> accumulators = new ArrayList<>();
+
+  private final IntVector groupIds;
+
+  /**
+   * Constructs an aggregator.
+   * @param inputSchema the schema of the batches to add.
+   * @param keyColumns the names of the key columns, which may be empty.
+   * @param functions the functions to compute.
+   * @param allocator the allocator for the groups and the state of the functions.
+   */
+  public HashAggregator(Schema inputSchema, List<String> keyColumns, List<AggregateFunction> functions,
+      BufferAllocator allocator) {
+    this.keyColumns = new ArrayList<>(keyColumns);
+    this.functions = new ArrayList<>(functions);
+    final List<Field> keyFields = new ArrayList<>();
+    for (String column : keyColumns) {
+      keyFields.add(inputSchema.findField(column));
+    }
+    this.groupIds = new IntVector("group", allocator);
+    try {
+      for (AggregateFunction function : functions) {
+        final Field inputField = function.getColumn() == null ? null : inputSchema.findField(function.getColumn());
+        accumulators.add(Accumulator.create(function, inputField, allocator));
+      }
+      this.groups = keyFields.isEmpty() ? null : new GroupTable(keyFields, allocator);
+    } catch (RuntimeException e) {
+      AutoCloseables.close(e, accumulators);
+      groupIds.close();
+      throw e;
+    }
+    final List<Field> outputFields = new ArrayList<>(keyFields);
+    for (Accumulator accumulator : accumulators) {
+      outputFields.add(accumulator.getField());
+    }
+    this.outputSchema = new Schema(outputFields);
+  }
+
+  /**
+   * Gets the schema of the result: the key columns, followed by a column per function.
+   * @return the schema of the result.
+   */
+  public Schema getOutputSchema() {
+    return outputSchema;
+  }
+
+  /**
+   * Gets the number of groups so far.
+   * @return the number of groups.
+   */
+  public int getGroupCount() {
+    return groups == null ? 1 : groups.getGroupCount();
+  }
+
+  /**
+   * Adds the rows of a batch to their groups.
+   * @param batch the batch, which may be reused by the caller afterwards.
+   */
+  public void add(VectorSchemaRoot batch) {
+    final int rowCount = batch.getRowCount();
+    if (rowCount == 0) {
+      return;
+    }
+    if (groups == null) {
+      // all the rows are in the first group
+      if (groupIds.getValueCapacity() < rowCount) {
+        groupIds.allocateNew(rowCount);
+      }
+      groupIds.setValueCount(rowCount);
+    } else {
+      final List<FieldVector> keys = new ArrayList<>(keyColumns.size());
+      for (String column : keyColumns) {
+        keys.add(getColumn(batch, column));
+      }
+      groups.insert(keys, rowCount, groupIds);
+    }
+    final int groupCount = getGroupCount();
+    for (int i = 0; i < accumulators.size(); i++) {
+      final String column = functions.get(i).getColumn();
+      accumulators.get(i).update(column == null ? null : getColumn(batch, column), groupIds, rowCount, groupCount);
+    }
+  }
+
+  private static FieldVector getColumn(VectorSchemaRoot batch, String column) {
+    final FieldVector vector = batch.getVector(column);
+    Preconditions.checkArgument(vector != null, "Column %s not found", column);
+    return vector;
+  }
+
+  /**
+   * Moves the result to a vector schema root, and removes all the groups, so that the aggregator can
+   * be used again.
+   * @param output the vector schema root to populate, with the schema of {@link #getOutputSchema()}.
+   */
+  public void emit(VectorSchemaRoot output) {
+    final List<FieldVector> outputVectors = output.getFieldVectors();
+    Preconditions.checkArgument(outputVectors.size() == outputSchema.getFields().size(),
+        "The output must have %s columns", outputSchema.getFields().size());
+    final int groupCount = getGroupCount();
+    int column = 0;
+    if (groups != null) {
+      for (FieldVector keyVector : groups.getKeyVectors()) {
+        keyVector.makeTransferPair(outputVectors.get(column++)).transfer();
+      }
+      groups.clear();
+    }
+    for (Accumulator accumulator : accumulators) {
+      accumulator.emit(outputVectors.get(column++), groupCount);
+    }
+    output.setRowCount(groupCount);
+  }
+
+  @Override
+  public void close() {
+    for (Accumulator accumulator : accumulators) {
+      accumulator.close();
+    }
+    groupIds.close();
+    if (groups != null) {
+      groups.close();
+    }
+  }
+}
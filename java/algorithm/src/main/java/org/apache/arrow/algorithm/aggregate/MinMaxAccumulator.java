@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.aggregate;
+
+import org.apache.arrow.algorithm.sort.RadixVectorSorter;
+import org.apache.arrow.algorithm.sort.VectorValueComparator;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Keeps the least or the greatest non-null value of each group, in a vector of the type of the
+ * input column. The values are compared in the order of {@link RadixVectorSorter}, so the integer,
+ * floating point and temporal types are supported.
+ */
+class MinMaxAccumulator extends Accumulator {
+
+  private final Field field;
+
+  private final boolean max;
+
+  private final BaseFixedWidthVector values;
+
+  private final VectorValueComparator<BaseFixedWidthVector> comparator;
+
+  MinMaxAccumulator(String name, Field inputField, boolean max, BufferAllocator allocator) {
+    this.field = new Field(name, inputField.getFieldType(), null);
+    this.max = max;
+    final FieldVector vector = field.createVector(allocator);
+    this.comparator = RadixVectorSorter.createComparator(vector);
+    if (comparator == null) {
+      vector.close();
+      throw new IllegalArgumentException((max ? "max" : "min") + " is not supported for column type " +
+          inputField.getType());
+    }
+    this.values = (BaseFixedWidthVector) vector;
+    values.allocateNew();
+  }
+
+  @Override
+  Field getField() {
+    return field;
+  }
+
+  @Override
+  void update(ValueVector input, IntVector groupIds, int rowCount, int groupCount) {
+    ensureCapacity(values, groupCount);
+    comparator.attachVectors((BaseFixedWidthVector) input, values);
+    final ArrowBuf validity = values.getValidityBuffer();
+    final long idAddress = groupIdAddress(groupIds);
+    final boolean noNulls = input.getNullCount() == 0;
+    for (int row = 0; row < rowCount; row++) {
+      if (noNulls || !input.isNull(row)) {
+        final int group = groupId(idAddress, row);
+        if (BitVectorHelper.get(validity, group) == 0) {
+          values.copyFrom(row, group, input);
+        } else {
+          final int result = comparator.compareNotNull(row, group);
+          if (max ? result > 0 : result < 0) {
+            values.copyFrom(row, group, input);
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  void emit(FieldVector output, int groupCount) {
+    ensureCapacity(values, groupCount);
+    transfer(values, output, groupCount);
+  }
+
+  @Override
+  public void close() {
+    values.close();
+  }
+}
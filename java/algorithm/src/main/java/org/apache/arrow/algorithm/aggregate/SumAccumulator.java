@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.aggregate;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.FloatingPointVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Sums the non-null values of each group, as longs for integer columns and as doubles for floating
+ * point columns.
+ */
+class SumAccumulator extends Accumulator {
+
+  private final Field field;
+
+  private final boolean floatingPoint;
+
+  private final BaseFixedWidthVector sums;
+
+  SumAccumulator(String name, boolean floatingPoint, BufferAllocator allocator) {
+    this.floatingPoint = floatingPoint;
+    if (floatingPoint) {
+      this.field = Field.nullable(name, new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE));
+      this.sums = new Float8Vector(field, allocator);
+    } else {
+      this.field = Field.nullable(name, new ArrowType.Int(64, true));
+      this.sums = new BigIntVector(field, allocator);
+    }
+    sums.allocateNew();
+  }
+
+  @Override
+  Field getField() {
+    return field;
+  }
+
+  @Override
+  void update(ValueVector input, IntVector groupIds, int rowCount, int groupCount) {
+    ensureCapacity(sums, groupCount);
+    final long sumAddress = sums.getDataBuffer().memoryAddress();
+    final ArrowBuf validity = sums.getValidityBuffer();
+    final long idAddress = groupIdAddress(groupIds);
+    final boolean noNulls = input.getNullCount() == 0;
+    if (floatingPoint) {
+      final FloatingPointVector values = (FloatingPointVector) input;
+      for (int row = 0; row < rowCount; row++) {
+        if (noNulls || !input.isNull(row)) {
+          final int group = groupId(idAddress, row);
+          final long address = sumAddress + (long) group * Float8Vector.TYPE_WIDTH;
+          final double sum = Double.longBitsToDouble(PlatformDependent.getLong(address)) + values.getValueAsDouble(row);
+          PlatformDependent.putLong(address, Double.doubleToRawLongBits(sum));
+          BitVectorHelper.setValidityBitToOne(validity, group);
+        }
+      }
+    } else {
+      final BaseIntVector values = (BaseIntVector) input;
+      for (int row = 0; row < rowCount; row++) {
+        if (noNulls || !input.isNull(row)) {
+          final int group = groupId(idAddress, row);
+          final long address = sumAddress + (long) group * BigIntVector.TYPE_WIDTH;
+          PlatformDependent.putLong(address, PlatformDependent.getLong(address) + values.getValueAsLong(row));
+          BitVectorHelper.setValidityBitToOne(validity, group);
+        }
+      }
+    }
+  }
+
+  @Override
+  void emit(FieldVector output, int groupCount) {
+    ensureCapacity(sums, groupCount);
+    transfer(sums, output, groupCount);
+  }
+
+  @Override
+  public void close() {
+    sums.close();
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.compute;
+
+import static org.apache.arrow.algorithm.compute.KernelUtils.getDouble;
+import static org.apache.arrow.algorithm.compute.KernelUtils.getFloat;
+import static org.apache.arrow.algorithm.compute.KernelUtils.putDouble;
+import static org.apache.arrow.algorithm.compute.KernelUtils.putFloat;
+
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BitVectorHelper;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Element-wise arithmetic over vectors of 32-bit or 64-bit integers or floating-point numbers.
+ * The output is null where either input is null.
+ *
+ * <p>Each operation is a simple loop over the addresses of the data buffers, which the JIT can unroll
+ * and vectorize. The loops compute all the values, including those under nulls, except for integer
+ * divisions. Integer operations wrap around on overflow as in Java, and an integer division by zero
+ * throws an {@link ArithmeticException}.
+ */
+public class ArithmeticKernels {
+
+  /**
+   * The arithmetic operators.
+   */
+  public enum Operator {
+    ADD,
+    SUBTRACT,
+    MULTIPLY,
+    DIVIDE
+  }
+
+  /**
+   * Apply an arithmetic operator to the values of two vectors.
+   * @param operator the operator.
+   * @param left the left operands.
+   * @param right the right operands, of the same type and value count as the left ones.
+   * @param output the output vector, of the same type as the inputs and distinct from them. Its
+   *     buffers are reallocated, and its value count is set to that of the inputs.
+   * @param <V> the vector type: IntVector, BigIntVector, Float4Vector or Float8Vector.
+   */
+  public static <V extends BaseFixedWidthVector> void evaluate(Operator operator, V left, V right, V output) {
+    KernelUtils.checkBinaryInputs(left, right);
+    KernelUtils.checkNotAliased(output, left, right);
+    Preconditions.checkArgument(output.getMinorType() == left.getMinorType(),
+        "The output vector must have the same type as the inputs");
+    if (!KernelUtils.isNumeric(left.getMinorType())) {
+      throw new IllegalArgumentException("Unsupported vector type: " + left.getMinorType());
+    }
+    final int count = left.getValueCount();
+    output.allocateNew(count);
+    final boolean allValid = KernelUtils.intersectValidity(left, right, output.getValidityBuffer(), count);
+    final long leftData = left.getDataBuffer().memoryAddress();
+    final long rightData = right.getDataBuffer().memoryAddress();
+    final long outputData = output.getDataBuffer().memoryAddress();
+    switch (left.getMinorType()) {
+      case INT:
+        if (operator == Operator.DIVIDE) {
+          divideInts(leftData, rightData, outputData, allValid ? null : output.getValidityBuffer(), count);
+        } else {
+          evaluateInts(operator, leftData, rightData, outputData, count);
+        }
+        break;
+      case BIGINT:
+        if (operator == Operator.DIVIDE) {
+          divideLongs(leftData, rightData, outputData, allValid ? null : output.getValidityBuffer(), count);
+        } else {
+          evaluateLongs(operator, leftData, rightData, outputData, count);
+        }
+        break;
+      case FLOAT4:
+        evaluateFloats(operator, leftData, rightData, outputData, count);
+        break;
+      case FLOAT8:
+        evaluateDoubles(operator, leftData, rightData, outputData, count);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported vector type: " + left.getMinorType());
+    }
+    output.setValueCount(count);
+  }
+
+  private static void evaluateInts(Operator operator, long left, long right, long output, int count) {
+    switch (operator) {
+      case ADD:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putInt(output + i * 4L,
+              PlatformDependent.getInt(left + i * 4L) + PlatformDependent.getInt(right + i * 4L));
+        }
+        break;
+      case SUBTRACT:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putInt(output + i * 4L,
+              PlatformDependent.getInt(left + i * 4L) - PlatformDependent.getInt(right + i * 4L));
+        }
+        break;
+      case MULTIPLY:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putInt(output + i * 4L,
+              PlatformDependent.getInt(left + i * 4L) * PlatformDependent.getInt(right + i * 4L));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported operator: " + operator);
+    }
+  }
+
+  private static void evaluateLongs(Operator operator, long left, long right, long output, int count) {
+    switch (operator) {
+      case ADD:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putLong(output + i * 8L,
+              PlatformDependent.getLong(left + i * 8L) + PlatformDependent.getLong(right + i * 8L));
+        }
+        break;
+      case SUBTRACT:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putLong(output + i * 8L,
+              PlatformDependent.getLong(left + i * 8L) - PlatformDependent.getLong(right + i * 8L));
+        }
+        break;
+      case MULTIPLY:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putLong(output + i * 8L,
+              PlatformDependent.getLong(left + i * 8L) * PlatformDependent.getLong(right + i * 8L));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported operator: " + operator);
+    }
+  }
+
+  private static void evaluateFloats(Operator operator, long left, long right, long output, int count) {
+    switch (operator) {
+      case ADD:
+        for (int i = 0; i < count; i++) {
+          putFloat(output + i * 4L, getFloat(left + i * 4L) + getFloat(right + i * 4L));
+        }
+        break;
+      case SUBTRACT:
+        for (int i = 0; i < count; i++) {
+          putFloat(output + i * 4L, getFloat(left + i * 4L) - getFloat(right + i * 4L));
+        }
+        break;
+      case MULTIPLY:
+        for (int i = 0; i < count; i++) {
+          putFloat(output + i * 4L, getFloat(left + i * 4L) * getFloat(right + i * 4L));
+        }
+        break;
+      case DIVIDE:
+        for (int i = 0; i < count; i++) {
+          putFloat(output + i * 4L, getFloat(left + i * 4L) / getFloat(right + i * 4L));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported operator: " + operator);
+    }
+  }
+
+  private static void evaluateDoubles(Operator operator, long left, long right, long output, int count) {
+    switch (operator) {
+      case ADD:
+        for (int i = 0; i < count; i++) {
+          putDouble(output + i * 8L, getDouble(left + i * 8L) + getDouble(right + i * 8L));
+        }
+        break;
+      case SUBTRACT:
+        for (int i = 0; i < count; i++) {
+          putDouble(output + i * 8L, getDouble(left + i * 8L) - getDouble(right + i * 8L));
+        }
+        break;
+      case MULTIPLY:
+        for (int i = 0; i < count; i++) {
+          putDouble(output + i * 8L, getDouble(left + i * 8L) * getDouble(right + i * 8L));
+        }
+        break;
+      case DIVIDE:
+        for (int i = 0; i < count; i++) {
+          putDouble(output + i * 8L, getDouble(left + i * 8L) / getDouble(right + i * 8L));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported operator: " + operator);
+    }
+  }
+
+  /**
+   * Divide integers, skipping the nulls given by the validity buffer, which is null if there are none.
+   */
+  private static void divideInts(long left, long right, long output, ArrowBuf validity, int count) {
+    for (int i = 0; i < count; i++) {
+      if (validity == null || BitVectorHelper.get(validity, i) != 0) {
+        final int divisor = PlatformDependent.getInt(right + i * 4L);
+        if (divisor == 0) {
+          throw new ArithmeticException("Division by zero at index " + i);
+        }
+        PlatformDependent.putInt(output + i * 4L, PlatformDependent.getInt(left + i * 4L) / divisor);
+      }
+    }
+  }
+
+  /**
+   * Divide integers, skipping the nulls given by the validity buffer, which is null if there are none.
+   */
+  private static void divideLongs(long left, long right, long output, ArrowBuf validity, int count) {
+    for (int i = 0; i < count; i++) {
+      if (validity == null || BitVectorHelper.get(validity, i) != 0) {
+        final long divisor = PlatformDependent.getLong(right + i * 8L);
+        if (divisor == 0) {
+          throw new ArithmeticException("Division by zero at index " + i);
+        }
+        PlatformDependent.putLong(output + i * 8L, PlatformDependent.getLong(left + i * 8L) / divisor);
+      }
+    }
+  }
+}
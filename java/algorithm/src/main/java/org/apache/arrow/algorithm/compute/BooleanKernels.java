@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.compute;
+
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Boolean logic over {@link BitVector}s, computed 64 values at a time on the data and validity
+ * buffers. Nulls follow the three-valued logic of SQL: false AND null is false, true OR null is
+ * true, and the other combinations with a null are null.
+ */
+public class BooleanKernels {
+
+  /**
+   * Compute the conjunction of two vectors.
+   * @param left the left operands.
+   * @param right the right operands, with the same value count as the left ones.
+   * @param output the output vector, distinct from the inputs. Its buffers are reallocated, and its
+   *     value count is set to that of the inputs.
+   */
+  public static void and(BitVector left, BitVector right, BitVector output) {
+    evaluate(left, right, output, true);
+  }
+
+  /**
+   * Compute the disjunction of two vectors.
+   * @param left the left operands.
+   * @param right the right operands, with the same value count as the left ones.
+   * @param output the output vector, distinct from the inputs. Its buffers are reallocated, and its
+   *     value count is set to that of the inputs.
+   */
+  public static void or(BitVector left, BitVector right, BitVector output) {
+    evaluate(left, right, output, false);
+  }
+
+  /**
+   * Compute the negation of a vector. The output is null where the input is null.
+   * @param input the operands.
+   * @param output the output vector, distinct from the input. Its buffers are reallocated, and its
+   *     value count is set to that of the input.
+   */
+  public static void not(BitVector input, BitVector output) {
+    KernelUtils.checkNotAliased(output, input);
+    final int count = input.getValueCount();
+    output.allocateNew(count);
+    KernelUtils.copyValidity(input, output.getValidityBuffer(), count);
+    final long inputData = input.getDataBuffer().memoryAddress();
+    final long outputData = output.getDataBuffer().memoryAddress();
+    final int byteCount = BitVectorHelper.getValidityBufferSize(count);
+    for (int i = 0; i < byteCount; i += 8) {
+      final int length = Math.min(8, byteCount - i);
+      store(outputData + i, ~load(inputData + i, length), length);
+    }
+    output.setValueCount(count);
+  }
+
+  private static void evaluate(BitVector left, BitVector right, BitVector output, boolean conjunction) {
+    KernelUtils.checkBinaryInputs(left, right);
+    KernelUtils.checkNotAliased(output, left, right);
+    final int count = left.getValueCount();
+    output.allocateNew(count);
+    final boolean leftAllValid = left.getNullCount() == 0;
+    final boolean rightAllValid = right.getNullCount() == 0;
+    final long leftData = left.getDataBuffer().memoryAddress();
+    final long rightData = right.getDataBuffer().memoryAddress();
+    final long leftValidity = left.getValidityBuffer().memoryAddress();
+    final long rightValidity = right.getValidityBuffer().memoryAddress();
+    final long outputData = output.getDataBuffer().memoryAddress();
+    final long outputValidity = output.getValidityBuffer().memoryAddress();
+    final int byteCount = BitVectorHelper.getValidityBufferSize(count);
+
+    if (leftAllValid && rightAllValid) {
+      BitVectorHelper.setAllBitsToOne(output.getValidityBuffer(), count);
+      for (int i = 0; i < byteCount; i += 8) {
+        final int length = Math.min(8, byteCount - i);
+        final long leftBits = load(leftData + i, length);
+        final long rightBits = load(rightData + i, length);
+        store(outputData + i, conjunction ? leftBits & rightBits : leftBits | rightBits, length);
+      }
+    } else {
+      for (int i = 0; i < byteCount; i += 8) {
+        final int length = Math.min(8, byteCount - i);
+        final long leftValid = leftAllValid ? -1L : load(leftValidity + i, length);
+        final long rightValid = rightAllValid ? -1L : load(rightValidity + i, length);
+        final long leftBits = load(leftData + i, length);
+        final long rightBits = load(rightData + i, length);
+        final long leftTrue = leftBits & leftValid;
+        final long leftFalse = ~leftBits & leftValid;
+        final long rightTrue = rightBits & rightValid;
+        final long rightFalse = ~rightBits & rightValid;
+        final long resultTrue;
+        final long resultFalse;
+        if (conjunction) {
+          resultTrue = leftTrue & rightTrue;
+          resultFalse = leftFalse | rightFalse;
+        } else {
+          resultTrue = leftTrue | rightTrue;
+          resultFalse = leftFalse & rightFalse;
+        }
+        store(outputData + i, resultTrue, length);
+        store(outputValidity + i, resultTrue | resultFalse, length);
+      }
+    }
+    output.setValueCount(count);
+  }
+
+  /**
+   * Load a word of bits, or fewer bytes at the end of a buffer.
+   */
+  private static long load(long address, int length) {
+    if (length == 8) {
+      return PlatformDependent.getLong(address);
+    }
+    long bits = 0;
+    for (int i = 0; i < length; i++) {
+      bits |= (PlatformDependent.getByte(address + i) & 0xffL) << (i * 8);
+    }
+    return bits;
+  }
+
+  /**
+   * Store a word of bits, or fewer bytes at the end of a buffer.
+   */
+  private static void store(long address, long bits, int length) {
+    if (length == 8) {
+      PlatformDependent.putLong(address, bits);
+    } else {
+      for (int i = 0; i < length; i++) {
+        PlatformDependent.putByte(address + i, (byte) (bits >>> (i * 8)));
+      }
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.compute;
+
+import static org.apache.arrow.algorithm.compute.KernelUtils.getDouble;
+import static org.apache.arrow.algorithm.compute.KernelUtils.getFloat;
+import static org.apache.arrow.algorithm.compute.KernelUtils.putDouble;
+import static org.apache.arrow.algorithm.compute.KernelUtils.putFloat;
+
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.types.Types.MinorType;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Casts between vectors of 32-bit or 64-bit integers or floating-point numbers. The output is null
+ * where the input is null.
+ *
+ * <p>Floating-point numbers are converted to integers as by the Java casts, rounding toward zero and
+ * saturating, with NaN giving 0. A 64-bit integer which does not fit in 32 bits throws an
+ * {@link ArithmeticException}, while other conversions may only lose precision.
+ */
+public class CastKernels {
+
+  /**
+   * Cast the values of a vector to the type of the output vector.
+   * @param input the vector to cast: IntVector, BigIntVector, Float4Vector or Float8Vector.
+   * @param output the output vector, of one of the same types and distinct from the input. Its buffers
+   *     are reallocated, and its value count is set to that of the input.
+   */
+  public static void cast(BaseFixedWidthVector input, BaseFixedWidthVector output) {
+    final MinorType from = input.getMinorType();
+    final MinorType to = output.getMinorType();
+    if (!KernelUtils.isNumeric(from) || !KernelUtils.isNumeric(to)) {
+      throw new IllegalArgumentException("Unsupported cast from " + from + " to " + to);
+    }
+    KernelUtils.checkNotAliased(output, input);
+    final int count = input.getValueCount();
+    output.allocateNew(count);
+    final boolean allValid = KernelUtils.copyValidity(input, output.getValidityBuffer(), count);
+    final long inputData = input.getDataBuffer().memoryAddress();
+    final long outputData = output.getDataBuffer().memoryAddress();
+    if (from == to) {
+      PlatformDependent.copyMemory(inputData, outputData, (long) count * input.getTypeWidth());
+    } else {
+      switch (from) {
+        case INT:
+          castInts(to, inputData, outputData, count);
+          break;
+        case BIGINT:
+          castLongs(to, inputData, outputData, allValid ? null : output.getValidityBuffer(), count);
+          break;
+        case FLOAT4:
+          castFloats(to, inputData, outputData, count);
+          break;
+        default:
+          castDoubles(to, inputData, outputData, count);
+      }
+    }
+    output.setValueCount(count);
+  }
+
+  private static void castInts(MinorType to, long input, long output, int count) {
+    switch (to) {
+      case BIGINT:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putLong(output + i * 8L, PlatformDependent.getInt(input + i * 4L));
+        }
+        break;
+      case FLOAT4:
+        for (int i = 0; i < count; i++) {
+          putFloat(output + i * 4L, PlatformDependent.getInt(input + i * 4L));
+        }
+        break;
+      case FLOAT8:
+        for (int i = 0; i < count; i++) {
+          putDouble(output + i * 8L, PlatformDependent.getInt(input + i * 4L));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported cast to " + to);
+    }
+  }
+
+  /**
+   * Cast 64-bit integers, checking the overflows of the values which are not null according to the
+   * validity buffer, which is null if there are no nulls.
+   */
+  private static void castLongs(MinorType to, long input, long output, ArrowBuf validity, int count) {
+    switch (to) {
+      case INT:
+        for (int i = 0; i < count; i++) {
+          final long value = PlatformDependent.getLong(input + i * 8L);
+          if ((int) value != value && (validity == null || BitVectorHelper.get(validity, i) != 0)) {
+            throw new ArithmeticException("Integer overflow at index " + i + ": " + value);
+          }
+          PlatformDependent.putInt(output + i * 4L, (int) value);
+        }
+        break;
+      case FLOAT4:
+        for (int i = 0; i < count; i++) {
+          putFloat(output + i * 4L, PlatformDependent.getLong(input + i * 8L));
+        }
+        break;
+      case FLOAT8:
+        for (int i = 0; i < count; i++) {
+          putDouble(output + i * 8L, PlatformDependent.getLong(input + i * 8L));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported cast to " + to);
+    }
+  }
+
+  private static void castFloats(MinorType to, long input, long output, int count) {
+    switch (to) {
+      case INT:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putInt(output + i * 4L, (int) getFloat(input + i * 4L));
+        }
+        break;
+      case BIGINT:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putLong(output + i * 8L, (long) getFloat(input + i * 4L));
+        }
+        break;
+      case FLOAT8:
+        for (int i = 0; i < count; i++) {
+          putDouble(output + i * 8L, getFloat(input + i * 4L));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported cast to " + to);
+    }
+  }
+
+  private static void castDoubles(MinorType to, long input, long output, int count) {
+    switch (to) {
+      case INT:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putInt(output + i * 4L, (int) getDouble(input + i * 8L));
+        }
+        break;
+      case BIGINT:
+        for (int i = 0; i < count; i++) {
+          PlatformDependent.putLong(output + i * 8L, (long) getDouble(input + i * 8L));
+        }
+        break;
+      case FLOAT4:
+        for (int i = 0; i < count; i++) {
+          putFloat(output + i * 4L, (float) getDouble(input + i * 8L));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported cast to " + to);
+    }
+  }
+}
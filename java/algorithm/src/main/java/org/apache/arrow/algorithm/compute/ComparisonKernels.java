@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.compute;
+
+import static org.apache.arrow.algorithm.compute.KernelUtils.getDouble;
+import static org.apache.arrow.algorithm.compute.KernelUtils.getFloat;
+
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BitVector;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Element-wise comparisons of vectors of 32-bit or 64-bit integers or floating-point numbers,
+ * producing a {@link BitVector}. The output is null where either input is null.
+ *
+ * <p>The results are packed into words of 64 bits, each computed by a branch-free loop over the
+ * addresses of the data buffers. Floating-point numbers are compared as by the Java operators, so
+ * that NaN is not equal to any value, including itself.
+ */
+public class ComparisonKernels {
+
+  /**
+   * The comparison operators.
+   */
+  public enum Operator {
+    EQUAL,
+    NOT_EQUAL,
+    LESS_THAN,
+    LESS_THAN_OR_EQUAL,
+    GREATER_THAN,
+    GREATER_THAN_OR_EQUAL
+  }
+
+  /**
+   * Compare the values of two vectors.
+   * @param operator the operator.
+   * @param left the left operands.
+   * @param right the right operands, of the same type and value count as the left ones.
+   * @param output the output vector, distinct from the inputs. Its buffers are reallocated, and its
+   *     value count is set to that of the inputs.
+   * @param <V> the vector type: IntVector, BigIntVector, Float4Vector or Float8Vector.
+   */
+  public static <V extends BaseFixedWidthVector> void evaluate(Operator operator, V left, V right, BitVector output) {
+    KernelUtils.checkBinaryInputs(left, right);
+    KernelUtils.checkNotAliased(output, left, right);
+    if (!KernelUtils.isNumeric(left.getMinorType())) {
+      throw new IllegalArgumentException("Unsupported vector type: " + left.getMinorType());
+    }
+    final int count = left.getValueCount();
+    output.allocateNew(count);
+    KernelUtils.intersectValidity(left, right, output.getValidityBuffer(), count);
+
+    // reduce the operators to =, < and <=, swapping the operands or negating the result
+    Operator baseOperator = operator;
+    V leftOperand = left;
+    V rightOperand = right;
+    boolean negate = false;
+    switch (operator) {
+      case NOT_EQUAL:
+        baseOperator = Operator.EQUAL;
+        negate = true;
+        break;
+      case GREATER_THAN:
+        baseOperator = Operator.LESS_THAN;
+        leftOperand = right;
+        rightOperand = left;
+        break;
+      case GREATER_THAN_OR_EQUAL:
+        baseOperator = Operator.LESS_THAN_OR_EQUAL;
+        leftOperand = right;
+        rightOperand = left;
+        break;
+      default:
+        break;
+    }
+    final long leftData = leftOperand.getDataBuffer().memoryAddress();
+    final long rightData = rightOperand.getDataBuffer().memoryAddress();
+    final long outputData = output.getDataBuffer().memoryAddress();
+    switch (left.getMinorType()) {
+      case INT:
+        compareInts(baseOperator, leftData, rightData, outputData, count, negate);
+        break;
+      case BIGINT:
+        compareLongs(baseOperator, leftData, rightData, outputData, count, negate);
+        break;
+      case FLOAT4:
+        compareFloats(baseOperator, leftData, rightData, outputData, count, negate);
+        break;
+      case FLOAT8:
+        compareDoubles(baseOperator, leftData, rightData, outputData, count, negate);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported vector type: " + left.getMinorType());
+    }
+    output.setValueCount(count);
+  }
+
+  private static void compareInts(Operator operator, long left, long right, long output, int count,
+      boolean negate) {
+    final int wordCount = (count + 63) >>> 6;
+    switch (operator) {
+      case EQUAL:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 4L;
+            final boolean result = PlatformDependent.getInt(left + offset) == PlatformDependent.getInt(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      case LESS_THAN:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 4L;
+            final boolean result = PlatformDependent.getInt(left + offset) < PlatformDependent.getInt(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      case LESS_THAN_OR_EQUAL:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 4L;
+            final boolean result = PlatformDependent.getInt(left + offset) <= PlatformDependent.getInt(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported operator: " + operator);
+    }
+  }
+
+  private static void compareLongs(Operator operator, long left, long right, long output, int count,
+      boolean negate) {
+    final int wordCount = (count + 63) >>> 6;
+    switch (operator) {
+      case EQUAL:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 8L;
+            final boolean result =
+                PlatformDependent.getLong(left + offset) == PlatformDependent.getLong(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      case LESS_THAN:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 8L;
+            final boolean result = PlatformDependent.getLong(left + offset) < PlatformDependent.getLong(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      case LESS_THAN_OR_EQUAL:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 8L;
+            final boolean result =
+                PlatformDependent.getLong(left + offset) <= PlatformDependent.getLong(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported operator: " + operator);
+    }
+  }
+
+  private static void compareFloats(Operator operator, long left, long right, long output, int count,
+      boolean negate) {
+    final int wordCount = (count + 63) >>> 6;
+    switch (operator) {
+      case EQUAL:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 4L;
+            final boolean result = getFloat(left + offset) == getFloat(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      case LESS_THAN:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 4L;
+            final boolean result = getFloat(left + offset) < getFloat(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      case LESS_THAN_OR_EQUAL:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 4L;
+            final boolean result = getFloat(left + offset) <= getFloat(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported operator: " + operator);
+    }
+  }
+
+  private static void compareDoubles(Operator operator, long left, long right, long output, int count,
+      boolean negate) {
+    final int wordCount = (count + 63) >>> 6;
+    switch (operator) {
+      case EQUAL:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 8L;
+            final boolean result = getDouble(left + offset) == getDouble(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      case LESS_THAN:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 8L;
+            final boolean result = getDouble(left + offset) < getDouble(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      case LESS_THAN_OR_EQUAL:
+        for (int word = 0; word < wordCount; word++) {
+          final int bitCount = Math.min(64, count - word * 64);
+          long bits = 0;
+          for (int j = 0; j < bitCount; j++) {
+            final long offset = (word * 64L + j) * 8L;
+            final boolean result = getDouble(left + offset) <= getDouble(right + offset);
+            bits |= (result ? 1L : 0L) << j;
+          }
+          storeBits(output, word, bits, bitCount, negate);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported operator: " + operator);
+    }
+  }
+
+  /**
+   * Store the bits of a word, a whole word at a time except for the last one.
+   */
+  private static void storeBits(long output, int word, long bits, int bitCount, boolean negate) {
+    if (negate) {
+      bits = ~bits;
+    }
+    if (bitCount == 64) {
+      PlatformDependent.putLong(output + word * 8L, bits);
+    } else {
+      bits &= (1L << bitCount) - 1;
+      for (int i = 0; i < bitCount; i += 8) {
+        PlatformDependent.putByte(output + word * 8L + (i >>> 3), (byte) (bits >>> i));
+      }
+    }
+  }
+}
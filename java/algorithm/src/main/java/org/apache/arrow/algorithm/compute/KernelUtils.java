@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.compute;
+
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.Types.MinorType;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Utilities shared by the compute kernels, mainly to compute validity buffers a word at a time.
+ */
+final class KernelUtils {
+
+  private KernelUtils() {
+  }
+
+  /**
+   * Check if a type is one of the numeric types supported by the kernels: 32-bit or 64-bit integers
+   * or floating-point numbers.
+   */
+  static boolean isNumeric(MinorType type) {
+    return type == MinorType.INT || type == MinorType.BIGINT || type == MinorType.FLOAT4 || type == MinorType.FLOAT8;
+  }
+
+  /**
+   * Check that the output of a kernel is not one of its inputs, as the buffers of the output are
+   * reallocated before the inputs are read.
+   */
+  static void checkNotAliased(ValueVector output, ValueVector... inputs) {
+    for (ValueVector input : inputs) {
+      Preconditions.checkArgument(output != input, "The output vector must not be one of the inputs");
+    }
+  }
+
+  /**
+   * Check that the inputs of a binary kernel have the same type and value count.
+   */
+  static void checkBinaryInputs(ValueVector left, ValueVector right) {
+    Preconditions.checkArgument(left.getMinorType() == right.getMinorType(),
+        "The input vectors must have the same type");
+    Preconditions.checkArgument(left.getValueCount() == right.getValueCount(),
+        "The input vectors must have the same value count");
+  }
+
+  /**
+   * Copy the validity bits of a vector to a buffer.
+   * @return true if the vector has no nulls.
+   */
+  static boolean copyValidity(ValueVector input, ArrowBuf validity, int count) {
+    if (input.getNullCount() == 0) {
+      BitVectorHelper.setAllBitsToOne(validity, count);
+      return true;
+    }
+    PlatformDependent.copyMemory(input.getValidityBuffer().memoryAddress(), validity.memoryAddress(),
+        BitVectorHelper.getValidityBufferSize(count));
+    return false;
+  }
+
+  /**
+   * Compute the validity bits of a binary kernel output, valid where both inputs are valid.
+   * @return true if both inputs have no nulls, so that the output has no nulls.
+   */
+  static boolean intersectValidity(ValueVector left, ValueVector right, ArrowBuf validity, int count) {
+    final boolean leftAllValid = left.getNullCount() == 0;
+    final boolean rightAllValid = right.getNullCount() == 0;
+    if (leftAllValid) {
+      return copyValidity(right, validity, count);
+    } else if (rightAllValid) {
+      return copyValidity(left, validity, count);
+    }
+    final long leftValidity = left.getValidityBuffer().memoryAddress();
+    final long rightValidity = right.getValidityBuffer().memoryAddress();
+    final long dst = validity.memoryAddress();
+    final int byteCount = BitVectorHelper.getValidityBufferSize(count);
+    final int wordBytes = byteCount & ~7;
+    for (int i = 0; i < wordBytes; i += 8) {
+      PlatformDependent.putLong(dst + i,
+          PlatformDependent.getLong(leftValidity + i) & PlatformDependent.getLong(rightValidity + i));
+    }
+    for (int i = wordBytes; i < byteCount; i++) {
+      PlatformDependent.putByte(dst + i,
+          (byte) (PlatformDependent.getByte(leftValidity + i) & PlatformDependent.getByte(rightValidity + i)));
+    }
+    return false;
+  }
+
+  static float getFloat(long address) {
+    return Float.intBitsToFloat(PlatformDependent.getInt(address));
+  }
+
+  static void putFloat(long address, float value) {
+    PlatformDependent.putInt(address, Float.floatToRawIntBits(value));
+  }
+
+  static double getDouble(long address) {
+    return Double.longBitsToDouble(PlatformDependent.getLong(address));
+  }
+
+  static void putDouble(long address, double value) {
+    PlatformDependent.putLong(address, Double.doubleToRawLongBits(value));
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.deduplicate;
+
+import org.apache.arrow.algorithm.misc.PartialSumUtils;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * A vector kept in run-length encoded form.
+ * It consists of a values vector holding one value per run, and a run ends vector holding
+ * the partial sums of the run lengths, starting from 0. So run i covers the logical positions
+ * [runEnds(i), runEnds(i + 1)), and the logical value count is the last run end.
+ * For highly repetitive data (e.g. sorted or partition columns), this takes much less memory
+ * than the fully materialized vector.
+ * @param <V> the type of the values vector.
+ */
+public class RunEndEncodedVector<V extends ValueVector> implements AutoCloseable {
+
+  /**
+   * The distinct value of each run.
+   */
+  private final V values;
+
+  /**
+   * The partial sums of the run lengths, with one more element than the values vector.
+   */
+  private final IntVector runEnds;
+
+  /**
+   * Constructs a run-end encoded vector from its children.
+   * @param values the vector with one value per run. Ownership is taken.
+   * @param runEnds the partial sums of run lengths, starting from 0. Ownership is taken.
+   */
+  public RunEndEncodedVector(V values, IntVector runEnds) {
+    Preconditions.checkArgument(runEnds.getValueCount() == values.getValueCount() + 1,
+        "The run ends vector must have exactly one more element than the values vector");
+    Preconditions.checkArgument(runEnds.get(0) == 0, "The first run end must be 0");
+    this.values = values;
+    this.runEnds = runEnds;
+  }
+
+  /**
+   * Encodes a vector by collapsing adjacent equal values into runs.
+   * @param vector the vector to encode. Ownership is NOT taken.
+   * @param allocator the allocator for the children of the encoded vector.
+   * @param <V> the vector type.
+   * @return the encoded vector.
+   */
+  @SuppressWarnings("unchecked")
+  public static <V extends ValueVector> RunEndEncodedVector<V> encode(V vector, BufferAllocator allocator) {
+    V values = (V) vector.getField().createVector(allocator);
+    IntVector runEnds = new IntVector("run ends", allocator);
+    try {
+      if (vector.getValueCount() == 0) {
+        values.setValueCount(0);
+        runEnds.setSafe(0, 0);
+        runEnds.setValueCount(1);
+        return new RunEndEncodedVector<>(values, runEnds);
+      }
+
+      try (VectorRunDeduplicator<V> deduplicator = new VectorRunDeduplicator<>(vector, allocator);
+           IntVector runLengths = new IntVector("run lengths", allocator)) {
+        int runCount = deduplicator.getRunCount();
+        values.setInitialCapacity(runCount);
+        values.allocateNew();
+        deduplicator.populateDeduplicatedValues(values);
+
+        runLengths.allocateNew(runCount);
+        deduplicator.populateRunLengths(runLengths);
+
+        runEnds.allocateNew(runCount + 1);
+        PartialSumUtils.toPartialSumVector(runLengths, runEnds, 0);
+      }
+      return new RunEndEncodedVector<>(values, runEnds);
+    } catch (RuntimeException e) {
+      values.close();
+      runEnds.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the logical number of values.
+   * @return the value count.
+   */
+  public int getValueCount() {
+    return runEnds.get(runEnds.getValueCount() - 1);
+  }
+
+  /**
+   * Gets the number of runs.
+   * @return the run count.
+   */
+  public int getRunCount() {
+    return values.getValueCount();
+  }
+
+  /**
+   * Finds the run containing a logical position.
+   * This takes O(log(n)) time, where n is the number of runs.
+   * @param index the logical position.
+   * @return the index of the run in the values vector.
+   */
+  public int findRun(int index) {
+    int run = PartialSumUtils.findPositionInPartialSumVector(runEnds, index);
+    if (run == -1) {
+      throw new IndexOutOfBoundsException("index: " + index + ", value count: " + getValueCount());
+    }
+    return run;
+  }
+
+  /**
+   * Checks if the value at a logical position is null.
+   * @param index the logical position.
+   * @return true if the value is null, and false otherwise.
+   */
+  public boolean isNull(int index) {
+    return values.isNull(findRun(index));
+  }
+
+  /**
+   * Gets the value at a logical position.
+   * @param index the logical position.
+   * @return the object representation of the value.
+   */
+  public Object getObject(int index) {
+    return values.getObject(findRun(index));
+  }
+
+  /**
+   * Decodes all values into a plain vector.
+   * Fixed width values are expanded with bulk memory copies; other types are copied value by value.
+   * @param outVector the output vector. Its previous content is discarded.
+   */
+  public void decode(V outVector) {
+    int valueCount = getValueCount();
+    if (values instanceof BaseFixedWidthVector && ((BaseFixedWidthVector) values).getTypeWidth() > 0) {
+      decodeFixedWidth((BaseFixedWidthVector) values, (BaseFixedWidthVector) outVector, valueCount);
+    } else {
+      outVector.reset();
+      for (int run = 0; run < getRunCount(); run++) {
+        int runEnd = runEnds.get(run + 1);
+        for (int i = runEnds.get(run); i < runEnd; i++) {
+          outVector.copyFromSafe(run, i, values);
+        }
+      }
+    }
+    outVector.setValueCount(valueCount);
+  }
+
+  private void decodeFixedWidth(BaseFixedWidthVector src, BaseFixedWidthVector dst, int valueCount) {
+    final int typeWidth = src.getTypeWidth();
+    dst.allocateNew(valueCount);
+    ArrowBuf dstData = dst.getDataBuffer();
+    ArrowBuf dstValidity = dst.getValidityBuffer();
+
+    for (int run = 0; run < getRunCount(); run++) {
+      if (src.isNull(run)) {
+        // the validity buffer is zeroed by the allocation
+        continue;
+      }
+      int runStart = runEnds.get(run);
+      int runLength = runEnds.get(run + 1) - runStart;
+
+      // copy the first value, and then double the filled range until the run is complete
+      dstData.setBytes(runStart * typeWidth, src.getDataBuffer(), run * typeWidth, typeWidth);
+      int filled = 1;
+      while (filled < runLength) {
+        int toCopy = Math.min(filled, runLength - filled);
+        dstData.setBytes((runStart + filled) * typeWidth, dstData, runStart * typeWidth, toCopy * typeWidth);
+        filled += toCopy;
+      }
+
+      for (int i = runStart; i < runStart + runLength; i++) {
+        BitVectorHelper.setValidityBitToOne(dstValidity, i);
+      }
+    }
+  }
+
+  /**
+   * Gets the vector with the value of each run.
+   * @return the values vector.
+   */
+  public V getValues() {
+    return values;
+  }
+
+  /**
+   * Gets the partial sums of run lengths.
+   * @return the run ends vector.
+   */
+  public IntVector getRunEnds() {
+    return runEnds;
+  }
+
+  /**
+   * Gets the number of bytes used by the children.
+   * @return the buffer size.
+   */
+  public int getBufferSize() {
+    return values.getBufferSize() + runEnds.getBufferSize();
+  }
+
+  @Override
+  public void close() {
+    values.close();
+    runEnds.close();
+  }
+}
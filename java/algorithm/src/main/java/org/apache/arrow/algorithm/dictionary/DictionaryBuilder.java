@@ -41,10 +41,13 @@ import org.apache.arrow.vector.ValueVector;
  *   and it can be retrieved by the {@link DictionaryBuilder#getDictionary()} method.
  *   After that, dictionary encoding can proceed with the populated dictionary..
  * </p>
+ * <p>
+ *   A builder may own off-heap memory, so it should be closed once the dictionary is built.
+ * </p>
  *
  * @param <V> the dictionary vector type.
  */
-public interface DictionaryBuilder<V extends ValueVector> {
+public interface DictionaryBuilder<V extends ValueVector> extends AutoCloseable {
 
   /**
    * Try to add all values from the target vector to the dictionary.
@@ -69,4 +72,11 @@ public interface DictionaryBuilder<V extends ValueVector> {
    * @return the dictionary.
    */
   V getDictionary();
+
+  /**
+   * Releases the resources of the builder, but not the dictionary. Does nothing by default.
+   */
+  @Override
+  default void close() {
+  }
 }
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.dictionary;
+
+import java.util.function.IntPredicate;
+
+import org.apache.arrow.algorithm.hash.HashIndexTable;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.util.ArrowBufPointer;
+import org.apache.arrow.memory.util.ByteFunctionHelpers;
+import org.apache.arrow.memory.util.hash.ArrowBufHasher;
+import org.apache.arrow.vector.ElementAddressableVector;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * A hash table of the elements of a dictionary, mapping each element to its index in the dictionary.
+ *
+ * <p>The table is a {@link HashIndexTable} of (hash code, dictionary index) pairs, in off-heap or
+ * heap memory, and the elements are compared in place with {@link ByteFunctionHelpers#equal}, so
+ * no object is kept per element.
+ *
+ * @param <V> the dictionary vector type.
+ */
+class DictionaryHashTable<V extends ElementAddressableVector> implements AutoCloseable {
+
+  private final V dictionary;
+
+  private final HashIndexTable table;
+
+  /**
+   * The pointer to the element being looked up.
+   */
+  private final ArrowBufPointer probePointer;
+
+  /**
+   * The pointer to the dictionary element it is compared with.
+   */
+  private final ArrowBufPointer dictionaryPointer = new ArrowBufPointer();
+
+  private final IntPredicate matcher = this::matchesProbe;
+
+  /**
+   * Constructs an empty table.
+   * @param dictionary the dictionary.
+   * @param hasher the hasher used to compute the hash codes.
+   * @param allocator the allocator for the table, or null to keep it in heap memory.
+   * @param expectedSize the number of elements the table is sized for.
+   */
+  DictionaryHashTable(V dictionary, ArrowBufHasher hasher, BufferAllocator allocator, int expectedSize) {
+    this.dictionary = dictionary;
+    this.table = allocator == null ? new HashIndexTable(expectedSize) : new HashIndexTable(allocator, expectedSize);
+    this.probePointer = new ArrowBufPointer(hasher);
+  }
+
+  /**
+   * Gets the number of elements in the table.
+   */
+  int size() {
+    return table.size();
+  }
+
+  /**
+   * Looks up an element.
+   * @param vector the vector of the element.
+   * @param index the index of the element in the vector.
+   * @return the index of the element in the dictionary, or {@link HashIndexTable#NOT_FOUND}.
+   */
+  int find(V vector, int index) {
+    vector.getDataPointer(index, probePointer);
+    return table.find(probePointer.hashCode(), matcher);
+  }
+
+  /**
+   * Looks up an element, and adds it to the table if it is absent. The caller is then responsible
+   * for copying the element to the dictionary at the given index.
+   * @param vector the vector of the element.
+   * @param index the index of the element in the vector.
+   * @param dictionaryIndex the index of the element in the dictionary, if it is absent.
+   * @return the index of the element in the dictionary, or {@link HashIndexTable#NOT_FOUND} if it was added.
+   */
+  int putIfAbsent(V vector, int index, int dictionaryIndex) {
+    vector.getDataPointer(index, probePointer);
+    return table.putIfAbsent(probePointer.hashCode(), dictionaryIndex, matcher);
+  }
+
+  private boolean matchesProbe(int dictionaryIndex) {
+    dictionary.getDataPointer(dictionaryIndex, dictionaryPointer);
+    final ArrowBuf dictionaryBuf = dictionaryPointer.getBuf();
+    final ArrowBuf probeBuf = probePointer.getBuf();
+    if (dictionaryBuf == null || probeBuf == null) {
+      // null elements
+      return dictionaryBuf == probeBuf;
+    }
+    final int dictionaryStart = dictionaryPointer.getOffset();
+    final int probeStart = probePointer.getOffset();
+    return ByteFunctionHelpers.equal(dictionaryBuf, dictionaryStart, dictionaryStart + dictionaryPointer.getLength(),
+        probeBuf, probeStart, probeStart + probePointer.getLength()) != 0;
+  }
+
+  @Override
+  public void close() {
+    table.close();
+  }
+}
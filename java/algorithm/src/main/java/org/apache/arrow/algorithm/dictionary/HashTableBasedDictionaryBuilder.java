@@ -17,11 +17,11 @@
 
 package org.apache.arrow.algorithm.dictionary;
 
-import java.util.HashMap;
-
-import org.apache.arrow.memory.util.ArrowBufPointer;
+import org.apache.arrow.algorithm.hash.HashIndexTable;
+import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.util.hash.ArrowBufHasher;
 import org.apache.arrow.memory.util.hash.SimpleHasher;
+import org.apache.arrow.util.Preconditions;
 import org.apache.arrow.vector.ElementAddressableVector;
 
 /**
@@ -29,9 +29,18 @@ import org.apache.arrow.vector.ElementAddressableVector;
  * Each add operation can be finished in O(1) time,
  * where n is the current dictionary size.
  *
+ * <p>The builder fills the dictionary from its first position, whatever its value count: the
+ * value count of a newly allocated vector is its capacity, so it does not tell how many values
+ * the dictionary holds. Values already in the dictionary are overwritten.
+ *
+ * <p>The builders constructed with an allocator keep the hash table in off-heap memory from that
+ * allocator, and must be closed. The other constructors are deprecated: they keep the table in
+ * heap memory, so that existing code which does not close the builder does not leak.
+ *
  * @param <V> the dictionary vector type.
  */
-public class HashTableBasedDictionaryBuilder<V extends ElementAddressableVector> implements DictionaryBuilder<V> {
+public class HashTableBasedDictionaryBuilder<V extends ElementAddressableVector>
+    implements DictionaryBuilder<V> {
 
   /**
    * The dictionary to be built.
@@ -44,52 +53,66 @@ public class HashTableBasedDictionaryBuilder<V extends ElementAddressableVector>
   private final boolean encodeNull;
 
   /**
-   * The hash map for distinct dictionary entries.
-   * The key is the pointer to the dictionary element, whereas the value is the index in the dictionary.
+   * The hash table for distinct dictionary entries, mapping them to their indices in the dictionary.
    */
-  private HashMap<ArrowBufPointer, Integer> hashMap = new HashMap<>();
+  private final DictionaryHashTable<V> hashTable;
 
   /**
-   * The hasher used for calculating the hash code.
-   */
-  private final ArrowBufHasher hasher;
-
-  /**
-   * Next pointer to try to add to the hash table.
-   */
-  private ArrowBufPointer nextPointer;
-
-  /**
-   * Constructs a hash table based dictionary builder.
+   * Constructs a hash table based dictionary builder, with its hash table in heap memory.
    *
    * @param dictionary the dictionary to populate.
+   * @deprecated Use {@link #HashTableBasedDictionaryBuilder(ElementAddressableVector, boolean, ArrowBufHasher,
+   *     BufferAllocator)} instead, and close the builder.
    */
+  @Deprecated
   public HashTableBasedDictionaryBuilder(V dictionary) {
     this(dictionary, false);
   }
 
   /**
-   * Constructs a hash table based dictionary builder.
+   * Constructs a hash table based dictionary builder, with its hash table in heap memory.
    *
    * @param dictionary the dictionary to populate.
    * @param encodeNull if null values should be added to the dictionary.
+   * @deprecated Use {@link #HashTableBasedDictionaryBuilder(ElementAddressableVector, boolean, ArrowBufHasher,
+   *     BufferAllocator)} instead, and close the builder.
    */
+  @Deprecated
   public HashTableBasedDictionaryBuilder(V dictionary, boolean encodeNull) {
     this(dictionary, encodeNull, SimpleHasher.INSTANCE);
   }
 
   /**
-   * Constructs a hash table based dictionary builder.
+   * Constructs a hash table based dictionary builder, with its hash table in heap memory.
    *
    * @param dictionary the dictionary to populate.
    * @param encodeNull if null values should be added to the dictionary.
    * @param hasher     the hasher used to compute the hash code.
+   * @deprecated Use {@link #HashTableBasedDictionaryBuilder(ElementAddressableVector, boolean, ArrowBufHasher,
+   *     BufferAllocator)} instead, and close the builder.
    */
+  @Deprecated
   public HashTableBasedDictionaryBuilder(V dictionary, boolean encodeNull, ArrowBufHasher hasher) {
     this.dictionary = dictionary;
     this.encodeNull = encodeNull;
-    this.hasher = hasher;
-    this.nextPointer = new ArrowBufPointer(hasher);
+    this.hashTable = new DictionaryHashTable<>(dictionary, hasher, null, HashIndexTable.DEFAULT_EXPECTED_SIZE);
+  }
+
+  /**
+   * Constructs a hash table based dictionary builder, with its hash table in off-heap memory.
+   * The builder must be closed to release the table.
+   *
+   * @param dictionary the dictionary to populate.
+   * @param encodeNull if null values should be added to the dictionary.
+   * @param hasher     the hasher used to compute the hash code.
+   * @param allocator  the allocator for the hash table.
+   */
+  public HashTableBasedDictionaryBuilder(
+      V dictionary, boolean encodeNull, ArrowBufHasher hasher, BufferAllocator allocator) {
+    this.dictionary = dictionary;
+    this.encodeNull = encodeNull;
+    this.hashTable = new DictionaryHashTable<>(
+        dictionary, hasher, Preconditions.checkNotNull(allocator), HashIndexTable.DEFAULT_EXPECTED_SIZE);
   }
 
   /**
@@ -110,7 +133,7 @@ public class HashTableBasedDictionaryBuilder<V extends ElementAddressableVector>
    */
   @Override
   public int addValues(V targetVector) {
-    int oldDictSize = dictionary.getValueCount();
+    int oldDictSize = hashTable.size();
     for (int i = 0; i < targetVector.getValueCount(); i++) {
       if (!encodeNull && targetVector.isNull(i)) {
         continue;
@@ -118,7 +141,7 @@ public class HashTableBasedDictionaryBuilder<V extends ElementAddressableVector>
       addValue(targetVector, i);
     }
 
-    return dictionary.getValueCount() - oldDictSize;
+    return hashTable.size() - oldDictSize;
   }
 
   /**
@@ -130,24 +153,21 @@ public class HashTableBasedDictionaryBuilder<V extends ElementAddressableVector>
    */
   @Override
   public int addValue(V targetVector, int targetIndex) {
-    targetVector.getDataPointer(targetIndex, nextPointer);
-
-    Integer index = hashMap.get(nextPointer);
-    if (index == null) {
-      // a new dictionary element is found
+    int dictSize = hashTable.size();
+    int index = hashTable.putIfAbsent(targetVector, targetIndex, dictSize);
+    if (index == HashIndexTable.NOT_FOUND) {
+      // a new dictionary element is found, and was inserted to the hash table
 
       // insert it to the dictionary
-      int dictSize = dictionary.getValueCount();
       dictionary.copyFromSafe(targetIndex, dictSize, targetVector);
       dictionary.setValueCount(dictSize + 1);
-      dictionary.getDataPointer(dictSize, nextPointer);
-
-      // insert it to the hash map
-      hashMap.put(nextPointer, dictSize);
-      nextPointer = new ArrowBufPointer(hasher);
-
       return dictSize;
     }
     return index;
   }
+
+  @Override
+  public void close() {
+    hashTable.close();
+  }
 }
@@ -17,20 +17,26 @@
 
 package org.apache.arrow.algorithm.dictionary;
 
-import java.util.HashMap;
-
-import org.apache.arrow.memory.util.ArrowBufPointer;
+import org.apache.arrow.algorithm.hash.HashIndexTable;
+import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.util.hash.ArrowBufHasher;
 import org.apache.arrow.memory.util.hash.SimpleHasher;
+import org.apache.arrow.util.Preconditions;
 import org.apache.arrow.vector.BaseIntVector;
 import org.apache.arrow.vector.ElementAddressableVector;
 
 /**
  * Dictionary encoder based on hash table.
+ *
+ * <p>The encoders constructed with an allocator keep the hash table in off-heap memory from that
+ * allocator, and must be closed. The other constructors are deprecated: they keep the table in
+ * heap memory, so that existing code which does not close the encoder does not leak.
+ *
  * @param <E> encoded vector type.
  * @param <D> decoded vector type, which is also the dictionary type.
  */
-public class HashTableDictionaryEncoder<E extends BaseIntVector, D extends ElementAddressableVector> {
+public class HashTableDictionaryEncoder<E extends BaseIntVector, D extends ElementAddressableVector>
+    implements AutoCloseable {
 
   /**
    * The dictionary for encoding/decoding.
@@ -38,38 +44,29 @@ public class HashTableDictionaryEncoder<E extends BaseIntVector, D extends Eleme
    */
   private final D dictionary;
 
-  /**
-   * The hasher used to compute the hash code.
-   */
-  private final ArrowBufHasher hasher;
-
   /**
    * A flag indicating if null should be encoded.
    */
   private final boolean encodeNull;
 
   /**
-   * The hash map for distinct dictionary entries.
-   * The key is the pointer to the dictionary element, whereas the value is the index in the dictionary.
+   * The hash table for distinct dictionary entries, mapping them to their indices in the dictionary.
    */
-  private HashMap<ArrowBufPointer, Integer> hashMap = new HashMap<>();
+  private final DictionaryHashTable<D> hashTable;
 
   /**
-   * The pointer used to probe each element to encode.
-   */
-  private ArrowBufPointer reusablePointer;
-
-  /**
-   * Constructs a dictionary encoder.
+   * Constructs a dictionary encoder, with its hash table in heap memory.
    * @param dictionary the dictionary.
-   *
+   * @deprecated Use {@link #HashTableDictionaryEncoder(ElementAddressableVector, boolean, ArrowBufHasher,
+   *     BufferAllocator)} instead, and close the encoder.
    */
+  @Deprecated
   public HashTableDictionaryEncoder(D dictionary) {
     this(dictionary, false);
   }
 
   /**
-   * Constructs a dictionary encoder.
+   * Constructs a dictionary encoder, with its hash table in heap memory.
    * @param dictionary the dictionary.
    * @param encodeNull a flag indicating if null should be encoded.
    *     It determines the behaviors for processing null values in the input during encoding/decoding.
@@ -84,13 +81,16 @@ public class HashTableDictionaryEncoder<E extends BaseIntVector, D extends Eleme
    *       1) If the flag is set to true, the decoder should never expect a null in the input.
    *       2) If set to false, the decoder simply produces a null in the output.
    *    </li>
+   * @deprecated Use {@link #HashTableDictionaryEncoder(ElementAddressableVector, boolean, ArrowBufHasher,
+   *     BufferAllocator)} instead, and close the encoder.
    */
+  @Deprecated
   public HashTableDictionaryEncoder(D dictionary, boolean encodeNull) {
     this(dictionary, encodeNull, SimpleHasher.INSTANCE);
   }
 
   /**
-   * Constructs a dictionary encoder.
+   * Constructs a dictionary encoder, with its hash table in heap memory.
    * @param dictionary the dictionary.
    * @param encodeNull a flag indicating if null should be encoded.
     *     It determines the behaviors for processing null values in the input during encoding.
@@ -99,22 +99,41 @@ public class HashTableDictionaryEncoder<E extends BaseIntVector, D extends Eleme
     *     and outputs the index in the dictionary.
     *     2) If the flag is set to false, the encoder simply produces a null in the output.
    * @param hasher the hasher used to calculate the hash code.
+   * @deprecated Use {@link #HashTableDictionaryEncoder(ElementAddressableVector, boolean, ArrowBufHasher,
+   *     BufferAllocator)} instead, and close the encoder.
    */
+  @Deprecated
   public HashTableDictionaryEncoder(D dictionary, boolean encodeNull, ArrowBufHasher hasher) {
     this.dictionary = dictionary;
-    this.hasher = hasher;
     this.encodeNull = encodeNull;
+    this.hashTable = new DictionaryHashTable<>(dictionary, hasher, null, dictionary.getValueCount());
 
-    reusablePointer = new ArrowBufPointer(hasher);
+    buildHashTable();
+  }
 
-    buildHashMap();
+  /**
+   * Constructs a dictionary encoder, with its hash table in off-heap memory.
+   * The encoder must be closed to release the table.
+   * @param dictionary the dictionary.
+   * @param encodeNull a flag indicating if null should be encoded.
+   *     When a null is encountered in the input, the encoder searches for the value in the
+   *     dictionary if the flag is set, otherwise it simply produces a null in the output.
+   * @param hasher the hasher used to calculate the hash code.
+   * @param allocator the allocator for the hash table.
+   */
+  public HashTableDictionaryEncoder(
+      D dictionary, boolean encodeNull, ArrowBufHasher hasher, BufferAllocator allocator) {
+    this.dictionary = dictionary;
+    this.encodeNull = encodeNull;
+    this.hashTable = new DictionaryHashTable<>(
+        dictionary, hasher, Preconditions.checkNotNull(allocator), dictionary.getValueCount());
+
+    buildHashTable();
   }
 
-  private void buildHashMap() {
+  private void buildHashTable() {
     for (int i = 0; i < dictionary.getValueCount(); i++) {
-      ArrowBufPointer pointer = new ArrowBufPointer(hasher);
-      dictionary.getDataPointer(i, pointer);
-      hashMap.put(pointer, i);
+      hashTable.putIfAbsent(dictionary, i, i);
     }
   }
 
@@ -131,14 +150,18 @@ public class HashTableDictionaryEncoder<E extends BaseIntVector, D extends Eleme
         continue;
       }
 
-      input.getDataPointer(i, reusablePointer);
-      Integer index = hashMap.get(reusablePointer);
+      int index = hashTable.find(input, i);
 
-      if (index == null) {
+      if (index == HashIndexTable.NOT_FOUND) {
         throw new IllegalArgumentException("The data element is not found in the dictionary");
       }
       output.setWithPossibleTruncate(i, index);
     }
     output.setValueCount(input.getValueCount());
   }
+
+  @Override
+  public void close() {
+    hashTable.close();
+  }
 }
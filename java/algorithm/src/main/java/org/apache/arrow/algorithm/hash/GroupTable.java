@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.hash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.util.ByteFunctionHelpers;
+import org.apache.arrow.memory.util.hash.ArrowBufHasher;
+import org.apache.arrow.memory.util.hash.MurmurHasher;
+import org.apache.arrow.memory.util.hash.SimpleHasher;
+import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.compare.Range;
+import org.apache.arrow.vector.compare.RangeEqualsVisitor;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Assigns dense ids to the distinct rows of one or more key columns, like the groups of a GROUP BY
+ * or the keys of the build side of a hash join.
+ *
+ * <p>The first row of each distinct key is copied to key vectors owned by the table, so the id of a
+ * key is its index in those vectors. A {@link HashIndexTable} maps the hash codes of the keys to
+ * their ids. The rows of a batch are hashed column by column, combining the hash codes of the
+ * values computed by the {@link ArrowBufHasher}. Then each row is looked up, comparing the bytes of
+ * the values for fixed-width and variable-width vectors.
+ *
+ * <p>Null keys are equal to each other, so they make a group of their own.
+ */
+public class GroupTable implements AutoCloseable {
+
+  private static final int NULL_HASH = 0;
+
+  private static final int FIXED_WIDTH = 0;
+  private static final int BIT = 1;
+  private static final int VARIABLE_WIDTH = 2;
+  private static final int OTHER = 3;
+
+  private static final int OFFSET_WIDTH = BaseVariableWidthVector.OFFSET_WIDTH;
+
+  private final List<Field> keyFields;
+
+  private final FieldVector[] keyVectors;
+
+  private final int[] kinds;
+
+  private final ArrowBufHasher hasher;
+
+  private final HashIndexTable index;
+
+  private int groupCount;
+
+  /**
+   * The key columns of the batch being looked up.
+   */
+  private final ValueVector[] probeVectors;
+
+  /**
+   * Compares the key columns of other types, for the batch being looked up.
+   */
+  private final RangeEqualsVisitor[] equalsVisitors;
+
+  private final Range range = new Range(0, 0, 1);
+
+  private int[] hashes = new int[0];
+
+  private int probeRow;
+
+  private final IntPredicate matcher = this::matchesProbeRow;
+
+  /**
+   * Constructs a table, hashing with {@link SimpleHasher}.
+   * @param keyFields the fields of the key columns.
+   * @param allocator the allocator for the keys and the hash table.
+   */
+  public GroupTable(List<Field> keyFields, BufferAllocator allocator) {
+    this(keyFields, allocator, SimpleHasher.INSTANCE);
+  }
+
+  /**
+   * Constructs a table.
+   * @param keyFields the fields of the key columns.
+   * @param allocator the allocator for the keys and the hash table.
+   * @param hasher the hasher for the values of the key columns.
+   */
+  public GroupTable(List<Field> keyFields, BufferAllocator allocator, ArrowBufHasher hasher) {
+    Preconditions.checkArgument(!keyFields.isEmpty(), "There must be at least one key column");
+    this.keyFields = new ArrayList<>(keyFields);
+    this.hasher = hasher;
+    final int keyCount = keyFields.size();
+    this.keyVectors = new FieldVector[keyCount];
+    this.kinds = new int[keyCount];
+    this.probeVectors = new ValueVector[keyCount];
+    this.equalsVisitors = new RangeEqualsVisitor[keyCount];
+    try {
+      for (int i = 0; i < keyCount; i++) {
+        keyVectors[i] = keyFields.get(i).createVector(allocator);
+        keyVectors[i].allocateNew();
+        kinds[i] = kind(keyVectors[i]);
+      }
+      this.index = new HashIndexTable(allocator);
+    } catch (RuntimeException e) {
+      AutoCloseables.close(e, keyVectors);
+      throw e;
+    }
+  }
+
+  private static int kind(ValueVector vector) {
+    if (vector instanceof BitVector) {
+      return BIT;
+    } else if (vector instanceof BaseFixedWidthVector) {
+      return FIXED_WIDTH;
+    } else if (vector instanceof BaseVariableWidthVector) {
+      return VARIABLE_WIDTH;
+    }
+    return OTHER;
+  }
+
+  /**
+   * Gets the fields of the key columns.
+   * @return the fields.
+   */
+  public List<Field> getKeyFields() {
+    return Collections.unmodifiableList(keyFields);
+  }
+
+  /**
+   * Gets the number of distinct keys, which is also the next id assigned.
+   * @return the number of keys.
+   */
+  public int getGroupCount() {
+    return groupCount;
+  }
+
+  /**
+   * Gets the vectors of the distinct keys, in the order of their ids.
+   * The vectors belong to the table.
+   * @return the key vectors.
+   */
+  public List<FieldVector> getKeyVectors() {
+    for (FieldVector vector : keyVectors) {
+      vector.setValueCount(groupCount);
+    }
+    return Collections.unmodifiableList(Arrays.asList(keyVectors));
+  }
+
+  /**
+   * Gets the ids of the keys of a batch, adding the keys which are not in the table yet.
+   * The keys added get consecutive ids, in the order of their first row.
+   * @param keys the key columns of the batch, with the types of the key fields.
+   * @param rowCount the number of rows of the batch.
+   * @param groupIds the vector to populate with the ids of the rows. It is reallocated if it is too small.
+   * @return the number of keys added.
+   */
+  public int insert(List<? extends ValueVector> keys, int rowCount, IntVector groupIds) {
+    attach(keys, rowCount);
+    prepareOutput(groupIds, rowCount);
+    final long idAddress = groupIds.getDataBuffer().memoryAddress();
+    final int oldGroupCount = groupCount;
+    for (int row = 0; row < rowCount; row++) {
+      probeRow = row;
+      int id = index.putIfAbsent(hashes[row], groupCount, matcher);
+      if (id == HashIndexTable.NOT_FOUND) {
+        id = groupCount;
+        copyKey(row);
+      }
+      PlatformDependent.putInt(idAddress + (long) row * 4, id);
+    }
+    PlatformDependent.setMemory(groupIds.getValidityBuffer().memoryAddress(),
+        BitVectorHelper.getValidityBufferSize(rowCount), (byte) 0xff);
+    groupIds.setValueCount(rowCount);
+    detach();
+    return groupCount - oldGroupCount;
+  }
+
+  /**
+   * Gets the ids of the keys of a batch, without adding any key.
+   * @param keys the key columns of the batch, with the types of the key fields.
+   * @param rowCount the number of rows of the batch.
+   * @param groupIds the vector to populate with the ids of the rows, or null for the rows whose key
+   *     is not in the table. It is reallocated if it is too small.
+   * @return the number of rows whose key is in the table.
+   */
+  public int find(List<? extends ValueVector> keys, int rowCount, IntVector groupIds) {
+    attach(keys, rowCount);
+    prepareOutput(groupIds, rowCount);
+    final long idAddress = groupIds.getDataBuffer().memoryAddress();
+    final ArrowBuf validity = groupIds.getValidityBuffer();
+    validity.setZero(0, BitVectorHelper.getValidityBufferSize(rowCount));
+    int found = 0;
+    for (int row = 0; row < rowCount; row++) {
+      probeRow = row;
+      final int id = index.find(hashes[row], matcher);
+      if (id != HashIndexTable.NOT_FOUND) {
+        PlatformDependent.putInt(idAddress + (long) row * 4, id);
+        BitVectorHelper.setValidityBitToOne(validity, row);
+        found++;
+      }
+    }
+    groupIds.setValueCount(rowCount);
+    detach();
+    return found;
+  }
+
+  /**
+   * Removes all the keys.
+   */
+  public void clear() {
+    index.clear();
+    for (FieldVector vector : keyVectors) {
+      vector.clear();
+      vector.allocateNew();
+    }
+    groupCount = 0;
+  }
+
+  @Override
+  public void close() {
+    index.close();
+    for (FieldVector vector : keyVectors) {
+      vector.close();
+    }
+  }
+
+  private void attach(List<? extends ValueVector> keys, int rowCount) {
+    Preconditions.checkArgument(keys.size() == keyVectors.length,
+        "Expected %s key columns, but got %s", keyVectors.length, keys.size());
+    for (int i = 0; i < keyVectors.length; i++) {
+      final ValueVector vector = keys.get(i);
+      Preconditions.checkArgument(vector.getMinorType() == keyVectors[i].getMinorType(),
+          "Key column %s has type %s instead of %s", i, vector.getMinorType(), keyVectors[i].getMinorType());
+      probeVectors[i] = vector;
+      if (kinds[i] == OTHER) {
+        equalsVisitors[i] = new RangeEqualsVisitor(keyVectors[i], vector, false);
+      }
+    }
+    if (hashes.length < rowCount) {
+      hashes = new int[Math.max(rowCount, hashes.length * 2)];
+    }
+    for (int i = 0; i < keyVectors.length; i++) {
+      hashColumn(probeVectors[i], kinds[i], rowCount, i == 0);
+    }
+  }
+
+  private void detach() {
+    Arrays.fill(probeVectors, null);
+    Arrays.fill(equalsVisitors, null);
+  }
+
+  private static void prepareOutput(IntVector groupIds, int rowCount) {
+    if (groupIds.getValueCapacity() < rowCount) {
+      groupIds.allocateNew(rowCount);
+    }
+  }
+
+  private void hashColumn(ValueVector vector, int kind, int rowCount, boolean first) {
+    final int[] hashes = this.hashes;
+    final ArrowBuf validity = vector.getValidityBuffer();
+    for (int row = 0; row < rowCount; row++) {
+      final int hash;
+      if (kind == OTHER) {
+        hash = vector.isNull(row) ? NULL_HASH : vector.hashCode(row, hasher);
+      } else if (BitVectorHelper.get(validity, row) == 0) {
+        hash = NULL_HASH;
+      } else if (kind == BIT) {
+        hash = BitVectorHelper.get(vector.getDataBuffer(), row) + 1;
+      } else {
+        hash = vector.hashCode(row, hasher);
+      }
+      hashes[row] = first ? hash : MurmurHasher.combineHashCode(hashes[row], hash);
+    }
+  }
+
+  private boolean matchesProbeRow(int group) {
+    for (int i = 0; i < keyVectors.length; i++) {
+      if (!keyEquals(i, group, probeRow)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean keyEquals(int column, int group, int row) {
+    final ValueVector key = keyVectors[column];
+    final ValueVector probe = probeVectors[column];
+    if (kinds[column] == OTHER) {
+      range.setLeftStart(group).setRightStart(row);
+      return equalsVisitors[column].rangeEquals(range);
+    }
+    final int keyValid = BitVectorHelper.get(key.getValidityBuffer(), group);
+    if (keyValid != BitVectorHelper.get(probe.getValidityBuffer(), row)) {
+      return false;
+    } else if (keyValid == 0) {
+      return true;
+    }
+    switch (kinds[column]) {
+      case BIT:
+        return BitVectorHelper.get(key.getDataBuffer(), group) == BitVectorHelper.get(probe.getDataBuffer(), row);
+      case FIXED_WIDTH:
+        final int width = ((BaseFixedWidthVector) key).getTypeWidth();
+        return ByteFunctionHelpers.equal(key.getDataBuffer(), group * width, (group + 1) * width,
+            probe.getDataBuffer(), row * width, (row + 1) * width) != 0;
+      default:
+        final ArrowBuf keyOffsets = key.getOffsetBuffer();
+        final ArrowBuf probeOffsets = probe.getOffsetBuffer();
+        return ByteFunctionHelpers.equal(key.getDataBuffer(), keyOffsets.getInt(group * OFFSET_WIDTH),
+            keyOffsets.getInt((group + 1) * OFFSET_WIDTH), probe.getDataBuffer(),
+            probeOffsets.getInt(row * OFFSET_WIDTH), probeOffsets.getInt((row + 1) * OFFSET_WIDTH)) != 0;
+    }
+  }
+
+  private void copyKey(int row) {
+    for (int i = 0; i < keyVectors.length; i++) {
+      keyVectors[i].copyFromSafe(row, groupCount, probeVectors[i]);
+      if (kinds[i] == OTHER) {
+        keyVectors[i].setValueCount(groupCount + 1);
+      }
+    }
+    groupCount++;
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.hash;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * An open-addressing hash table in off-heap memory, whose slots are (hash code, index) pairs.
+ *
+ * <p>The table does not store the keys themselves: they are kept elsewhere, typically in vectors,
+ * and the index of a slot refers to them. When probing, the slots with the same hash code are
+ * passed to a matcher, which tells if the key at their index is the key looked for. So the table
+ * takes 8 bytes per slot, and no heap memory per key.
+ *
+ * <p>Collisions are resolved by linear probing, and the table doubles its capacity when it becomes
+ * half full. Entries cannot be removed.
+ *
+ * <p>A table constructed without an allocator keeps the same slots in a heap array instead, and
+ * need not be closed.
+ */
+public class HashIndexTable implements AutoCloseable {
+
+  /**
+   * The value returned by the look ups when the key is not in the table.
+   */
+  public static final int NOT_FOUND = -1;
+
+  /**
+   * The default number of keys the table is sized for.
+   */
+  public static final int DEFAULT_EXPECTED_SIZE = 1024;
+
+  private static final int SLOT_WIDTH = 8;
+
+  /**
+   * The greatest number of slots, so that they fit in a buffer of at most 1GB.
+   */
+  private static final int MAX_CAPACITY = 1 << 27;
+
+  /**
+   * The allocator for the slots, or null if they are kept in {@link #heapSlots}.
+   */
+  private final BufferAllocator allocator;
+
+  /**
+   * The slots, each made of the hash code and the index plus one, so zero marks an empty slot.
+   */
+  private ArrowBuf slots;
+
+  /**
+   * The slots of a table without allocator, as (hash code, index plus one) pairs.
+   */
+  private int[] heapSlots;
+
+  private long slotAddress;
+
+  private int mask;
+
+  private int size;
+
+  private int resizeThreshold;
+
+  /**
+   * Constructs a table sized for {@link #DEFAULT_EXPECTED_SIZE} keys.
+   * @param allocator the allocator for the slots.
+   */
+  public HashIndexTable(BufferAllocator allocator) {
+    this(allocator, DEFAULT_EXPECTED_SIZE);
+  }
+
+  /**
+   * Constructs a table.
+   * @param allocator the allocator for the slots.
+   * @param expectedSize the number of keys the table is sized for, without resizing.
+   */
+  public HashIndexTable(BufferAllocator allocator, int expectedSize) {
+    Preconditions.checkArgument(expectedSize >= 0, "The expected size must be non-negative");
+    Preconditions.checkNotNull(allocator);
+    this.allocator = allocator;
+    allocateSlots(capacityFor(expectedSize));
+  }
+
+  /**
+   * Constructs a table in heap memory.
+   * @param expectedSize the number of keys the table is sized for, without resizing.
+   */
+  public HashIndexTable(int expectedSize) {
+    Preconditions.checkArgument(expectedSize >= 0, "The expected size must be non-negative");
+    this.allocator = null;
+    allocateSlots(capacityFor(expectedSize));
+  }
+
+  /**
+   * Gets the number of keys in the table.
+   * @return the number of keys.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of slots of the table.
+   * @return the number of slots.
+   */
+  public int getCapacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Looks up a key.
+   * @param hash the hash code of the key.
+   * @param matcher tells if the key at an index is the key looked for.
+   * @return the index of the key, or {@link #NOT_FOUND}.
+   */
+  public int find(int hash, IntPredicate matcher) {
+    for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+      final int entry = entryAt(slot);
+      if (entry == 0) {
+        return NOT_FOUND;
+      }
+      if (hashAt(slot) == hash && matcher.test(entry - 1)) {
+        return entry - 1;
+      }
+    }
+  }
+
+  /**
+   * Looks up a key, and adds it to the table if it is absent.
+   * @param hash the hash code of the key.
+   * @param index the index of the key, if it is absent.
+   * @param matcher tells if the key at an index is the key looked for.
+   * @return the index of the key if it was already in the table, or {@link #NOT_FOUND} if it was added.
+   */
+  public int putIfAbsent(int hash, int index, IntPredicate matcher) {
+    Preconditions.checkArgument(index >= 0 && index < Integer.MAX_VALUE, "Invalid index %s", index);
+    if (size >= resizeThreshold) {
+      resize();
+    }
+    for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+      final int entry = entryAt(slot);
+      if (entry == 0) {
+        setSlot(slot, hash, index + 1);
+        size++;
+        return NOT_FOUND;
+      }
+      if (hashAt(slot) == hash && matcher.test(entry - 1)) {
+        return entry - 1;
+      }
+    }
+  }
+
+  /**
+   * Removes all the keys.
+   */
+  public void clear() {
+    if (heapSlots != null) {
+      Arrays.fill(heapSlots, 0);
+    } else {
+      slots.setZero(0, slots.capacity());
+    }
+    size = 0;
+  }
+
+  @Override
+  public void close() {
+    if (slots != null) {
+      slots.close();
+    }
+  }
+
+  /**
+   * Spreads the hash code, so that weak hash codes, like those of small integers, still fill the
+   * low bits used to pick the first slot.
+   */
+  private static int mix(int hash) {
+    final int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int capacityFor(int expectedSize) {
+    int capacity = 16;
+    while (capacity < MAX_CAPACITY && capacity / 2 < expectedSize) {
+      capacity *= 2;
+    }
+    return capacity;
+  }
+
+  private int hashAt(int slot) {
+    if (heapSlots != null) {
+      return heapSlots[slot * 2];
+    }
+    return PlatformDependent.getInt(slotAddress + (long) slot * SLOT_WIDTH);
+  }
+
+  private int entryAt(int slot) {
+    if (heapSlots != null) {
+      return heapSlots[slot * 2 + 1];
+    }
+    return PlatformDependent.getInt(slotAddress + (long) slot * SLOT_WIDTH + 4);
+  }
+
+  private void setSlot(int slot, int hash, int entry) {
+    if (heapSlots != null) {
+      heapSlots[slot * 2] = hash;
+      heapSlots[slot * 2 + 1] = entry;
+    } else {
+      final long address = slotAddress + (long) slot * SLOT_WIDTH;
+      PlatformDependent.putInt(address, hash);
+      PlatformDependent.putInt(address + 4, entry);
+    }
+  }
+
+  private void allocateSlots(int capacity) {
+    if (allocator == null) {
+      heapSlots = new int[capacity * 2];
+    } else {
+      slots = allocator.buffer(capacity * SLOT_WIDTH);
+      slots.setZero(0, slots.capacity());
+      slotAddress = slots.memoryAddress();
+    }
+    mask = capacity - 1;
+    resizeThreshold = capacity == MAX_CAPACITY ? capacity / 8 * 7 : capacity / 2;
+  }
+
+  private void resize() {
+    final int capacity = mask + 1;
+    Preconditions.checkState(capacity < MAX_CAPACITY, "The hash table is full");
+    final ArrowBuf oldSlots = slots;
+    final int[] oldHeapSlots = heapSlots;
+    final long oldAddress = slotAddress;
+    allocateSlots(capacity * 2);
+    try (ArrowBuf ignored = oldSlots) {
+      for (int i = 0; i < capacity; i++) {
+        final long address = oldAddress + (long) i * SLOT_WIDTH;
+        final int entry = oldHeapSlots != null ? oldHeapSlots[i * 2 + 1] : PlatformDependent.getInt(address + 4);
+        if (entry != 0) {
+          final int hash = oldHeapSlots != null ? oldHeapSlots[i * 2] : PlatformDependent.getInt(address);
+          int slot = mix(hash) & mask;
+          while (entryAt(slot) != 0) {
+            slot = (slot + 1) & mask;
+          }
+          setSlot(slot, hash, entry);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,351 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.join;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.algorithm.hash.GroupTable;
+import org.apache.arrow.algorithm.select.TakeUtils;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.VectorSchemaRootAppender;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Joins a stream of probe batches with a build side held in memory, on the equality of one or more
+ * key columns.
+ *
+ * <p>The build batches are appended to vectors owned by the join, and their keys are added to a
+ * {@link GroupTable}. The build rows with the same key are chained in the order they were added, so
+ * each distinct key points to the first of its rows. Then each probe batch is looked up in the table,
+ * and the indices of the matching rows are gathered in bulk, column by column, with {@link TakeUtils}.
+ *
+ * <p>As in SQL, null keys never match. All the memory of the join, including the build side, is
+ * allocated from a child allocator with the memory limit, so a build side too large fails with an
+ * {@link org.apache.arrow.memory.OutOfMemoryException}, after which the join can only be closed.
+ */
+public class HashJoin implements AutoCloseable {
+
+  private final JoinType joinType;
+
+  private final List<String> buildKeys;
+
+  private final List<String> probeKeys;
+
+  private final Schema probeSchema;
+
+  private final Schema outputSchema;
+
+  private final BufferAllocator allocator;
+
+  private final VectorSchemaRoot buildRoot;
+
+  private final GroupTable keys;
+
+  private final IntVector groupIds;
+
+  /**
+   * The first and the last build row of each key, plus one.
+   */
+  private final IntVector firstRows;
+
+  private final IntVector lastRows;
+
+  /**
+   * The number of build rows of each key.
+   */
+  private final IntVector rowCounts;
+
+  /**
+   * The next build row with the same key as each build row, plus one, or zero for the last one.
+   */
+  private final IntVector nextRows;
+
+  private final IntVector probeIndices;
+
+  private final IntVector buildIndices;
+
+  /**
+   * Constructs a join without a memory limit other than the one of the allocator.
+   * @see #HashJoin(Schema, List, Schema, List, JoinType, BufferAllocator, long)
+   */
+  public HashJoin(Schema buildSchema, List<String> buildKeys, Schema probeSchema, List<String> probeKeys,
+      JoinType joinType, BufferAllocator allocator) {
+    this(buildSchema, buildKeys, probeSchema, probeKeys, joinType, allocator, Long.MAX_VALUE);
+  }
+
+  /**
+   * Constructs a join.
+   * @param buildSchema the schema of the build batches.
+   * @param buildKeys the names of the key columns of the build batches.
+   * @param probeSchema the schema of the probe batches.
+   * @param probeKeys the names of the key columns of the probe batches, of the same types as the build keys.
+   * @param joinType the kind of join.
+   * @param allocator the parent allocator of the memory of the join.
+   * @param memoryLimit the limit of the memory of the join, including the build side.
+   */
+  public HashJoin(Schema buildSchema, List<String> buildKeys, Schema probeSchema, List<String> probeKeys,
+      JoinType joinType, BufferAllocator allocator, long memoryLimit) {
+    Preconditions.checkArgument(!buildKeys.isEmpty(), "There must be at least one key column");
+    Preconditions.checkArgument(buildKeys.size() == probeKeys.size(),
+        "The build and probe sides must have the same number of key columns");
+    final List<Field> keyFields = new ArrayList<>();
+    for (int i = 0; i < buildKeys.size(); i++) {
+      final Field buildField = buildSchema.findField(buildKeys.get(i));
+      final Field probeField = probeSchema.findField(probeKeys.get(i));
+      Preconditions.checkArgument(buildField.getType().equals(probeField.getType()),
+          "Key columns %s and %s have different types", buildKeys.get(i), probeKeys.get(i));
+      keyFields.add(buildField);
+    }
+    this.joinType = joinType;
+    this.buildKeys = new ArrayList<>(buildKeys);
+    this.probeKeys = new ArrayList<>(probeKeys);
+    this.probeSchema = probeSchema;
+    this.outputSchema = createOutputSchema(buildSchema, probeSchema, joinType);
+
+    this.allocator = allocator.newChildAllocator("hash-join", 0, memoryLimit);
+    this.buildRoot = VectorSchemaRoot.create(buildSchema, this.allocator);
+    this.groupIds = new IntVector("groupIds", this.allocator);
+    this.firstRows = new IntVector("firstRows", this.allocator);
+    this.lastRows = new IntVector("lastRows", this.allocator);
+    this.rowCounts = new IntVector("rowCounts", this.allocator);
+    this.nextRows = new IntVector("nextRows", this.allocator);
+    this.probeIndices = new IntVector("probeIndices", this.allocator);
+    this.buildIndices = new IntVector("buildIndices", this.allocator);
+    try {
+      this.keys = new GroupTable(keyFields, this.allocator);
+    } catch (RuntimeException e) {
+      AutoCloseables.close(e, buildRoot, groupIds, firstRows, lastRows, rowCounts, nextRows, probeIndices,
+          buildIndices, this.allocator);
+      throw e;
+    }
+  }
+
+  private static Schema createOutputSchema(Schema buildSchema, Schema probeSchema, JoinType joinType) {
+    if (joinType == JoinType.SEMI || joinType == JoinType.ANTI) {
+      return probeSchema;
+    }
+    final List<Field> fields = new ArrayList<>(probeSchema.getFields());
+    for (Field field : buildSchema.getFields()) {
+      if (joinType == JoinType.LEFT_OUTER && !field.isNullable()) {
+        final FieldType type = new FieldType(true, field.getType(), field.getDictionary(), field.getMetadata());
+        field = new Field(field.getName(), type, field.getChildren());
+      }
+      fields.add(field);
+    }
+    return new Schema(fields);
+  }
+
+  /**
+   * Gets the schema of the output: the probe columns, followed by the build columns for inner and
+   * left outer joins. The build columns are nullable for left outer joins.
+   * @return the output schema.
+   */
+  public Schema getOutputSchema() {
+    return outputSchema;
+  }
+
+  /**
+   * Gets the number of rows of the build side.
+   * @return the number of rows.
+   */
+  public int getBuildRowCount() {
+    return buildRoot.getRowCount();
+  }
+
+  /**
+   * Gets the memory used by the join.
+   * @return the number of bytes allocated.
+   */
+  public long getAllocatedMemory() {
+    return allocator.getAllocatedMemory();
+  }
+
+  /**
+   * Adds the rows of a batch to the build side.
+   * @param batch the batch, with the build schema, which may be reused by the caller afterwards.
+   */
+  public void addBuildBatch(VectorSchemaRoot batch) {
+    final int rowCount = batch.getRowCount();
+    if (rowCount == 0) {
+      return;
+    }
+    final int firstRow = buildRoot.getRowCount();
+    VectorSchemaRootAppender.append(true, buildRoot, batch);
+    keys.insert(getColumns(batch, buildKeys), rowCount, groupIds);
+
+    final int groupCount = keys.getGroupCount();
+    ensureCapacity(firstRows, groupCount);
+    ensureCapacity(lastRows, groupCount);
+    ensureCapacity(rowCounts, groupCount);
+    ensureCapacity(nextRows, firstRow + rowCount);
+    final long ids = groupIds.getDataBuffer().memoryAddress();
+    final long first = firstRows.getDataBuffer().memoryAddress();
+    final long last = lastRows.getDataBuffer().memoryAddress();
+    final long counts = rowCounts.getDataBuffer().memoryAddress();
+    final long next = nextRows.getDataBuffer().memoryAddress();
+    for (int i = 0; i < rowCount; i++) {
+      final long group = PlatformDependent.getInt(ids + i * 4L) * 4L;
+      final int row = firstRow + i + 1;
+      final int lastRow = PlatformDependent.getInt(last + group);
+      if (lastRow == 0) {
+        PlatformDependent.putInt(first + group, row);
+      } else {
+        PlatformDependent.putInt(next + (lastRow - 1) * 4L, row);
+      }
+      PlatformDependent.putInt(last + group, row);
+      PlatformDependent.putInt(counts + group, PlatformDependent.getInt(counts + group) + 1);
+    }
+  }
+
+  /**
+   * Joins a probe batch with the build side.
+   * @param batch the probe batch, with the probe schema.
+   * @param output the vector schema root to populate, with the schema of {@link #getOutputSchema()}.
+   *     Its vectors are reallocated.
+   */
+  public void probe(VectorSchemaRoot batch, VectorSchemaRoot output) {
+    Preconditions.checkArgument(output.getFieldVectors().size() == outputSchema.getFields().size(),
+        "The output must have %s columns", outputSchema.getFields().size());
+    final int rowCount = batch.getRowCount();
+    final List<FieldVector> probeKeyVectors = getColumns(batch, probeKeys);
+    keys.find(probeKeyVectors, rowCount, groupIds);
+    final ArrowBuf matched = groupIds.getValidityBuffer();
+    for (FieldVector keyVector : probeKeyVectors) {
+      // null keys never match, even though the table has groups for them
+      if (keyVector.getNullCount() > 0) {
+        for (int i = 0; i < rowCount; i++) {
+          if (keyVector.isNull(i)) {
+            BitVectorHelper.setValidityBit(matched, i, 0);
+          }
+        }
+      }
+    }
+
+    final long ids = groupIds.getDataBuffer().memoryAddress();
+    final long counts = rowCounts.getDataBuffer().memoryAddress();
+    long outputCount = 0;
+    final boolean outputMatches = joinType != JoinType.ANTI;
+    final boolean outputUnmatched = joinType == JoinType.LEFT_OUTER || joinType == JoinType.ANTI;
+    for (int i = 0; i < rowCount; i++) {
+      if (BitVectorHelper.get(matched, i) == 0) {
+        outputCount += outputUnmatched ? 1 : 0;
+      } else if (joinType == JoinType.SEMI) {
+        outputCount++;
+      } else if (outputMatches) {
+        outputCount += PlatformDependent.getInt(counts + PlatformDependent.getInt(ids + i * 4L) * 4L);
+      }
+    }
+    Preconditions.checkArgument(outputCount <= Integer.MAX_VALUE, "The output would have too many rows");
+    final int count = (int) outputCount;
+
+    if (joinType == JoinType.SEMI || joinType == JoinType.ANTI) {
+      probeIndices.allocateNew(count);
+      final long probe = probeIndices.getDataBuffer().memoryAddress();
+      final boolean keepMatched = joinType == JoinType.SEMI;
+      int index = 0;
+      for (int i = 0; i < rowCount; i++) {
+        if ((BitVectorHelper.get(matched, i) != 0) == keepMatched) {
+          PlatformDependent.putInt(probe + index++ * 4L, i);
+        }
+      }
+      BitVectorHelper.setAllBitsToOne(probeIndices.getValidityBuffer(), count);
+      probeIndices.setValueCount(count);
+      TakeUtils.take(batch, probeIndices, output);
+      return;
+    }
+
+    probeIndices.allocateNew(count);
+    buildIndices.allocateNew(count);
+    final long probe = probeIndices.getDataBuffer().memoryAddress();
+    final long build = buildIndices.getDataBuffer().memoryAddress();
+    final ArrowBuf buildValidity = buildIndices.getValidityBuffer();
+    final long first = firstRows.getDataBuffer().memoryAddress();
+    final long next = nextRows.getDataBuffer().memoryAddress();
+    BitVectorHelper.setAllBitsToOne(buildIndices.getValidityBuffer(), count);
+    buildIndices.setValueCount(count);
+    int index = 0;
+    for (int i = 0; i < rowCount; i++) {
+      if (BitVectorHelper.get(matched, i) != 0) {
+        int row = PlatformDependent.getInt(first + PlatformDependent.getInt(ids + i * 4L) * 4L);
+        while (row != 0) {
+          PlatformDependent.putInt(probe + index * 4L, i);
+          PlatformDependent.putInt(build + index * 4L, row - 1);
+          index++;
+          row = PlatformDependent.getInt(next + (row - 1) * 4L);
+        }
+      } else if (joinType == JoinType.LEFT_OUTER) {
+        PlatformDependent.putInt(probe + index * 4L, i);
+        BitVectorHelper.setValidityBit(buildValidity, index, 0);
+        index++;
+      }
+    }
+    BitVectorHelper.setAllBitsToOne(probeIndices.getValidityBuffer(), count);
+    probeIndices.setValueCount(count);
+
+    final int probeColumnCount = probeSchema.getFields().size();
+    for (int i = 0; i < probeColumnCount; i++) {
+      TakeUtils.take(batch.getVector(i), probeIndices, output.getVector(i));
+    }
+    for (int i = 0; i < buildRoot.getFieldVectors().size(); i++) {
+      TakeUtils.take(buildRoot.getVector(i), buildIndices, output.getVector(probeColumnCount + i));
+    }
+    output.setRowCount(count);
+  }
+
+  private static List<FieldVector> getColumns(VectorSchemaRoot batch, List<String> names) {
+    final List<FieldVector> columns = new ArrayList<>(names.size());
+    for (String name : names) {
+      final FieldVector vector = batch.getVector(name);
+      Preconditions.checkArgument(vector != null, "Column %s not found", name);
+      columns.add(vector);
+    }
+    return columns;
+  }
+
+  private static void ensureCapacity(IntVector vector, int valueCount) {
+    while (vector.getValueCapacity() < valueCount) {
+      vector.reAlloc();
+    }
+  }
+
+  @Override
+  public void close() {
+    keys.close();
+    buildRoot.close();
+    groupIds.close();
+    firstRows.close();
+    lastRows.close();
+    rowCounts.close();
+    nextRows.close();
+    probeIndices.close();
+    buildIndices.close();
+    allocator.close();
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.join;
+
+/**
+ * The kinds of joins supported by {@link HashJoin}.
+ */
+public enum JoinType {
+
+  /**
+   * A row for each pair of matching probe and build rows.
+   */
+  INNER,
+
+  /**
+   * Like {@link #INNER}, plus a row for each probe row without a match, with null build columns.
+   */
+  LEFT_OUTER,
+
+  /**
+   * The probe rows with at least one match, once each.
+   */
+  SEMI,
+
+  /**
+   * The probe rows without a match.
+   */
+  ANTI
+}
@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.rank;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.algorithm.select.TakeUtils;
+import org.apache.arrow.algorithm.sort.DefaultVectorSorters;
+import org.apache.arrow.algorithm.sort.MultiColumnComparator;
+import org.apache.arrow.algorithm.sort.SortKey;
+import org.apache.arrow.algorithm.sort.VectorSchemaRootSorter;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Selects the first K rows of a stream of vector schema roots in the order of some sort keys,
+ * like ORDER BY ... LIMIT K, in O(n log K) time and with memory proportional to K.
+ *
+ * <p>The winning rows are copied to vectors owned by the selector, and an off-heap binary heap of
+ * their positions keeps the greatest of them on top. A row of an input batch is only copied if it
+ * comes before the top of the heap, which then replaces it. Rows are appended, so the rows replaced
+ * are compacted away once they make up half of the copies.
+ *
+ * <p>The selection is stable: among equal rows, the ones added first are selected first.
+ */
+public class TopKSelector implements AutoCloseable {
+
+  private final Schema schema;
+
+  private final List<SortKey> keys;
+
+  private final int k;
+
+  private final BufferAllocator allocator;
+
+  /**
+   * Compares the rows of an input batch to the copies.
+   */
+  private final MultiColumnComparator batchComparator;
+
+  /**
+   * Compares the copies to each other.
+   */
+  private final MultiColumnComparator copyComparator;
+
+  /**
+   * The copies of the rows, including those which were replaced.
+   */
+  private VectorSchemaRoot copies;
+
+  private int copyCount;
+
+  /**
+   * Max-heap of the positions of the winning copies.
+   */
+  private final ArrowBuf heap;
+
+  private int heapSize;
+
+  /**
+   * Constructs a selector.
+   * @param schema the schema of the input batches.
+   * @param keys the sort keys, in order of precedence.
+   * @param k the number of rows to select.
+   * @param allocator the allocator for the copies of the rows.
+   */
+  public TopKSelector(Schema schema, List<SortKey> keys, int k, BufferAllocator allocator) {
+    Preconditions.checkArgument(k > 0, "K must be positive");
+    this.schema = schema;
+    this.keys = new ArrayList<>(keys);
+    this.k = k;
+    this.allocator = allocator;
+    this.batchComparator = new MultiColumnComparator(keys);
+    this.copyComparator = new MultiColumnComparator(keys);
+    this.copies = VectorSchemaRoot.create(schema, allocator);
+    this.copies.allocateNew();
+    this.copyComparator.attachRoot(copies);
+    this.heap = allocator.buffer(k * 4);
+  }
+
+  /**
+   * Get the number of rows selected so far, which is K once K rows were added.
+   */
+  public int getRowCount() {
+    return heapSize;
+  }
+
+  /**
+   * Add the rows of a batch.
+   * @param batch the batch, with the schema of the selector. It is not retained by the selector.
+   */
+  public void add(VectorSchemaRoot batch) {
+    Preconditions.checkArgument(batch.getFieldVectors().size() == copies.getFieldVectors().size(),
+        "The batch does not have the schema of the selector");
+    final int rowCount = batch.getRowCount();
+    if (rowCount == 0) {
+      return;
+    }
+    batchComparator.attachRoots(batch, copies);
+    for (int row = 0; row < rowCount; row++) {
+      if (heapSize < k) {
+        set(heapSize, copy(batch, row));
+        siftUp(heapSize++);
+      } else if (batchComparator.compare(row, get(0)) < 0) {
+        if (copyCount == 2 * k) {
+          compact();
+          batchComparator.attachRoots(batch, copies);
+        }
+        set(0, copy(batch, row));
+        siftDown(0);
+      }
+    }
+  }
+
+  /**
+   * Output the rows selected so far, sorted.
+   * @param output the output root, with the schema of the selector. Its vectors are reallocated, and
+   *     its row count is set.
+   */
+  public void emit(VectorSchemaRoot output) {
+    if (copyCount != heapSize) {
+      compact();
+    }
+    copies.setRowCount(copyCount);
+    VectorSchemaRootSorter.sort(copies, keys, output);
+  }
+
+  private int copy(VectorSchemaRoot batch, int row) {
+    for (int column = 0; column < batch.getFieldVectors().size(); column++) {
+      copies.getVector(column).copyFromSafe(row, copyCount, batch.getVector(column));
+    }
+    return copyCount++;
+  }
+
+  /**
+   * Move the winning copies to new vectors, in the order they were added, and drop the others.
+   */
+  private void compact() {
+    final VectorSchemaRoot compacted = VectorSchemaRoot.create(schema, allocator);
+    try (final IntVector positions = new IntVector("", allocator)) {
+      positions.allocateNew(heapSize);
+      PlatformDependent.copyMemory(heap.memoryAddress(), positions.getDataBuffer().memoryAddress(), heapSize * 4L);
+      positions.setValueCount(heapSize);
+      for (int i = 0; i < heapSize; i++) {
+        positions.setIndexDefined(i);
+      }
+      // copies are added in order, so sorting their positions keeps the order of equal rows
+      DefaultVectorSorters.sortInPlace(positions);
+      copies.setRowCount(copyCount);
+      TakeUtils.take(copies, positions, compacted);
+
+      // the relative order of the positions is unchanged, so the heap stays a heap
+      for (int i = 0; i < heapSize; i++) {
+        set(i, binarySearch(positions, get(i)));
+      }
+    } catch (RuntimeException e) {
+      compacted.close();
+      throw e;
+    }
+    copies.close();
+    copies = compacted;
+    copyCount = heapSize;
+    copyComparator.attachRoot(copies);
+  }
+
+  private static int binarySearch(IntVector positions, int position) {
+    int low = 0;
+    int high = positions.getValueCount() - 1;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (positions.get(mid) < position) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Compare two copies, the one added last being greater if they are equal.
+   */
+  private int compare(int position1, int position2) {
+    final int result = copyComparator.compare(position1, position2);
+    return result != 0 ? result : Integer.compare(position1, position2);
+  }
+
+  private void siftUp(int index) {
+    final int position = get(index);
+    while (index > 0) {
+      final int parent = (index - 1) >>> 1;
+      final int parentPosition = get(parent);
+      if (compare(parentPosition, position) >= 0) {
+        break;
+      }
+      set(index, parentPosition);
+      index = parent;
+    }
+    set(index, position);
+  }
+
+  private void siftDown(int index) {
+    final int position = get(index);
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      if (child + 1 < heapSize && compare(get(child + 1), get(child)) > 0) {
+        child++;
+      }
+      final int childPosition = get(child);
+      if (compare(position, childPosition) >= 0) {
+        break;
+      }
+      set(index, childPosition);
+      index = child;
+    }
+    set(index, position);
+  }
+
+  private int get(int index) {
+    return PlatformDependent.getInt(heap.memoryAddress() + index * 4L);
+  }
+
+  private void set(int index, int position) {
+    PlatformDependent.putInt(heap.memoryAddress() + index * 4L, position);
+  }
+
+  @Override
+  public void close() {
+    heap.close();
+    copies.close();
+  }
+}
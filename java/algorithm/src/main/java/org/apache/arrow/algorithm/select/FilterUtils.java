@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.select;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Utilities for keeping the values of vectors selected by a mask ("filter"), or by a selection of
+ * indices such as the buffer of a Gandiva selection vector.
+ *
+ * <p>The mask is converted to the indices of the selected values a word of 64 bits at a time, and the
+ * values are then gathered with {@link TakeUtils}, so the output vectors are allocated with exactly
+ * the required capacity. A null in the mask does not select the value, as in a SQL WHERE clause.
+ */
+public class FilterUtils {
+
+  /**
+   * Count the values selected by a mask, i.e. the bits both set and valid.
+   * @param mask the mask.
+   * @return the number of selected values.
+   */
+  public static int getSelectedCount(BitVector mask) {
+    final int valueCount = mask.getValueCount();
+    final boolean hasNulls = mask.getNullCount() > 0;
+    final long data = mask.getDataBuffer().memoryAddress();
+    final long validity = mask.getValidityBuffer().memoryAddress();
+    final int wordCount = valueCount >>> 6;
+    int count = 0;
+    for (int i = 0; i < wordCount; i++) {
+      long word = PlatformDependent.getLong(data + i * 8L);
+      if (hasNulls) {
+        word &= PlatformDependent.getLong(validity + i * 8L);
+      }
+      count += Long.bitCount(word);
+    }
+    for (int i = wordCount * 64; i < valueCount; i++) {
+      if (isSelected(mask, i)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Compute the indices of the values selected by a mask, in increasing order.
+   * @param mask the mask.
+   * @param indices the vector to populate with the indices. Its buffers are reallocated, and its
+   *     value count is set to the number of selected values.
+   */
+  public static void getSelectedIndices(BitVector mask, IntVector indices) {
+    final int selectedCount = getSelectedCount(mask);
+    indices.allocateNew(selectedCount);
+    final int valueCount = mask.getValueCount();
+    final boolean hasNulls = mask.getNullCount() > 0;
+    final long data = mask.getDataBuffer().memoryAddress();
+    final long validity = mask.getValidityBuffer().memoryAddress();
+    final long dst = indices.getDataBuffer().memoryAddress();
+    final int wordCount = valueCount >>> 6;
+    int index = 0;
+    for (int i = 0; i < wordCount; i++) {
+      long word = PlatformDependent.getLong(data + i * 8L);
+      if (hasNulls) {
+        word &= PlatformDependent.getLong(validity + i * 8L);
+      }
+      while (word != 0) {
+        PlatformDependent.putInt(dst + index * 4L, i * 64 + Long.numberOfTrailingZeros(word));
+        index++;
+        // clear the lowest set bit
+        word &= word - 1;
+      }
+    }
+    for (int i = wordCount * 64; i < valueCount; i++) {
+      if (isSelected(mask, i)) {
+        PlatformDependent.putInt(dst + index * 4L, i);
+        index++;
+      }
+    }
+    BitVectorHelper.setAllBitsToOne(indices.getValidityBuffer(), selectedCount);
+    indices.setValueCount(selectedCount);
+  }
+
+  /**
+   * Keep the values of a vector selected by a mask.
+   * @param srcVector the vector to read.
+   * @param mask the mask, with the same value count as the input vector.
+   * @param dstVector the output vector, of the same type as the input vector. Its buffers are
+   *     reallocated, and its value count is set to the number of selected values.
+   */
+  public static void filter(ValueVector srcVector, BitVector mask, ValueVector dstVector) {
+    Preconditions.checkArgument(srcVector.getValueCount() == mask.getValueCount(),
+        "The mask must have the same value count as the input vector");
+    try (IntVector indices = new IntVector("indices", dstVector.getAllocator())) {
+      getSelectedIndices(mask, indices);
+      TakeUtils.take(srcVector, indices, dstVector);
+    }
+  }
+
+  /**
+   * Keep the rows of a vector schema root selected by a mask.
+   * @param srcRoot the vector schema root to read.
+   * @param mask the mask, with the same value count as the row count of the input.
+   * @param dstRoot the output vector schema root, with the same schema as the input. Its row count is
+   *     set to the number of selected rows.
+   */
+  public static void filter(VectorSchemaRoot srcRoot, BitVector mask, VectorSchemaRoot dstRoot) {
+    Preconditions.checkArgument(srcRoot.getRowCount() == mask.getValueCount(),
+        "The mask must have the same value count as the row count of the input");
+    try (IntVector indices = new IntVector("indices", mask.getAllocator())) {
+      getSelectedIndices(mask, indices);
+      TakeUtils.take(srcRoot, indices, dstRoot);
+    }
+  }
+
+  /**
+   * Keep the rows of a vector schema root at the indices of a selection buffer, e.g. the buffer and
+   * record count of a Gandiva selection vector produced by a filter.
+   * @param srcRoot the vector schema root to read.
+   * @param selection the buffer of the selection, holding little-endian unsigned indices.
+   * @param indexWidth the width in bytes of each index: 2, 4 or 8.
+   * @param selectedCount the number of indices in the selection.
+   * @param dstRoot the output vector schema root, with the same schema as the input. Its row count is
+   *     set to the number of selected rows.
+   * @throws IndexOutOfBoundsException if a selected index is out of the range of the input rows.
+   */
+  public static void select(
+      VectorSchemaRoot srcRoot, ArrowBuf selection, int indexWidth, int selectedCount, VectorSchemaRoot dstRoot) {
+    Preconditions.checkArgument(indexWidth == 2 || indexWidth == 4 || indexWidth == 8,
+        "The index width must be 2, 4 or 8 bytes");
+    Preconditions.checkArgument((long) selectedCount * indexWidth <= selection.capacity(),
+        "The selection buffer is too small for the selected count");
+    final BufferAllocator allocator = selection.getReferenceManager().getAllocator();
+    try (IntVector indices = new IntVector("indices", allocator)) {
+      indices.allocateNew(selectedCount);
+      final long src = selection.memoryAddress();
+      final long dst = indices.getDataBuffer().memoryAddress();
+      final int rowCount = srcRoot.getRowCount();
+      // the indices are unsigned, so they are checked as longs before being narrowed to ints
+      switch (indexWidth) {
+        case 2:
+          for (int i = 0; i < selectedCount; i++) {
+            final int index = PlatformDependent.getShort(src + i * 2L) & 0xffff;
+            checkSelectedIndex(index, rowCount);
+            PlatformDependent.putInt(dst + i * 4L, index);
+          }
+          break;
+        case 4:
+          for (int i = 0; i < selectedCount; i++) {
+            final long index = PlatformDependent.getInt(src + i * 4L) & 0xffffffffL;
+            checkSelectedIndex(index, rowCount);
+            PlatformDependent.putInt(dst + i * 4L, (int) index);
+          }
+          break;
+        default:
+          for (int i = 0; i < selectedCount; i++) {
+            final long index = PlatformDependent.getLong(src + i * 8L);
+            checkSelectedIndex(index, rowCount);
+            PlatformDependent.putInt(dst + i * 4L, (int) index);
+          }
+      }
+      BitVectorHelper.setAllBitsToOne(indices.getValidityBuffer(), selectedCount);
+      indices.setValueCount(selectedCount);
+      TakeUtils.takeUnchecked(srcRoot, indices, dstRoot);
+    }
+  }
+
+  private static void checkSelectedIndex(long index, int rowCount) {
+    // a negative long is an unsigned 8-byte index above Long.MAX_VALUE
+    if (index < 0 || index >= rowCount) {
+      throw new IndexOutOfBoundsException(String.format(
+          "Selected index %s is out of the range of an input with %d rows", Long.toUnsignedString(index), rowCount));
+    }
+  }
+
+  private static boolean isSelected(BitVector mask, int index) {
+    return BitVectorHelper.get(mask.getValidityBuffer(), index) != 0 &&
+        BitVectorHelper.get(mask.getDataBuffer(), index) != 0;
+  }
+}
@@ -0,0 +1,482 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.select;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.FixedSizeListVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.NonNullableStructVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.complex.UnionVector;
+import org.apache.arrow.vector.ipc.message.ArrowFieldNode;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Utilities for gathering the values of vectors at given indices ("take"), e.g. to apply a
+ * permutation computed by an index sort. A null index gives a null value, e.g. for the rows of an
+ * outer join without a match.
+ *
+ * <p>The output vector is allocated with exactly the required capacity. Values of fixed-width and
+ * variable-width vectors are copied directly between the buffers, and bits of the validity buffer
+ * are set in bulk when the input has no nulls. For list, fixed-size list, map, struct and union
+ * vectors, the own buffers of the output are built from the input ones and the child vectors are
+ * gathered recursively, the indices of a list child being derived from the offsets. The children of
+ * an output vector without children are created from the input field. Other vectors are copied value
+ * by value.
+ */
+public class TakeUtils {
+
+  /**
+   * Gather the values of a vector at the given indices.
+   * @param srcVector the vector to read.
+   * @param indices the indices of the values to gather.
+   * @param dstVector the output vector, of the same type as the input vector. Its buffers are
+   *     reallocated, and its value count is set to the number of indices.
+   * @throws IndexOutOfBoundsException if a non-null index is out of the range of the input vector.
+   */
+  public static void take(ValueVector srcVector, IntVector indices, ValueVector dstVector) {
+    checkIndices(indices, srcVector.getValueCount());
+    takeUnchecked(srcVector, indices, dstVector);
+  }
+
+  /**
+   * Gather the rows of a vector schema root at the given indices.
+   * @param srcRoot the vector schema root to read.
+   * @param indices the indices of the rows to gather.
+   * @param dstRoot the output vector schema root, with the same schema as the input. Its row count is
+   *     set to the number of indices.
+   * @throws IndexOutOfBoundsException if a non-null index is out of the range of the input rows.
+   */
+  public static void take(VectorSchemaRoot srcRoot, IntVector indices, VectorSchemaRoot dstRoot) {
+    Preconditions.checkArgument(srcRoot.getFieldVectors().size() == dstRoot.getFieldVectors().size(),
+        "The input and output must have the same columns");
+    checkIndices(indices, srcRoot.getRowCount());
+    takeUnchecked(srcRoot, indices, dstRoot);
+  }
+
+  /**
+   * Gather the rows of a vector schema root at indices already checked by the caller.
+   */
+  static void takeUnchecked(VectorSchemaRoot srcRoot, IntVector indices, VectorSchemaRoot dstRoot) {
+    for (int i = 0; i < srcRoot.getFieldVectors().size(); i++) {
+      takeUnchecked(srcRoot.getVector(i), indices, dstRoot.getVector(i));
+    }
+    dstRoot.setRowCount(indices.getValueCount());
+  }
+
+  /**
+   * Check that the non-null indices are in the range of the input, from their minimum and maximum,
+   * so the gathering loops can read the input buffers without bound checks.
+   */
+  private static void checkIndices(IntVector indices, int valueCount) {
+    final int count = indices.getValueCount();
+    final ArrowBuf indexValidity = indices.getValidityBuffer();
+    final boolean allIndicesValid = indices.getNullCount() == 0;
+    final long indexes = indices.getDataBuffer().memoryAddress();
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      if (allIndicesValid || BitVectorHelper.get(indexValidity, i) != 0) {
+        final int index = PlatformDependent.getInt(indexes + i * 4L);
+        min = Math.min(min, index);
+        max = Math.max(max, index);
+      }
+    }
+    if (min < 0 || max >= valueCount) {
+      throw new IndexOutOfBoundsException(String.format(
+          "Indices in range [%d, %d] are out of the range of an input with %d values", min, max, valueCount));
+    }
+  }
+
+  /**
+   * Gather values at indices known to be in the range of the input vector.
+   */
+  private static void takeUnchecked(ValueVector srcVector, IntVector indices, ValueVector dstVector) {
+    Preconditions.checkArgument(srcVector.getClass() == dstVector.getClass(),
+        "The input and output vectors must have the same type");
+    final int count = indices.getValueCount();
+    if (srcVector instanceof ListVector) {
+      takeList((ListVector) srcVector, indices, (ListVector) dstVector, count);
+    } else if (srcVector instanceof FixedSizeListVector) {
+      takeFixedSizeList((FixedSizeListVector) srcVector, indices, (FixedSizeListVector) dstVector, count);
+    } else if (srcVector instanceof NonNullableStructVector) {
+      takeStruct((NonNullableStructVector) srcVector, indices, (NonNullableStructVector) dstVector, count);
+    } else if (srcVector instanceof UnionVector) {
+      takeUnion((UnionVector) srcVector, indices, (UnionVector) dstVector, count);
+    } else if (indices.getNullCount() > 0) {
+      takeWithNullIndices(srcVector, indices, dstVector, count);
+    } else if (srcVector instanceof BitVector) {
+      takeBits((BitVector) srcVector, indices, (BitVector) dstVector, count);
+    } else if (srcVector instanceof BaseFixedWidthVector) {
+      takeFixedWidth((BaseFixedWidthVector) srcVector, indices, (BaseFixedWidthVector) dstVector, count);
+    } else if (srcVector instanceof BaseVariableWidthVector) {
+      takeVariableWidth((BaseVariableWidthVector) srcVector, indices, (BaseVariableWidthVector) dstVector, count);
+    } else {
+      dstVector.allocateNew();
+      for (int i = 0; i < count; i++) {
+        dstVector.copyFromSafe(indices.get(i), i, srcVector);
+      }
+      dstVector.setValueCount(count);
+    }
+  }
+
+  private static void takeBits(BitVector srcVector, IntVector indices, BitVector dstVector, int count) {
+    dstVector.allocateNew(count);
+    final ArrowBuf srcData = srcVector.getDataBuffer();
+    final ArrowBuf dstData = dstVector.getDataBuffer();
+    for (int i = 0; i < count; i++) {
+      if (BitVectorHelper.get(srcData, indices.get(i)) != 0) {
+        BitVectorHelper.setValidityBitToOne(dstData, i);
+      }
+    }
+    takeValidity(srcVector, indices, dstVector.getValidityBuffer(), count);
+    dstVector.setValueCount(count);
+  }
+
+  private static void takeFixedWidth(
+      BaseFixedWidthVector srcVector, IntVector indices, BaseFixedWidthVector dstVector, int count) {
+    dstVector.allocateNew(count);
+    final int width = srcVector.getTypeWidth();
+    final long src = srcVector.getDataBuffer().memoryAddress();
+    final long dst = dstVector.getDataBuffer().memoryAddress();
+    final long indexes = indices.getDataBuffer().memoryAddress();
+    switch (width) {
+      case 1:
+        for (int i = 0; i < count; i++) {
+          final long offset = PlatformDependent.getInt(indexes + i * 4L);
+          PlatformDependent.putByte(dst + i, PlatformDependent.getByte(src + offset));
+        }
+        break;
+      case 2:
+        for (int i = 0; i < count; i++) {
+          final long offset = PlatformDependent.getInt(indexes + i * 4L) * 2L;
+          PlatformDependent.putShort(dst + i * 2L, PlatformDependent.getShort(src + offset));
+        }
+        break;
+      case 4:
+        for (int i = 0; i < count; i++) {
+          final long offset = PlatformDependent.getInt(indexes + i * 4L) * 4L;
+          PlatformDependent.putInt(dst + i * 4L, PlatformDependent.getInt(src + offset));
+        }
+        break;
+      case 8:
+        for (int i = 0; i < count; i++) {
+          final long offset = PlatformDependent.getInt(indexes + i * 4L) * 8L;
+          PlatformDependent.putLong(dst + i * 8L, PlatformDependent.getLong(src + offset));
+        }
+        break;
+      default:
+        for (int i = 0; i < count; i++) {
+          final long offset = (long) PlatformDependent.getInt(indexes + i * 4L) * width;
+          PlatformDependent.copyMemory(src + offset, dst + (long) i * width, width);
+        }
+    }
+    takeValidity(srcVector, indices, dstVector.getValidityBuffer(), count);
+    dstVector.setValueCount(count);
+  }
+
+  private static void takeVariableWidth(
+      BaseVariableWidthVector srcVector, IntVector indices, BaseVariableWidthVector dstVector, int count) {
+    final long srcOffsets = srcVector.getOffsetBuffer().memoryAddress();
+    final long indexes = indices.getDataBuffer().memoryAddress();
+    long totalBytes = 0;
+    for (int i = 0; i < count; i++) {
+      final long offset = srcOffsets + PlatformDependent.getInt(indexes + i * 4L) * 4L;
+      totalBytes += PlatformDependent.getInt(offset + 4) - PlatformDependent.getInt(offset);
+    }
+    Preconditions.checkArgument(totalBytes <= Integer.MAX_VALUE, "The output vector would be too large");
+    dstVector.allocateNew((int) totalBytes, count);
+
+    final long src = srcVector.getDataBuffer().memoryAddress();
+    final long dst = dstVector.getDataBuffer().memoryAddress();
+    final long dstOffsets = dstVector.getOffsetBuffer().memoryAddress();
+    int dstOffset = 0;
+    PlatformDependent.putInt(dstOffsets, 0);
+    for (int i = 0; i < count; i++) {
+      final long offset = srcOffsets + PlatformDependent.getInt(indexes + i * 4L) * 4L;
+      final int start = PlatformDependent.getInt(offset);
+      final int length = PlatformDependent.getInt(offset + 4) - start;
+      PlatformDependent.copyMemory(src + start, dst + dstOffset, length);
+      dstOffset += length;
+      PlatformDependent.putInt(dstOffsets + (i + 1) * 4L, dstOffset);
+    }
+    takeValidity(srcVector, indices, dstVector.getValidityBuffer(), count);
+    dstVector.setLastSet(count - 1);
+    dstVector.setValueCount(count);
+  }
+
+  /**
+   * Gather values with a branch on the validity of each index, leaving the values at null indices
+   * unset, so null.
+   */
+  private static void takeWithNullIndices(ValueVector srcVector, IntVector indices, ValueVector dstVector, int count) {
+    final ArrowBuf indexValidity = indices.getValidityBuffer();
+    final long indexes = indices.getDataBuffer().memoryAddress();
+    if (srcVector instanceof BitVector) {
+      final BitVector dstBits = (BitVector) dstVector;
+      dstBits.allocateNew(count);
+      final ArrowBuf srcData = srcVector.getDataBuffer();
+      for (int i = 0; i < count; i++) {
+        if (BitVectorHelper.get(indexValidity, i) != 0 &&
+            BitVectorHelper.get(srcData, PlatformDependent.getInt(indexes + i * 4L)) != 0) {
+          BitVectorHelper.setValidityBitToOne(dstBits.getDataBuffer(), i);
+        }
+      }
+    } else if (srcVector instanceof BaseFixedWidthVector) {
+      final BaseFixedWidthVector dstFixed = (BaseFixedWidthVector) dstVector;
+      dstFixed.allocateNew(count);
+      final int width = dstFixed.getTypeWidth();
+      final long src = srcVector.getDataBuffer().memoryAddress();
+      final long dst = dstFixed.getDataBuffer().memoryAddress();
+      for (int i = 0; i < count; i++) {
+        if (BitVectorHelper.get(indexValidity, i) != 0) {
+          final long offset = (long) PlatformDependent.getInt(indexes + i * 4L) * width;
+          PlatformDependent.copyMemory(src + offset, dst + (long) i * width, width);
+        }
+      }
+    } else if (srcVector instanceof BaseVariableWidthVector) {
+      final BaseVariableWidthVector dstVariable = (BaseVariableWidthVector) dstVector;
+      final long srcOffsets = srcVector.getOffsetBuffer().memoryAddress();
+      long totalBytes = 0;
+      for (int i = 0; i < count; i++) {
+        if (BitVectorHelper.get(indexValidity, i) != 0) {
+          final long offset = srcOffsets + PlatformDependent.getInt(indexes + i * 4L) * 4L;
+          totalBytes += PlatformDependent.getInt(offset + 4) - PlatformDependent.getInt(offset);
+        }
+      }
+      Preconditions.checkArgument(totalBytes <= Integer.MAX_VALUE, "The output vector would be too large");
+      dstVariable.allocateNew((int) totalBytes, count);
+      final long src = srcVector.getDataBuffer().memoryAddress();
+      final long dst = dstVariable.getDataBuffer().memoryAddress();
+      final long dstOffsets = dstVariable.getOffsetBuffer().memoryAddress();
+      int dstOffset = 0;
+      PlatformDependent.putInt(dstOffsets, 0);
+      for (int i = 0; i < count; i++) {
+        if (BitVectorHelper.get(indexValidity, i) != 0) {
+          final long offset = srcOffsets + PlatformDependent.getInt(indexes + i * 4L) * 4L;
+          final int start = PlatformDependent.getInt(offset);
+          final int length = PlatformDependent.getInt(offset + 4) - start;
+          PlatformDependent.copyMemory(src + start, dst + dstOffset, length);
+          dstOffset += length;
+        }
+        PlatformDependent.putInt(dstOffsets + (i + 1) * 4L, dstOffset);
+      }
+      dstVariable.setLastSet(count - 1);
+    } else {
+      dstVector.allocateNew();
+      for (int i = 0; i < count; i++) {
+        if (BitVectorHelper.get(indexValidity, i) != 0) {
+          dstVector.copyFromSafe(indices.get(i), i, srcVector);
+        }
+      }
+      dstVector.setValueCount(count);
+      return;
+    }
+    takeValidity(srcVector, indices, dstVector.getValidityBuffer(), count);
+    dstVector.setValueCount(count);
+  }
+
+  private static void takeList(ListVector srcVector, IntVector indices, ListVector dstVector, int count) {
+    if (dstVector.size() == 0) {
+      dstVector.initializeChildrenFromFields(srcVector.getField().getChildren());
+    }
+    final ArrowBuf indexValidity = indices.getValidityBuffer();
+    final boolean allIndicesValid = indices.getNullCount() == 0;
+    final long srcOffsets = srcVector.getOffsetBuffer().memoryAddress();
+    final long indexes = indices.getDataBuffer().memoryAddress();
+    long childCount = 0;
+    for (int i = 0; i < count; i++) {
+      if (allIndicesValid || BitVectorHelper.get(indexValidity, i) != 0) {
+        final long offset = srcOffsets + PlatformDependent.getInt(indexes + i * 4L) * 4L;
+        childCount += PlatformDependent.getInt(offset + 4) - PlatformDependent.getInt(offset);
+      }
+    }
+    Preconditions.checkArgument(childCount <= Integer.MAX_VALUE, "The output vector would be too large");
+
+    final BufferAllocator allocator = dstVector.getAllocator();
+    try (ArrowBuf validity = allocateValidity(allocator, count);
+         ArrowBuf offsets = allocator.buffer((count + 1) * 4);
+         IntVector childIndices = new IntVector("childIndices", allocator)) {
+      childIndices.allocateNew((int) childCount);
+      final long dstOffsets = offsets.memoryAddress();
+      final long childIndexes = childIndices.getDataBuffer().memoryAddress();
+      int dstOffset = 0;
+      PlatformDependent.putInt(dstOffsets, 0);
+      for (int i = 0; i < count; i++) {
+        if (allIndicesValid || BitVectorHelper.get(indexValidity, i) != 0) {
+          final long offset = srcOffsets + PlatformDependent.getInt(indexes + i * 4L) * 4L;
+          final int end = PlatformDependent.getInt(offset + 4);
+          for (int j = PlatformDependent.getInt(offset); j < end; j++) {
+            PlatformDependent.putInt(childIndexes + dstOffset * 4L, j);
+            dstOffset++;
+          }
+        }
+        PlatformDependent.putInt(dstOffsets + (i + 1) * 4L, dstOffset);
+      }
+      BitVectorHelper.setAllBitsToOne(childIndices.getValidityBuffer(), dstOffset);
+      childIndices.setValueCount(dstOffset);
+
+      takeValidity(srcVector, indices, validity, count);
+      dstVector.loadFieldBuffers(new ArrowFieldNode(count, BitVectorHelper.getNullCount(validity, count)),
+          Arrays.asList(validity, offsets));
+      takeUnchecked(srcVector.getDataVector(), childIndices, dstVector.getDataVector());
+    }
+  }
+
+  private static void takeFixedSizeList(
+      FixedSizeListVector srcVector, IntVector indices, FixedSizeListVector dstVector, int count) {
+    Preconditions.checkArgument(srcVector.getListSize() == dstVector.getListSize(),
+        "The input and output vectors must have the same list size");
+    if (dstVector.size() == 0) {
+      dstVector.initializeChildrenFromFields(srcVector.getField().getChildren());
+    }
+    final ArrowBuf indexValidity = indices.getValidityBuffer();
+    final boolean allIndicesValid = indices.getNullCount() == 0;
+    final long indexes = indices.getDataBuffer().memoryAddress();
+    final int listSize = srcVector.getListSize();
+    final long childCount = (long) count * listSize;
+    Preconditions.checkArgument(childCount <= Integer.MAX_VALUE, "The output vector would be too large");
+
+    final BufferAllocator allocator = dstVector.getAllocator();
+    try (ArrowBuf validity = allocateValidity(allocator, count);
+         IntVector childIndices = new IntVector("childIndices", allocator)) {
+      // the children of null indices are left null, as they take up space in a fixed-size list
+      childIndices.allocateNew((int) childCount);
+      final ArrowBuf childIndexValidity = childIndices.getValidityBuffer();
+      final long childIndexes = childIndices.getDataBuffer().memoryAddress();
+      for (int i = 0; i < count; i++) {
+        if (allIndicesValid || BitVectorHelper.get(indexValidity, i) != 0) {
+          final int start = PlatformDependent.getInt(indexes + i * 4L) * listSize;
+          for (int j = 0; j < listSize; j++) {
+            PlatformDependent.putInt(childIndexes + ((long) i * listSize + j) * 4L, start + j);
+            if (!allIndicesValid) {
+              BitVectorHelper.setValidityBitToOne(childIndexValidity, i * listSize + j);
+            }
+          }
+        }
+      }
+      if (allIndicesValid) {
+        BitVectorHelper.setAllBitsToOne(childIndexValidity, (int) childCount);
+      }
+      childIndices.setValueCount((int) childCount);
+
+      takeValidity(srcVector, indices, validity, count);
+      dstVector.loadFieldBuffers(new ArrowFieldNode(count, BitVectorHelper.getNullCount(validity, count)),
+          Collections.singletonList(validity));
+      takeUnchecked(srcVector.getDataVector(), childIndices, dstVector.getDataVector());
+    }
+  }
+
+  private static void takeStruct(
+      NonNullableStructVector srcVector, IntVector indices, NonNullableStructVector dstVector, int count) {
+    if (dstVector.size() == 0) {
+      dstVector.initializeChildrenFromFields(srcVector.getField().getChildren());
+    }
+    Preconditions.checkArgument(srcVector.size() == dstVector.size(),
+        "The input and output vectors must have the same children");
+    for (int i = 0; i < srcVector.size(); i++) {
+      takeUnchecked(srcVector.getChildByOrdinal(i), indices, dstVector.getChildByOrdinal(i));
+    }
+    if (srcVector instanceof StructVector) {
+      try (ArrowBuf validity = allocateValidity(dstVector.getAllocator(), count)) {
+        takeValidity(srcVector, indices, validity, count);
+        final ArrowFieldNode fieldNode = new ArrowFieldNode(count, BitVectorHelper.getNullCount(validity, count));
+        ((StructVector) dstVector).loadFieldBuffers(fieldNode, Collections.singletonList(validity));
+      }
+    } else {
+      dstVector.setValueCount(count);
+    }
+  }
+
+  private static void takeUnion(UnionVector srcVector, IntVector indices, UnionVector dstVector, int count) {
+    if (dstVector.getChildrenFromFields().isEmpty()) {
+      dstVector.initializeChildrenFromFields(srcVector.getField().getChildren());
+    }
+    final List<FieldVector> srcChildren = srcVector.getChildrenFromFields();
+    final List<FieldVector> dstChildren = dstVector.getChildrenFromFields();
+    Preconditions.checkArgument(srcChildren.size() == dstChildren.size(),
+        "The input and output vectors must have the same children");
+    for (int i = 0; i < srcChildren.size(); i++) {
+      takeUnchecked(srcChildren.get(i), indices, dstChildren.get(i));
+    }
+
+    // a union vector has no validity buffer, the null type id marks null values
+    final ArrowBuf indexValidity = indices.getValidityBuffer();
+    final boolean allIndicesValid = indices.getNullCount() == 0;
+    final long indexes = indices.getDataBuffer().memoryAddress();
+    try (ArrowBuf typeIds = dstVector.getAllocator().buffer(count)) {
+      final long dstTypeIds = typeIds.memoryAddress();
+      for (int i = 0; i < count; i++) {
+        byte typeId = 0;
+        if (allIndicesValid || BitVectorHelper.get(indexValidity, i) != 0) {
+          typeId = (byte) srcVector.getTypeValue(PlatformDependent.getInt(indexes + i * 4L));
+        }
+        PlatformDependent.putByte(dstTypeIds + i, typeId);
+      }
+      dstVector.loadFieldBuffers(new ArrowFieldNode(count, 0), Collections.singletonList(typeIds));
+    }
+    dstVector.setValueCount(count);
+  }
+
+  private static ArrowBuf allocateValidity(BufferAllocator allocator, int count) {
+    final ArrowBuf validity = allocator.buffer(BitVectorHelper.getValidityBufferSize(count));
+    validity.setZero(0, validity.capacity());
+    return validity;
+  }
+
+  /**
+   * Gather the validity bits into a zeroed validity buffer. The bits are set in bulk when the input
+   * has no nulls: all of them for valid indices, or those of the indices otherwise.
+   */
+  private static void takeValidity(ValueVector srcVector, IntVector indices, ArrowBuf dstValidity, int count) {
+    final ArrowBuf indexValidity = indices.getValidityBuffer();
+    final boolean allIndicesValid = indices.getNullCount() == 0;
+    if (srcVector.getNullCount() == 0) {
+      if (allIndicesValid) {
+        BitVectorHelper.setAllBitsToOne(dstValidity, count);
+      } else {
+        PlatformDependent.copyMemory(indexValidity.memoryAddress(), dstValidity.memoryAddress(),
+            BitVectorHelper.getValidityBufferSize(count));
+      }
+    } else {
+      final ArrowBuf srcValidity = srcVector.getValidityBuffer();
+      final long indexes = indices.getDataBuffer().memoryAddress();
+      for (int i = 0; i < count; i++) {
+        if ((allIndicesValid || BitVectorHelper.get(indexValidity, i) != 0) &&
+            BitVectorHelper.get(srcValidity, PlatformDependent.getInt(indexes + i * 4L)) != 0) {
+          BitVectorHelper.setValidityBitToOne(dstValidity, i);
+        }
+      }
+    }
+  }
+}
@@ -34,6 +34,7 @@ import org.apache.arrow.vector.UInt2Vector;
 import org.apache.arrow.vector.UInt4Vector;
 import org.apache.arrow.vector.UInt8Vector;
 import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.ViewVarCharVector;
 import org.apache.arrow.vector.complex.BaseRepeatedValueVector;
 
 /**
@@ -72,6 +73,8 @@ public class DefaultVectorComparators {
       }
     } else if (vector instanceof BaseVariableWidthVector) {
       return (VectorValueComparator<T>) new VariableWidthComparator();
+    } else if (vector instanceof ViewVarCharVector) {
+      return (VectorValueComparator<T>) new ViewVarCharComparator();
     } else if (vector instanceof BaseRepeatedValueVector) {
       VectorValueComparator<?> innerComparator =
               createDefaultComparator(((BaseRepeatedValueVector) vector).getDataVector());
@@ -316,6 +319,19 @@ public class DefaultVectorComparators {
     }
   }
 
+  /**
+   * Default comparator for {@link ViewVarCharVector}.
+   * The comparison is in lexicographic order, with null comes first.
+   * Most values are ordered by their 4 byte prefixes, without accessing the data buffers.
+   */
+  public static class ViewVarCharComparator extends VectorValueComparator<ViewVarCharVector> {
+
+    @Override
+    public int compareNotNull(int index1, int index2) {
+      return vector1.compareNotNull(index1, vector2, index2);
+    }
+  }
+
   /**
    * Default comparator for {@link BaseRepeatedValueVector}.
    * It works by comparing the underlying vector in a lexicographic order.
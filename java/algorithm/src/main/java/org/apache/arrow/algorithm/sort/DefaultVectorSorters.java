@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+
+/**
+ * Sorts vectors in the order of their default comparators (see {@link DefaultVectorComparators}),
+ * choosing the algorithm from the type of the vector: radix sort (see {@link RadixVectorSorter}) for
+ * integers, dates, times, timestamps, durations and floating point numbers, and quick sort otherwise.
+ */
+public class DefaultVectorSorters {
+
+  /**
+   * Sort a fixed-width vector in place.
+   * @param vector the vector to sort.
+   * @param <V> the vector type.
+   */
+  public static <V extends BaseFixedWidthVector> void sortInPlace(V vector) {
+    if (RadixVectorSorter.isSupported(vector)) {
+      RadixVectorSorter.sortInPlace(vector);
+    } else {
+      final VectorValueComparator<V> comparator = DefaultVectorComparators.createDefaultComparator(vector);
+      new FixedWidthInPlaceVectorSorter<V>().sortInPlace(vector, comparator);
+    }
+  }
+
+  /**
+   * Sort a vector out of place.
+   * @param srcVector the vector to sort.
+   * @param dstVector the output vector, which has the same size as the input vector.
+   * @param <V> the vector type.
+   */
+  public static <V extends ValueVector> void sortOutOfPlace(V srcVector, V dstVector) {
+    if (RadixVectorSorter.isSupported(srcVector)) {
+      RadixVectorSorter.sortOutOfPlace((BaseFixedWidthVector) srcVector, (BaseFixedWidthVector) dstVector);
+    } else if (srcVector instanceof BaseFixedWidthVector) {
+      final BaseFixedWidthVector src = (BaseFixedWidthVector) srcVector;
+      new FixedWidthOutOfPlaceVectorSorter<BaseFixedWidthVector>().sortOutOfPlace(
+          src, (BaseFixedWidthVector) dstVector, DefaultVectorComparators.createDefaultComparator(src));
+    } else if (srcVector instanceof BaseVariableWidthVector) {
+      final BaseVariableWidthVector src = (BaseVariableWidthVector) srcVector;
+      new VariableWidthOutOfPlaceVectorSorter<BaseVariableWidthVector>().sortOutOfPlace(
+          src, (BaseVariableWidthVector) dstVector, DefaultVectorComparators.createDefaultComparator(src));
+    } else {
+      throw new IllegalArgumentException("No default sorter for " + srcVector.getClass().getCanonicalName());
+    }
+  }
+
+  /**
+   * Sort the indices of a vector.
+   * @param vector the vector whose indices are sorted.
+   * @param indices the vector for storing the sorted indices.
+   * @param stable whether the indices of equal values must stay in ascending order.
+   * @param <V> the vector type.
+   */
+  public static <V extends ValueVector> void sortIndices(V vector, IntVector indices, boolean stable) {
+    if (RadixVectorSorter.isSupported(vector)) {
+      // radix sort is always stable
+      RadixVectorSorter.sortIndices((BaseFixedWidthVector) vector, indices);
+    } else {
+      final VectorValueComparator<V> comparator = DefaultVectorComparators.createDefaultComparator(vector);
+      new IndexSorter<V>().sort(vector, indices, stable ? new StableVectorComparator<>(comparator) : comparator);
+    }
+  }
+}
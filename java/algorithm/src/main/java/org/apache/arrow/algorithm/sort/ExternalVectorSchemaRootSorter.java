@@ -0,0 +1,377 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * External sorter for streams of vector schema roots which may not fit in memory.
+ *
+ * <p>Each batch added is sorted (see {@link VectorSchemaRootSorter}) into a copy owned by the sorter.
+ * When the sorted batches buffered exceed the memory budget, they are merged into a sorted run which
+ * is spilled to a file in the Arrow IPC file format. Once all the batches are added, the runs are
+ * merged (see {@link VectorSchemaRootMerger}) and read as a stream of sorted output batches, like
+ * an {@link org.apache.arrow.vector.ipc.ArrowReader}. If no run was spilled, the buffered batches
+ * are merged in memory.
+ *
+ * <p>A merge reads one batch of each of its runs at a time, so the memory it uses is bounded by
+ * the fan-in times the size of the batches. When there are more runs than the fan-in, they are
+ * merged into longer runs first, in several passes.
+ *
+ * <p>The memory budget should leave room in the allocator for sorting one input batch and for
+ * the batches of a merge.
+ */
+public class ExternalVectorSchemaRootSorter implements AutoCloseable {
+
+  /**
+   * The default maximum number of runs merged at once.
+   */
+  public static final int DEFAULT_MERGE_FAN_IN = 64;
+
+  private final Schema schema;
+
+  private final List<SortKey> keys;
+
+  private final BufferAllocator allocator;
+
+  private final Path spillDirectory;
+
+  private final long memoryBudget;
+
+  private final int batchSize;
+
+  private final int mergeFanIn;
+
+  private final List<VectorSchemaRoot> sortedBatches = new ArrayList<>();
+
+  private long bufferedBytes;
+
+  private List<Path> runs = new ArrayList<>();
+
+  private final List<ArrowFileReader> readers = new ArrayList<>();
+
+  private VectorSchemaRootMerger merger;
+
+  private long spilledBytes;
+
+  private int spilledRunCount;
+
+  private int mergePassCount;
+
+  /**
+   * Constructs a sorter with the default merge fan-in.
+   * @param schema the schema of the batches.
+   * @param keys the sort keys, in order of precedence.
+   * @param allocator the allocator for the sorted batches.
+   * @param spillDirectory the directory of the files for the spilled runs.
+   * @param memoryBudget the maximum size in bytes of the sorted batches buffered in memory.
+   * @param batchSize the maximum number of rows in the batches of the runs and of the output.
+   */
+  public ExternalVectorSchemaRootSorter(Schema schema, List<SortKey> keys, BufferAllocator allocator,
+      Path spillDirectory, long memoryBudget, int batchSize) {
+    this(schema, keys, allocator, spillDirectory, memoryBudget, batchSize, DEFAULT_MERGE_FAN_IN);
+  }
+
+  /**
+   * Constructs a sorter.
+   * @param schema the schema of the batches.
+   * @param keys the sort keys, in order of precedence.
+   * @param allocator the allocator for the sorted batches.
+   * @param spillDirectory the directory of the files for the spilled runs.
+   * @param memoryBudget the maximum size in bytes of the sorted batches buffered in memory.
+   * @param batchSize the maximum number of rows in the batches of the runs and of the output.
+   * @param mergeFanIn the maximum number of runs merged at once.
+   */
+  public ExternalVectorSchemaRootSorter(Schema schema, List<SortKey> keys, BufferAllocator allocator,
+      Path spillDirectory, long memoryBudget, int batchSize, int mergeFanIn) {
+    Preconditions.checkArgument(!keys.isEmpty(), "At least one sort key is required");
+    Preconditions.checkArgument(memoryBudget > 0, "The memory budget must be positive");
+    Preconditions.checkArgument(batchSize > 0, "The batch size must be positive");
+    Preconditions.checkArgument(mergeFanIn >= 2, "The merge fan-in must be at least 2");
+    this.schema = schema;
+    this.keys = new ArrayList<>(keys);
+    this.allocator = allocator;
+    this.spillDirectory = spillDirectory;
+    this.memoryBudget = memoryBudget;
+    this.batchSize = batchSize;
+    this.mergeFanIn = mergeFanIn;
+  }
+
+  /**
+   * Add a batch to sort. The batch is copied, so it can be reused or closed after this call.
+   * @param batch the batch, with the schema of the sorter.
+   * @throws IOException if a run could not be spilled.
+   */
+  public void add(VectorSchemaRoot batch) throws IOException {
+    Preconditions.checkState(merger == null, "The sorter is finished");
+    if (batch.getRowCount() == 0) {
+      return;
+    }
+    if (!sortedBatches.isEmpty() && bufferedBytes + getBufferSize(batch) > memoryBudget) {
+      spill();
+    }
+    final VectorSchemaRoot sorted = VectorSchemaRoot.create(schema, allocator);
+    try {
+      VectorSchemaRootSorter.sort(batch, keys, sorted);
+    } catch (RuntimeException e) {
+      sorted.close();
+      throw e;
+    }
+    sortedBatches.add(sorted);
+    bufferedBytes += getBufferSize(sorted);
+  }
+
+  /**
+   * Finish adding batches, and prepare the merge of the output. This spills the buffered batches if
+   * runs were already spilled, and merges the runs until there are no more than the fan-in.
+   * @throws IOException if a run could not be spilled or read.
+   */
+  public void finish() throws IOException {
+    Preconditions.checkState(merger == null, "The sorter is finished");
+    if (runs.isEmpty()) {
+      final List<Iterator<VectorSchemaRoot>> inputs = new ArrayList<>();
+      for (VectorSchemaRoot sorted : sortedBatches) {
+        inputs.add(Collections.singletonList(sorted).iterator());
+      }
+      if (inputs.isEmpty()) {
+        inputs.add(Collections.emptyIterator());
+      }
+      merger = new VectorSchemaRootMerger(schema, keys, inputs, allocator, batchSize);
+      return;
+    }
+
+    if (!sortedBatches.isEmpty()) {
+      spill();
+    }
+    while (runs.size() > mergeFanIn) {
+      final List<Path> mergedRuns = new ArrayList<>();
+      for (int from = 0; from < runs.size(); from += mergeFanIn) {
+        final List<Path> group = runs.subList(from, Math.min(from + mergeFanIn, runs.size()));
+        try {
+          mergedRuns.add(writeRun(openRuns(group)));
+        } finally {
+          closeReaders();
+        }
+        for (Path run : group) {
+          Files.delete(run);
+        }
+      }
+      runs = mergedRuns;
+      mergePassCount++;
+    }
+    try {
+      merger = new VectorSchemaRootMerger(schema, keys, openRuns(runs), allocator, batchSize);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    mergePassCount++;
+  }
+
+  /**
+   * Get the root holding the last output batch.
+   */
+  public VectorSchemaRoot getVectorSchemaRoot() {
+    Preconditions.checkState(merger != null, "The sorter is not finished");
+    return merger.getVectorSchemaRoot();
+  }
+
+  /**
+   * Load the next sorted batch into the output root. {@link #finish()} must be called first.
+   * @return true if a batch was loaded, or false if all the rows were output.
+   * @throws IOException if a run could not be read.
+   */
+  public boolean loadNextBatch() throws IOException {
+    Preconditions.checkState(merger != null, "The sorter is not finished");
+    try {
+      return merger.loadNextBatch();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Get the total size in bytes of the run files written, including the runs of intermediate merges.
+   */
+  public long getSpilledBytes() {
+    return spilledBytes;
+  }
+
+  /**
+   * Get the number of runs spilled from memory.
+   */
+  public int getSpilledRunCount() {
+    return spilledRunCount;
+  }
+
+  /**
+   * Get the number of merge passes over the spilled runs, including the final merge of the output.
+   * It is 0 if no run was spilled.
+   */
+  public int getMergePassCount() {
+    return mergePassCount;
+  }
+
+  /**
+   * Merge the buffered batches into a run, and release them.
+   */
+  private void spill() throws IOException {
+    final List<Iterator<VectorSchemaRoot>> inputs = new ArrayList<>();
+    for (VectorSchemaRoot sorted : sortedBatches) {
+      inputs.add(Collections.singletonList(sorted).iterator());
+    }
+    final Path run = writeRun(inputs);
+    runs.add(run);
+    spilledRunCount++;
+    closeSortedBatches();
+  }
+
+  /**
+   * Merge sorted inputs into a new run file.
+   */
+  private Path writeRun(List<Iterator<VectorSchemaRoot>> inputs) throws IOException {
+    final Path run = Files.createTempFile(spillDirectory, "arrow-sort-", ".arrow");
+    try (final VectorSchemaRootMerger runMerger = new VectorSchemaRootMerger(schema, keys, inputs, allocator,
+             batchSize);
+         final FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE);
+         final ArrowFileWriter writer = new ArrowFileWriter(runMerger.getVectorSchemaRoot(), null, channel)) {
+      writer.start();
+      while (runMerger.loadNextBatch()) {
+        writer.writeBatch();
+      }
+      writer.end();
+      spilledBytes += channel.size();
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(run);
+      if (e instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e).getCause();
+      }
+      throw e;
+    }
+    return run;
+  }
+
+  /**
+   * Open readers of runs, which are closed by {@link #closeReaders()}.
+   */
+  private List<Iterator<VectorSchemaRoot>> openRuns(List<Path> paths) throws IOException {
+    final List<Iterator<VectorSchemaRoot>> inputs = new ArrayList<>();
+    for (Path path : paths) {
+      final ArrowFileReader reader = new ArrowFileReader(FileChannel.open(path, StandardOpenOption.READ), allocator);
+      readers.add(reader);
+      inputs.add(new RunIterator(reader));
+    }
+    return inputs;
+  }
+
+  private void closeReaders() throws IOException {
+    try {
+      for (ArrowFileReader reader : readers) {
+        reader.close();
+      }
+    } finally {
+      readers.clear();
+    }
+  }
+
+  private void closeSortedBatches() {
+    sortedBatches.forEach(VectorSchemaRoot::close);
+    sortedBatches.clear();
+    bufferedBytes = 0;
+  }
+
+  private static long getBufferSize(VectorSchemaRoot root) {
+    long size = 0;
+    for (FieldVector vector : root.getFieldVectors()) {
+      size += vector.getBufferSize();
+    }
+    return size;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if (merger != null) {
+        merger.close();
+      }
+      closeSortedBatches();
+      closeReaders();
+    } finally {
+      for (Path run : runs) {
+        Files.deleteIfExists(run);
+      }
+      runs.clear();
+    }
+  }
+
+  /**
+   * Iterates over the batches of a run, reusing the root of its reader.
+   */
+  private static class RunIterator implements Iterator<VectorSchemaRoot> {
+
+    private final ArrowFileReader reader;
+
+    private Boolean hasNext;
+
+    RunIterator(ArrowFileReader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (hasNext == null) {
+        try {
+          hasNext = reader.loadNextBatch();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return hasNext;
+    }
+
+    @Override
+    public VectorSchemaRoot next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      hasNext = null;
+      try {
+        return reader.getVectorSchemaRoot();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
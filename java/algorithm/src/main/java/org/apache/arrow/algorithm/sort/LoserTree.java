@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+
+import org.apache.arrow.util.Preconditions;
+
+/**
+ * Tournament tree of losers, for merging k sorted sources with O(log k) comparisons per element.
+ *
+ * <p>The tree compares the current elements ("heads") of the sources. Each internal node keeps the
+ * source which lost the match played there, and the overall winner is kept apart. When the head of
+ * the winner changes, only the matches on the path from its leaf to the root are replayed.
+ * Exhausted sources lose against all the others, and ties are won by the source with the smaller
+ * number, so the merge is stable if the sources are numbered in order.
+ */
+class LoserTree {
+
+  private final int sourceCount;
+
+  /**
+   * The winner at index 0, and the losers of the matches at the internal nodes 1 .. k - 1.
+   * The leaves k .. 2k - 1 are the sources, and the parent of node n is n / 2.
+   */
+  private final int[] tree;
+
+  private final IntBinaryOperator comparator;
+
+  private final IntPredicate exhausted;
+
+  /**
+   * Constructs a tree, and plays the initial tournament.
+   * @param sourceCount the number of sources.
+   * @param comparator compares the heads of two sources, which are not exhausted.
+   * @param exhausted tells whether a source is exhausted.
+   */
+  LoserTree(int sourceCount, IntBinaryOperator comparator, IntPredicate exhausted) {
+    Preconditions.checkArgument(sourceCount > 0, "At least one source is required");
+    this.sourceCount = sourceCount;
+    this.tree = new int[sourceCount];
+    this.comparator = comparator;
+    this.exhausted = exhausted;
+
+    // winners of the matches at the internal nodes, played bottom up
+    final int[] winners = new int[sourceCount];
+    for (int node = sourceCount - 1; node >= 1; node--) {
+      final int left = node * 2 < sourceCount ? winners[node * 2] : node * 2 - sourceCount;
+      final int right = node * 2 + 1 < sourceCount ? winners[node * 2 + 1] : node * 2 + 1 - sourceCount;
+      if (beats(left, right)) {
+        winners[node] = left;
+        tree[node] = right;
+      } else {
+        winners[node] = right;
+        tree[node] = left;
+      }
+    }
+    tree[0] = sourceCount == 1 ? 0 : winners[1];
+  }
+
+  /**
+   * Get the source with the smallest head, which is exhausted only if all the sources are.
+   */
+  int getWinner() {
+    return tree[0];
+  }
+
+  /**
+   * Replay the matches of the winner, after its head changed or it was exhausted.
+   */
+  void replay() {
+    int winner = tree[0];
+    for (int node = (winner + sourceCount) / 2; node >= 1; node /= 2) {
+      if (beats(tree[node], winner)) {
+        final int loser = winner;
+        winner = tree[node];
+        tree[node] = loser;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  private boolean beats(int source1, int source2) {
+    if (exhausted.test(source1)) {
+      return false;
+    }
+    if (exhausted.test(source2)) {
+      return true;
+    }
+    final int result = comparator.applyAsInt(source1, source2);
+    return result < 0 || (result == 0 && source1 < source2);
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+/**
+ * Compares rows of vector schema roots lexicographically by several sort keys, e.g.
+ * ORDER BY a, b DESC, c NULLS FIRST.
+ *
+ * <p>Integers, dates, times, timestamps, durations and floating point numbers are compared by their
+ * radix sort keys (see {@link RadixVectorSorter}), and other columns by their default comparators
+ * (see {@link DefaultVectorComparators}).
+ */
+public class MultiColumnComparator {
+
+  private final List<SortKey> keys;
+
+  private final ValueVector[] columns1;
+
+  private final ValueVector[] columns2;
+
+  private final VectorValueComparator<ValueVector>[] comparators;
+
+  /**
+   * Constructs a comparator.
+   * @param keys the sort keys, in order of precedence.
+   */
+  @SuppressWarnings("unchecked")
+  public MultiColumnComparator(List<SortKey> keys) {
+    Preconditions.checkArgument(!keys.isEmpty(), "At least one sort key is required");
+    this.keys = new ArrayList<>(keys);
+    this.columns1 = new ValueVector[keys.size()];
+    this.columns2 = new ValueVector[keys.size()];
+    this.comparators = new VectorValueComparator[keys.size()];
+  }
+
+  public List<SortKey> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Attach both rows to compare to the same vector schema root.
+   * @param root the vector schema root to attach.
+   */
+  public void attachRoot(VectorSchemaRoot root) {
+    attachRoots(root, root);
+  }
+
+  /**
+   * Attach vector schema roots to compare, which have the key columns with the same types.
+   * @param root1 the vector schema root of the first row to compare.
+   * @param root2 the vector schema root of the second row to compare.
+   */
+  public void attachRoots(VectorSchemaRoot root1, VectorSchemaRoot root2) {
+    attachColumns(getColumns(root1), getColumns(root2));
+  }
+
+  /**
+   * Get the key columns of a vector schema root, in order of precedence.
+   */
+  ValueVector[] getColumns(VectorSchemaRoot root) {
+    final ValueVector[] columns = new ValueVector[keys.size()];
+    for (int i = 0; i < keys.size(); i++) {
+      columns[i] = getColumn(root, keys.get(i));
+    }
+    return columns;
+  }
+
+  /**
+   * Attach the key columns (see {@link #getColumns(VectorSchemaRoot)}) of the rows to compare.
+   */
+  void attachColumns(ValueVector[] keyColumns1, ValueVector[] keyColumns2) {
+    for (int i = 0; i < keys.size(); i++) {
+      final ValueVector column1 = keyColumns1[i];
+      final ValueVector column2 = keyColumns2[i];
+      Preconditions.checkArgument(column1.getClass() == column2.getClass(),
+          "Key column %s has different types", keys.get(i).getColumn());
+      if (columns1[i] == null || columns1[i].getClass() != column1.getClass()) {
+        comparators[i] = createComparator(column1);
+      }
+      comparators[i].attachVectors(column1, column2);
+      columns1[i] = column1;
+      columns2[i] = column2;
+    }
+  }
+
+  static FieldVector getColumn(VectorSchemaRoot root, SortKey key) {
+    final FieldVector column = root.getVector(key.getColumn());
+    Preconditions.checkArgument(column != null, "No column %s", key.getColumn());
+    return column;
+  }
+
+  /**
+   * Compare two rows, given their indices.
+   * @param index1 index of the first row to compare.
+   * @param index2 index of the second row to compare.
+   * @return an integer greater than 0, if the first row comes after the second one;
+   *     an integer smaller than 0, if the first row comes before; or 0, if all their keys are equal.
+   */
+  public int compare(int index1, int index2) {
+    return compare(index1, index2, 0);
+  }
+
+  /**
+   * Compare two rows by the sort keys from the given one.
+   */
+  int compare(int index1, int index2, int firstKey) {
+    for (int i = firstKey; i < comparators.length; i++) {
+      final boolean isNull1 = columns1[i].isNull(index1);
+      final boolean isNull2 = columns2[i].isNull(index2);
+      if (isNull1 || isNull2) {
+        if (isNull1 && isNull2) {
+          continue;
+        }
+        return isNull1 == keys.get(i).isNullsFirst() ? -1 : 1;
+      }
+      final int result = comparators[i].compareNotNull(index1, index2);
+      if (result != 0) {
+        return keys.get(i).isDescending() ? (result < 0 ? 1 : -1) : result;
+      }
+    }
+    return 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static VectorValueComparator<ValueVector> createComparator(ValueVector vector) {
+    final RadixVectorSorter keyReader = RadixVectorSorter.createKeyReader(vector);
+    if (keyReader != null) {
+      return (VectorValueComparator) new RadixVectorSorter.KeyComparator(keyReader);
+    }
+    return DefaultVectorComparators.createDefaultComparator(vector);
+  }
+}
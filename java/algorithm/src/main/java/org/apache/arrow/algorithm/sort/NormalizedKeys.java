@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import java.nio.ByteOrder;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Normalized keys of the rows of a vector schema root: the leading sort keys packed into fixed-width
+ * binary strings, whose unsigned lexicographic order (memcmp) is the order of the rows by these keys.
+ *
+ * <p>Each key takes one byte for the null flag, followed by its radix sort key (see
+ * {@link RadixVectorSorter}) in big-endian order, with all bits flipped for descending keys.
+ * Only the leading keys whose columns are supported by radix sort are packed. Rows are padded to a
+ * multiple of 8 bytes, and compared a word at a time.
+ */
+class NormalizedKeys implements AutoCloseable {
+
+  private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+  private final ArrowBuf buffer;
+
+  private final long address;
+
+  private final int rowWidth;
+
+  private final int keyCount;
+
+  private NormalizedKeys(ArrowBuf buffer, int rowWidth, int keyCount) {
+    this.buffer = buffer;
+    this.address = buffer.memoryAddress();
+    this.rowWidth = rowWidth;
+    this.keyCount = keyCount;
+  }
+
+  /**
+   * Pack the leading sort keys of the rows of a vector schema root.
+   * @return the normalized keys, or null if the column of the first sort key is not supported.
+   */
+  static NormalizedKeys create(VectorSchemaRoot root, List<SortKey> keys, BufferAllocator allocator) {
+    final RadixVectorSorter[] keyReaders = new RadixVectorSorter[keys.size()];
+    int keyCount = 0;
+    int width = 0;
+    while (keyCount < keys.size()) {
+      final RadixVectorSorter keyReader =
+          RadixVectorSorter.createKeyReader(MultiColumnComparator.getColumn(root, keys.get(keyCount)));
+      if (keyReader == null) {
+        break;
+      }
+      keyReaders[keyCount++] = keyReader;
+      width += 1 + keyReader.getKeyWidth();
+    }
+    if (keyCount == 0) {
+      return null;
+    }
+
+    final int rowWidth = (width + 7) & ~7;
+    final int rowCount = root.getRowCount();
+    final ArrowBuf buffer = allocator.buffer(Math.max(rowCount * rowWidth, 1));
+    final long address = buffer.memoryAddress();
+    PlatformDependent.setMemory(address, (long) rowCount * rowWidth, (byte) 0);
+    int offset = 0;
+    for (int i = 0; i < keyCount; i++) {
+      final SortKey key = keys.get(i);
+      final FieldVector column = MultiColumnComparator.getColumn(root, key);
+      final RadixVectorSorter keyReader = keyReaders[i];
+      final int keyWidth = keyReader.getKeyWidth();
+      final long mask = keyWidth == 8 ? -1L : (1L << (keyWidth * 8)) - 1;
+      final ArrowBuf validity = column.getValidityBuffer();
+      final long data = column.getDataBuffer().memoryAddress();
+      final byte nullFlag = key.isNullsFirst() ? (byte) 0 : 1;
+      for (int row = 0; row < rowCount; row++) {
+        final long position = address + (long) row * rowWidth + offset;
+        if (BitVectorHelper.get(validity, row) == 0) {
+          PlatformDependent.putByte(position, nullFlag);
+        } else {
+          PlatformDependent.putByte(position, (byte) (1 - nullFlag));
+          long value = keyReader.getKey(data, row);
+          if (key.isDescending()) {
+            value = ~value & mask;
+          }
+          for (int b = keyWidth; b > 0; b--) {
+            PlatformDependent.putByte(position + b, (byte) value);
+            value >>>= 8;
+          }
+        }
+      }
+      offset += 1 + keyWidth;
+    }
+    return new NormalizedKeys(buffer, rowWidth, keyCount);
+  }
+
+  /**
+   * Get the number of leading sort keys which are packed.
+   */
+  int getKeyCount() {
+    return keyCount;
+  }
+
+  /**
+   * Compare two rows by their normalized keys.
+   */
+  int compare(int row1, int row2) {
+    final long position1 = address + (long) row1 * rowWidth;
+    final long position2 = address + (long) row2 * rowWidth;
+    for (int offset = 0; offset < rowWidth; offset += 8) {
+      final long word1 = PlatformDependent.getLong(position1 + offset);
+      final long word2 = PlatformDependent.getLong(position2 + offset);
+      if (word1 != word2) {
+        return LITTLE_ENDIAN ?
+            Long.compareUnsigned(Long.reverseBytes(word1), Long.reverseBytes(word2)) :
+            Long.compareUnsigned(word1, word2);
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public void close() {
+    buffer.close();
+  }
+}
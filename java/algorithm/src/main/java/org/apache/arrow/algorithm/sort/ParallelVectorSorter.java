@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+import org.apache.arrow.algorithm.select.TakeUtils;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Parallel sorter for the indices of a vector, on a fork-join pool.
+ *
+ * <p>The vector is split into one chunk per worker of the pool, whose indices are sorted
+ * concurrently, by radix sort (see {@link RadixVectorSorter}) for the default order of supported
+ * types, or by a stable merge sort with a comparator otherwise. The sorted chunks are then merged
+ * with a tournament tree. The sort is stable.
+ *
+ * <p>Comparators are not thread-safe, so a new comparator is created for each chunk.
+ * @param <V> the vector type.
+ */
+public class ParallelVectorSorter<V extends ValueVector> {
+
+  /**
+   * Vectors are not split into chunks smaller than this, as the overhead would exceed the gain.
+   */
+  static final int MIN_CHUNK_SIZE = 16 * 1024;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructs a sorter running on the common fork-join pool.
+   */
+  public ParallelVectorSorter() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs a sorter running on the given fork-join pool.
+   */
+  public ParallelVectorSorter(ForkJoinPool pool) {
+    this.pool = Preconditions.checkNotNull(pool);
+  }
+
+  /**
+   * Sort the indices of a vector in the order of its default comparator (see
+   * {@link DefaultVectorComparators}), using radix sort for the supported types.
+   * @param vector the vector whose indices are sorted.
+   * @param indices the vector for storing the sorted indices, with capacity for the values of the vector.
+   *     Its value count is set.
+   */
+  public void sortIndices(V vector, IntVector indices) {
+    if (RadixVectorSorter.isSupported(vector)) {
+      final RadixVectorSorter keyReader = RadixVectorSorter.createKeyReader(vector);
+      sortIndices(vector, indices, () -> new RadixVectorSorter.KeyComparator(keyReader), true);
+    } else {
+      sortIndices(vector, indices, () -> DefaultVectorComparators.createDefaultComparator(vector));
+    }
+  }
+
+  /**
+   * Sort the indices of a vector. After calling this method, the following relations hold:
+   * v(indices[0]) <= v(indices[1]) <= ..., and indices of equal values are in ascending order.
+   * @param vector the vector whose indices are sorted.
+   * @param indices the vector for storing the sorted indices, with capacity for the values of the vector.
+   *     Its value count is set.
+   * @param comparatorFactory creates the comparators, one for each chunk of the vector.
+   */
+  public void sortIndices(V vector, IntVector indices, Supplier<? extends VectorValueComparator<V>> comparatorFactory) {
+    sortIndices(vector, indices, comparatorFactory, false);
+  }
+
+  /**
+   * Sort a vector out of place, in the order of its default comparator.
+   * @param srcVector the vector to sort.
+   * @param dstVector the output vector, of the same type. Its buffers are reallocated, and its value count is set.
+   */
+  public void sortOutOfPlace(V srcVector, V dstVector) {
+    try (final IntVector indices = new IntVector("", srcVector.getAllocator())) {
+      indices.allocateNew(srcVector.getValueCount());
+      sortIndices(srcVector, indices);
+      TakeUtils.take(srcVector, indices, dstVector);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void sortIndices(V vector, IntVector indices, Supplier<? extends VectorValueComparator<?>> comparatorFactory,
+      boolean radix) {
+    final int valueCount = vector.getValueCount();
+    Preconditions.checkArgument(indices.getValueCapacity() >= valueCount, "Not enough capacity for the indices");
+    final long output = indices.getDataBuffer().memoryAddress();
+    final BufferAllocator allocator = indices.getAllocator();
+    final int chunkCount = Math.max(1, Math.min(pool.getParallelism(), valueCount / MIN_CHUNK_SIZE));
+    final int chunkSize = (int) (((long) valueCount + chunkCount - 1) / chunkCount);
+
+    try (final ArrowBuf runBuffer = chunkCount == 1 ? null : allocator.buffer(valueCount * 4)) {
+      // with a single chunk there is nothing to merge, and the indices are sorted in place
+      final long runs = runBuffer == null ? output : runBuffer.memoryAddress();
+      final List<ForkJoinTask<?>> tasks = new ArrayList<>(chunkCount);
+      for (int chunk = 0; chunk < chunkCount; chunk++) {
+        final int from = chunk * chunkSize;
+        final int to = Math.min(from + chunkSize, valueCount);
+        tasks.add(pool.submit(() -> {
+          if (radix) {
+            RadixVectorSorter.sortIndices((BaseFixedWidthVector) vector, from, to, runs + from * 4L);
+          } else {
+            final VectorValueComparator<V> comparator = (VectorValueComparator<V>) comparatorFactory.get();
+            comparator.attachVector(vector);
+            sortChunk(runs + from * 4L, from, to, allocator, comparator);
+          }
+        }));
+      }
+      for (ForkJoinTask<?> task : tasks) {
+        task.join();
+      }
+
+      if (chunkCount > 1) {
+        final VectorValueComparator<V> comparator = (VectorValueComparator<V>) comparatorFactory.get();
+        comparator.attachVector(vector);
+        merge(runs, output, valueCount, chunkCount, chunkSize, comparator);
+      }
+    }
+    final int fullBytes = valueCount >>> 3;
+    PlatformDependent.setMemory(indices.getValidityBuffer().memoryAddress(), fullBytes, (byte) 0xff);
+    for (int i = fullBytes * 8; i < valueCount; i++) {
+      BitVectorHelper.setValidityBitToOne(indices.getValidityBuffer(), i);
+    }
+    indices.setValueCount(valueCount);
+  }
+
+  private static void sortChunk(long address, int from, int to, BufferAllocator allocator,
+      VectorValueComparator<?> comparator) {
+    for (int i = from; i < to; i++) {
+      PlatformDependent.putInt(address + (i - from) * 4L, i);
+    }
+    VectorSchemaRootSorter.sortIndices(address, to - from, allocator, comparator::compare);
+  }
+
+  /**
+   * Merge the sorted runs of indices, each of the given size except the last one.
+   */
+  private static void merge(long runs, long output, int valueCount, int runCount, int runSize,
+      VectorValueComparator<?> comparator) {
+    final int[] positions = new int[runCount];
+    final int[] ends = new int[runCount];
+    for (int run = 0; run < runCount; run++) {
+      positions[run] = run * runSize;
+      ends[run] = Math.min(positions[run] + runSize, valueCount);
+    }
+    final LoserTree tree = new LoserTree(runCount,
+        (run1, run2) -> comparator.compare(PlatformDependent.getInt(runs + positions[run1] * 4L),
+            PlatformDependent.getInt(runs + positions[run2] * 4L)),
+        run -> positions[run] == ends[run]);
+    for (int i = 0; i < valueCount; i++) {
+      final int run = tree.getWinner();
+      PlatformDependent.putInt(output + i * 4L, PlatformDependent.getInt(runs + positions[run]++ * 4L));
+      tree.replay();
+    }
+  }
+}
@@ -0,0 +1,429 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.DurationVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.IntervalYearVector;
+import org.apache.arrow.vector.TimeMicroVector;
+import org.apache.arrow.vector.TimeMilliVector;
+import org.apache.arrow.vector.TimeNanoVector;
+import org.apache.arrow.vector.TimeSecVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.UInt1Vector;
+import org.apache.arrow.vector.UInt2Vector;
+import org.apache.arrow.vector.UInt4Vector;
+import org.apache.arrow.vector.UInt8Vector;
+import org.apache.arrow.vector.ValueVector;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Radix sorter for vectors of integers, dates, times, timestamps, durations and floating point numbers.
+ * Values are sorted in the order of the default comparators (see {@link DefaultVectorComparators}):
+ * nulls first, then values in ascending order.
+ *
+ * <p>It is a least-significant-digit radix sort over the bytes of the values, with time complexity
+ * O(n * w) for values of w bytes, and it is stable. Values are mapped to unsigned keys with the same
+ * order, by flipping the sign bit of signed integers, and all the bits of negative floating point
+ * numbers (or only the sign bit of positive ones). Floating point numbers are thus ordered like
+ * {@link Double#compare(double, double)}: -0.0 comes before 0.0, and NaN after all other values
+ * (NaNs are replaced with the canonical NaN when sorting in place).
+ * Digits which are equal in all the keys are skipped, e.g. the high bytes of small integers.
+ *
+ * <p>Scratch buffers are allocated from the allocator of the vector: the size of the non-null values
+ * to sort in place, and twice the size of the values and indices to sort indices.
+ */
+public class RadixVectorSorter {
+
+  private static final int RADIX = 256;
+
+  /**
+   * How the bits of a value are mapped to an unsigned key.
+   */
+  private enum KeyKind {
+    SIGNED,
+    UNSIGNED,
+    FLOATING_POINT
+  }
+
+  /**
+   * Check whether vectors of a type can be sorted by radix sort.
+   */
+  public static boolean isSupported(ValueVector vector) {
+    return keyKind(vector) != null;
+  }
+
+  private static KeyKind keyKind(ValueVector vector) {
+    if (vector instanceof UInt1Vector || vector instanceof UInt2Vector || vector instanceof UInt4Vector ||
+        vector instanceof UInt8Vector) {
+      return KeyKind.UNSIGNED;
+    } else if (vector instanceof Float4Vector || vector instanceof Float8Vector) {
+      return KeyKind.FLOATING_POINT;
+    } else if (vector instanceof BaseIntVector || vector instanceof DateDayVector ||
+        vector instanceof DateMilliVector || vector instanceof TimeSecVector || vector instanceof TimeMilliVector ||
+        vector instanceof TimeMicroVector || vector instanceof TimeNanoVector || vector instanceof TimeStampVector ||
+        vector instanceof DurationVector || vector instanceof IntervalYearVector) {
+      return KeyKind.SIGNED;
+    }
+    return null;
+  }
+
+  private final KeyKind kind;
+  private final int width;
+  private final int[] counts;
+
+  private RadixVectorSorter(KeyKind kind, int width) {
+    this.kind = kind;
+    this.width = width;
+    this.counts = new int[width * RADIX];
+  }
+
+  /**
+   * Sort a vector in place.
+   * @param vector the vector to sort, whose type must be supported.
+   */
+  public static void sortInPlace(BaseFixedWidthVector vector) {
+    create(vector).sortValues(vector);
+  }
+
+  /**
+   * Sort a vector out of place.
+   * @param srcVector the vector to sort, whose type must be supported.
+   * @param dstVector the output vector, of the same type, with capacity for the values of the input vector.
+   *     Its value count is set.
+   */
+  public static void sortOutOfPlace(BaseFixedWidthVector srcVector, BaseFixedWidthVector dstVector) {
+    final int valueCount = srcVector.getValueCount();
+    Preconditions.checkArgument(dstVector.getValueCapacity() >= valueCount,
+        "Not enough capacity in the output vector");
+    PlatformDependent.copyMemory(srcVector.getDataBuffer().memoryAddress(), dstVector.getDataBuffer().memoryAddress(),
+        (long) valueCount * srcVector.getTypeWidth());
+    PlatformDependent.copyMemory(srcVector.getValidityBuffer().memoryAddress(),
+        dstVector.getValidityBuffer().memoryAddress(), BitVectorHelper.getValidityBufferSize(valueCount));
+    dstVector.setValueCount(valueCount);
+    sortInPlace(dstVector);
+  }
+
+  /**
+   * Sort the indices of a vector, stably. After calling this method, the following relations hold:
+   * v(indices[0]) <= v(indices[1]) <= ..., and indices of equal values are in ascending order.
+   * @param vector the vector whose indices are sorted, whose type must be supported.
+   * @param indices the vector for storing the sorted indices, with capacity for the values of the vector.
+   *     Its value count is set.
+   */
+  public static void sortIndices(BaseFixedWidthVector vector, IntVector indices) {
+    create(vector).sortIndexes(vector, indices);
+  }
+
+  /**
+   * Create a reader of the unsigned keys of a vector (see {@link #getKey(long, int)}).
+   * @return the reader, or null if the type of the vector is not supported.
+   */
+  static RadixVectorSorter createKeyReader(ValueVector vector) {
+    final KeyKind kind = keyKind(vector);
+    return kind == null ? null : new RadixVectorSorter(kind, ((BaseFixedWidthVector) vector).getTypeWidth());
+  }
+
+  /**
+   * Create a comparator of the values of vectors in the order of radix sort, which, unlike the default
+   * comparators of some integer types, does not overflow for values far apart.
+   * @return the comparator, or null if the type of the vector is not supported.
+   */
+  public static VectorValueComparator<BaseFixedWidthVector> createComparator(ValueVector vector) {
+    final RadixVectorSorter keyReader = createKeyReader(vector);
+    return keyReader == null ? null : new KeyComparator(keyReader);
+  }
+
+  /** Get the width of the keys, in bytes. */
+  int getKeyWidth() {
+    return width;
+  }
+
+  /**
+   * Get the unsigned key of a non-null value, with the same order as the values.
+   * @param dataAddress the address of the data buffer of the vector.
+   * @param index the index of the value.
+   */
+  long getKey(long dataAddress, int index) {
+    return toKey(read(dataAddress, index));
+  }
+
+  /**
+   * Compares the non-null values of vectors by their keys, in the same order as radix sort.
+   */
+  static class KeyComparator extends VectorValueComparator<BaseFixedWidthVector> {
+
+    private final RadixVectorSorter keyReader;
+
+    KeyComparator(RadixVectorSorter keyReader) {
+      super(keyReader.getKeyWidth());
+      this.keyReader = keyReader;
+    }
+
+    @Override
+    public int compareNotNull(int index1, int index2) {
+      final long key1 = keyReader.getKey(vector1.getDataBuffer().memoryAddress(), index1);
+      final long key2 = keyReader.getKey(vector2.getDataBuffer().memoryAddress(), index2);
+      return Long.compareUnsigned(key1, key2);
+    }
+  }
+
+  private static RadixVectorSorter create(BaseFixedWidthVector vector) {
+    final KeyKind kind = keyKind(vector);
+    Preconditions.checkArgument(kind != null, "Radix sort is not supported for %s", vector.getClass().getSimpleName());
+    return new RadixVectorSorter(kind, vector.getTypeWidth());
+  }
+
+  private void sortValues(BaseFixedWidthVector vector) {
+    final int valueCount = vector.getValueCount();
+    if (valueCount <= 1) {
+      return;
+    }
+    final BufferAllocator allocator = vector.getAllocator();
+    final ArrowBuf validity = vector.getValidityBuffer();
+    final long data = vector.getDataBuffer().memoryAddress();
+    try (final ArrowBuf scratchBuffer = allocator.buffer(valueCount * width)) {
+      // gather the keys of the non-null values, in order
+      final long scratch = scratchBuffer.memoryAddress();
+      int keyCount = 0;
+      for (int i = 0; i < valueCount; i++) {
+        if (BitVectorHelper.get(validity, i) != 0) {
+          final long key = toKey(read(data, i));
+          write(scratch, keyCount++, key);
+          count(key);
+        }
+      }
+      final int nullCount = valueCount - keyCount;
+
+      // the keys go back and forth between the scratch buffer and their place in the vector, after the nulls
+      final long sorted = data + (long) nullCount * width;
+      long src = scratch;
+      long dst = sorted;
+      for (int digit = 0; digit < width; digit++) {
+        if (toOffsets(digit, keyCount)) {
+          final int base = digit * RADIX;
+          final int shift = digit * 8;
+          for (int i = 0; i < keyCount; i++) {
+            final long key = read(src, i);
+            write(dst, counts[base + (int) ((key >>> shift) & 0xff)]++, key);
+          }
+          final long tmp = src;
+          src = dst;
+          dst = tmp;
+        }
+      }
+      if (src != sorted) {
+        PlatformDependent.copyMemory(src, sorted, (long) keyCount * width);
+      }
+
+      for (int i = 0; i < keyCount; i++) {
+        write(sorted, i, fromKey(read(sorted, i)));
+      }
+      PlatformDependent.setMemory(data, (long) nullCount * width, (byte) 0);
+      setValidity(validity, 0, nullCount, false);
+      setValidity(validity, nullCount, valueCount, true);
+    }
+  }
+
+  private void sortIndexes(BaseFixedWidthVector vector, IntVector indices) {
+    final int valueCount = vector.getValueCount();
+    Preconditions.checkArgument(indices.getValueCapacity() >= valueCount, "Not enough capacity for the indices");
+    sortIndexes(vector, 0, valueCount, indices.getDataBuffer().memoryAddress());
+    setValidity(indices.getValidityBuffer(), 0, valueCount, true);
+    indices.setValueCount(valueCount);
+  }
+
+  /**
+   * Sort the indices of a range of values of a vector, stably.
+   * @param vector the vector whose indices are sorted, whose type must be supported.
+   * @param from the first index of the range.
+   * @param to the end index of the range (exclusive).
+   * @param output the address where the to - from sorted indices are written.
+   */
+  static void sortIndices(BaseFixedWidthVector vector, int from, int to, long output) {
+    create(vector).sortIndexes(vector, from, to, output);
+  }
+
+  private void sortIndexes(BaseFixedWidthVector vector, int from, int to, long output) {
+    final int valueCount = to - from;
+    final BufferAllocator allocator = vector.getAllocator();
+    final ArrowBuf validity = vector.getValidityBuffer();
+    final long data = vector.getDataBuffer().memoryAddress();
+    try (final ArrowBuf keyBuffer1 = allocator.buffer(Math.max(valueCount * width, 1));
+         final ArrowBuf keyBuffer2 = allocator.buffer(Math.max(valueCount * width, 1));
+         final ArrowBuf indexBuffer1 = allocator.buffer(Math.max(valueCount * 4, 1));
+         final ArrowBuf indexBuffer2 = allocator.buffer(Math.max(valueCount * 4, 1))) {
+      // the indices of the nulls go first, and the keys of the other values are gathered in order
+      int nullCount = 0;
+      int keyCount = 0;
+      long keys = keyBuffer1.memoryAddress();
+      long indexes = indexBuffer1.memoryAddress();
+      for (int i = from; i < to; i++) {
+        if (BitVectorHelper.get(validity, i) != 0) {
+          final long key = toKey(read(data, i));
+          write(keys, keyCount, key);
+          PlatformDependent.putInt(indexes + keyCount * 4L, i);
+          keyCount++;
+          count(key);
+        } else {
+          PlatformDependent.putInt(output + nullCount * 4L, i);
+          nullCount++;
+        }
+      }
+
+      long otherKeys = keyBuffer2.memoryAddress();
+      long otherIndexes = indexBuffer2.memoryAddress();
+      for (int digit = 0; digit < width; digit++) {
+        if (toOffsets(digit, keyCount)) {
+          final int base = digit * RADIX;
+          final int shift = digit * 8;
+          for (int i = 0; i < keyCount; i++) {
+            final long key = read(keys, i);
+            final int position = counts[base + (int) ((key >>> shift) & 0xff)]++;
+            write(otherKeys, position, key);
+            PlatformDependent.putInt(otherIndexes + position * 4L, PlatformDependent.getInt(indexes + i * 4L));
+          }
+          long tmp = keys;
+          keys = otherKeys;
+          otherKeys = tmp;
+          tmp = indexes;
+          indexes = otherIndexes;
+          otherIndexes = tmp;
+        }
+      }
+      PlatformDependent.copyMemory(indexes, output + nullCount * 4L, keyCount * 4L);
+    }
+  }
+
+  /** Add a key to the histograms of its digits. */
+  private void count(long key) {
+    for (int digit = 0; digit < width; digit++) {
+      counts[digit * RADIX + (int) ((key >>> (digit * 8)) & 0xff)]++;
+    }
+  }
+
+  /**
+   * Turn the histogram of a digit into the start offsets of its buckets.
+   * @return false if the pass over the digit can be skipped, as all the keys are in the same bucket.
+   */
+  private boolean toOffsets(int digit, int keyCount) {
+    final int base = digit * RADIX;
+    int offset = 0;
+    for (int bucket = base; bucket < base + RADIX; bucket++) {
+      final int count = counts[bucket];
+      if (count == keyCount) {
+        return false;
+      }
+      counts[bucket] = offset;
+      offset += count;
+    }
+    return true;
+  }
+
+  private long read(long address, int index) {
+    final long offset = address + (long) index * width;
+    switch (width) {
+      case 1:
+        return PlatformDependent.getByte(offset) & 0xffL;
+      case 2:
+        return PlatformDependent.getShort(offset) & 0xffffL;
+      case 4:
+        return PlatformDependent.getInt(offset) & 0xffffffffL;
+      default:
+        return PlatformDependent.getLong(offset);
+    }
+  }
+
+  private void write(long address, int index, long value) {
+    final long offset = address + (long) index * width;
+    switch (width) {
+      case 1:
+        PlatformDependent.putByte(offset, (byte) value);
+        break;
+      case 2:
+        PlatformDependent.putShort(offset, (short) value);
+        break;
+      case 4:
+        PlatformDependent.putInt(offset, (int) value);
+        break;
+      default:
+        PlatformDependent.putLong(offset, value);
+    }
+  }
+
+  /** Map the bits of a value to an unsigned key with the same order. */
+  private long toKey(long bits) {
+    final long signBit = 1L << (width * 8 - 1);
+    switch (kind) {
+      case SIGNED:
+        return bits ^ signBit;
+      case FLOATING_POINT:
+        if (width == 4 ? Float.isNaN(Float.intBitsToFloat((int) bits)) : Double.isNaN(Double.longBitsToDouble(bits))) {
+          // all NaNs are equal, after the other values
+          bits = width == 4 ? Float.floatToIntBits(Float.NaN) : Double.doubleToLongBits(Double.NaN);
+        }
+        return (bits & signBit) != 0 ? ~bits & mask() : bits ^ signBit;
+      default:
+        return bits;
+    }
+  }
+
+  /** Map a key back to the bits of its value. */
+  private long fromKey(long key) {
+    final long signBit = 1L << (width * 8 - 1);
+    switch (kind) {
+      case SIGNED:
+        return key ^ signBit;
+      case FLOATING_POINT:
+        return (key & signBit) != 0 ? key ^ signBit : ~key & mask();
+      default:
+        return key;
+    }
+  }
+
+  private long mask() {
+    return width == 8 ? -1L : (1L << (width * 8)) - 1;
+  }
+
+  /** Set the validity bits in [from, to) to a value. */
+  private static void setValidity(ArrowBuf validity, int from, int to, boolean valid) {
+    int index = from;
+    while (index < to && (index & 7) != 0) {
+      BitVectorHelper.setValidityBit(validity, index++, valid ? 1 : 0);
+    }
+    final int fullBytes = (to - index) >>> 3;
+    if (fullBytes > 0) {
+      PlatformDependent.setMemory(validity.memoryAddress() + (index >>> 3), fullBytes, valid ? (byte) 0xff : 0);
+      index += fullBytes * 8;
+    }
+    while (index < to) {
+      BitVectorHelper.setValidityBit(validity, index++, valid ? 1 : 0);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import org.apache.arrow.util.Preconditions;
+
+/**
+ * A key of a multi-column sort: a column of a vector schema root, with a direction and the
+ * position of nulls, like "c DESC NULLS LAST" in SQL.
+ */
+public class SortKey {
+
+  private final String column;
+
+  private final boolean descending;
+
+  private final boolean nullsFirst;
+
+  /**
+   * Constructs a sort key.
+   * @param column the name of the column.
+   * @param descending whether the values are sorted in descending order.
+   * @param nullsFirst whether nulls come before the other values, regardless of the direction.
+   */
+  public SortKey(String column, boolean descending, boolean nullsFirst) {
+    this.column = Preconditions.checkNotNull(column);
+    this.descending = descending;
+    this.nullsFirst = nullsFirst;
+  }
+
+  /**
+   * Creates a key sorting a column in ascending order, with nulls first like the default comparators.
+   */
+  public static SortKey ascending(String column) {
+    return new SortKey(column, false, true);
+  }
+
+  /**
+   * Creates a key sorting a column in descending order, with nulls last: the reverse of {@link #ascending(String)}.
+   */
+  public static SortKey descending(String column) {
+    return new SortKey(column, true, false);
+  }
+
+  /**
+   * Creates a key sorting the same column in the same direction, with nulls at the given position.
+   */
+  public SortKey withNullsFirst(boolean nullsFirst) {
+    return new SortKey(column, descending, nullsFirst);
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  public boolean isDescending() {
+    return descending;
+  }
+
+  public boolean isNullsFirst() {
+    return nullsFirst;
+  }
+
+  @Override
+  public String toString() {
+    return column + (descending ? " DESC" : " ASC") + (nullsFirst ? " NULLS FIRST" : " NULLS LAST");
+  }
+}
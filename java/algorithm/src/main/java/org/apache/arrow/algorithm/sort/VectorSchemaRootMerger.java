@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.arrow.algorithm.select.TakeUtils;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.VectorSchemaRootAppender;
+
+/**
+ * Merges streams of sorted vector schema roots into a single sorted stream, e.g. sorted runs read
+ * from separate files, or chunks sorted concurrently.
+ *
+ * <p>Each input is an iterator of batches, sorted by the same keys across the batches. The root
+ * returned by an input stays valid until its next batch is requested, so inputs may reuse their root,
+ * like {@link org.apache.arrow.vector.ipc.ArrowReader}. The inputs are consumed lazily, a batch at a
+ * time, and merged with a tournament tree, so the memory used is bounded by one batch per input plus
+ * the output batch. The merge is stable: equal rows are output in the order of the inputs.
+ *
+ * <p>The rows are copied to an output root owned by the merger, which is filled by {@link #loadNextBatch()}.
+ * The rows taken from an input between two of its batches are a range of its current batch, so the
+ * merged rows are copied in bulk, before an input moves to its next batch and once the output batch
+ * is full: the ranges are appended to a scratch root, and gathered in merge order with
+ * {@link TakeUtils}.
+ */
+public class VectorSchemaRootMerger implements AutoCloseable {
+
+  private final List<? extends Iterator<VectorSchemaRoot>> inputs;
+
+  private final List<SortKey> keys;
+
+  private final MultiColumnComparator keyReader;
+
+  private final VectorSchemaRoot output;
+
+  /**
+   * The ranges of the inputs to merge, appended in the order of the inputs.
+   */
+  private final VectorSchemaRoot ranges;
+
+  /**
+   * The merged rows, when they are appended to an output batch which already has rows.
+   */
+  private final VectorSchemaRoot merged;
+
+  private final IntVector positions;
+
+  private final int batchSize;
+
+  private final VectorSchemaRoot[] roots;
+
+  private final ValueVector[][] keyColumns;
+
+  private final int[] rows;
+
+  /**
+   * The first row of the current batch of each input which is not copied to the output yet.
+   */
+  private final int[] rangeStarts;
+
+  /**
+   * The input of each row merged since the last copy to the output.
+   */
+  private final int[] pendingInputs;
+
+  private int pendingCount;
+
+  /**
+   * The comparators of each pair of inputs, created lazily, and whether they are attached to the
+   * current batches of both inputs.
+   */
+  private final MultiColumnComparator[][] comparators;
+
+  private final boolean[][] attached;
+
+  private final LoserTree tree;
+
+  /**
+   * Constructs a merger.
+   * @param schema the schema of the inputs.
+   * @param keys the sort keys of the inputs, in order of precedence.
+   * @param inputs the sorted inputs.
+   * @param allocator the allocator for the output batches.
+   * @param batchSize the maximum number of rows in an output batch.
+   */
+  public VectorSchemaRootMerger(Schema schema, List<SortKey> keys, List<? extends Iterator<VectorSchemaRoot>> inputs,
+      BufferAllocator allocator, int batchSize) {
+    Preconditions.checkArgument(!inputs.isEmpty(), "At least one input is required");
+    Preconditions.checkArgument(batchSize > 0, "The batch size must be positive");
+    this.inputs = new ArrayList<>(inputs);
+    this.keys = new ArrayList<>(keys);
+    this.keyReader = new MultiColumnComparator(keys);
+    this.output = VectorSchemaRoot.create(schema, allocator);
+    this.ranges = VectorSchemaRoot.create(schema, allocator);
+    this.merged = VectorSchemaRoot.create(schema, allocator);
+    this.positions = new IntVector("positions", allocator);
+    this.batchSize = batchSize;
+    this.roots = new VectorSchemaRoot[inputs.size()];
+    this.keyColumns = new ValueVector[inputs.size()][];
+    this.rows = new int[inputs.size()];
+    this.rangeStarts = new int[inputs.size()];
+    this.pendingInputs = new int[batchSize];
+    this.comparators = new MultiColumnComparator[inputs.size()][inputs.size()];
+    this.attached = new boolean[inputs.size()][inputs.size()];
+    for (int input = 0; input < inputs.size(); input++) {
+      rows[input] = -1;
+      advance(input);
+    }
+    this.tree = new LoserTree(inputs.size(), this::compare, input -> roots[input] == null);
+  }
+
+  /**
+   * Get the root holding the last output batch.
+   */
+  public VectorSchemaRoot getVectorSchemaRoot() {
+    return output;
+  }
+
+  /**
+   * Merge the next rows into the output root.
+   * @return true if a batch was output, or false if all the inputs are exhausted.
+   */
+  public boolean loadNextBatch() {
+    if (roots[tree.getWinner()] == null) {
+      output.setRowCount(0);
+      return false;
+    }
+    // allocateNew leaves the value counts at the capacity, the rows are appended from the start
+    output.allocateNew();
+    output.setRowCount(0);
+    int rowCount = 0;
+    while (rowCount < batchSize) {
+      final int input = tree.getWinner();
+      if (roots[input] == null) {
+        break;
+      }
+      pendingInputs[pendingCount++] = input;
+      rowCount++;
+      advance(input);
+      tree.replay();
+    }
+    copyPendingRows();
+    return true;
+  }
+
+  /**
+   * Move to the next row of an input, loading its next non-empty batch if needed. The pending rows
+   * are copied first, as they may be in the current batch, which the input may reuse.
+   */
+  private void advance(int input) {
+    rows[input]++;
+    while (roots[input] == null || rows[input] >= roots[input].getRowCount()) {
+      copyPendingRows();
+      for (int other = 0; other < inputs.size(); other++) {
+        attached[input][other] = false;
+        attached[other][input] = false;
+      }
+      rows[input] = 0;
+      rangeStarts[input] = 0;
+      if (!inputs.get(input).hasNext()) {
+        roots[input] = null;
+        keyColumns[input] = null;
+        return;
+      }
+      roots[input] = inputs.get(input).next();
+      keyColumns[input] = keyReader.getColumns(roots[input]);
+    }
+  }
+
+  /**
+   * Append the rows merged since the last copy to the output root.
+   */
+  private void copyPendingRows() {
+    if (pendingCount == 0) {
+      return;
+    }
+    final int firstInput = pendingInputs[0];
+    boolean singleInput = true;
+    for (int i = 1; i < pendingCount && singleInput; i++) {
+      singleInput = pendingInputs[i] == firstInput;
+    }
+    if (singleInput) {
+      appendRange(output, firstInput);
+    } else {
+      // the position in the ranges of the first pending row of each input
+      final int[] rangeOffsets = new int[inputs.size()];
+      ranges.allocateNew();
+      ranges.setRowCount(0);
+      for (int input = 0; input < inputs.size(); input++) {
+        rangeOffsets[input] = ranges.getRowCount();
+        if (roots[input] != null && rows[input] > rangeStarts[input]) {
+          appendRange(ranges, input);
+        }
+      }
+      positions.allocateNew(pendingCount);
+      for (int i = 0; i < pendingCount; i++) {
+        positions.set(i, rangeOffsets[pendingInputs[i]]++);
+      }
+      BitVectorHelper.setAllBitsToOne(positions.getValidityBuffer(), pendingCount);
+      positions.setValueCount(pendingCount);
+      if (output.getRowCount() == 0) {
+        TakeUtils.take(ranges, positions, output);
+      } else {
+        TakeUtils.take(ranges, positions, merged);
+        VectorSchemaRootAppender.append(false, output, merged);
+      }
+    }
+    for (int input = 0; input < inputs.size(); input++) {
+      rangeStarts[input] = rows[input];
+    }
+    pendingCount = 0;
+  }
+
+  /**
+   * Append the pending rows of an input to a root.
+   */
+  private void appendRange(VectorSchemaRoot target, int input) {
+    final VectorSchemaRoot root = roots[input];
+    final VectorSchemaRoot range = root.slice(rangeStarts[input], rows[input] - rangeStarts[input]);
+    try {
+      VectorSchemaRootAppender.append(false, target, range);
+    } finally {
+      if (range != root) {
+        range.close();
+      }
+    }
+  }
+
+  /**
+   * Compare the current rows of two inputs, with the comparator of the pair, which is attached
+   * again only when one of the inputs has moved to another batch.
+   */
+  private int compare(int input1, int input2) {
+    MultiColumnComparator comparator = comparators[input1][input2];
+    if (comparator == null) {
+      comparator = new MultiColumnComparator(keys);
+      comparators[input1][input2] = comparator;
+    }
+    if (!attached[input1][input2]) {
+      comparator.attachColumns(keyColumns[input1], keyColumns[input2]);
+      attached[input1][input2] = true;
+    }
+    return comparator.compare(rows[input1], rows[input2]);
+  }
+
+  @Override
+  public void close() {
+    output.close();
+    ranges.close();
+    merged.close();
+    positions.close();
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+import org.apache.arrow.algorithm.select.TakeUtils;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Sorts the rows of a vector schema root by several sort keys, e.g. ORDER BY a, b DESC, c NULLS FIRST.
+ *
+ * <p>The row indices are sorted first, by a stable merge sort, and the columns are then reordered
+ * by gathering their values (see {@link TakeUtils}). The leading keys supported by radix sort are
+ * packed into normalized keys, so most comparisons are a comparison of a few machine words, and the
+ * other keys are only compared when the normalized keys are equal. A single ascending key with nulls
+ * first, of a type supported by radix sort, is sorted by {@link RadixVectorSorter}.
+ */
+public class VectorSchemaRootSorter {
+
+  /**
+   * Rows in runs of this size are sorted by insertion sort, before merging.
+   */
+  private static final int RUN_SIZE = 32;
+
+  /**
+   * Sort the indices of the rows of a vector schema root, stably. After calling this method,
+   * row(indices[0]) <= row(indices[1]) <= ... in the order of the keys, and indices of equal rows are
+   * in ascending order.
+   * @param root the vector schema root whose row indices are sorted.
+   * @param keys the sort keys, in order of precedence.
+   * @param indices the vector for storing the sorted indices, with capacity for the rows.
+   *     Its value count is set.
+   */
+  public static void sortIndices(VectorSchemaRoot root, List<SortKey> keys, IntVector indices) {
+    final int rowCount = root.getRowCount();
+    Preconditions.checkArgument(!keys.isEmpty(), "At least one sort key is required");
+    Preconditions.checkArgument(indices.getValueCapacity() >= rowCount, "Not enough capacity for the indices");
+
+    final FieldVector first = MultiColumnComparator.getColumn(root, keys.get(0));
+    if (keys.size() == 1 && !keys.get(0).isDescending() && keys.get(0).isNullsFirst() &&
+        RadixVectorSorter.isSupported(first) && first.getValueCount() == rowCount) {
+      RadixVectorSorter.sortIndices((BaseFixedWidthVector) first, indices);
+      return;
+    }
+
+    final long address = indices.getDataBuffer().memoryAddress();
+    for (int i = 0; i < rowCount; i++) {
+      PlatformDependent.putInt(address + i * 4L, i);
+      indices.setIndexDefined(i);
+    }
+    indices.setValueCount(rowCount);
+
+    final MultiColumnComparator comparator = new MultiColumnComparator(keys);
+    comparator.attachRoot(root);
+    final BufferAllocator allocator = indices.getAllocator();
+    try (final NormalizedKeys normalizedKeys = NormalizedKeys.create(root, keys, allocator)) {
+      final IntBinaryOperator rowComparator;
+      if (normalizedKeys == null) {
+        rowComparator = comparator::compare;
+      } else if (normalizedKeys.getKeyCount() == keys.size()) {
+        rowComparator = normalizedKeys::compare;
+      } else {
+        final int otherKeys = normalizedKeys.getKeyCount();
+        rowComparator = (row1, row2) -> {
+          final int result = normalizedKeys.compare(row1, row2);
+          return result != 0 ? result : comparator.compare(row1, row2, otherKeys);
+        };
+      }
+      sortIndices(address, rowCount, allocator, rowComparator);
+    }
+  }
+
+  /**
+   * Sort the rows of a vector schema root out of place.
+   * @param srcRoot the vector schema root to sort.
+   * @param keys the sort keys, in order of precedence.
+   * @param dstRoot the output vector schema root, with the same schema as the input. Its vectors are
+   *     reallocated, and its row count is set.
+   */
+  public static void sort(VectorSchemaRoot srcRoot, List<SortKey> keys, VectorSchemaRoot dstRoot) {
+    Preconditions.checkArgument(!keys.isEmpty(), "At least one sort key is required");
+    final BufferAllocator allocator = MultiColumnComparator.getColumn(srcRoot, keys.get(0)).getAllocator();
+    try (final IntVector indices = new IntVector("", allocator)) {
+      indices.allocateNew(srcRoot.getRowCount());
+      sortIndices(srcRoot, keys, indices);
+      TakeUtils.take(srcRoot, indices, dstRoot);
+    }
+  }
+
+  /**
+   * Sort the indices in an off-heap buffer by a stable merge sort, with scratch space from the allocator.
+   */
+  static void sortIndices(long address, int count, BufferAllocator allocator, IntBinaryOperator comparator) {
+    for (int low = 0; low < count; low += RUN_SIZE) {
+      insertionSort(address, low, Math.min(low + RUN_SIZE, count), comparator);
+    }
+    if (count <= RUN_SIZE) {
+      return;
+    }
+    try (final ArrowBuf scratch = allocator.buffer(count * 4)) {
+      long src = address;
+      long dst = scratch.memoryAddress();
+      for (long width = RUN_SIZE; width < count; width *= 2) {
+        for (long low = 0; low < count; low += 2 * width) {
+          final int mid = (int) Math.min(low + width, count);
+          final int high = (int) Math.min(low + 2 * width, count);
+          merge(src, dst, (int) low, mid, high, comparator);
+        }
+        final long tmp = src;
+        src = dst;
+        dst = tmp;
+      }
+      if (src != address) {
+        PlatformDependent.copyMemory(src, address, count * 4L);
+      }
+    }
+  }
+
+  private static void insertionSort(long address, int low, int high, IntBinaryOperator comparator) {
+    for (int i = low + 1; i < high; i++) {
+      final int index = PlatformDependent.getInt(address + i * 4L);
+      int j = i - 1;
+      while (j >= low && comparator.applyAsInt(PlatformDependent.getInt(address + j * 4L), index) > 0) {
+        PlatformDependent.putInt(address + (j + 1) * 4L, PlatformDependent.getInt(address + j * 4L));
+        j--;
+      }
+      PlatformDependent.putInt(address + (j + 1) * 4L, index);
+    }
+  }
+
+  private static void merge(long src, long dst, int low, int mid, int high, IntBinaryOperator comparator) {
+    if (mid >= high || comparator.applyAsInt(
+        PlatformDependent.getInt(src + (mid - 1) * 4L), PlatformDependent.getInt(src + mid * 4L)) <= 0) {
+      // the runs are already in order
+      PlatformDependent.copyMemory(src + low * 4L, dst + low * 4L, (high - low) * 4L);
+      return;
+    }
+    int i = low;
+    int j = mid;
+    int k = low;
+    while (i < mid && j < high) {
+      final int left = PlatformDependent.getInt(src + i * 4L);
+      final int right = PlatformDependent.getInt(src + j * 4L);
+      if (comparator.applyAsInt(right, left) < 0) {
+        PlatformDependent.putInt(dst + k++ * 4L, right);
+        j++;
+      } else {
+        PlatformDependent.putInt(dst + k++ * 4L, left);
+        i++;
+      }
+    }
+    if (i < mid) {
+      PlatformDependent.copyMemory(src + i * 4L, dst + k * 4L, (mid - i) * 4L);
+    } else if (j < high) {
+      PlatformDependent.copyMemory(src + j * 4L, dst + k * 4L, (high - j) * 4L);
+    }
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.aggregate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link HashAggregator}.
+ */
+public class TestHashAggregator {
+
+  private static final Schema SCHEMA = new Schema(Arrays.asList(
+      Field.nullable("key", new ArrowType.Int(32, true)),
+      Field.nullable("name", ArrowType.Utf8.INSTANCE),
+      Field.nullable("value", new ArrowType.Int(32, true)),
+      Field.nullable("real", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE))));
+
+  private static final List<AggregateFunction> FUNCTIONS = Arrays.asList(
+      AggregateFunction.countAll(),
+      AggregateFunction.count("value"),
+      AggregateFunction.sum("value"),
+      AggregateFunction.sum("real").as("total"),
+      AggregateFunction.min("value"),
+      AggregateFunction.max("real"),
+      AggregateFunction.avg("value"),
+      AggregateFunction.countDistinct("value"));
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(8 * 1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testOutputSchema() {
+    try (HashAggregator aggregator = new HashAggregator(SCHEMA, Arrays.asList("key", "name"), FUNCTIONS, allocator)) {
+      final Schema schema = aggregator.getOutputSchema();
+      assertEquals(SCHEMA.getFields().get(0), schema.getFields().get(0));
+      assertEquals(SCHEMA.getFields().get(1), schema.getFields().get(1));
+      assertEquals("count", schema.getFields().get(2).getName());
+      assertEquals(new ArrowType.Int(64, true), schema.getFields().get(4).getType());
+      assertEquals("total", schema.getFields().get(5).getName());
+      assertEquals(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE), schema.getFields().get(5).getType());
+      assertEquals(new ArrowType.Int(32, true), schema.getFields().get(6).getType());
+      assertEquals("count_distinct(value)", schema.getFields().get(9).getName());
+    }
+  }
+
+  /**
+   * Aggregate random batches with null keys and values, and compare with a computation on objects.
+   */
+  @Test
+  public void testAggregate() {
+    final Random random = new Random(0);
+    final Map<List<Object>, GroupState> expected = new LinkedHashMap<>();
+    try (HashAggregator aggregator = new HashAggregator(SCHEMA, Arrays.asList("key", "name"), FUNCTIONS, allocator);
+         VectorSchemaRoot batch = VectorSchemaRoot.create(SCHEMA, allocator)) {
+      for (int i = 0; i < 5; i++) {
+        fill(batch, 1000, random, expected);
+        aggregator.add(batch);
+      }
+      assertEquals(expected.size(), aggregator.getGroupCount());
+      verifyResult(aggregator, expected);
+
+      // the aggregator can be used again after the result is emitted
+      expected.clear();
+      fill(batch, 100, random, expected);
+      aggregator.add(batch);
+      verifyResult(aggregator, expected);
+    }
+  }
+
+  @Test
+  public void testAggregateWithoutKeys() {
+    final Random random = new Random(0);
+    final Map<List<Object>, GroupState> expected = new LinkedHashMap<>();
+    try (HashAggregator aggregator = new HashAggregator(SCHEMA, Collections.emptyList(), FUNCTIONS, allocator);
+         VectorSchemaRoot batch = VectorSchemaRoot.create(SCHEMA, allocator)) {
+      // there is a group even without rows
+      try (VectorSchemaRoot output = VectorSchemaRoot.create(aggregator.getOutputSchema(), allocator)) {
+        aggregator.emit(output);
+        assertEquals(1, output.getRowCount());
+        assertEquals(0L, output.getVector("count").getObject(0));
+        assertNull(output.getVector("sum(value)").getObject(0));
+        assertNull(output.getVector("avg(value)").getObject(0));
+        assertEquals(0L, output.getVector("count_distinct(value)").getObject(0));
+      }
+
+      for (int i = 0; i < 3; i++) {
+        fill(batch, 500, random, expected);
+        aggregator.add(batch);
+      }
+      final GroupState total = new GroupState();
+      expected.values().forEach(total::merge);
+      verifyResult(aggregator, Collections.singletonMap(Collections.emptyList(), total));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedMin() {
+    new HashAggregator(SCHEMA, Collections.emptyList(), Collections.singletonList(AggregateFunction.min("name")),
+        allocator).close();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedSum() {
+    new HashAggregator(SCHEMA, Collections.emptyList(), Collections.singletonList(AggregateFunction.sum("name")),
+        allocator).close();
+  }
+
+  private void verifyResult(HashAggregator aggregator, Map<List<Object>, GroupState> expected) {
+    try (VectorSchemaRoot output = VectorSchemaRoot.create(aggregator.getOutputSchema(), allocator)) {
+      aggregator.emit(output);
+      assertEquals(expected.size(), output.getRowCount());
+      final int keyCount = output.getFieldVectors().size() - FUNCTIONS.size();
+      int row = 0;
+      for (Map.Entry<List<Object>, GroupState> entry : expected.entrySet()) {
+        final List<Object> key = new ArrayList<>();
+        for (int i = 0; i < keyCount; i++) {
+          final Object value = output.getFieldVectors().get(i).getObject(row);
+          key.add(value == null ? null : value.toString());
+        }
+        final List<Object> expectedKey = new ArrayList<>();
+        for (Object value : entry.getKey()) {
+          expectedKey.add(value == null ? null : value.toString());
+        }
+        assertEquals(expectedKey, key);
+
+        final GroupState state = entry.getValue();
+        assertEquals(state.count, output.getVector("count").getObject(row));
+        assertEquals(state.valueCount, output.getVector("count(value)").getObject(row));
+        assertEquals(state.valueCount == 0 ? null : state.valueSum, output.getVector("sum(value)").getObject(row));
+        assertEquals(state.realCount == 0 ? null : state.realSum, output.getVector("total").getObject(row));
+        assertEquals(state.valueMin, output.getVector("min(value)").getObject(row));
+        assertEquals(state.realMax, output.getVector("max(real)").getObject(row));
+        if (state.valueCount == 0) {
+          assertNull(output.getVector("avg(value)").getObject(row));
+        } else {
+          assertEquals((double) state.valueSum / state.valueCount,
+              ((Float8Vector) output.getVector("avg(value)")).get(row), 1e-9);
+        }
+        assertEquals((long) state.distinctValues.size(), output.getVector("count_distinct(value)").getObject(row));
+        row++;
+      }
+    }
+  }
+
+  private static void fill(VectorSchemaRoot batch, int rowCount, Random random,
+      Map<List<Object>, GroupState> expected) {
+    final IntVector keyVector = (IntVector) batch.getVector("key");
+    final VarCharVector nameVector = (VarCharVector) batch.getVector("name");
+    final IntVector valueVector = (IntVector) batch.getVector("value");
+    final Float8Vector realVector = (Float8Vector) batch.getVector("real");
+    keyVector.allocateNew(rowCount);
+    nameVector.allocateNew(rowCount * 4, rowCount);
+    valueVector.allocateNew(rowCount);
+    realVector.allocateNew(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      Integer key = null;
+      if (random.nextInt(20) == 0) {
+        keyVector.setNull(i);
+      } else {
+        key = random.nextInt(20);
+        keyVector.set(i, key);
+      }
+      String name = null;
+      if (random.nextInt(20) == 0) {
+        nameVector.setNull(i);
+      } else {
+        name = "n" + random.nextInt(5);
+        nameVector.setSafe(i, name.getBytes(StandardCharsets.UTF_8));
+      }
+      Integer value = null;
+      if (random.nextInt(10) == 0) {
+        valueVector.setNull(i);
+      } else {
+        // values of both signs, far apart, so that differences overflow
+        value = random.nextInt();
+        if (random.nextBoolean()) {
+          value = value % 10;
+        }
+        valueVector.set(i, value);
+      }
+      Double real = null;
+      if (random.nextInt(10) == 0) {
+        realVector.setNull(i);
+      } else {
+        real = (double) random.nextInt(1000) - 500;
+        realVector.set(i, real);
+      }
+      expected.computeIfAbsent(Arrays.asList(key, name), k -> new GroupState()).add(value, real);
+    }
+    batch.setRowCount(rowCount);
+  }
+
+  private static class GroupState {
+    long count;
+    long valueCount;
+    long valueSum;
+    Integer valueMin;
+    long realCount;
+    double realSum;
+    Double realMax;
+    Set<Integer> distinctValues = new HashSet<>();
+
+    void add(Integer value, Double real) {
+      count++;
+      if (value != null) {
+        valueCount++;
+        valueSum += value;
+        valueMin = valueMin == null ? value : Math.min(valueMin, value);
+        distinctValues.add(value);
+      }
+      if (real != null) {
+        realCount++;
+        realSum += real;
+        realMax = realMax == null ? real : Math.max(realMax, real);
+      }
+    }
+
+    void merge(GroupState other) {
+      count += other.count;
+      valueCount += other.valueCount;
+      valueSum += other.valueSum;
+      if (other.valueMin != null) {
+        valueMin = valueMin == null ? other.valueMin : Math.min(valueMin, other.valueMin);
+      }
+      realCount += other.realCount;
+      realSum += other.realSum;
+      if (other.realMax != null) {
+        realMax = realMax == null ? other.realMax : Math.max(realMax, other.realMax);
+      }
+      distinctValues.addAll(other.distinctValues);
+    }
+  }
+}
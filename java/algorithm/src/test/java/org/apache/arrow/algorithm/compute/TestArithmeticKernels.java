@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.compute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ArithmeticKernels}.
+ */
+public class TestArithmeticKernels {
+
+  private static final int VECTOR_LENGTH = 100;
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  private void populate(IntVector left, IntVector right) {
+    left.allocateNew(VECTOR_LENGTH);
+    right.allocateNew(VECTOR_LENGTH);
+    for (int i = 0; i < VECTOR_LENGTH; i++) {
+      if (i % 7 == 0) {
+        left.setNull(i);
+      } else {
+        left.set(i, i * 3);
+      }
+      if (i % 11 == 0) {
+        right.setNull(i);
+      } else {
+        right.set(i, i - 50);
+      }
+    }
+    left.setValueCount(VECTOR_LENGTH);
+    right.setValueCount(VECTOR_LENGTH);
+  }
+
+  @Test
+  public void testIntArithmetic() {
+    try (IntVector left = new IntVector("", allocator);
+         IntVector right = new IntVector("", allocator);
+         IntVector output = new IntVector("", allocator)) {
+      populate(left, right);
+      // the divisor is zero at index 50, so make it null
+      right.setNull(50);
+
+      for (ArithmeticKernels.Operator operator : ArithmeticKernels.Operator.values()) {
+        ArithmeticKernels.evaluate(operator, left, right, output);
+
+        assertEquals(VECTOR_LENGTH, output.getValueCount());
+        for (int i = 0; i < VECTOR_LENGTH; i++) {
+          if (left.isNull(i) || right.isNull(i)) {
+            assertTrue(output.isNull(i));
+            continue;
+          }
+          final int a = left.get(i);
+          final int b = right.get(i);
+          switch (operator) {
+            case ADD:
+              assertEquals(a + b, output.get(i));
+              break;
+            case SUBTRACT:
+              assertEquals(a - b, output.get(i));
+              break;
+            case MULTIPLY:
+              assertEquals(a * b, output.get(i));
+              break;
+            default:
+              assertEquals(a / b, output.get(i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLongArithmeticWithoutNulls() {
+    try (BigIntVector left = new BigIntVector("", allocator);
+         BigIntVector right = new BigIntVector("", allocator);
+         BigIntVector output = new BigIntVector("", allocator)) {
+      left.allocateNew(VECTOR_LENGTH);
+      right.allocateNew(VECTOR_LENGTH);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        left.set(i, Long.MAX_VALUE - i);
+        right.set(i, i + 1);
+      }
+      left.setValueCount(VECTOR_LENGTH);
+      right.setValueCount(VECTOR_LENGTH);
+
+      ArithmeticKernels.evaluate(ArithmeticKernels.Operator.ADD, left, right, output);
+
+      assertEquals(0, output.getNullCount());
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        assertEquals(Long.MIN_VALUE, output.get(i));
+      }
+
+      ArithmeticKernels.evaluate(ArithmeticKernels.Operator.DIVIDE, left, right, output);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        assertEquals((Long.MAX_VALUE - i) / (i + 1), output.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testDoubleArithmetic() {
+    try (Float8Vector left = new Float8Vector("", allocator);
+         Float8Vector right = new Float8Vector("", allocator);
+         Float8Vector output = new Float8Vector("", allocator)) {
+      left.allocateNew(VECTOR_LENGTH);
+      right.allocateNew(VECTOR_LENGTH);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        left.set(i, i * 1.5);
+        if (i % 3 == 0) {
+          right.setNull(i);
+        } else {
+          right.set(i, i % 5);
+        }
+      }
+      left.setValueCount(VECTOR_LENGTH);
+      right.setValueCount(VECTOR_LENGTH);
+
+      ArithmeticKernels.evaluate(ArithmeticKernels.Operator.DIVIDE, left, right, output);
+
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        if (i % 3 == 0) {
+          assertTrue(output.isNull(i));
+        } else {
+          assertEquals(i * 1.5 / (i % 5), output.get(i), 0);
+        }
+      }
+    }
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testDivisionByZero() {
+    try (IntVector left = new IntVector("", allocator);
+         IntVector right = new IntVector("", allocator);
+         IntVector output = new IntVector("", allocator)) {
+      populate(left, right);
+      ArithmeticKernels.evaluate(ArithmeticKernels.Operator.DIVIDE, left, right, output);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedType() {
+    try (DateDayVector left = new DateDayVector("", allocator);
+         DateDayVector right = new DateDayVector("", allocator);
+         DateDayVector output = new DateDayVector("", allocator)) {
+      ArithmeticKernels.evaluate(ArithmeticKernels.Operator.ADD, left, right, output);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAliasedOutput() {
+    try (IntVector left = new IntVector("", allocator);
+         IntVector right = new IntVector("", allocator)) {
+      populate(left, right);
+      ArithmeticKernels.evaluate(ArithmeticKernels.Operator.ADD, left, right, left);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMismatchedOutputType() {
+    try (BigIntVector left = new BigIntVector("", allocator);
+         BigIntVector right = new BigIntVector("", allocator);
+         IntVector output = new IntVector("", allocator)) {
+      left.allocateNew(VECTOR_LENGTH);
+      right.allocateNew(VECTOR_LENGTH);
+      left.setValueCount(VECTOR_LENGTH);
+      right.setValueCount(VECTOR_LENGTH);
+      ArithmeticKernels.<BaseFixedWidthVector>evaluate(ArithmeticKernels.Operator.ADD, left, right, output);
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.compute;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link BooleanKernels}.
+ */
+public class TestBooleanKernels {
+
+  /**
+   * The left and right operands of all the combinations of true, false and null, repeated to span
+   * several words.
+   */
+  private static final Boolean[] VALUES = {true, false, null};
+
+  private static final int VECTOR_LENGTH = 9 * 10;
+
+  private BufferAllocator allocator;
+
+  private BitVector left;
+
+  private BitVector right;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+    left = new BitVector("left", allocator);
+    right = new BitVector("right", allocator);
+    left.allocateNew(VECTOR_LENGTH);
+    right.allocateNew(VECTOR_LENGTH);
+    for (int i = 0; i < VECTOR_LENGTH; i++) {
+      set(left, i, VALUES[i % 3]);
+      set(right, i, VALUES[i / 3 % 3]);
+    }
+    left.setValueCount(VECTOR_LENGTH);
+    right.setValueCount(VECTOR_LENGTH);
+  }
+
+  @After
+  public void shutdown() {
+    left.close();
+    right.close();
+    allocator.close();
+  }
+
+  private static void set(BitVector vector, int index, Boolean value) {
+    if (value == null) {
+      vector.setNull(index);
+    } else {
+      vector.set(index, value ? 1 : 0);
+    }
+  }
+
+  private static Boolean get(BitVector vector, int index) {
+    return vector.isNull(index) ? null : vector.get(index) != 0;
+  }
+
+  @Test
+  public void testAnd() {
+    try (BitVector output = new BitVector("", allocator)) {
+      BooleanKernels.and(left, right, output);
+
+      assertEquals(VECTOR_LENGTH, output.getValueCount());
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        final Boolean a = get(left, i);
+        final Boolean b = get(right, i);
+        final Boolean expected;
+        if (Boolean.FALSE.equals(a) || Boolean.FALSE.equals(b)) {
+          expected = false;
+        } else if (a == null || b == null) {
+          expected = null;
+        } else {
+          expected = true;
+        }
+        assertEquals(a + " AND " + b, expected, get(output, i));
+      }
+    }
+  }
+
+  @Test
+  public void testOr() {
+    try (BitVector output = new BitVector("", allocator)) {
+      BooleanKernels.or(left, right, output);
+
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        final Boolean a = get(left, i);
+        final Boolean b = get(right, i);
+        final Boolean expected;
+        if (Boolean.TRUE.equals(a) || Boolean.TRUE.equals(b)) {
+          expected = true;
+        } else if (a == null || b == null) {
+          expected = null;
+        } else {
+          expected = false;
+        }
+        assertEquals(a + " OR " + b, expected, get(output, i));
+      }
+    }
+  }
+
+  @Test
+  public void testNot() {
+    try (BitVector output = new BitVector("", allocator)) {
+      BooleanKernels.not(left, output);
+
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        final Boolean a = get(left, i);
+        assertEquals(a == null ? null : !a, get(output, i));
+      }
+    }
+  }
+
+  @Test
+  public void testWithoutNulls() {
+    try (BitVector a = new BitVector("", allocator);
+         BitVector b = new BitVector("", allocator);
+         BitVector output = new BitVector("", allocator)) {
+      a.allocateNew(VECTOR_LENGTH);
+      b.allocateNew(VECTOR_LENGTH);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        a.set(i, i % 2);
+        b.set(i, i % 3 == 0 ? 1 : 0);
+      }
+      a.setValueCount(VECTOR_LENGTH);
+      b.setValueCount(VECTOR_LENGTH);
+
+      BooleanKernels.and(a, b, output);
+      assertEquals(0, output.getNullCount());
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        assertEquals(i % 2 == 1 && i % 3 == 0, output.get(i) != 0);
+      }
+
+      BooleanKernels.or(a, b, output);
+      assertEquals(0, output.getNullCount());
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        assertEquals(i % 2 == 1 || i % 3 == 0, output.get(i) != 0);
+      }
+      assertEquals(VECTOR_LENGTH, output.getValueCount());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAndAliasedOutput() {
+    BooleanKernels.and(left, right, left);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotAliasedOutput() {
+    BooleanKernels.not(left, left);
+  }
+}
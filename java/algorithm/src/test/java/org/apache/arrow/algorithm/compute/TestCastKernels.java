@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.compute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link CastKernels}.
+ */
+public class TestCastKernels {
+
+  private static final int VECTOR_LENGTH = 100;
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testWideningCasts() {
+    try (IntVector input = new IntVector("", allocator);
+         BigIntVector longs = new BigIntVector("", allocator);
+         Float8Vector doubles = new Float8Vector("", allocator);
+         IntVector ints = new IntVector("", allocator)) {
+      input.allocateNew(VECTOR_LENGTH);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        if (i % 9 == 0) {
+          input.setNull(i);
+        } else {
+          input.set(i, -i * 1000);
+        }
+      }
+      input.setValueCount(VECTOR_LENGTH);
+
+      CastKernels.cast(input, longs);
+      CastKernels.cast(longs, doubles);
+      CastKernels.cast(input, ints);
+
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        if (i % 9 == 0) {
+          assertTrue(longs.isNull(i));
+          assertTrue(doubles.isNull(i));
+          assertTrue(ints.isNull(i));
+        } else {
+          assertEquals(-i * 1000L, longs.get(i));
+          assertEquals(-i * 1000.0, doubles.get(i), 0);
+          assertEquals(-i * 1000, ints.get(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testNarrowingCasts() {
+    try (Float8Vector input = new Float8Vector("", allocator);
+         IntVector ints = new IntVector("", allocator);
+         BigIntVector longs = new BigIntVector("", allocator);
+         Float4Vector floats = new Float4Vector("", allocator)) {
+      input.allocateNew(4);
+      input.set(0, 2.75);
+      input.set(1, -2.75);
+      input.set(2, Double.NaN);
+      input.set(3, 1e20);
+      input.setValueCount(4);
+
+      CastKernels.cast(input, ints);
+      CastKernels.cast(input, longs);
+      CastKernels.cast(input, floats);
+
+      assertEquals(2, ints.get(0));
+      assertEquals(-2, ints.get(1));
+      assertEquals(0, ints.get(2));
+      assertEquals(Integer.MAX_VALUE, ints.get(3));
+      assertEquals(2L, longs.get(0));
+      assertEquals(100000000000000000000f, floats.get(3), 0);
+    }
+  }
+
+  @Test
+  public void testLongToIntOverflowUnderNull() {
+    try (BigIntVector input = new BigIntVector("", allocator);
+         IntVector output = new IntVector("", allocator)) {
+      input.allocateNew(2);
+      input.set(0, 1L << 40);
+      input.setNull(0);
+      input.set(1, 42L);
+      input.setValueCount(2);
+
+      CastKernels.cast(input, output);
+
+      assertTrue(output.isNull(0));
+      assertEquals(42, output.get(1));
+    }
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testLongToIntOverflow() {
+    try (BigIntVector input = new BigIntVector("", allocator);
+         IntVector output = new IntVector("", allocator)) {
+      input.allocateNew(1);
+      input.set(0, 1L << 40);
+      input.setValueCount(1);
+
+      CastKernels.cast(input, output);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedCast() {
+    try (DateDayVector input = new DateDayVector("", allocator);
+         IntVector output = new IntVector("", allocator)) {
+      CastKernels.cast(input, output);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.compute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ComparisonKernels}.
+ */
+public class TestComparisonKernels {
+
+  private static final int VECTOR_LENGTH = 150;
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  private static boolean expected(ComparisonKernels.Operator operator, long a, long b) {
+    switch (operator) {
+      case EQUAL:
+        return a == b;
+      case NOT_EQUAL:
+        return a != b;
+      case LESS_THAN:
+        return a < b;
+      case LESS_THAN_OR_EQUAL:
+        return a <= b;
+      case GREATER_THAN:
+        return a > b;
+      default:
+        return a >= b;
+    }
+  }
+
+  @Test
+  public void testCompareLongs() {
+    try (BigIntVector left = new BigIntVector("", allocator);
+         BigIntVector right = new BigIntVector("", allocator);
+         BitVector output = new BitVector("", allocator)) {
+      left.allocateNew(VECTOR_LENGTH);
+      right.allocateNew(VECTOR_LENGTH);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        if (i % 13 == 0) {
+          left.setNull(i);
+        } else {
+          left.set(i, i % 10);
+        }
+        right.set(i, i % 7);
+      }
+      left.setValueCount(VECTOR_LENGTH);
+      right.setValueCount(VECTOR_LENGTH);
+
+      for (ComparisonKernels.Operator operator : ComparisonKernels.Operator.values()) {
+        ComparisonKernels.evaluate(operator, left, right, output);
+
+        assertEquals(VECTOR_LENGTH, output.getValueCount());
+        for (int i = 0; i < VECTOR_LENGTH; i++) {
+          if (left.isNull(i)) {
+            assertTrue(output.isNull(i));
+          } else {
+            assertEquals(operator + " at " + i, expected(operator, left.get(i), right.get(i)), output.get(i) != 0);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCompareFloatsWithNaN() {
+    try (Float4Vector left = new Float4Vector("", allocator);
+         Float4Vector right = new Float4Vector("", allocator);
+         BitVector output = new BitVector("", allocator)) {
+      left.allocateNew(3);
+      right.allocateNew(3);
+      left.set(0, Float.NaN);
+      right.set(0, Float.NaN);
+      left.set(1, 1.5f);
+      right.set(1, Float.NaN);
+      left.set(2, -1f);
+      right.set(2, 2f);
+      left.setValueCount(3);
+      right.setValueCount(3);
+
+      ComparisonKernels.evaluate(ComparisonKernels.Operator.EQUAL, left, right, output);
+      assertEquals(0, output.getNullCount());
+      assertEquals(0, output.get(0));
+      assertEquals(0, output.get(1));
+      assertEquals(0, output.get(2));
+
+      ComparisonKernels.evaluate(ComparisonKernels.Operator.NOT_EQUAL, left, right, output);
+      assertEquals(1, output.get(0));
+      assertEquals(1, output.get(1));
+      assertEquals(1, output.get(2));
+
+      ComparisonKernels.evaluate(ComparisonKernels.Operator.GREATER_THAN_OR_EQUAL, left, right, output);
+      assertEquals(0, output.get(0));
+      assertEquals(0, output.get(1));
+      assertEquals(0, output.get(2));
+
+      ComparisonKernels.evaluate(ComparisonKernels.Operator.LESS_THAN, left, right, output);
+      assertEquals(0, output.get(0));
+      assertEquals(0, output.get(1));
+      assertEquals(1, output.get(2));
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.deduplicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link RunEndEncodedVector}.
+ */
+public class TestRunEndEncodedVector {
+
+  private static final int VECTOR_LENGTH = 100;
+
+  private static final int REPETITION_COUNT = 30;
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testEncodeFixedWidth() {
+    try (BigIntVector origVec = new BigIntVector("original vec", allocator)) {
+      origVec.allocateNew(VECTOR_LENGTH * REPETITION_COUNT);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        for (int j = 0; j < REPETITION_COUNT; j++) {
+          if (i % 10 == 0) {
+            origVec.setNull(i * REPETITION_COUNT + j);
+          } else {
+            origVec.set(i * REPETITION_COUNT + j, i);
+          }
+        }
+      }
+      origVec.setValueCount(VECTOR_LENGTH * REPETITION_COUNT);
+
+      try (RunEndEncodedVector<BigIntVector> encoded = RunEndEncodedVector.encode(origVec, allocator);
+           BigIntVector decoded = new BigIntVector("decoded vec", allocator)) {
+        assertEquals(VECTOR_LENGTH, encoded.getRunCount());
+        assertEquals(VECTOR_LENGTH * REPETITION_COUNT, encoded.getValueCount());
+        assertTrue(encoded.getBufferSize() < origVec.getBufferSize());
+
+        for (int i = 0; i < VECTOR_LENGTH * REPETITION_COUNT; i++) {
+          assertEquals(i / REPETITION_COUNT, encoded.findRun(i));
+          assertEquals(origVec.isNull(i), encoded.isNull(i));
+          assertEquals(origVec.getObject(i), encoded.getObject(i));
+        }
+
+        encoded.decode(decoded);
+        assertEquals(VECTOR_LENGTH * REPETITION_COUNT, decoded.getValueCount());
+        for (int i = 0; i < VECTOR_LENGTH * REPETITION_COUNT; i++) {
+          assertEquals(origVec.isNull(i), decoded.isNull(i));
+          assertEquals(origVec.getObject(i), decoded.getObject(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEncodeVariableWidth() {
+    try (VarCharVector origVec = new VarCharVector("original vec", allocator)) {
+      origVec.allocateNew(VECTOR_LENGTH * REPETITION_COUNT);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        byte[] value = String.valueOf(i).getBytes(StandardCharsets.UTF_8);
+        for (int j = 0; j < REPETITION_COUNT; j++) {
+          origVec.setSafe(i * REPETITION_COUNT + j, value);
+        }
+      }
+      origVec.setValueCount(VECTOR_LENGTH * REPETITION_COUNT);
+
+      try (RunEndEncodedVector<VarCharVector> encoded = RunEndEncodedVector.encode(origVec, allocator);
+           VarCharVector decoded = new VarCharVector("decoded vec", allocator)) {
+        assertEquals(VECTOR_LENGTH, encoded.getRunCount());
+        assertEquals(VECTOR_LENGTH * REPETITION_COUNT, encoded.getValueCount());
+
+        for (int i = 0; i < VECTOR_LENGTH * REPETITION_COUNT; i++) {
+          assertEquals(origVec.getObject(i), encoded.getObject(i));
+        }
+
+        encoded.decode(decoded);
+        assertEquals(VECTOR_LENGTH * REPETITION_COUNT, decoded.getValueCount());
+        for (int i = 0; i < VECTOR_LENGTH * REPETITION_COUNT; i++) {
+          assertEquals(origVec.getObject(i), decoded.getObject(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEncodeEmptyVector() {
+    try (IntVector origVec = new IntVector("original vec", allocator)) {
+      origVec.allocateNew();
+      origVec.setValueCount(0);
+
+      try (RunEndEncodedVector<IntVector> encoded = RunEndEncodedVector.encode(origVec, allocator);
+           IntVector decoded = new IntVector("decoded vec", allocator)) {
+        assertEquals(0, encoded.getRunCount());
+        assertEquals(0, encoded.getValueCount());
+
+        encoded.decode(decoded);
+        assertEquals(0, decoded.getValueCount());
+      }
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testOutOfBoundsAccess() {
+    try (IntVector origVec = new IntVector("original vec", allocator)) {
+      origVec.allocateNew(3);
+      origVec.set(0, 1);
+      origVec.set(1, 1);
+      origVec.set(2, 2);
+      origVec.setValueCount(3);
+
+      try (RunEndEncodedVector<IntVector> encoded = RunEndEncodedVector.encode(origVec, allocator)) {
+        assertEquals(2, encoded.getRunCount());
+        assertFalse(encoded.isNull(2));
+        encoded.getObject(3);
+      }
+    }
+  }
+}
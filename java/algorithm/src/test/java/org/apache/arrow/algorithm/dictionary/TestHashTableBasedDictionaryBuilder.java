@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.memory.util.hash.SimpleHasher;
 import org.apache.arrow.vector.IntVector;
 import org.apache.arrow.vector.VarCharVector;
 
@@ -69,21 +70,21 @@ public class TestHashTableBasedDictionaryBuilder {
       vec.set(8, "good".getBytes());
       vec.set(9, "abc".getBytes());
 
-      HashTableBasedDictionaryBuilder<VarCharVector> dictionaryBuilder =
-              new HashTableBasedDictionaryBuilder<>(dictionary, true);
-
-      int result = dictionaryBuilder.addValues(vec);
-
-      assertEquals(7, result);
-      assertEquals(7, dictionary.getValueCount());
-
-      assertEquals("hello", new String(dictionary.get(0)));
-      assertEquals("abc", new String(dictionary.get(1)));
-      assertNull(dictionary.get(2));
-      assertEquals("world", new String(dictionary.get(3)));
-      assertEquals("12", new String(dictionary.get(4)));
-      assertEquals("dictionary", new String(dictionary.get(5)));
-      assertEquals("good", new String(dictionary.get(6)));
+      try (HashTableBasedDictionaryBuilder<VarCharVector> dictionaryBuilder =
+          new HashTableBasedDictionaryBuilder<>(dictionary, true, SimpleHasher.INSTANCE, allocator)) {
+        int result = dictionaryBuilder.addValues(vec);
+
+        assertEquals(7, result);
+        assertEquals(7, dictionary.getValueCount());
+
+        assertEquals("hello", new String(dictionary.get(0)));
+        assertEquals("abc", new String(dictionary.get(1)));
+        assertNull(dictionary.get(2));
+        assertEquals("world", new String(dictionary.get(3)));
+        assertEquals("12", new String(dictionary.get(4)));
+        assertEquals("dictionary", new String(dictionary.get(5)));
+        assertEquals("good", new String(dictionary.get(6)));
+      }
     }
   }
 
@@ -109,21 +110,21 @@ public class TestHashTableBasedDictionaryBuilder {
       vec.set(8, "good".getBytes());
       vec.set(9, "abc".getBytes());
 
-      HashTableBasedDictionaryBuilder<VarCharVector> dictionaryBuilder =
-              new HashTableBasedDictionaryBuilder<>(dictionary, false);
-
-      int result = dictionaryBuilder.addValues(vec);
+      try (HashTableBasedDictionaryBuilder<VarCharVector> dictionaryBuilder =
+          new HashTableBasedDictionaryBuilder<>(dictionary, false, SimpleHasher.INSTANCE, allocator)) {
+        int result = dictionaryBuilder.addValues(vec);
 
-      assertEquals(6, result);
-      assertEquals(6, dictionary.getValueCount());
+        assertEquals(6, result);
+        assertEquals(6, dictionary.getValueCount());
 
-      assertEquals("hello", new String(dictionary.get(0)));
-      assertEquals("abc", new String(dictionary.get(1)));
-      assertEquals("world", new String(dictionary.get(2)));
-      assertEquals("12", new String(dictionary.get(3)));
-      assertEquals("dictionary", new String(dictionary.get(4)));
-      assertEquals("good", new String(dictionary.get(5)));
+        assertEquals("hello", new String(dictionary.get(0)));
+        assertEquals("abc", new String(dictionary.get(1)));
+        assertEquals("world", new String(dictionary.get(2)));
+        assertEquals("12", new String(dictionary.get(3)));
+        assertEquals("dictionary", new String(dictionary.get(4)));
+        assertEquals("good", new String(dictionary.get(5)));
 
+      }
     }
   }
 
@@ -148,19 +149,20 @@ public class TestHashTableBasedDictionaryBuilder {
       vec.set(8, 4);
       vec.setNull(9);
 
-      HashTableBasedDictionaryBuilder<IntVector> dictionaryBuilder =
-              new HashTableBasedDictionaryBuilder<>(dictionary, true);
-
-      int result = dictionaryBuilder.addValues(vec);
+      // closed through the interface, as a caller choosing the builder implementation would
+      try (DictionaryBuilder<IntVector> dictionaryBuilder =
+          new HashTableBasedDictionaryBuilder<>(dictionary, true, SimpleHasher.INSTANCE, allocator)) {
+        int result = dictionaryBuilder.addValues(vec);
 
-      assertEquals(5, result);
-      assertEquals(5, dictionary.getValueCount());
+        assertEquals(5, result);
+        assertEquals(5, dictionary.getValueCount());
 
-      assertEquals(4, dictionary.get(0));
-      assertEquals(8, dictionary.get(1));
-      assertEquals(32, dictionary.get(2));
-      assertEquals(16, dictionary.get(3));
-      assertTrue(dictionary.isNull(4));
+        assertEquals(4, dictionary.get(0));
+        assertEquals(8, dictionary.get(1));
+        assertEquals(32, dictionary.get(2));
+        assertEquals(16, dictionary.get(3));
+        assertTrue(dictionary.isNull(4));
+      }
     }
   }
 
@@ -185,19 +187,71 @@ public class TestHashTableBasedDictionaryBuilder {
       vec.set(8, 4);
       vec.setNull(9);
 
-      HashTableBasedDictionaryBuilder<IntVector> dictionaryBuilder =
-              new HashTableBasedDictionaryBuilder<>(dictionary, false);
+      try (HashTableBasedDictionaryBuilder<IntVector> dictionaryBuilder =
+          new HashTableBasedDictionaryBuilder<>(dictionary, false, SimpleHasher.INSTANCE, allocator)) {
+        int result = dictionaryBuilder.addValues(vec);
+
+        assertEquals(4, result);
+        assertEquals(4, dictionary.getValueCount());
+
+        assertEquals(4, dictionary.get(0));
+        assertEquals(8, dictionary.get(1));
+        assertEquals(32, dictionary.get(2));
+        assertEquals(16, dictionary.get(3));
+
+      }
+    }
+  }
+
+  @Test
+  public void testBuildOverwritesDictionary() {
+    try (IntVector vec = new IntVector("", allocator);
+         IntVector dictionary = new IntVector("", allocator)) {
+      vec.allocateNew(3);
+      vec.set(0, 4);
+      vec.set(1, 8);
+      vec.set(2, 4);
+      vec.setValueCount(3);
+
+      dictionary.allocateNew(10);
+      dictionary.set(0, 100);
+      dictionary.set(1, 200);
+      dictionary.set(2, 300);
+      dictionary.setValueCount(3);
+
+      // the builder fills the dictionary from its first position
+      try (HashTableBasedDictionaryBuilder<IntVector> dictionaryBuilder =
+          new HashTableBasedDictionaryBuilder<>(dictionary, false, SimpleHasher.INSTANCE, allocator)) {
+        assertEquals(2, dictionaryBuilder.addValues(vec));
+        assertEquals(2, dictionary.getValueCount());
+
+        assertEquals(4, dictionary.get(0));
+        assertEquals(8, dictionary.get(1));
+      }
+    }
+  }
 
-      int result = dictionaryBuilder.addValues(vec);
+  @Test
+  public void testHeapTableWithoutClose() {
+    try (IntVector vec = new IntVector("", allocator);
+         IntVector dictionary = new IntVector("", allocator)) {
+      vec.allocateNew(3);
+      vec.set(0, 4);
+      vec.set(1, 8);
+      vec.set(2, 4);
+      vec.setValueCount(3);
 
-      assertEquals(4, result);
-      assertEquals(4, dictionary.getValueCount());
+      dictionary.allocateNew(10);
+      final long allocatedMemory = allocator.getAllocatedMemory();
+
+      // the deprecated constructors allocate no memory, so the builder need not be closed
+      HashTableBasedDictionaryBuilder<IntVector> dictionaryBuilder =
+          new HashTableBasedDictionaryBuilder<>(dictionary, false);
+      assertEquals(2, dictionaryBuilder.addValues(vec));
+      assertEquals(allocatedMemory, allocator.getAllocatedMemory());
 
       assertEquals(4, dictionary.get(0));
       assertEquals(8, dictionary.get(1));
-      assertEquals(32, dictionary.get(2));
-      assertEquals(16, dictionary.get(3));
-
     }
   }
 }
@@ -28,6 +28,7 @@ import java.util.Random;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.memory.util.hash.SimpleHasher;
 import org.apache.arrow.vector.IntVector;
 import org.apache.arrow.vector.VarBinaryVector;
 import org.apache.arrow.vector.VarCharVector;
@@ -88,27 +89,27 @@ public class TestHashTableDictionaryEncoder {
       }
       rawVector.setValueCount(VECTOR_LENGTH);
 
-      HashTableDictionaryEncoder<IntVector, VarCharVector> encoder =
-              new HashTableDictionaryEncoder<>(dictionary, false);
-
-      // perform encoding
-      encodedVector.allocateNew();
-      encoder.encode(rawVector, encodedVector);
+      try (HashTableDictionaryEncoder<IntVector, VarCharVector> encoder =
+          new HashTableDictionaryEncoder<>(dictionary, false, SimpleHasher.INSTANCE, allocator)) {
+        // perform encoding
+        encodedVector.allocateNew();
+        encoder.encode(rawVector, encodedVector);
 
-      // verify encoding results
-      assertEquals(rawVector.getValueCount(), encodedVector.getValueCount());
-      for (int i = 0; i < VECTOR_LENGTH; i++) {
-        assertArrayEquals(rawVector.get(i), String.valueOf(encodedVector.get(i)).getBytes());
-      }
+        // verify encoding results
+        assertEquals(rawVector.getValueCount(), encodedVector.getValueCount());
+        for (int i = 0; i < VECTOR_LENGTH; i++) {
+          assertArrayEquals(rawVector.get(i), String.valueOf(encodedVector.get(i)).getBytes());
+        }
 
-      // perform decoding
-      Dictionary dict = new Dictionary(dictionary, new DictionaryEncoding(1L, false, null));
-      try (VarCharVector decodedVector  = (VarCharVector) DictionaryEncoder.decode(encodedVector, dict)) {
+        // perform decoding
+        Dictionary dict = new Dictionary(dictionary, new DictionaryEncoding(1L, false, null));
+        try (VarCharVector decodedVector  = (VarCharVector) DictionaryEncoder.decode(encodedVector, dict)) {
 
-        // verify decoding results
-        assertEquals(encodedVector.getValueCount(), decodedVector.getValueCount());
-        for (int i = 0; i < VECTOR_LENGTH; i++) {
-          assertArrayEquals(String.valueOf(encodedVector.get(i)).getBytes(), decodedVector.get(i));
+          // verify decoding results
+          assertEquals(encodedVector.getValueCount(), decodedVector.getValueCount());
+          for (int i = 0; i < VECTOR_LENGTH; i++) {
+            assertArrayEquals(String.valueOf(encodedVector.get(i)).getBytes(), decodedVector.get(i));
+          }
         }
       }
     }
@@ -142,33 +143,33 @@ public class TestHashTableDictionaryEncoder {
       }
       rawVector.setValueCount(VECTOR_LENGTH);
 
-      HashTableDictionaryEncoder<IntVector, VarCharVector> encoder =
-              new HashTableDictionaryEncoder<>(dictionary, true);
-
-      // perform encoding
-      encodedVector.allocateNew();
-      encoder.encode(rawVector, encodedVector);
-
-      // verify encoding results
-      assertEquals(rawVector.getValueCount(), encodedVector.getValueCount());
-      for (int i = 0; i < VECTOR_LENGTH; i++) {
-        if (i % 10 == 0) {
-          assertEquals(0, encodedVector.get(i));
-        } else {
-          assertArrayEquals(rawVector.get(i), String.valueOf(encodedVector.get(i)).getBytes());
-        }
-      }
+      try (HashTableDictionaryEncoder<IntVector, VarCharVector> encoder =
+          new HashTableDictionaryEncoder<>(dictionary, true, SimpleHasher.INSTANCE, allocator)) {
+        // perform encoding
+        encodedVector.allocateNew();
+        encoder.encode(rawVector, encodedVector);
 
-      // perform decoding
-      Dictionary dict = new Dictionary(dictionary, new DictionaryEncoding(1L, false, null));
-      try (VarCharVector  decodedVector = (VarCharVector) DictionaryEncoder.decode(encodedVector, dict)) {
-        // verify decoding results
-        assertEquals(encodedVector.getValueCount(), decodedVector.getValueCount());
+        // verify encoding results
+        assertEquals(rawVector.getValueCount(), encodedVector.getValueCount());
         for (int i = 0; i < VECTOR_LENGTH; i++) {
           if (i % 10 == 0) {
-            assertTrue(decodedVector.isNull(i));
+            assertEquals(0, encodedVector.get(i));
           } else {
-            assertArrayEquals(String.valueOf(encodedVector.get(i)).getBytes(), decodedVector.get(i));
+            assertArrayEquals(rawVector.get(i), String.valueOf(encodedVector.get(i)).getBytes());
+          }
+        }
+
+        // perform decoding
+        Dictionary dict = new Dictionary(dictionary, new DictionaryEncoding(1L, false, null));
+        try (VarCharVector  decodedVector = (VarCharVector) DictionaryEncoder.decode(encodedVector, dict)) {
+          // verify decoding results
+          assertEquals(encodedVector.getValueCount(), decodedVector.getValueCount());
+          for (int i = 0; i < VECTOR_LENGTH; i++) {
+            if (i % 10 == 0) {
+              assertTrue(decodedVector.isNull(i));
+            } else {
+              assertArrayEquals(String.valueOf(encodedVector.get(i)).getBytes(), decodedVector.get(i));
+            }
           }
         }
       }
@@ -196,14 +197,14 @@ public class TestHashTableDictionaryEncoder {
 
       encodedVector.allocateNew();
 
-      HashTableDictionaryEncoder<IntVector, VarCharVector> encoder =
-              new HashTableDictionaryEncoder<>(dictionary, true);
-
-      // the encoder should encode null, but no null in the dictionary,
-      // so an exception should be thrown.
-      assertThrows(IllegalArgumentException.class, () -> {
-        encoder.encode(rawVector, encodedVector);
-      });
+      try (HashTableDictionaryEncoder<IntVector, VarCharVector> encoder =
+          new HashTableDictionaryEncoder<>(dictionary, true, SimpleHasher.INSTANCE, allocator)) {
+        // the encoder should encode null, but no null in the dictionary,
+        // so an exception should be thrown.
+        assertThrows(IllegalArgumentException.class, () -> {
+          encoder.encode(rawVector, encodedVector);
+        });
+      }
     }
   }
 
@@ -232,25 +233,26 @@ public class TestHashTableDictionaryEncoder {
       dictionaryVector.setSafe(2, two, 0, zero.length);
       dictionaryVector.setValueCount(3);
 
-      HashTableDictionaryEncoder<IntVector, VarCharVector> encoder =
-              new HashTableDictionaryEncoder<>(dictionaryVector);
-      encoder.encode(vector, encoded);
-
-      // verify indices
-      assertEquals(5, encoded.getValueCount());
-      assertEquals(0, encoded.get(0));
-      assertEquals(1, encoded.get(1));
-      assertEquals(1, encoded.get(2));
-      assertEquals(2, encoded.get(3));
-      assertEquals(0, encoded.get(4));
-
-      // now run through the decoder and verify we get the original back
-      Dictionary dict = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
-      try (VarCharVector decoded = (VarCharVector) DictionaryEncoder.decode(encoded, dict)) {
-
-        assertEquals(vector.getValueCount(), decoded.getValueCount());
-        for (int i = 0; i < 5; i++) {
-          assertEquals(vector.getObject(i), ((VarCharVector) decoded).getObject(i));
+      try (HashTableDictionaryEncoder<IntVector, VarCharVector> encoder =
+          new HashTableDictionaryEncoder<>(dictionaryVector, false, SimpleHasher.INSTANCE, allocator)) {
+        encoder.encode(vector, encoded);
+
+        // verify indices
+        assertEquals(5, encoded.getValueCount());
+        assertEquals(0, encoded.get(0));
+        assertEquals(1, encoded.get(1));
+        assertEquals(1, encoded.get(2));
+        assertEquals(2, encoded.get(3));
+        assertEquals(0, encoded.get(4));
+
+        // now run through the decoder and verify we get the original back
+        Dictionary dict = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+        try (VarCharVector decoded = (VarCharVector) DictionaryEncoder.decode(encoded, dict)) {
+
+          assertEquals(vector.getValueCount(), decoded.getValueCount());
+          for (int i = 0; i < 5; i++) {
+            assertEquals(vector.getObject(i), ((VarCharVector) decoded).getObject(i));
+          }
         }
       }
     }
@@ -278,22 +280,23 @@ public class TestHashTableDictionaryEncoder {
       dictionaryVector.setSafe(2, two, 0, zero.length);
       dictionaryVector.setValueCount(3);
 
-      HashTableDictionaryEncoder<IntVector, VarCharVector> encoder =
-              new HashTableDictionaryEncoder<>(dictionaryVector);
-      encoder.encode(vector, encoded);
-
-      assertEquals(count, encoded.getValueCount());
-      for (int i = 0; i < count; ++i) {
-        assertEquals(i % 3, encoded.get(i));
-      }
+      try (HashTableDictionaryEncoder<IntVector, VarCharVector> encoder =
+          new HashTableDictionaryEncoder<>(dictionaryVector, false, SimpleHasher.INSTANCE, allocator)) {
+        encoder.encode(vector, encoded);
 
-      // now run through the decoder and verify we get the original back
-      Dictionary dict = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
-      try (VarCharVector decoded = (VarCharVector) DictionaryEncoder.decode(encoded, dict)) {
-        assertEquals(vector.getClass(), decoded.getClass());
-        assertEquals(vector.getValueCount(), decoded.getValueCount());
+        assertEquals(count, encoded.getValueCount());
         for (int i = 0; i < count; ++i) {
-          assertEquals(vector.getObject(i), decoded.getObject(i));
+          assertEquals(i % 3, encoded.get(i));
+        }
+
+        // now run through the decoder and verify we get the original back
+        Dictionary dict = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+        try (VarCharVector decoded = (VarCharVector) DictionaryEncoder.decode(encoded, dict)) {
+          assertEquals(vector.getClass(), decoded.getClass());
+          assertEquals(vector.getValueCount(), decoded.getValueCount());
+          for (int i = 0; i < count; ++i) {
+            assertEquals(vector.getObject(i), decoded.getObject(i));
+          }
         }
       }
     }
@@ -324,27 +327,59 @@ public class TestHashTableDictionaryEncoder {
       dictionaryVector.setSafe(2, two, 0, zero.length);
       dictionaryVector.setValueCount(3);
 
-      HashTableDictionaryEncoder<IntVector, VarBinaryVector> encoder =
-              new HashTableDictionaryEncoder<>(dictionaryVector);
+      try (HashTableDictionaryEncoder<IntVector, VarBinaryVector> encoder =
+          new HashTableDictionaryEncoder<>(dictionaryVector, false, SimpleHasher.INSTANCE, allocator)) {
+        encoder.encode(vector, encoded);
+
+        assertEquals(5, encoded.getValueCount());
+        assertEquals(0, encoded.get(0));
+        assertEquals(1, encoded.get(1));
+        assertEquals(1, encoded.get(2));
+        assertEquals(2, encoded.get(3));
+        assertEquals(0, encoded.get(4));
+
+        // now run through the decoder and verify we get the original back
+        Dictionary dict = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+        try (VarBinaryVector decoded = (VarBinaryVector) DictionaryEncoder.decode(encoded, dict)) {
+
+          assertEquals(vector.getClass(), decoded.getClass());
+          assertEquals(vector.getValueCount(), decoded.getValueCount());
+          for (int i = 0; i < 5; i++) {
+            assertTrue(Arrays.equals(vector.getObject(i), decoded.getObject(i)));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testHeapTableWithoutClose() {
+    try (final IntVector vector = new IntVector("foo", allocator);
+         final IntVector dictionaryVector = new IntVector("dict", allocator);
+         final IntVector encoded = new IntVector("encoded", allocator)) {
+      vector.allocateNew(3);
+      vector.set(0, 30);
+      vector.set(1, 10);
+      vector.set(2, 30);
+      vector.setValueCount(3);
+
+      dictionaryVector.allocateNew(2);
+      dictionaryVector.set(0, 10);
+      dictionaryVector.set(1, 30);
+      dictionaryVector.setValueCount(2);
+
+      encoded.allocateNew(3);
+      final long allocatedMemory = allocator.getAllocatedMemory();
+
+      // the deprecated constructors allocate no memory, so the encoder need not be closed
+      HashTableDictionaryEncoder<IntVector, IntVector> encoder = new HashTableDictionaryEncoder<>(dictionaryVector);
       encoder.encode(vector, encoded);
+      assertEquals(allocatedMemory, allocator.getAllocatedMemory());
 
-      assertEquals(5, encoded.getValueCount());
-      assertEquals(0, encoded.get(0));
-      assertEquals(1, encoded.get(1));
+      assertEquals(3, encoded.getValueCount());
+      assertEquals(1, encoded.get(0));
+      assertEquals(0, encoded.get(1));
       assertEquals(1, encoded.get(2));
-      assertEquals(2, encoded.get(3));
-      assertEquals(0, encoded.get(4));
-
-      // now run through the decoder and verify we get the original back
-      Dictionary dict = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
-      try (VarBinaryVector decoded = (VarBinaryVector) DictionaryEncoder.decode(encoded, dict)) {
-
-        assertEquals(vector.getClass(), decoded.getClass());
-        assertEquals(vector.getValueCount(), decoded.getValueCount());
-        for (int i = 0; i < 5; i++) {
-          assertTrue(Arrays.equals(vector.getObject(i), decoded.getObject(i)));
-        }
-      }
     }
   }
 }
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.hash;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link GroupTable}.
+ */
+public class TestGroupTable {
+
+  private static final List<Field> KEY_FIELDS = Arrays.asList(
+      Field.nullable("id", new ArrowType.Int(32, true)),
+      Field.nullable("name", ArrowType.Utf8.INSTANCE));
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(8 * 1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  /**
+   * Insert random batches with duplicate and null keys, and compare with a hash map.
+   */
+  @Test
+  public void testInsertAndFind() {
+    final Random random = new Random(0);
+    final Map<List<Object>, Integer> expectedIds = new HashMap<>();
+    final List<List<Object>> expectedKeys = new ArrayList<>();
+    try (GroupTable table = new GroupTable(KEY_FIELDS, allocator);
+         IntVector ids = new IntVector("id", allocator);
+         IntVector idVector = new IntVector("id", allocator);
+         VarCharVector nameVector = new VarCharVector("name", allocator)) {
+      for (int batch = 0; batch < 5; batch++) {
+        final int rowCount = 1000;
+        final List<List<Object>> rows = fill(idVector, nameVector, rowCount, random);
+        int added = 0;
+        for (List<Object> row : rows) {
+          if (!expectedIds.containsKey(row)) {
+            expectedIds.put(row, expectedKeys.size());
+            expectedKeys.add(row);
+            added++;
+          }
+        }
+
+        assertEquals(added, table.insert(Arrays.asList(idVector, nameVector), rowCount, ids));
+        assertEquals(rowCount, ids.getValueCount());
+        for (int i = 0; i < rowCount; i++) {
+          assertEquals((int) expectedIds.get(rows.get(i)), ids.get(i));
+        }
+      }
+      assertEquals(expectedKeys.size(), table.getGroupCount());
+
+      final List<FieldVector> keyVectors = table.getKeyVectors();
+      for (int i = 0; i < expectedKeys.size(); i++) {
+        assertEquals(expectedKeys.get(i),
+            Arrays.asList(keyVectors.get(0).getObject(i), toString(keyVectors.get(1), i)));
+      }
+
+      // keys with ids beyond the range of the inserted ones are not found
+      final List<List<Object>> rows = fill(idVector, nameVector, 100, random);
+      for (int i = 0; i < 50; i++) {
+        idVector.set(i, 1000 + i);
+        rows.set(i, Arrays.asList(1000 + i, rows.get(i).get(1)));
+      }
+      int expectedFound = 0;
+      for (List<Object> row : rows) {
+        expectedFound += expectedIds.containsKey(row) ? 1 : 0;
+      }
+      assertEquals(expectedFound, table.find(Arrays.asList(idVector, nameVector), 100, ids));
+      for (int i = 0; i < 100; i++) {
+        final Integer expected = expectedIds.get(rows.get(i));
+        assertEquals(expected, ids.getObject(i));
+      }
+      assertTrue(expectedFound < 100);
+      assertEquals(expectedKeys.size(), table.getGroupCount());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongKeyType() {
+    try (GroupTable table = new GroupTable(KEY_FIELDS, allocator);
+         IntVector ids = new IntVector("id", allocator);
+         IntVector idVector = new IntVector("id", allocator)) {
+      table.insert(Arrays.asList(idVector, idVector), 0, ids);
+    }
+  }
+
+  private static List<List<Object>> fill(IntVector idVector, VarCharVector nameVector, int rowCount, Random random) {
+    idVector.allocateNew(rowCount);
+    nameVector.allocateNew(rowCount * 4, rowCount);
+    final List<List<Object>> rows = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      Integer id = null;
+      if (random.nextInt(10) == 0) {
+        idVector.setNull(i);
+      } else {
+        id = random.nextInt(30);
+        idVector.set(i, id);
+      }
+      String name = null;
+      if (random.nextInt(10) == 0) {
+        nameVector.setNull(i);
+      } else {
+        name = "n" + random.nextInt(10);
+        nameVector.setSafe(i, name.getBytes(StandardCharsets.UTF_8));
+      }
+      rows.add(Arrays.asList(id, name));
+    }
+    idVector.setValueCount(rowCount);
+    nameVector.setValueCount(rowCount);
+    return rows;
+  }
+
+  private static String toString(FieldVector vector, int index) {
+    return vector.isNull(index) ? null : vector.getObject(index).toString();
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.hash;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link HashIndexTable}.
+ */
+public class TestHashIndexTable {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testPutAndFind() {
+    try (HashIndexTable table = new HashIndexTable(allocator, 16)) {
+      checkPutAndFind(table);
+    }
+  }
+
+  @Test
+  public void testPutAndFindInHeap() {
+    try (HashIndexTable table = new HashIndexTable(16)) {
+      checkPutAndFind(table);
+    }
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  private void checkPutAndFind(HashIndexTable table) {
+    final int count = 10000;
+    // keys with many equal hash codes, stored outside of the table
+    final long[] keys = new long[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = i * 7L;
+    }
+    for (int i = 0; i < count; i++) {
+      final long key = keys[i];
+      assertEquals(HashIndexTable.NOT_FOUND, table.putIfAbsent(hash(key), i, index -> keys[index] == key));
+    }
+    assertEquals(count, table.size());
+    assertEquals(32 * 1024, table.getCapacity());
+
+    for (int i = 0; i < count; i++) {
+      final long key = keys[i];
+      assertEquals(i, table.find(hash(key), index -> keys[index] == key));
+      assertEquals(i, table.putIfAbsent(hash(key), count, index -> keys[index] == key));
+    }
+    assertEquals(HashIndexTable.NOT_FOUND, table.find(hash(3), index -> keys[index] == 3));
+    assertEquals(count, table.size());
+
+    table.clear();
+    assertEquals(0, table.size());
+    assertEquals(HashIndexTable.NOT_FOUND, table.find(hash(keys[0]), index -> keys[index] == keys[0]));
+  }
+
+  private static int hash(long key) {
+    return (int) (key % 100);
+  }
+}
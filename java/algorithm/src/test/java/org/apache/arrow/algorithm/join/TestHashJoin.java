@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.join;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link HashJoin}.
+ */
+public class TestHashJoin {
+
+  private static final Schema BUILD_SCHEMA = new Schema(Arrays.asList(
+      Field.nullable("id", new ArrowType.Int(32, true)),
+      Field.nullable("region", ArrowType.Utf8.INSTANCE),
+      Field.nullable("name", ArrowType.Utf8.INSTANCE)));
+
+  private static final Schema PROBE_SCHEMA = new Schema(Arrays.asList(
+      Field.nullable("fk", new ArrowType.Int(32, true)),
+      Field.nullable("fkRegion", ArrowType.Utf8.INSTANCE),
+      Field.nullable("amount", new ArrowType.Int(64, true))));
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(16 * 1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testInnerJoin() {
+    verifyJoin(JoinType.INNER, Collections.singletonList("id"), Collections.singletonList("fk"));
+  }
+
+  @Test
+  public void testLeftOuterJoin() {
+    verifyJoin(JoinType.LEFT_OUTER, Collections.singletonList("id"), Collections.singletonList("fk"));
+  }
+
+  @Test
+  public void testSemiJoin() {
+    verifyJoin(JoinType.SEMI, Collections.singletonList("id"), Collections.singletonList("fk"));
+  }
+
+  @Test
+  public void testAntiJoin() {
+    verifyJoin(JoinType.ANTI, Collections.singletonList("id"), Collections.singletonList("fk"));
+  }
+
+  @Test
+  public void testMultiColumnKeys() {
+    for (JoinType joinType : JoinType.values()) {
+      verifyJoin(joinType, Arrays.asList("id", "region"), Arrays.asList("fk", "fkRegion"));
+    }
+  }
+
+  @Test
+  public void testEmptyBuildSide() {
+    try (HashJoin join = new HashJoin(BUILD_SCHEMA, Collections.singletonList("id"), PROBE_SCHEMA,
+        Collections.singletonList("fk"), JoinType.LEFT_OUTER, allocator);
+         VectorSchemaRoot probe = VectorSchemaRoot.create(PROBE_SCHEMA, allocator);
+         VectorSchemaRoot output = VectorSchemaRoot.create(join.getOutputSchema(), allocator)) {
+      final List<List<Object>> probeRows = fillProbe(probe, 100, new Random(0));
+      join.probe(probe, output);
+      assertEquals(100, output.getRowCount());
+      for (int i = 0; i < 100; i++) {
+        final List<Object> expected = new ArrayList<>(probeRows.get(i));
+        expected.addAll(Arrays.asList(null, null, null));
+        assertEquals(expected, getRow(output, i));
+      }
+    }
+  }
+
+  @Test(expected = OutOfMemoryException.class)
+  public void testMemoryLimit() {
+    try (HashJoin join = new HashJoin(BUILD_SCHEMA, Collections.singletonList("id"), PROBE_SCHEMA,
+        Collections.singletonList("fk"), JoinType.INNER, allocator, 64 * 1024);
+         VectorSchemaRoot build = VectorSchemaRoot.create(BUILD_SCHEMA, allocator)) {
+      final Random random = new Random(0);
+      for (int i = 0; i < 100; i++) {
+        fillBuild(build, 1000, random);
+        join.addBuildBatch(build);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testKeyTypeMismatch() {
+    new HashJoin(BUILD_SCHEMA, Collections.singletonList("id"), PROBE_SCHEMA,
+        Collections.singletonList("amount"), JoinType.INNER, allocator).close();
+  }
+
+  /**
+   * Join random build and probe batches, with duplicate and null keys, and compare with a nested loop join.
+   */
+  private void verifyJoin(JoinType joinType, List<String> buildKeys, List<String> probeKeys) {
+    final Random random = new Random(0);
+    final int[] buildKeyIndices = new int[buildKeys.size()];
+    final int[] probeKeyIndices = new int[probeKeys.size()];
+    for (int i = 0; i < buildKeys.size(); i++) {
+      buildKeyIndices[i] = BUILD_SCHEMA.getFields().indexOf(BUILD_SCHEMA.findField(buildKeys.get(i)));
+      probeKeyIndices[i] = PROBE_SCHEMA.getFields().indexOf(PROBE_SCHEMA.findField(probeKeys.get(i)));
+    }
+    try (HashJoin join = new HashJoin(BUILD_SCHEMA, buildKeys, PROBE_SCHEMA, probeKeys, joinType, allocator);
+         VectorSchemaRoot build = VectorSchemaRoot.create(BUILD_SCHEMA, allocator);
+         VectorSchemaRoot probe = VectorSchemaRoot.create(PROBE_SCHEMA, allocator);
+         VectorSchemaRoot output = VectorSchemaRoot.create(join.getOutputSchema(), allocator)) {
+      final List<List<Object>> buildRows = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        buildRows.addAll(fillBuild(build, 100, random));
+        join.addBuildBatch(build);
+      }
+      assertEquals(buildRows.size(), join.getBuildRowCount());
+
+      for (int batch = 0; batch < 3; batch++) {
+        final List<List<Object>> probeRows = fillProbe(probe, 500, random);
+        final List<List<Object>> expected = new ArrayList<>();
+        for (List<Object> probeRow : probeRows) {
+          final List<List<Object>> matches = new ArrayList<>();
+          for (List<Object> buildRow : buildRows) {
+            boolean match = true;
+            for (int i = 0; i < buildKeyIndices.length; i++) {
+              final Object key = probeRow.get(probeKeyIndices[i]);
+              match &= key != null && Objects.equals(key, buildRow.get(buildKeyIndices[i]));
+            }
+            if (match) {
+              matches.add(buildRow);
+            }
+          }
+          switch (joinType) {
+            case INNER:
+            case LEFT_OUTER:
+              for (List<Object> match : matches) {
+                final List<Object> row = new ArrayList<>(probeRow);
+                row.addAll(match);
+                expected.add(row);
+              }
+              if (matches.isEmpty() && joinType == JoinType.LEFT_OUTER) {
+                final List<Object> row = new ArrayList<>(probeRow);
+                row.addAll(Arrays.asList(null, null, null));
+                expected.add(row);
+              }
+              break;
+            case SEMI:
+              if (!matches.isEmpty()) {
+                expected.add(probeRow);
+              }
+              break;
+            default:
+              if (matches.isEmpty()) {
+                expected.add(probeRow);
+              }
+          }
+        }
+
+        join.probe(probe, output);
+        assertEquals(expected.size(), output.getRowCount());
+        for (int i = 0; i < expected.size(); i++) {
+          assertEquals(expected.get(i), getRow(output, i));
+        }
+        if (joinType != JoinType.ANTI) {
+          assertTrue(output.getRowCount() > 0);
+        }
+      }
+    }
+  }
+
+  private static List<List<Object>> fillBuild(VectorSchemaRoot root, int rowCount, Random random) {
+    final IntVector id = (IntVector) root.getVector("id");
+    final VarCharVector region = (VarCharVector) root.getVector("region");
+    final VarCharVector name = (VarCharVector) root.getVector("name");
+    id.allocateNew(rowCount);
+    region.allocateNew(rowCount * 4, rowCount);
+    name.allocateNew(rowCount * 8, rowCount);
+    final List<List<Object>> rows = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      final Integer idValue = random.nextInt(20) == 0 ? null : random.nextInt(200);
+      final String regionValue = random.nextInt(20) == 0 ? null : "r" + random.nextInt(3);
+      final String nameValue = "name" + i;
+      setInt(id, i, idValue);
+      setString(region, i, regionValue);
+      setString(name, i, nameValue);
+      rows.add(Arrays.asList(idValue, regionValue, nameValue));
+    }
+    root.setRowCount(rowCount);
+    return rows;
+  }
+
+  private static List<List<Object>> fillProbe(VectorSchemaRoot root, int rowCount, Random random) {
+    final IntVector fk = (IntVector) root.getVector("fk");
+    final VarCharVector fkRegion = (VarCharVector) root.getVector("fkRegion");
+    final BigIntVector amount = (BigIntVector) root.getVector("amount");
+    fk.allocateNew(rowCount);
+    fkRegion.allocateNew(rowCount * 4, rowCount);
+    amount.allocateNew(rowCount);
+    final List<List<Object>> rows = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      final Integer fkValue = random.nextInt(20) == 0 ? null : random.nextInt(300);
+      final String regionValue = random.nextInt(20) == 0 ? null : "r" + random.nextInt(3);
+      final long amountValue = random.nextLong();
+      setInt(fk, i, fkValue);
+      setString(fkRegion, i, regionValue);
+      amount.set(i, amountValue);
+      rows.add(Arrays.asList(fkValue, regionValue, amountValue));
+    }
+    root.setRowCount(rowCount);
+    return rows;
+  }
+
+  private static void setInt(IntVector vector, int index, Integer value) {
+    if (value == null) {
+      vector.setNull(index);
+    } else {
+      vector.set(index, value);
+    }
+  }
+
+  private static void setString(VarCharVector vector, int index, String value) {
+    if (value == null) {
+      vector.setNull(index);
+    } else {
+      vector.setSafe(index, value.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private static List<Object> getRow(VectorSchemaRoot root, int index) {
+    final List<Object> row = new ArrayList<>();
+    for (FieldVector vector : root.getFieldVectors()) {
+      final Object value = vector.getObject(index);
+      row.add(value == null || value instanceof Number ? value : value.toString());
+    }
+    return row;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.rank;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.arrow.algorithm.sort.SortKey;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link TopKSelector}.
+ */
+public class TestTopKSelector {
+
+  private static final Schema SCHEMA = new Schema(Arrays.asList(
+      Field.nullable("key", new ArrowType.Int(32, true)),
+      Field.nullable("seq", ArrowType.Utf8.INSTANCE)));
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testSelectAscending() {
+    verifySelect(SortKey.ascending("key"), 10);
+  }
+
+  @Test
+  public void testSelectDescending() {
+    verifySelect(SortKey.descending("key"), 37);
+  }
+
+  @Test
+  public void testSelectMoreThanRows() {
+    verifySelect(SortKey.ascending("key").withNullsFirst(false), 5000);
+  }
+
+  /**
+   * Select rows of random batches, with duplicate keys and nulls, and compare with a stable sort.
+   */
+  private void verifySelect(SortKey key, int k) {
+    final Random random = new Random(k);
+    final List<Integer> keys = new ArrayList<>();
+    try (TopKSelector selector = new TopKSelector(SCHEMA, Arrays.asList(key), k, allocator);
+         VectorSchemaRoot batch = VectorSchemaRoot.create(SCHEMA, allocator);
+         VectorSchemaRoot output = VectorSchemaRoot.create(SCHEMA, allocator)) {
+      final IntVector keyVector = (IntVector) batch.getVector("key");
+      final VarCharVector seqVector = (VarCharVector) batch.getVector("seq");
+      for (int b = 0; b < 30; b++) {
+        batch.allocateNew();
+        final int rowCount = random.nextInt(100);
+        for (int i = 0; i < rowCount; i++) {
+          if (random.nextInt(10) == 0) {
+            keyVector.setNull(i);
+            keys.add(null);
+          } else {
+            final int value = random.nextInt(50);
+            keyVector.setSafe(i, value);
+            keys.add(value);
+          }
+          seqVector.setSafe(i, String.valueOf(keys.size() - 1).getBytes(StandardCharsets.UTF_8));
+        }
+        batch.setRowCount(rowCount);
+        selector.add(batch);
+      }
+
+      final List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < keys.size(); i++) {
+        expected.add(i);
+      }
+      Comparator<Integer> comparator = Comparator.comparing(keys::get,
+          Comparator.nullsFirst(Comparator.<Integer>naturalOrder()));
+      if (key.isDescending()) {
+        comparator = Comparator.comparing(keys::get, Comparator.nullsLast(Comparator.<Integer>reverseOrder()));
+      } else if (!key.isNullsFirst()) {
+        comparator = Comparator.comparing(keys::get, Comparator.nullsLast(Comparator.<Integer>naturalOrder()));
+      }
+      expected.sort(comparator);
+
+      final int expectedCount = Math.min(k, keys.size());
+      assertEquals(expectedCount, selector.getRowCount());
+      selector.emit(output);
+      assertEquals(expectedCount, output.getRowCount());
+      for (int i = 0; i < expectedCount; i++) {
+        assertEquals(String.valueOf(expected.get(i)), output.getVector("seq").getObject(i).toString());
+        assertEquals(keys.get(expected.get(i)), output.getVector("key").getObject(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.select;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Test cases for {@link FilterUtils}.
+ */
+public class TestFilterUtils {
+
+  private static final int VECTOR_LENGTH = 200;
+
+  private BufferAllocator allocator;
+
+  private BitVector mask;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+    // select the multiples of 3, except the multiples of 5 which are null
+    mask = new BitVector("mask", allocator);
+    mask.allocateNew(VECTOR_LENGTH);
+    for (int i = 0; i < VECTOR_LENGTH; i++) {
+      if (i % 5 == 0) {
+        mask.setNull(i);
+      } else {
+        mask.set(i, i % 3 == 0 ? 1 : 0);
+      }
+    }
+    mask.setValueCount(VECTOR_LENGTH);
+  }
+
+  @After
+  public void shutdown() {
+    mask.close();
+    allocator.close();
+  }
+
+  private static boolean isSelected(int index) {
+    return index % 3 == 0 && index % 5 != 0;
+  }
+
+  @Test
+  public void testGetSelectedIndices() {
+    try (IntVector indices = new IntVector("", allocator)) {
+      FilterUtils.getSelectedIndices(mask, indices);
+
+      int expectedCount = 0;
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        if (isSelected(i)) {
+          assertEquals(i, indices.get(expectedCount));
+          expectedCount++;
+        }
+      }
+      assertEquals(expectedCount, FilterUtils.getSelectedCount(mask));
+      assertEquals(expectedCount, indices.getValueCount());
+      assertEquals(0, indices.getNullCount());
+    }
+  }
+
+  @Test
+  public void testFilter() {
+    try (VarCharVector src = new VarCharVector("", allocator);
+         VarCharVector dst = new VarCharVector("", allocator)) {
+      src.allocateNew(VECTOR_LENGTH * 4, VECTOR_LENGTH);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        if (i % 2 == 0) {
+          src.setNull(i);
+        } else {
+          src.setSafe(i, ("v" + i).getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      src.setValueCount(VECTOR_LENGTH);
+
+      FilterUtils.filter(src, mask, dst);
+
+      int index = 0;
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        if (isSelected(i)) {
+          if (i % 2 == 0) {
+            assertTrue(dst.isNull(index));
+          } else {
+            assertEquals("v" + i, new String(dst.get(index), StandardCharsets.UTF_8));
+          }
+          index++;
+        }
+      }
+      assertEquals(index, dst.getValueCount());
+    }
+  }
+
+  @Test
+  public void testFilterRoot() {
+    try (IntVector a = new IntVector("a", allocator)) {
+      a.allocateNew(VECTOR_LENGTH);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        a.set(i, i * 10);
+      }
+      final VectorSchemaRoot src = VectorSchemaRoot.of(a);
+      src.setRowCount(VECTOR_LENGTH);
+      try (VectorSchemaRoot dst = VectorSchemaRoot.create(src.getSchema(), allocator)) {
+        FilterUtils.filter(src, mask, dst);
+
+        assertEquals(FilterUtils.getSelectedCount(mask), dst.getRowCount());
+        int index = 0;
+        for (int i = 0; i < VECTOR_LENGTH; i++) {
+          if (isSelected(i)) {
+            assertEquals(i * 10, ((IntVector) dst.getVector("a")).get(index));
+            index++;
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSelect() {
+    try (IntVector a = new IntVector("a", allocator);
+         ArrowBuf shortSelection = allocator.buffer(3 * 2);
+         ArrowBuf longSelection = allocator.buffer(3 * 8)) {
+      a.allocateNew(VECTOR_LENGTH);
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        a.set(i, i * 10);
+      }
+      final VectorSchemaRoot src = VectorSchemaRoot.of(a);
+      src.setRowCount(VECTOR_LENGTH);
+      final int[] selected = {2, 150, 199};
+      for (int i = 0; i < selected.length; i++) {
+        shortSelection.setShort(i * 2, selected[i]);
+        longSelection.setLong(i * 8, selected[i]);
+      }
+
+      try (VectorSchemaRoot dst = VectorSchemaRoot.create(src.getSchema(), allocator)) {
+        FilterUtils.select(src, shortSelection, 2, selected.length, dst);
+        assertEquals(selected.length, dst.getRowCount());
+        for (int i = 0; i < selected.length; i++) {
+          assertEquals(selected[i] * 10, ((IntVector) dst.getVector("a")).get(i));
+        }
+
+        FilterUtils.select(src, longSelection, 8, selected.length, dst);
+        assertEquals(selected.length, dst.getRowCount());
+        for (int i = 0; i < selected.length; i++) {
+          assertEquals(selected[i] * 10, ((IntVector) dst.getVector("a")).get(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSelectOutOfRange() {
+    try (IntVector a = new IntVector("a", allocator);
+         ArrowBuf selection = allocator.buffer(8)) {
+      a.allocateNew(VECTOR_LENGTH);
+      a.setValueCount(VECTOR_LENGTH);
+      final VectorSchemaRoot src = VectorSchemaRoot.of(a);
+      src.setRowCount(VECTOR_LENGTH);
+
+      try (VectorSchemaRoot dst = VectorSchemaRoot.create(src.getSchema(), allocator)) {
+        selection.setShort(0, VECTOR_LENGTH);
+        assertSelectOutOfRange(src, selection, 2, dst);
+        // above Integer.MAX_VALUE as an unsigned index, so negative as an int
+        selection.setInt(0, 0x80000000);
+        assertSelectOutOfRange(src, selection, 4, dst);
+        selection.setLong(0, -1L);
+        assertSelectOutOfRange(src, selection, 8, dst);
+      }
+    }
+  }
+
+  private static void assertSelectOutOfRange(
+      VectorSchemaRoot src, ArrowBuf selection, int indexWidth, VectorSchemaRoot dst) {
+    try {
+      FilterUtils.select(src, selection, indexWidth, 1, dst);
+      fail("Expected an IndexOutOfBoundsException for an index of width " + indexWidth);
+    } catch (IndexOutOfBoundsException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,426 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.select;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.FixedSizeListVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.MapVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.complex.UnionVector;
+import org.apache.arrow.vector.complex.impl.UnionFixedSizeListWriter;
+import org.apache.arrow.vector.complex.impl.UnionListWriter;
+import org.apache.arrow.vector.complex.impl.UnionMapWriter;
+import org.apache.arrow.vector.holders.NullableBigIntHolder;
+import org.apache.arrow.vector.holders.NullableIntHolder;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link TakeUtils}.
+ */
+public class TestTakeUtils {
+
+  private BufferAllocator allocator;
+
+  private IntVector indices;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+    indices = new IntVector("indices", allocator);
+    indices.allocateNew(4);
+    indices.set(0, 3);
+    indices.set(1, 0);
+    indices.set(2, 3);
+    indices.set(3, 1);
+    indices.setValueCount(4);
+  }
+
+  @After
+  public void shutdown() {
+    indices.close();
+    allocator.close();
+  }
+
+  @Test
+  public void testTakeFixedWidth() {
+    try (SmallIntVector src = new SmallIntVector("", allocator);
+         SmallIntVector dst = new SmallIntVector("", allocator)) {
+      src.allocateNew(4);
+      src.set(0, 10);
+      src.setNull(1);
+      src.set(2, 30);
+      src.set(3, -40);
+      src.setValueCount(4);
+
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(4, dst.getValueCount());
+      assertEquals(-40, dst.get(0));
+      assertEquals(10, dst.get(1));
+      assertEquals(-40, dst.get(2));
+      assertTrue(dst.isNull(3));
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testIndexTooLarge() {
+    try (SmallIntVector src = new SmallIntVector("", allocator);
+         SmallIntVector dst = new SmallIntVector("", allocator)) {
+      src.allocateNew(3);
+      src.setValueCount(3);
+      TakeUtils.take(src, indices, dst);
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testNegativeIndex() {
+    try (VarCharVector src = new VarCharVector("", allocator);
+         VarCharVector dst = new VarCharVector("", allocator)) {
+      src.allocateNew(4);
+      src.setValueCount(4);
+      indices.set(1, -1);
+      TakeUtils.take(src, indices, dst);
+    }
+  }
+
+  @Test
+  public void testNullIndexNotChecked() {
+    try (SmallIntVector src = new SmallIntVector("", allocator);
+         SmallIntVector dst = new SmallIntVector("", allocator)) {
+      src.allocateNew(4);
+      src.set(0, 10);
+      src.set(3, -40);
+      src.setValueCount(4);
+      // the value of a null index is ignored
+      indices.set(1, 100);
+      indices.setNull(1);
+
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(-40, dst.get(0));
+      assertTrue(dst.isNull(1));
+    }
+  }
+
+  @Test
+  public void testTakeWideFixedWidth() {
+    try (DecimalVector src = new DecimalVector("", allocator, 10, 2);
+         DecimalVector dst = new DecimalVector("", allocator, 10, 2)) {
+      src.allocateNew(4);
+      for (int i = 0; i < 4; i++) {
+        src.set(i, i * 1000L);
+      }
+      src.setValueCount(4);
+
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(src.getObject(3), dst.getObject(0));
+      assertEquals(src.getObject(0), dst.getObject(1));
+      assertEquals(src.getObject(1), dst.getObject(3));
+      assertEquals(0, dst.getNullCount());
+    }
+  }
+
+  @Test
+  public void testTakeBits() {
+    try (BitVector src = new BitVector("", allocator);
+         BitVector dst = new BitVector("", allocator)) {
+      src.allocateNew(4);
+      src.set(0, 1);
+      src.set(1, 0);
+      src.setNull(2);
+      src.set(3, 1);
+      src.setValueCount(4);
+
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(1, dst.get(0));
+      assertEquals(1, dst.get(1));
+      assertEquals(1, dst.get(2));
+      assertEquals(0, dst.get(3));
+    }
+  }
+
+  @Test
+  public void testTakeVariableWidth() {
+    try (VarCharVector src = new VarCharVector("", allocator);
+         VarCharVector dst = new VarCharVector("", allocator)) {
+      src.allocateNew(100, 4);
+      src.set(0, "zero".getBytes(StandardCharsets.UTF_8));
+      src.setNull(1);
+      src.set(2, "two".getBytes(StandardCharsets.UTF_8));
+      src.set(3, "".getBytes(StandardCharsets.UTF_8));
+      src.setValueCount(4);
+
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(4, dst.getValueCount());
+      assertEquals("", new String(dst.get(0), StandardCharsets.UTF_8));
+      assertEquals("zero", new String(dst.get(1), StandardCharsets.UTF_8));
+      assertEquals("", new String(dst.get(2), StandardCharsets.UTF_8));
+      assertNull(dst.get(3));
+    }
+  }
+
+  @Test
+  public void testTakeList() {
+    try (ListVector src = ListVector.empty("", allocator);
+         ListVector dst = ListVector.empty("", allocator)) {
+      final UnionListWriter writer = src.getWriter();
+      for (int i = 0; i < 4; i++) {
+        writer.setPosition(i);
+        writer.startList();
+        for (int j = 0; j < i; j++) {
+          writer.integer().writeInt(j);
+        }
+        writer.endList();
+      }
+      src.setValueCount(4);
+
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(4, dst.getValueCount());
+      assertEquals(src.getObject(3), dst.getObject(0));
+      assertEquals(src.getObject(0), dst.getObject(1));
+      assertEquals(src.getObject(1), dst.getObject(3));
+    }
+  }
+
+  @Test
+  public void testTakeListNullIndices() {
+    indices.setNull(1);
+    try (ListVector src = ListVector.empty("", allocator);
+         ListVector dst = ListVector.empty("", allocator)) {
+      final UnionListWriter writer = src.getWriter();
+      for (int i = 0; i < 4; i++) {
+        if (i == 3) {
+          continue;
+        }
+        writer.setPosition(i);
+        writer.startList();
+        for (int j = 0; j <= i; j++) {
+          writer.integer().writeInt(i * 10 + j);
+        }
+        writer.endList();
+      }
+      src.setValueCount(4);
+
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(4, dst.getValueCount());
+      assertTrue(dst.isNull(0));
+      assertTrue(dst.isNull(1));
+      assertTrue(dst.isNull(2));
+      assertEquals(src.getObject(1), dst.getObject(3));
+      assertEquals(2, dst.getDataVector().getValueCount());
+    }
+  }
+
+  @Test
+  public void testTakeFixedSizeList() {
+    try (FixedSizeListVector src = FixedSizeListVector.empty("", 2, allocator);
+         FixedSizeListVector dst = FixedSizeListVector.empty("", 2, allocator)) {
+      final UnionFixedSizeListWriter writer = src.getWriter();
+      for (int i = 0; i < 4; i++) {
+        if (i == 1) {
+          continue;
+        }
+        writer.setPosition(i);
+        writer.startList();
+        writer.integer().writeInt(i);
+        writer.integer().writeInt(-i);
+        writer.endList();
+      }
+      src.setValueCount(4);
+
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(4, dst.getValueCount());
+      assertEquals(src.getObject(3), dst.getObject(0));
+      assertEquals(src.getObject(0), dst.getObject(1));
+      assertEquals(src.getObject(3), dst.getObject(2));
+      assertTrue(dst.isNull(3));
+    }
+  }
+
+  @Test
+  public void testTakeStruct() {
+    try (StructVector src = StructVector.empty("", allocator);
+         StructVector dst = StructVector.empty("", allocator)) {
+      final IntVector a = src.addOrGet("a", FieldType.nullable(new ArrowType.Int(32, true)), IntVector.class);
+      final VarCharVector b = src.addOrGet("b", FieldType.nullable(new ArrowType.Utf8()), VarCharVector.class);
+      src.allocateNew();
+      for (int i = 0; i < 4; i++) {
+        if (i == 1) {
+          src.setNull(i);
+          continue;
+        }
+        src.setIndexDefined(i);
+        a.setSafe(i, i);
+        if (i != 3) {
+          b.setSafe(i, ("v" + i).getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      src.setValueCount(4);
+
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(4, dst.getValueCount());
+      assertEquals(2, dst.size());
+      assertEquals(src.getObject(3), dst.getObject(0));
+      assertEquals(src.getObject(0), dst.getObject(1));
+      assertEquals(src.getObject(3), dst.getObject(2));
+      assertTrue(dst.isNull(3));
+      assertEquals(1, dst.getNullCount());
+    }
+  }
+
+  @Test
+  public void testTakeMap() {
+    try (MapVector src = MapVector.empty("", allocator, false);
+         MapVector dst = MapVector.empty("", allocator, false)) {
+      final UnionMapWriter writer = src.getWriter();
+      for (int i = 0; i < 4; i++) {
+        writer.setPosition(i);
+        writer.startMap();
+        for (int j = 0; j < i; j++) {
+          writer.startEntry();
+          writer.key().integer().writeInt(j);
+          writer.value().bigInt().writeBigInt(i * 100L + j);
+          writer.endEntry();
+        }
+        writer.endMap();
+      }
+      src.setValueCount(4);
+
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(4, dst.getValueCount());
+      for (int i = 0; i < 4; i++) {
+        assertEquals(src.getObject(indices.get(i)), dst.getObject(i));
+      }
+    }
+  }
+
+  @Test
+  public void testTakeUnion() {
+    try (UnionVector src = UnionVector.empty("", allocator);
+         UnionVector dst = UnionVector.empty("", allocator)) {
+      final NullableIntHolder intHolder = new NullableIntHolder();
+      intHolder.isSet = 1;
+      final NullableBigIntHolder bigIntHolder = new NullableBigIntHolder();
+      bigIntHolder.isSet = 1;
+      src.allocateNew();
+      intHolder.value = 10;
+      src.setType(0, MinorType.INT);
+      src.setSafe(0, intHolder);
+      bigIntHolder.value = 20L;
+      src.setType(1, MinorType.BIGINT);
+      src.setSafe(1, bigIntHolder);
+      intHolder.value = 40;
+      src.setType(3, MinorType.INT);
+      src.setSafe(3, intHolder);
+      src.setValueCount(4);
+
+      indices.set(2, 2);
+      TakeUtils.take(src, indices, dst);
+
+      assertEquals(4, dst.getValueCount());
+      assertEquals(40, dst.getObject(0));
+      assertEquals(10, dst.getObject(1));
+      assertTrue(dst.isNull(2));
+      assertEquals(20L, dst.getObject(3));
+    }
+  }
+
+  @Test
+  public void testTakeNullIndices() {
+    indices.setNull(1);
+    indices.setNull(3);
+    try (IntVector ints = new IntVector("", allocator);
+         IntVector intsTaken = new IntVector("", allocator);
+         VarCharVector strings = new VarCharVector("", allocator);
+         VarCharVector stringsTaken = new VarCharVector("", allocator)) {
+      ints.allocateNew(4);
+      strings.allocateNew(100, 4);
+      for (int i = 0; i < 4; i++) {
+        ints.set(i, i);
+        strings.set(i, ("v" + i).getBytes(StandardCharsets.UTF_8));
+      }
+      ints.setValueCount(4);
+      strings.setValueCount(4);
+
+      TakeUtils.take(ints, indices, intsTaken);
+      TakeUtils.take(strings, indices, stringsTaken);
+
+      assertEquals(4, intsTaken.getValueCount());
+      assertEquals(3, intsTaken.get(0));
+      assertTrue(intsTaken.isNull(1));
+      assertEquals(3, intsTaken.get(2));
+      assertTrue(intsTaken.isNull(3));
+      assertEquals(4, stringsTaken.getValueCount());
+      assertEquals("v3", new String(stringsTaken.get(0), StandardCharsets.UTF_8));
+      assertNull(stringsTaken.get(1));
+      assertEquals("v3", new String(stringsTaken.get(2), StandardCharsets.UTF_8));
+      assertNull(stringsTaken.get(3));
+    }
+  }
+
+  @Test
+  public void testTakeRoot() {
+    try (IntVector a = new IntVector("a", allocator);
+         VarCharVector b = new VarCharVector("b", allocator)) {
+      a.allocateNew(4);
+      b.allocateNew(100, 4);
+      for (int i = 0; i < 4; i++) {
+        a.set(i, i);
+        b.set(i, ("v" + i).getBytes(StandardCharsets.UTF_8));
+      }
+      final VectorSchemaRoot src = VectorSchemaRoot.of(a, b);
+      src.setRowCount(4);
+      try (VectorSchemaRoot dst = VectorSchemaRoot.create(src.getSchema(), allocator)) {
+        TakeUtils.take(src, indices, dst);
+
+        assertEquals(4, dst.getRowCount());
+        for (int i = 0; i < 4; i++) {
+          assertEquals(indices.get(i), ((IntVector) dst.getVector("a")).get(i));
+          assertEquals("v" + indices.get(i), dst.getVector("b").getObject(i).toString());
+        }
+      }
+    }
+  }
+}
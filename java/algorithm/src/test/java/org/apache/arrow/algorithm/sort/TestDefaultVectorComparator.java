@@ -27,6 +27,7 @@ import org.apache.arrow.vector.UInt1Vector;
 import org.apache.arrow.vector.UInt2Vector;
 import org.apache.arrow.vector.UInt4Vector;
 import org.apache.arrow.vector.UInt8Vector;
+import org.apache.arrow.vector.ViewVarCharVector;
 import org.apache.arrow.vector.complex.ListVector;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.FieldType;
@@ -251,4 +252,38 @@ public class TestDefaultVectorComparator {
       assertTrue(comparator.compare(2, 9) > 0);
     }
   }
+
+  @Test
+  public void testCompareViewVarChar() {
+    try (ViewVarCharVector vec = new ViewVarCharVector("", allocator)) {
+      vec.allocateNew(10);
+
+      vec.setNull(0);
+      vec.setSafe(1, "abc".getBytes());
+      vec.setSafe(2, "abcd".getBytes());
+      vec.setSafe(3, "a value longer than twelve bytes".getBytes());
+      vec.setSafe(4, "a value longer than twelve bytes!".getBytes());
+      vec.setSafe(5, "b".getBytes());
+      vec.setSafe(6, "abc".getBytes());
+      vec.setNull(7);
+      vec.setSafe(8, new byte[] {(byte) 0xff});
+      vec.setSafe(9, "".getBytes());
+      vec.setValueCount(10);
+
+      VectorValueComparator<ViewVarCharVector> comparator =
+              DefaultVectorComparators.createDefaultComparator(vec);
+      comparator.attachVector(vec);
+
+      assertTrue(comparator.compare(0, 1) < 0);
+      assertTrue(comparator.compare(1, 2) < 0);
+      assertTrue(comparator.compare(3, 1) < 0);
+      assertTrue(comparator.compare(3, 4) < 0);
+      assertTrue(comparator.compare(4, 5) < 0);
+      assertTrue(comparator.compare(1, 6) == 0);
+      assertTrue(comparator.compare(0, 7) == 0);
+      assertTrue(comparator.compare(8, 5) > 0);
+      assertTrue(comparator.compare(9, 1) < 0);
+      assertTrue(comparator.compare(9, 0) > 0);
+    }
+  }
 }
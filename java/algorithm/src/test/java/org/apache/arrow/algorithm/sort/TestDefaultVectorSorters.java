@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link DefaultVectorSorters}.
+ */
+public class TestDefaultVectorSorters {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testSortInPlace() {
+    try (IntVector vec = new IntVector("", allocator)) {
+      vec.allocateNew(4);
+      vec.setValueCount(4);
+      vec.set(0, 3);
+      vec.setNull(1);
+      vec.set(2, -1);
+      vec.set(3, 2);
+
+      DefaultVectorSorters.sortInPlace(vec);
+
+      assertTrue(vec.isNull(0));
+      assertEquals(-1, vec.get(1));
+      assertEquals(2, vec.get(2));
+      assertEquals(3, vec.get(3));
+    }
+  }
+
+  @Test
+  public void testSortVariableWidth() {
+    try (VarCharVector src = new VarCharVector("", allocator);
+         VarCharVector dst = new VarCharVector("", allocator);
+         IntVector indices = new IntVector("", allocator)) {
+      src.allocateNew(100, 4);
+      src.set(0, "dd".getBytes(StandardCharsets.UTF_8));
+      src.set(1, "a".getBytes(StandardCharsets.UTF_8));
+      src.set(2, "ccc".getBytes(StandardCharsets.UTF_8));
+      src.set(3, "a".getBytes(StandardCharsets.UTF_8));
+      src.setValueCount(4);
+      dst.allocateNew(src.getByteCapacity(), 4);
+      dst.setLastSet(3);
+      dst.setValueCount(4);
+
+      DefaultVectorSorters.sortOutOfPlace(src, dst);
+
+      assertEquals("a", new String(dst.get(0), StandardCharsets.UTF_8));
+      assertEquals("a", new String(dst.get(1), StandardCharsets.UTF_8));
+      assertEquals("ccc", new String(dst.get(2), StandardCharsets.UTF_8));
+      assertEquals("dd", new String(dst.get(3), StandardCharsets.UTF_8));
+
+      indices.allocateNew(4);
+      indices.setValueCount(4);
+      DefaultVectorSorters.sortIndices(src, indices, true);
+      final int[] expected = {1, 3, 2, 0};
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i], indices.get(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test cases for {@link ExternalVectorSchemaRootSorter}.
+ */
+public class TestExternalVectorSchemaRootSorter {
+
+  private static final Schema SCHEMA = new Schema(Arrays.asList(
+      Field.nullable("key", new ArrowType.Int(32, true)),
+      Field.nullable("value", ArrowType.Utf8.INSTANCE)));
+
+  private static final List<SortKey> KEYS = Collections.singletonList(SortKey.ascending("key"));
+
+  private static final int BATCH_COUNT = 20;
+
+  private static final int BATCH_SIZE = 500;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(16 * 1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testSortWithSpills() throws Exception {
+    // a budget of about two batches, and a fan-in of 3, for several merge passes
+    try (ExternalVectorSchemaRootSorter sorter = new ExternalVectorSchemaRootSorter(SCHEMA, KEYS, allocator,
+        folder.getRoot().toPath(), 2 * 10 * BATCH_SIZE, 300, 3)) {
+      final List<Integer> expected = addBatches(sorter);
+      sorter.finish();
+
+      assertTrue(sorter.getSpilledRunCount() > 3);
+      assertTrue(sorter.getSpilledBytes() > 0);
+      assertTrue(sorter.getMergePassCount() >= 2);
+      verifyOutput(sorter, expected);
+    }
+    assertEquals(0, folder.getRoot().listFiles().length);
+  }
+
+  @Test
+  public void testSortInMemory() throws Exception {
+    try (ExternalVectorSchemaRootSorter sorter = new ExternalVectorSchemaRootSorter(SCHEMA, KEYS, allocator,
+        folder.getRoot().toPath(), Long.MAX_VALUE, 1000)) {
+      final List<Integer> expected = addBatches(sorter);
+      sorter.finish();
+
+      assertEquals(0, sorter.getSpilledRunCount());
+      assertEquals(0, sorter.getSpilledBytes());
+      assertEquals(0, sorter.getMergePassCount());
+      verifyOutput(sorter, expected);
+    }
+    assertEquals(0, folder.getRoot().listFiles().length);
+  }
+
+  @Test
+  public void testSortNothing() throws Exception {
+    try (ExternalVectorSchemaRootSorter sorter = new ExternalVectorSchemaRootSorter(SCHEMA, KEYS, allocator,
+        folder.getRoot().toPath(), 1024, 1000)) {
+      sorter.finish();
+      assertFalse(sorter.loadNextBatch());
+    }
+  }
+
+  @Test
+  public void testCloseBeforeFinish() throws Exception {
+    try (ExternalVectorSchemaRootSorter sorter = new ExternalVectorSchemaRootSorter(SCHEMA, KEYS, allocator,
+        folder.getRoot().toPath(), 2 * 10 * BATCH_SIZE, 1000)) {
+      addBatches(sorter);
+      assertTrue(sorter.getSpilledRunCount() > 0);
+    }
+    final File[] files = folder.getRoot().listFiles();
+    assertEquals(0, files.length);
+  }
+
+  /**
+   * Add batches of random keys, each with a value derived from the key, reusing the same root.
+   * @return the sorted keys.
+   */
+  private List<Integer> addBatches(ExternalVectorSchemaRootSorter sorter) throws Exception {
+    final Random random = new Random(0);
+    final List<Integer> keys = new ArrayList<>();
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+      final IntVector key = (IntVector) root.getVector("key");
+      final VarCharVector value = (VarCharVector) root.getVector("value");
+      for (int batch = 0; batch < BATCH_COUNT; batch++) {
+        root.allocateNew();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+          final int k = random.nextInt(10000);
+          key.setSafe(i, k);
+          value.setSafe(i, ("v" + k).getBytes(StandardCharsets.UTF_8));
+          keys.add(k);
+        }
+        root.setRowCount(BATCH_SIZE);
+        sorter.add(root);
+      }
+    }
+    Collections.sort(keys);
+    return keys;
+  }
+
+  private static void verifyOutput(ExternalVectorSchemaRootSorter sorter, List<Integer> expected) throws Exception {
+    final VectorSchemaRoot output = sorter.getVectorSchemaRoot();
+    int row = 0;
+    while (sorter.loadNextBatch()) {
+      final IntVector key = (IntVector) output.getVector("key");
+      final VarCharVector value = (VarCharVector) output.getVector("value");
+      for (int i = 0; i < output.getRowCount(); i++) {
+        assertEquals(expected.get(row).intValue(), key.get(i));
+        assertEquals("v" + key.get(i), new String(value.get(i), StandardCharsets.UTF_8));
+        row++;
+      }
+    }
+    assertEquals(expected.size(), row);
+  }
+}
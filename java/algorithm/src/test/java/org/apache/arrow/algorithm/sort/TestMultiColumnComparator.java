@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link MultiColumnComparator}.
+ */
+public class TestMultiColumnComparator {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testCompareRowsOfDifferentRoots() {
+    try (VectorSchemaRoot root1 = createRoot(new Integer[] {1, 1, null}, new Integer[] {5, 7, 0});
+         VectorSchemaRoot root2 = createRoot(new Integer[] {1, null, Integer.MIN_VALUE}, new Integer[] {6, 0, 9})) {
+      final MultiColumnComparator comparator = new MultiColumnComparator(
+          Arrays.asList(SortKey.ascending("a").withNullsFirst(false), SortKey.descending("b")));
+      comparator.attachRoots(root1, root2);
+
+      // same a, b descending
+      assertTrue(comparator.compare(0, 0) > 0);
+      assertTrue(comparator.compare(1, 0) < 0);
+      // nulls last
+      assertTrue(comparator.compare(0, 1) < 0);
+      assertTrue(comparator.compare(2, 0) > 0);
+      assertEquals(0, comparator.compare(2, 1));
+      // no overflow for extreme values
+      assertTrue(comparator.compare(0, 2) > 0);
+    }
+  }
+
+  @Test
+  public void testCompareDates() {
+    try (DateDayVector dates = new DateDayVector("d", allocator)) {
+      dates.allocateNew(3);
+      dates.set(0, -100);
+      dates.set(1, 100);
+      dates.setNull(2);
+      dates.setValueCount(3);
+      try (VectorSchemaRoot root = VectorSchemaRoot.of(dates)) {
+        final MultiColumnComparator comparator = new MultiColumnComparator(Arrays.asList(SortKey.ascending("d")));
+        comparator.attachRoot(root);
+
+        assertTrue(comparator.compare(0, 1) < 0);
+        assertTrue(comparator.compare(2, 0) < 0);
+      }
+    }
+  }
+
+  private VectorSchemaRoot createRoot(Integer[] a, Integer[] b) {
+    final IntVector vectorA = new IntVector("a", allocator);
+    final IntVector vectorB = new IntVector("b", allocator);
+    vectorA.allocateNew(a.length);
+    vectorB.allocateNew(b.length);
+    for (int i = 0; i < a.length; i++) {
+      if (a[i] != null) {
+        vectorA.set(i, a[i]);
+      }
+      vectorB.set(i, b[i]);
+    }
+    vectorA.setValueCount(a.length);
+    vectorB.setValueCount(b.length);
+    final VectorSchemaRoot root = VectorSchemaRoot.of(vectorA, vectorB);
+    root.setRowCount(a.length);
+    return root;
+  }
+}
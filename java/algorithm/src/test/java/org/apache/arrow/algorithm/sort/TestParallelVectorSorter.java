@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ParallelVectorSorter}.
+ */
+public class TestParallelVectorSorter {
+
+  private static final int VALUE_COUNT = ParallelVectorSorter.MIN_CHUNK_SIZE * 5 + 123;
+
+  private BufferAllocator allocator;
+
+  private ForkJoinPool pool;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(64 * 1024 * 1024);
+    pool = new ForkJoinPool(4);
+  }
+
+  @After
+  public void shutdown() {
+    pool.shutdown();
+    allocator.close();
+  }
+
+  @Test
+  public void testSortIndicesRadix() {
+    final Random random = new Random(0);
+    try (BigIntVector vec = new BigIntVector("", allocator);
+         IntVector indices = new IntVector("", allocator)) {
+      vec.allocateNew(VALUE_COUNT);
+      for (int i = 0; i < VALUE_COUNT; i++) {
+        if (random.nextInt(20) == 0) {
+          vec.setNull(i);
+        } else {
+          vec.set(i, random.nextInt(1000) - 500);
+        }
+      }
+      vec.setValueCount(VALUE_COUNT);
+      indices.allocateNew(VALUE_COUNT);
+
+      new ParallelVectorSorter<BigIntVector>(pool).sortIndices(vec, indices);
+
+      assertEquals(VALUE_COUNT, indices.getValueCount());
+      final DefaultVectorComparators.LongComparator comparator = new DefaultVectorComparators.LongComparator();
+      comparator.attachVector(vec);
+      verifyStableOrder(indices, comparator);
+    }
+  }
+
+  @Test
+  public void testSortIndicesComparator() {
+    final Random random = new Random(1);
+    try (VarCharVector vec = new VarCharVector("", allocator);
+         IntVector indices = new IntVector("", allocator)) {
+      vec.allocateNew(VALUE_COUNT * 4, VALUE_COUNT);
+      for (int i = 0; i < VALUE_COUNT; i++) {
+        if (random.nextInt(20) == 0) {
+          vec.setNull(i);
+        } else {
+          vec.setSafe(i, String.valueOf(random.nextInt(5000)).getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      vec.setValueCount(VALUE_COUNT);
+      indices.allocateNew(VALUE_COUNT);
+
+      new ParallelVectorSorter<VarCharVector>(pool).sortIndices(vec, indices);
+
+      final VectorValueComparator<VarCharVector> comparator = DefaultVectorComparators.createDefaultComparator(vec);
+      comparator.attachVector(vec);
+      verifyStableOrder(indices, comparator);
+    }
+  }
+
+  @Test
+  public void testSortOutOfPlace() {
+    try (IntVector src = new IntVector("", allocator);
+         IntVector dst = new IntVector("", allocator)) {
+      src.allocateNew(VALUE_COUNT);
+      for (int i = 0; i < VALUE_COUNT; i++) {
+        src.set(i, VALUE_COUNT - i);
+      }
+      src.setValueCount(VALUE_COUNT);
+
+      new ParallelVectorSorter<IntVector>(pool).sortOutOfPlace(src, dst);
+
+      assertEquals(VALUE_COUNT, dst.getValueCount());
+      for (int i = 0; i < VALUE_COUNT; i++) {
+        assertEquals(i + 1, dst.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testSortSmallVector() {
+    try (IntVector vec = new IntVector("", allocator);
+         IntVector indices = new IntVector("", allocator)) {
+      vec.allocateNew(3);
+      vec.set(0, 2);
+      vec.setNull(1);
+      vec.set(2, 1);
+      vec.setValueCount(3);
+      indices.allocateNew(3);
+
+      new ParallelVectorSorter<IntVector>(pool).sortIndices(vec, indices,
+          DefaultVectorComparators.IntComparator::new);
+
+      assertEquals(1, indices.get(0));
+      assertEquals(2, indices.get(1));
+      assertEquals(0, indices.get(2));
+    }
+  }
+
+  private static <V extends ValueVector> void verifyStableOrder(
+      IntVector indices, VectorValueComparator<V> comparator) {
+    final boolean[] seen = new boolean[indices.getValueCount()];
+    for (int i = 0; i < indices.getValueCount(); i++) {
+      seen[indices.get(i)] = true;
+      if (i > 0) {
+        final int result = comparator.compare(indices.get(i - 1), indices.get(i));
+        assertTrue(result < 0 || (result == 0 && indices.get(i - 1) < indices.get(i)));
+      }
+    }
+    for (boolean s : seen) {
+      assertTrue(s);
+    }
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.UInt4Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link RadixVectorSorter}.
+ */
+public class TestRadixVectorSorter {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testSortIntInPlace() {
+    final Random random = new Random(0);
+    try (IntVector vec = new IntVector("", allocator)) {
+      vec.allocateNew(1000);
+      vec.setValueCount(1000);
+      int nullCount = 0;
+      final int[] expected = new int[1000];
+      int valueCount = 0;
+      for (int i = 0; i < 1000; i++) {
+        if (i % 7 == 0) {
+          vec.setNull(i);
+          nullCount++;
+        } else {
+          final int value = random.nextInt();
+          vec.set(i, value);
+          expected[valueCount++] = value;
+        }
+      }
+      Arrays.sort(expected, 0, valueCount);
+
+      RadixVectorSorter.sortInPlace(vec);
+
+      for (int i = 0; i < nullCount; i++) {
+        assertTrue(vec.isNull(i));
+      }
+      for (int i = 0; i < valueCount; i++) {
+        assertEquals(expected[i], vec.get(nullCount + i));
+      }
+    }
+  }
+
+  @Test
+  public void testSortSmallValuesInPlace() {
+    // the high bytes are equal in all values, so their passes are skipped
+    try (BigIntVector vec = new BigIntVector("", allocator)) {
+      vec.allocateNew(5);
+      vec.setValueCount(5);
+      vec.set(0, 3);
+      vec.set(1, 200);
+      vec.set(2, 1);
+      vec.set(3, 200);
+      vec.set(4, 0);
+
+      RadixVectorSorter.sortInPlace(vec);
+
+      final long[] expected = {0, 1, 3, 200, 200};
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i], vec.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testSortByteInPlace() {
+    try (TinyIntVector vec = new TinyIntVector("", allocator)) {
+      vec.allocateNew(6);
+      vec.setValueCount(6);
+      vec.set(0, 10);
+      vec.set(1, -128);
+      vec.setNull(2);
+      vec.set(3, 127);
+      vec.set(4, -1);
+      vec.set(5, 0);
+
+      RadixVectorSorter.sortInPlace(vec);
+
+      assertTrue(vec.isNull(0));
+      final byte[] expected = {-128, -1, 0, 10, 127};
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i], vec.get(i + 1));
+      }
+    }
+  }
+
+  @Test
+  public void testSortUnsignedInPlace() {
+    try (UInt4Vector vec = new UInt4Vector("", allocator)) {
+      vec.allocateNew(4);
+      vec.setValueCount(4);
+      vec.set(0, -1);
+      vec.set(1, 5);
+      vec.set(2, Integer.MIN_VALUE);
+      vec.set(3, 0);
+
+      RadixVectorSorter.sortInPlace(vec);
+
+      // unsigned order
+      final int[] expected = {0, 5, Integer.MIN_VALUE, -1};
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i], vec.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testSortFloatingPointInPlace() {
+    final double[] values = {3.5, Double.NaN, -0.0, Double.NEGATIVE_INFINITY, 0.0, -2.25, Double.POSITIVE_INFINITY,
+        Double.MIN_VALUE, -Double.MAX_VALUE};
+    final double[] expected = values.clone();
+    Arrays.sort(expected);
+
+    try (Float8Vector vec = new Float8Vector("", allocator)) {
+      vec.allocateNew(values.length);
+      vec.setValueCount(values.length);
+      for (int i = 0; i < values.length; i++) {
+        vec.set(i, values[i]);
+      }
+
+      RadixVectorSorter.sortInPlace(vec);
+
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(vec.get(i)));
+      }
+    }
+
+    try (Float4Vector vec = new Float4Vector("", allocator)) {
+      vec.allocateNew(values.length);
+      vec.setValueCount(values.length);
+      for (int i = 0; i < values.length; i++) {
+        vec.set(i, (float) values[i]);
+      }
+
+      RadixVectorSorter.sortInPlace(vec);
+
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(Float.floatToIntBits((float) expected[i]), Float.floatToIntBits(vec.get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void testSortIndicesStable() {
+    try (TimeStampMilliVector vec = new TimeStampMilliVector("", allocator);
+         IntVector indices = new IntVector("", allocator)) {
+      vec.allocateNew(8);
+      vec.setValueCount(8);
+      vec.set(0, 1000L);
+      vec.set(1, -5L);
+      vec.setNull(2);
+      vec.set(3, 1000L);
+      vec.set(4, 1L << 40);
+      vec.setNull(5);
+      vec.set(6, -5L);
+      vec.set(7, 1000L);
+      indices.allocateNew(8);
+
+      RadixVectorSorter.sortIndices(vec, indices);
+
+      // nulls first, and equal values in the order of their indices
+      final int[] expected = {2, 5, 1, 6, 0, 3, 7, 4};
+      assertEquals(expected.length, indices.getValueCount());
+      for (int i = 0; i < expected.length; i++) {
+        assertTrue(!indices.isNull(i));
+        assertEquals(expected[i], indices.get(i));
+      }
+      // the vector is not modified
+      assertEquals(1000L, vec.get(0));
+      assertTrue(vec.isNull(2));
+    }
+  }
+
+  @Test
+  public void testSortOutOfPlace() {
+    try (IntVector src = new IntVector("", allocator);
+         IntVector dst = new IntVector("", allocator)) {
+      src.allocateNew(5);
+      src.setValueCount(5);
+      src.set(0, 4);
+      src.setNull(1);
+      src.set(2, -3);
+      src.set(3, 9);
+      src.set(4, 0);
+      dst.allocateNew(5);
+
+      RadixVectorSorter.sortOutOfPlace(src, dst);
+
+      assertEquals(5, dst.getValueCount());
+      assertTrue(dst.isNull(0));
+      assertEquals(-3, dst.get(1));
+      assertEquals(0, dst.get(2));
+      assertEquals(4, dst.get(3));
+      assertEquals(9, dst.get(4));
+      assertTrue(src.isNull(1));
+      assertEquals(4, src.get(0));
+    }
+  }
+
+  @Test
+  public void testSupportedTypes() {
+    try (IntVector intVector = new IntVector("", allocator);
+         VarCharVector varCharVector = new VarCharVector("", allocator)) {
+      Assert.assertTrue(RadixVectorSorter.isSupported(intVector));
+      Assert.assertFalse(RadixVectorSorter.isSupported(varCharVector));
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link VectorSchemaRootMerger}.
+ */
+public class TestVectorSchemaRootMerger {
+
+  private static final Schema SCHEMA = new Schema(Arrays.asList(
+      Field.nullable("key", new ArrowType.Int(32, true)),
+      Field.nullable("input", new ArrowType.Int(32, true))));
+
+  private BufferAllocator allocator;
+
+  private final List<VectorSchemaRoot> batches = new ArrayList<>();
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    batches.forEach(VectorSchemaRoot::close);
+    allocator.close();
+  }
+
+  @Test
+  public void testMerge() {
+    // keys in descending order with nulls last, split into batches of various sizes, some empty
+    final List<Iterator<VectorSchemaRoot>> inputs = Arrays.asList(
+        input(0, new Integer[] {9, 7, 7}, new Integer[] {}, new Integer[] {3, null}),
+        input(1, new Integer[] {}),
+        input(2, new Integer[] {8, 7}, new Integer[] {7, 2, 1, null}),
+        input(3, new Integer[] {10}));
+    final List<SortKey> keys = Collections.singletonList(SortKey.descending("key"));
+
+    final List<Integer> mergedKeys = new ArrayList<>();
+    final List<Integer> mergedInputs = new ArrayList<>();
+    try (VectorSchemaRootMerger merger = new VectorSchemaRootMerger(SCHEMA, keys, inputs, allocator, 4)) {
+      final VectorSchemaRoot output = merger.getVectorSchemaRoot();
+      while (merger.loadNextBatch()) {
+        assertTrue(output.getRowCount() > 0 && output.getRowCount() <= 4);
+        final IntVector key = (IntVector) output.getVector("key");
+        final IntVector input = (IntVector) output.getVector("input");
+        for (int i = 0; i < output.getRowCount(); i++) {
+          mergedKeys.add(key.getObject(i));
+          mergedInputs.add(input.get(i));
+        }
+      }
+      assertFalse(merger.loadNextBatch());
+    }
+
+    assertEquals(Arrays.asList(10, 9, 8, 7, 7, 7, 7, 3, 2, 1, null, null), mergedKeys);
+    // equal keys are output in the order of the inputs
+    assertEquals(Arrays.asList(3, 0, 2, 0, 0, 2, 2, 0, 2, 2, 0, 2), mergedInputs);
+  }
+
+  @Test
+  public void testMergeEmptyInputs() {
+    final List<Iterator<VectorSchemaRoot>> inputs = Arrays.asList(input(0), input(1, new Integer[] {}));
+    try (VectorSchemaRootMerger merger = new VectorSchemaRootMerger(SCHEMA,
+        Collections.singletonList(SortKey.ascending("key")), inputs, allocator, 4)) {
+      assertFalse(merger.loadNextBatch());
+      assertEquals(0, merger.getVectorSchemaRoot().getRowCount());
+    }
+  }
+
+  @Test
+  public void testMergeReusedRoots() {
+    // the inputs load their batches into the same root, like an ArrowReader
+    final Schema schema = new Schema(Collections.singletonList(Field.nullable("name", new ArrowType.Utf8())));
+    final List<Iterator<VectorSchemaRoot>> inputs = Arrays.asList(
+        reusingInput(schema, new String[] {"a", "c", "e"}, new String[] {"g", "i"}),
+        reusingInput(schema, new String[] {"b", "d"}, new String[] {"f", "h", "j", "k"}));
+
+    final List<String> merged = new ArrayList<>();
+    try (VectorSchemaRootMerger merger = new VectorSchemaRootMerger(schema,
+        Collections.singletonList(SortKey.ascending("name")), inputs, allocator, 5)) {
+      final VectorSchemaRoot output = merger.getVectorSchemaRoot();
+      while (merger.loadNextBatch()) {
+        final VarCharVector name = (VarCharVector) output.getVector("name");
+        for (int i = 0; i < output.getRowCount(); i++) {
+          merged.add(new String(name.get(i), StandardCharsets.UTF_8));
+        }
+      }
+    }
+    assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k"), merged);
+  }
+
+  private Iterator<VectorSchemaRoot> reusingInput(Schema schema, String[]... batchNames) {
+    final VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+    batches.add(root);
+    final Iterator<String[]> names = Arrays.asList(batchNames).iterator();
+    return new Iterator<VectorSchemaRoot>() {
+      @Override
+      public boolean hasNext() {
+        return names.hasNext();
+      }
+
+      @Override
+      public VectorSchemaRoot next() {
+        final String[] batch = names.next();
+        final VarCharVector name = (VarCharVector) root.getVector("name");
+        name.allocateNew();
+        for (int i = 0; i < batch.length; i++) {
+          name.setSafe(i, batch[i].getBytes(StandardCharsets.UTF_8));
+        }
+        root.setRowCount(batch.length);
+        return root;
+      }
+    };
+  }
+
+  private Iterator<VectorSchemaRoot> input(int input, Integer[]... keys) {
+    final List<VectorSchemaRoot> roots = new ArrayList<>();
+    for (Integer[] batchKeys : keys) {
+      final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator);
+      final IntVector key = (IntVector) root.getVector("key");
+      final IntVector inputs = (IntVector) root.getVector("input");
+      key.allocateNew(batchKeys.length);
+      inputs.allocateNew(batchKeys.length);
+      for (int i = 0; i < batchKeys.length; i++) {
+        if (batchKeys[i] != null) {
+          key.set(i, batchKeys[i]);
+        }
+        inputs.set(i, input);
+      }
+      root.setRowCount(batchKeys.length);
+      roots.add(root);
+    }
+    batches.addAll(roots);
+    return roots.iterator();
+  }
+}
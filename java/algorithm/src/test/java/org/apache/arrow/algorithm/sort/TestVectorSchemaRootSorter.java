@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link VectorSchemaRootSorter}.
+ */
+public class TestVectorSchemaRootSorter {
+
+  private static final int ROW_COUNT = 2000;
+
+  private BufferAllocator allocator;
+
+  private VectorSchemaRoot root;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+
+    final Random random = new Random(0);
+    final IntVector a = new IntVector("a", allocator);
+    final VarCharVector b = new VarCharVector("b", allocator);
+    final Float8Vector c = new Float8Vector("c", allocator);
+    final TimeStampMilliVector d = new TimeStampMilliVector("d", allocator);
+    a.allocateNew(ROW_COUNT);
+    b.allocateNew(ROW_COUNT * 4, ROW_COUNT);
+    c.allocateNew(ROW_COUNT);
+    d.allocateNew(ROW_COUNT);
+    for (int i = 0; i < ROW_COUNT; i++) {
+      // few distinct values, so that later keys break ties
+      if (random.nextInt(10) == 0) {
+        a.setNull(i);
+      } else {
+        a.set(i, random.nextInt(20) - 10);
+      }
+      if (random.nextInt(10) == 0) {
+        b.setNull(i);
+      } else {
+        b.setSafe(i, ("k" + random.nextInt(30)).getBytes(StandardCharsets.UTF_8));
+      }
+      if (random.nextInt(10) == 0) {
+        c.setNull(i);
+      } else {
+        c.set(i, random.nextInt(5) == 0 ? Double.NaN : random.nextInt(10) - 4.5);
+      }
+      d.set(i, random.nextInt(4) * (long) Integer.MAX_VALUE - Integer.MAX_VALUE);
+    }
+    root = VectorSchemaRoot.of(a, b, c, d);
+    root.setRowCount(ROW_COUNT);
+  }
+
+  @After
+  public void shutdown() {
+    root.close();
+    allocator.close();
+  }
+
+  @Test
+  public void testSortNormalizedKeys() {
+    verifySortIndices(Arrays.asList(
+        SortKey.ascending("a"), SortKey.descending("d"), SortKey.ascending("c").withNullsFirst(false)));
+  }
+
+  @Test
+  public void testSortMixedKeys() {
+    // ORDER BY a, b DESC, c NULLS FIRST: a is packed into normalized keys, and b, c are compared
+    verifySortIndices(Arrays.asList(
+        SortKey.ascending("a"), SortKey.descending("b"), SortKey.ascending("c")));
+  }
+
+  @Test
+  public void testSortComparedKeys() {
+    verifySortIndices(Arrays.asList(SortKey.ascending("b"), SortKey.descending("a").withNullsFirst(true)));
+  }
+
+  @Test
+  public void testSortSingleKey() {
+    verifySortIndices(Arrays.asList(SortKey.ascending("a")));
+    verifySortIndices(Arrays.asList(SortKey.descending("c")));
+  }
+
+  @Test
+  public void testSort() {
+    final List<SortKey> keys = Arrays.asList(SortKey.descending("b"), SortKey.ascending("d"));
+    try (VectorSchemaRoot sorted = VectorSchemaRoot.create(root.getSchema(), allocator)) {
+      VectorSchemaRootSorter.sort(root, keys, sorted);
+
+      assertEquals(ROW_COUNT, sorted.getRowCount());
+      final MultiColumnComparator comparator = new MultiColumnComparator(keys);
+      comparator.attachRoot(sorted);
+      for (int i = 1; i < ROW_COUNT; i++) {
+        assertTrue(comparator.compare(i - 1, i) <= 0);
+      }
+      // the rows are moved as a whole
+      final Integer[] expected = sortedRows(keys);
+      for (int i = 0; i < ROW_COUNT; i++) {
+        for (int column = 0; column < 4; column++) {
+          assertEquals(root.getVector(column).getObject(expected[i]), sorted.getVector(column).getObject(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSortEmpty() {
+    root.setRowCount(0);
+    try (IntVector indices = new IntVector("", allocator)) {
+      indices.allocateNew(1);
+      VectorSchemaRootSorter.sortIndices(root, Arrays.asList(SortKey.ascending("b")), indices);
+      assertEquals(0, indices.getValueCount());
+    }
+  }
+
+  private void verifySortIndices(List<SortKey> keys) {
+    final Integer[] expected = sortedRows(keys);
+    try (IntVector indices = new IntVector("", allocator)) {
+      indices.allocateNew(ROW_COUNT);
+      VectorSchemaRootSorter.sortIndices(root, keys, indices);
+
+      assertEquals(ROW_COUNT, indices.getValueCount());
+      for (int i = 0; i < ROW_COUNT; i++) {
+        assertEquals(expected[i].intValue(), indices.get(i));
+      }
+    }
+  }
+
+  /**
+   * Sort the row indices on heap, stably, as a reference.
+   */
+  private Integer[] sortedRows(List<SortKey> keys) {
+    Comparator<Integer> rowComparator = (row1, row2) -> 0;
+    for (SortKey key : keys) {
+      final IntFunction<Comparable> getter = getter(key.getColumn());
+      Comparator<Integer> keyComparator = (row1, row2) -> {
+        @SuppressWarnings("unchecked")
+        final int result = getter.apply(row1).compareTo(getter.apply(row2));
+        return key.isDescending() ? -result : result;
+      };
+      final Comparator<Integer> nonNull = keyComparator;
+      keyComparator = (row1, row2) -> {
+        final boolean isNull1 = root.getVector(key.getColumn()).isNull(row1);
+        final boolean isNull2 = root.getVector(key.getColumn()).isNull(row2);
+        if (isNull1 || isNull2) {
+          return isNull1 == isNull2 ? 0 : (isNull1 == key.isNullsFirst() ? -1 : 1);
+        }
+        return nonNull.compare(row1, row2);
+      };
+      rowComparator = rowComparator.thenComparing(keyComparator);
+    }
+    final Integer[] rows = new Integer[root.getRowCount()];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = i;
+    }
+    Arrays.sort(rows, rowComparator);
+    return rows;
+  }
+
+  private IntFunction<Comparable> getter(String column) {
+    switch (column) {
+      case "a":
+        return ((IntVector) root.getVector(column))::get;
+      case "b":
+        return row -> root.getVector(column).getObject(row).toString();
+      case "c":
+        return ((Float8Vector) root.getVector(column))::get;
+      default:
+        return ((TimeStampMilliVector) root.getVector(column))::get;
+    }
+  }
+}
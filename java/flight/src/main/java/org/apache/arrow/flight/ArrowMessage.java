@@ -25,11 +25,13 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntFunction;
 
 import org.apache.arrow.flight.grpc.AddWritableBuffer;
 import org.apache.arrow.flight.grpc.GetReadableBuffer;
 import org.apache.arrow.flight.impl.Flight.FlightData;
 import org.apache.arrow.flight.impl.Flight.FlightDescriptor;
+import org.apache.arrow.flight.impl.Flight.SharedBody;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.util.AutoCloseables;
 import org.apache.arrow.util.Preconditions;
@@ -64,6 +66,13 @@ class ArrowMessage implements AutoCloseable {
 
   public static final boolean FAST_PATH = true;
 
+  /**
+   * Whether to wrap the received buffers of gRPC instead of copying them, when they are contiguous.
+   * Can be disabled with the system property arrow.flight.enable_zero_copy_read.
+   */
+  public static final boolean ENABLE_ZERO_COPY_READ =
+      !"false".equalsIgnoreCase(System.getProperty("arrow.flight.enable_zero_copy_read", "true"));
+
   private static final int DESCRIPTOR_TAG =
       (FlightData.FLIGHT_DESCRIPTOR_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
   private static final int BODY_TAG =
@@ -72,6 +81,8 @@ class ArrowMessage implements AutoCloseable {
       (FlightData.DATA_HEADER_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
   private static final int APP_METADATA_TAG =
       (FlightData.APP_METADATA_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+  private static final int SHARED_BODY_TAG =
+      (FlightData.SHARED_BODY_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
 
   private static Marshaller<FlightData> NO_BODY_MARSHALLER = ProtoUtils.marshaller(FlightData.getDefaultInstance());
 
@@ -119,6 +130,15 @@ class ArrowMessage implements AutoCloseable {
   private final MessageMetadataResult message;
   private final ArrowBuf appMetadata;
   private final List<ArrowBuf> bufs;
+  // The whole message as sent on the wire, if it was serialized ahead of time
+  private final ArrowBuf wire;
+  // Set once the message is serialized or parsed
+  private long serializedSize = -1;
+  private long deserializationNanos = -1;
+  // Whether the references of this message were transferred to a stream for the transport
+  private boolean streamed = false;
+  // Writes the body to shared memory instead of the stream, if set
+  private SharedMemoryTransport.Writer sharedBodyWriter;
 
 
   public ArrowMessage(FlightDescriptor descriptor, Schema schema) {
@@ -128,6 +148,7 @@ class ArrowMessage implements AutoCloseable {
     bufs = ImmutableList.of();
     this.descriptor = descriptor;
     this.appMetadata = null;
+    this.wire = null;
   }
 
   /**
@@ -141,6 +162,7 @@ class ArrowMessage implements AutoCloseable {
     this.bufs = ImmutableList.copyOf(batch.getBuffers());
     this.descriptor = null;
     this.appMetadata = appMetadata;
+    this.wire = null;
   }
 
   public ArrowMessage(ArrowDictionaryBatch batch) {
@@ -152,6 +174,7 @@ class ArrowMessage implements AutoCloseable {
     this.bufs = ImmutableList.copyOf(batch.getDictionary().getBuffers());
     this.descriptor = null;
     this.appMetadata = null;
+    this.wire = null;
   }
 
   private ArrowMessage(FlightDescriptor descriptor, MessageMetadataResult message, ArrowBuf appMetadata,
@@ -160,6 +183,16 @@ class ArrowMessage implements AutoCloseable {
     this.descriptor = descriptor;
     this.appMetadata = appMetadata;
     this.bufs = buf == null ? ImmutableList.of() : ImmutableList.of(buf);
+    this.wire = null;
+  }
+
+  private ArrowMessage(FlightDescriptor descriptor, MessageMetadataResult message, ArrowBuf wire, long serializedSize) {
+    this.message = message;
+    this.descriptor = descriptor;
+    this.appMetadata = null;
+    this.bufs = ImmutableList.of();
+    this.wire = wire;
+    this.serializedSize = serializedSize;
   }
 
   public MessageMetadataResult asSchemaMessage() {
@@ -170,6 +203,80 @@ class ArrowMessage implements AutoCloseable {
     return descriptor;
   }
 
+  /**
+   * Get the size of this message on the wire, including the padding of the body buffers.
+   *
+   * @return The size, or -1 if the message was neither serialized nor parsed.
+   */
+  public long getSerializedSize() {
+    return serializedSize;
+  }
+
+  /**
+   * Get the time taken to parse this message from the bytes received by gRPC.
+   *
+   * @return The time in nanoseconds, or -1 if the message was not parsed.
+   */
+  public long getDeserializationNanos() {
+    return deserializationNanos;
+  }
+
+  /**
+   * Check whether the buffers of this message were handed over to the transport, after which it must not be closed.
+   */
+  boolean isStreamed() {
+    return streamed;
+  }
+
+  /**
+   * Send the body of this message through shared memory if it is large enough. Must be called before the message is
+   * handed over to the transport.
+   */
+  void writeBodyTo(SharedMemoryTransport.Writer writer) {
+    this.sharedBodyWriter = writer;
+  }
+
+  /**
+   * Serialize this message into a single buffer holding its wire format, so it can be sent any number of times
+   * (see {@link #duplicate()}) without being serialized again. The buffers of this message are released, so it must
+   * not be used afterwards.
+   *
+   * @param allocator The allocator for the temporary buffers of the serialization.
+   * @param allocate Allocates the buffer of the serialized message, given its size.
+   * @return The serialized message, which owns one reference to the buffer.
+   */
+  ArrowMessage serialize(BufferAllocator allocator, IntFunction<ArrowBuf> allocate) {
+    Preconditions.checkState(wire == null, "The message is already serialized");
+    try (final InputStream stream = asInputStream(allocator)) {
+      final int size = (int) serializedSize;
+      final ArrowBuf serialized = allocate.apply(size);
+      try {
+        if (stream instanceof DrainableByteBufInputStream) {
+          final ByteBuf buf = ((DrainableByteBufInputStream) stream).buf;
+          buf.getBytes(buf.readerIndex(), serialized.asNettyBuffer(), 0, size);
+        } else {
+          serialized.setBytes(0, ByteStreams.toByteArray(stream));
+        }
+      } catch (RuntimeException | IOException e) {
+        serialized.close();
+        throw e;
+      }
+      serialized.writerIndex(size);
+      return new ArrowMessage(descriptor, message, serialized, size);
+    } catch (IOException e) {
+      throw new RuntimeException("Unexpected IO Exception", e);
+    }
+  }
+
+  /**
+   * Get another reference to a serialized message, to send it again.
+   */
+  ArrowMessage duplicate() {
+    Preconditions.checkState(wire != null, "Only serialized messages can be duplicated");
+    wire.getReferenceManager().retain();
+    return new ArrowMessage(descriptor, message, wire, serializedSize);
+  }
+
   public HeaderType getMessageType() {
     return HeaderType.getHeader(message.headerType());
   }
@@ -203,9 +310,12 @@ class ArrowMessage implements AutoCloseable {
     return Iterables.unmodifiableIterable(bufs);
   }
 
-  private static ArrowMessage frame(BufferAllocator allocator, final InputStream stream) {
+  private static ArrowMessage frame(BufferAllocator allocator, SharedMemoryTransport sharedMemory,
+      final InputStream stream) {
 
     try {
+      final long start = System.nanoTime();
+      final int messageSize = stream.available();
       FlightDescriptor descriptor = null;
       MessageMetadataResult header = null;
       ArrowBuf body = null;
@@ -230,8 +340,7 @@ class ArrowMessage implements AutoCloseable {
           }
           case APP_METADATA_TAG: {
             int size = readRawVarint32(stream);
-            appMetadata = allocator.buffer(size);
-            GetReadableBuffer.readIntoBuffer(stream, appMetadata, size, FAST_PATH);
+            appMetadata = readBuffer(allocator, stream, size);
             break;
           }
           case BODY_TAG:
@@ -241,22 +350,55 @@ class ArrowMessage implements AutoCloseable {
               body = null;
             }
             int size = readRawVarint32(stream);
-            body = allocator.buffer(size);
-            GetReadableBuffer.readIntoBuffer(stream, body, size, FAST_PATH);
+            body = readBuffer(allocator, stream, size);
             break;
 
+          case SHARED_BODY_TAG: {
+            if (body != null) {
+              body.getReferenceManager().release();
+              body = null;
+            }
+            byte[] bytes = new byte[readRawVarint32(stream)];
+            ByteStreams.readFully(stream, bytes);
+            final SharedBody sharedBody = SharedBody.parseFrom(bytes);
+            if (sharedMemory == null) {
+              throw CallStatus.INVALID_ARGUMENT.withDescription("Shared memory bodies are not enabled")
+                  .toRuntimeException();
+            }
+            body = sharedMemory.map(sharedBody.getName(), sharedBody.getLength(), allocator);
+            break;
+          }
+
           default:
             // ignore unknown fields.
         }
       }
 
-      return new ArrowMessage(descriptor, header, appMetadata, body);
+      final ArrowMessage message = new ArrowMessage(descriptor, header, appMetadata, body);
+      message.serializedSize = messageSize;
+      message.deserializationNanos = System.nanoTime() - start;
+      return message;
     } catch (Exception ioe) {
       throw new RuntimeException(ioe);
     }
 
   }
 
+  /**
+   * Reads a buffer from the stream, without copying if possible.
+   */
+  private static ArrowBuf readBuffer(BufferAllocator allocator, InputStream stream, int size) throws IOException {
+    if (ENABLE_ZERO_COPY_READ) {
+      ArrowBuf buf = GetReadableBuffer.tryWrapBuffer(stream, size, allocator);
+      if (buf != null) {
+        return buf;
+      }
+    }
+    ArrowBuf buf = allocator.buffer(size);
+    GetReadableBuffer.readIntoBuffer(stream, buf, size, FAST_PATH);
+    return buf;
+  }
+
   private static int readRawVarint32(InputStream is) throws IOException {
     int firstByte = is.read();
     return CodedInputStream.readRawVarint32(firstByte, is);
@@ -267,6 +409,11 @@ class ArrowMessage implements AutoCloseable {
    * @return InputStream
    */
   private InputStream asInputStream(BufferAllocator allocator) {
+    streamed = true;
+    if (wire != null) {
+      // Transfer our reference to the input stream
+      return new DrainableByteBufInputStream(wire.asNettyBuffer());
+    }
     try {
 
       final ByteString bytes = ByteString.copyFrom(message.getMessageBuffer(),
@@ -282,7 +429,9 @@ class ArrowMessage implements AutoCloseable {
         }
 
         Preconditions.checkArgument(bufs.isEmpty());
-        return NO_BODY_MARSHALLER.stream(builder.build());
+        final FlightData data = builder.build();
+        serializedSize = data.getSerializedSize();
+        return NO_BODY_MARSHALLER.stream(data);
       }
 
       Preconditions.checkArgument(getMessageType() == HeaderType.RECORD_BATCH ||
@@ -301,7 +450,6 @@ class ArrowMessage implements AutoCloseable {
         appMetadata.getReferenceManager().release();
       }
 
-      cos.writeTag(FlightData.DATA_BODY_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
       int size = 0;
       List<ByteBuf> allBufs = new ArrayList<>();
       for (ArrowBuf b : bufs) {
@@ -315,10 +463,26 @@ class ArrowMessage implements AutoCloseable {
           allBufs.add(PADDING_BUFFERS.get(paddingBytes).retain());
         }
       }
+
+      final String sharedBodyName = sharedBodyWriter == null ? null : sharedBodyWriter.write(allBufs, size);
+      if (sharedBodyName != null) {
+        // Only the name of the file is sent, the buffers are not needed anymore
+        cos.writeMessage(FlightData.SHARED_BODY_FIELD_NUMBER,
+            SharedBody.newBuilder().setName(sharedBodyName).setLength(size).build());
+        cos.flush();
+        allBufs.forEach(ByteBuf::release);
+        serializedSize = baos.size();
+        final ArrowBuf headerBuf = allocator.buffer(baos.size());
+        headerBuf.writeBytes(baos.toByteArray());
+        return new DrainableByteBufInputStream(headerBuf.asNettyBuffer());
+      }
+
+      cos.writeTag(FlightData.DATA_BODY_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
       // rawvarint is used for length definition.
       cos.writeUInt32NoTag(size);
       cos.flush();
 
+      serializedSize = baos.size() + size;
       ArrowBuf initialBuf = allocator.buffer(baos.size());
       initialBuf.writeBytes(baos.toByteArray());
       final CompositeByteBuf bb = new CompositeByteBuf(allocator.getAsByteBufAllocator(), true, bufs.size() + 1,
@@ -334,9 +498,9 @@ class ArrowMessage implements AutoCloseable {
 
   private class DrainableByteBufInputStream extends ByteBufInputStream implements Drainable {
 
-    private final CompositeByteBuf buf;
+    private final ByteBuf buf;
 
-    public DrainableByteBufInputStream(CompositeByteBuf buffer) {
+    public DrainableByteBufInputStream(ByteBuf buffer) {
       super(buffer, buffer.readableBytes(), true);
       this.buf = buffer;
     }
@@ -362,15 +526,26 @@ class ArrowMessage implements AutoCloseable {
   }
 
   public static Marshaller<ArrowMessage> createMarshaller(BufferAllocator allocator) {
-    return new ArrowMessageHolderMarshaller(allocator);
+    return new ArrowMessageHolderMarshaller(allocator, null);
+  }
+
+  /**
+   * Create a marshaller which also accepts bodies sent through shared memory.
+   * @param sharedMemory The shared memory configuration. May be null to reject shared bodies.
+   */
+  public static Marshaller<ArrowMessage> createMarshaller(BufferAllocator allocator,
+      SharedMemoryTransport sharedMemory) {
+    return new ArrowMessageHolderMarshaller(allocator, sharedMemory);
   }
 
   private static class ArrowMessageHolderMarshaller implements MethodDescriptor.Marshaller<ArrowMessage> {
 
     private final BufferAllocator allocator;
+    private final SharedMemoryTransport sharedMemory;
 
-    public ArrowMessageHolderMarshaller(BufferAllocator allocator) {
+    public ArrowMessageHolderMarshaller(BufferAllocator allocator, SharedMemoryTransport sharedMemory) {
       this.allocator = allocator;
+      this.sharedMemory = sharedMemory;
     }
 
     @Override
@@ -380,7 +555,7 @@ class ArrowMessage implements AutoCloseable {
 
     @Override
     public ArrowMessage parse(InputStream stream) {
-      return ArrowMessage.frame(allocator, stream);
+      return ArrowMessage.frame(allocator, sharedMemory, stream);
     }
 
   }
@@ -391,5 +566,8 @@ class ArrowMessage implements AutoCloseable {
     if (appMetadata != null) {
       appMetadata.close();
     }
+    if (wire != null) {
+      wire.close();
+    }
   }
 }
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.util.Iterator;
+
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * A {@link FlightProducer} caching the streams of another one in a {@link FlightResultCache}.
+ *
+ * <p>The first DoGet of a ticket is served by the underlying producer, while its messages are recorded into the cache
+ * as they are serialized for the transport. Later calls for the same ticket and version are replayed from the cache,
+ * following the flow control of the transport, without calling the underlying producer. The version of a stream is
+ * supplied by the application, so that cached streams are not served once the data changes. Streams are only cached
+ * once completed; failed and cancelled streams are not, nor streams sending {@link SerializedBatch}es. All other calls
+ * are passed through.
+ *
+ * <p>A replay skips any authorization done by the underlying producer in DoGet, so a cached stream is only replayed to
+ * the peer identity it was first served to. If access also depends on something else, e.g. a header, the version
+ * provider must return a negative version for streams which must not be shared between such calls.
+ */
+public class CachingFlightProducer implements FlightProducer {
+
+  /**
+   * Supplies the version of the stream of a ticket.
+   */
+  @FunctionalInterface
+  public interface VersionProvider {
+    /**
+     * Get the version of the data of a stream.
+     *
+     * @return The version, or a negative value if the stream must not be cached.
+     */
+    long getVersion(CallContext context, Ticket ticket);
+  }
+
+  private final FlightProducer delegate;
+  private final FlightResultCache cache;
+  private final VersionProvider versions;
+
+  /**
+   * Create a caching producer.
+   * @param delegate The producer of the streams.
+   * @param cache The cache, which may be shared by several producers only if their tickets are distinct.
+   * @param versions Supplies the versions of the streams.
+   */
+  public CachingFlightProducer(FlightProducer delegate, FlightResultCache cache, VersionProvider versions) {
+    this.delegate = Preconditions.checkNotNull(delegate);
+    this.cache = Preconditions.checkNotNull(cache);
+    this.versions = Preconditions.checkNotNull(versions);
+  }
+
+  @Override
+  public void getStream(CallContext context, Ticket ticket, ServerStreamListener listener) {
+    final long version = versions.getVersion(context, ticket);
+    if (version < 0 || !(listener instanceof SerializedStreamListener)) {
+      delegate.getStream(context, ticket, listener);
+      return;
+    }
+    final SerializedStreamListener transport = (SerializedStreamListener) listener;
+    final FlightResultCache.CacheKey key =
+        new FlightResultCache.CacheKey(ticket.getBytes(), context.peerIdentity(), version);
+    final FlightResultCache.Entry entry = cache.acquire(key);
+    if (entry != null) {
+      final Replay replay = new Replay(entry, transport);
+      transport.setOnCancelHandler(replay::cancel);
+      transport.setOnReadyHandler(replay);
+      return;
+    }
+
+    final FlightResultCache.Recording recording = cache.record(key);
+    transport.setMessageInterceptor(recording);
+    transport.setOnCancelHandler(recording::abort);
+    try {
+      delegate.getStream(context, ticket, new RecordingListener(transport, recording));
+    } catch (RuntimeException e) {
+      recording.abort();
+      throw e;
+    }
+  }
+
+  @Override
+  public void listFlights(CallContext context, Criteria criteria, StreamListener<FlightInfo> listener) {
+    delegate.listFlights(context, criteria, listener);
+  }
+
+  @Override
+  public FlightInfo getFlightInfo(CallContext context, FlightDescriptor descriptor) {
+    return delegate.getFlightInfo(context, descriptor);
+  }
+
+  @Override
+  public SchemaResult getSchema(CallContext context, FlightDescriptor descriptor) {
+    return delegate.getSchema(context, descriptor);
+  }
+
+  @Override
+  public Runnable acceptPut(CallContext context, FlightStream flightStream, StreamListener<PutResult> ackStream) {
+    return delegate.acceptPut(context, flightStream, ackStream);
+  }
+
+  @Override
+  public void doExchange(CallContext context, FlightStream reader, ServerStreamListener writer) {
+    delegate.doExchange(context, reader, writer);
+  }
+
+  @Override
+  public void doAction(CallContext context, Action action, StreamListener<Result> listener) {
+    delegate.doAction(context, action, listener);
+  }
+
+  @Override
+  public void listActions(CallContext context, StreamListener<ActionType> listener) {
+    delegate.listActions(context, listener);
+  }
+
+  /**
+   * Sends the messages of a cached stream whenever the transport is ready.
+   */
+  private class Replay implements Runnable {
+    private final FlightResultCache.Entry entry;
+    private final SerializedStreamListener listener;
+    private final Iterator<ArrowMessage> messages;
+    private boolean done = false;
+
+    Replay(FlightResultCache.Entry entry, SerializedStreamListener listener) {
+      this.entry = entry;
+      this.listener = listener;
+      this.messages = entry.getMessages().iterator();
+    }
+
+    @Override
+    public synchronized void run() {
+      while (!done && listener.isReady()) {
+        if (!messages.hasNext()) {
+          finish();
+          listener.completed();
+          return;
+        }
+        listener.putMessage(messages.next().duplicate());
+      }
+    }
+
+    synchronized void cancel() {
+      finish();
+    }
+
+    private void finish() {
+      if (!done) {
+        done = true;
+        cache.release(entry);
+      }
+    }
+  }
+
+  /**
+   * Commits the recording of a stream once the underlying producer completes it.
+   */
+  private static class RecordingListener implements ServerStreamListener {
+    private final ServerStreamListener delegate;
+    private final FlightResultCache.Recording recording;
+
+    RecordingListener(ServerStreamListener delegate, FlightResultCache.Recording recording) {
+      this.delegate = delegate;
+      this.recording = recording;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return delegate.isCancelled();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setOnReadyHandler(Runnable handler) {
+      delegate.setOnReadyHandler(handler);
+    }
+
+    @Override
+    public void start(VectorSchemaRoot root) {
+      delegate.start(root);
+    }
+
+    @Override
+    public void start(VectorSchemaRoot root, DictionaryProvider dictionaries) {
+      delegate.start(root, dictionaries);
+    }
+
+    @Override
+    public void putNext() {
+      delegate.putNext();
+    }
+
+    @Override
+    public void putNext(ArrowBuf metadata) {
+      delegate.putNext(metadata);
+    }
+
+    @Override
+    public void putSerialized(SerializedBatch batch) {
+      // Batches serialized by the producer are held outside of the cache, so the stream is not cached
+      recording.abort();
+      delegate.putSerialized(batch);
+    }
+
+    @Override
+    public void error(Throwable ex) {
+      recording.abort();
+      delegate.error(ex);
+    }
+
+    @Override
+    public void completed() {
+      recording.commit();
+      delegate.completed();
+    }
+  }
+}
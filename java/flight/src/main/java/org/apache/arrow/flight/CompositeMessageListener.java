@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Forwards message callbacks to the middleware of a call that implement {@link FlightMessageListener}.
+ */
+final class CompositeMessageListener implements FlightMessageListener {
+
+  private final CopyOnWriteArrayList<FlightMessageListener> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Add the middleware that implement {@link FlightMessageListener}; others are ignored.
+   */
+  void addMiddleware(Collection<?> middleware) {
+    for (final Object m : middleware) {
+      if (m instanceof FlightMessageListener) {
+        listeners.add((FlightMessageListener) m);
+      }
+    }
+  }
+
+  @Override
+  public void onBatchSent(long bytes, long nanos) {
+    for (final FlightMessageListener listener : listeners) {
+      listener.onBatchSent(bytes, nanos);
+    }
+  }
+
+  @Override
+  public void onBatchReceived(long bytes, long nanos) {
+    for (final FlightMessageListener listener : listeners) {
+      listener.onBatchReceived(bytes, nanos);
+    }
+  }
+
+  @Override
+  public void onStalled(long nanos) {
+    for (final FlightMessageListener listener : listeners) {
+      listener.onStalled(nanos);
+    }
+  }
+}
@@ -43,48 +43,104 @@ class FlightBindingService implements BindableService {
 
   private static final String DO_GET = MethodDescriptor.generateFullMethodName(FlightConstants.SERVICE, "DoGet");
   private static final String DO_PUT = MethodDescriptor.generateFullMethodName(FlightConstants.SERVICE, "DoPut");
-  private static final Set<String> OVERRIDE_METHODS = ImmutableSet.of(DO_GET, DO_PUT);
+  private static final String DO_EXCHANGE = MethodDescriptor.generateFullMethodName(
+      FlightConstants.SERVICE, "DoExchange");
+  private static final Set<String> OVERRIDE_METHODS = ImmutableSet.of(DO_GET, DO_PUT, DO_EXCHANGE);
 
   private final FlightService delegate;
   private final BufferAllocator allocator;
+  private final SharedMemoryTransport sharedMemory;
 
   public FlightBindingService(BufferAllocator allocator, FlightProducer producer,
       ServerAuthHandler authHandler, ExecutorService executor) {
+    this(allocator, producer, authHandler, executor, 0, 0);
+  }
+
+  public FlightBindingService(BufferAllocator allocator, FlightProducer producer,
+      ServerAuthHandler authHandler, ExecutorService executor, long lowWatermark, long highWatermark) {
+    this(allocator, producer, authHandler, executor, lowWatermark, highWatermark, null);
+  }
+
+  public FlightBindingService(BufferAllocator allocator, FlightProducer producer,
+      ServerAuthHandler authHandler, ExecutorService executor, long lowWatermark, long highWatermark,
+      SharedMemoryTransport sharedMemory) {
     this.allocator = allocator;
-    this.delegate = new FlightService(allocator, producer, authHandler, executor);
+    this.sharedMemory = sharedMemory;
+    this.delegate = new FlightService(allocator, producer, authHandler, executor, lowWatermark, highWatermark,
+        sharedMemory);
   }
 
   public static MethodDescriptor<Flight.Ticket, ArrowMessage> getDoGetDescriptor(BufferAllocator allocator) {
+    return getDoGetDescriptor(allocator, null);
+  }
+
+  /**
+   * Get the DoGet descriptor, accepting bodies sent through shared memory if it is not null.
+   */
+  public static MethodDescriptor<Flight.Ticket, ArrowMessage> getDoGetDescriptor(BufferAllocator allocator,
+      SharedMemoryTransport sharedMemory) {
     return MethodDescriptor.<Flight.Ticket, ArrowMessage>newBuilder()
         .setType(io.grpc.MethodDescriptor.MethodType.SERVER_STREAMING)
         .setFullMethodName(DO_GET)
         .setSampledToLocalTracing(false)
         .setRequestMarshaller(ProtoUtils.marshaller(Flight.Ticket.getDefaultInstance()))
-        .setResponseMarshaller(ArrowMessage.createMarshaller(allocator))
+        .setResponseMarshaller(ArrowMessage.createMarshaller(allocator, sharedMemory))
         .build();
   }
 
   public static MethodDescriptor<ArrowMessage, Flight.PutResult> getDoPutDescriptor(BufferAllocator allocator) {
+    return getDoPutDescriptor(allocator, null);
+  }
+
+  /**
+   * Get the DoPut descriptor, accepting bodies sent through shared memory if it is not null.
+   */
+  public static MethodDescriptor<ArrowMessage, Flight.PutResult> getDoPutDescriptor(BufferAllocator allocator,
+      SharedMemoryTransport sharedMemory) {
     return MethodDescriptor.<ArrowMessage, Flight.PutResult>newBuilder()
         .setType(MethodType.BIDI_STREAMING)
         .setFullMethodName(DO_PUT)
         .setSampledToLocalTracing(false)
-        .setRequestMarshaller(ArrowMessage.createMarshaller(allocator))
+        .setRequestMarshaller(ArrowMessage.createMarshaller(allocator, sharedMemory))
         .setResponseMarshaller(ProtoUtils.marshaller(Flight.PutResult.getDefaultInstance()))
         .build();
   }
 
+  public static MethodDescriptor<ArrowMessage, ArrowMessage> getDoExchangeDescriptor(BufferAllocator allocator) {
+    return getDoExchangeDescriptor(allocator, null);
+  }
+
+  /**
+   * Get the DoExchange descriptor, accepting bodies sent through shared memory if it is not null.
+   */
+  public static MethodDescriptor<ArrowMessage, ArrowMessage> getDoExchangeDescriptor(BufferAllocator allocator,
+      SharedMemoryTransport sharedMemory) {
+    return MethodDescriptor.<ArrowMessage, ArrowMessage>newBuilder()
+        .setType(MethodType.BIDI_STREAMING)
+        .setFullMethodName(DO_EXCHANGE)
+        .setSampledToLocalTracing(false)
+        .setRequestMarshaller(ArrowMessage.createMarshaller(allocator, sharedMemory))
+        .setResponseMarshaller(ArrowMessage.createMarshaller(allocator, sharedMemory))
+        .build();
+  }
+
   @Override
   public ServerServiceDefinition bindService() {
     final ServerServiceDefinition baseDefinition = delegate.bindService();
 
-    final MethodDescriptor<Flight.Ticket, ArrowMessage> doGetDescriptor = getDoGetDescriptor(allocator);
+    final MethodDescriptor<Flight.Ticket, ArrowMessage> doGetDescriptor = getDoGetDescriptor(allocator, sharedMemory);
+
+    final MethodDescriptor<ArrowMessage, Flight.PutResult> doPutDescriptor =
+        getDoPutDescriptor(allocator, sharedMemory);
 
-    final MethodDescriptor<ArrowMessage, Flight.PutResult> doPutDescriptor = getDoPutDescriptor(allocator);
+    final MethodDescriptor<ArrowMessage, ArrowMessage> doExchangeDescriptor =
+        getDoExchangeDescriptor(allocator, sharedMemory);
 
     ServerServiceDefinition.Builder serviceBuilder = ServerServiceDefinition.builder(FlightConstants.SERVICE);
     serviceBuilder.addMethod(doGetDescriptor, ServerCalls.asyncServerStreamingCall(new DoGetMethod(delegate)));
     serviceBuilder.addMethod(doPutDescriptor, ServerCalls.asyncBidiStreamingCall(new DoPutMethod(delegate)));
+    serviceBuilder.addMethod(doExchangeDescriptor,
+        ServerCalls.asyncBidiStreamingCall(new DoExchangeMethod(delegate)));
 
     // copy over not-overridden methods.
     for (ServerMethodDefinition<?, ?> definition : baseDefinition.getMethods()) {
@@ -126,4 +182,18 @@ class FlightBindingService implements BindableService {
 
   }
 
+  private class DoExchangeMethod implements ServerCalls.BidiStreamingMethod<ArrowMessage, ArrowMessage> {
+    private final FlightService delegate;
+
+    public DoExchangeMethod(FlightService delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public StreamObserver<ArrowMessage> invoke(StreamObserver<ArrowMessage> responseObserver) {
+      return delegate.doExchangeCustom(responseObserver);
+    }
+
+  }
+
 }
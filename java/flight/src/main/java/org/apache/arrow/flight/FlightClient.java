@@ -20,8 +20,10 @@ package org.apache.arrow.flight;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLException;
@@ -50,6 +52,7 @@ import io.grpc.Channel;
 import io.grpc.ClientCall;
 import io.grpc.ClientInterceptor;
 import io.grpc.ClientInterceptors;
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
 import io.grpc.MethodDescriptor;
 import io.grpc.StatusRuntimeException;
@@ -80,25 +83,47 @@ public class FlightClient implements AutoCloseable {
   private final ClientAuthInterceptor authInterceptor = new ClientAuthInterceptor();
   private final MethodDescriptor<Flight.Ticket, ArrowMessage> doGetDescriptor;
   private final MethodDescriptor<ArrowMessage, Flight.PutResult> doPutDescriptor;
+  private final MethodDescriptor<ArrowMessage, ArrowMessage> doExchangeDescriptor;
+  // null unless bodies are sent and received through shared memory
+  private final SharedMemoryTransport sharedMemory;
+  // The last calls cancelled while receiving bodies through shared memory, whose files are deleted again later as
+  // the server may write some before it is notified. Guarded by itself.
+  private final Set<String> cancelledSharedMemoryCalls = new HashSet<>();
 
   /**
    * Create a Flight client from an allocator and a gRPC channel.
    */
   FlightClient(BufferAllocator incomingAllocator, ManagedChannel channel,
       List<FlightClientMiddleware.Factory> middleware) {
+    this(incomingAllocator, channel, middleware, null);
+  }
+
+  /**
+   * Create a Flight client from an allocator and a gRPC channel, sending bodies through shared memory if it is not
+   * null.
+   */
+  FlightClient(BufferAllocator incomingAllocator, ManagedChannel channel,
+      List<FlightClientMiddleware.Factory> middleware, SharedMemoryTransport sharedMemory) {
     this.allocator = incomingAllocator.newChildAllocator("flight-client", 0, Long.MAX_VALUE);
     this.channel = channel;
+    this.sharedMemory = sharedMemory;
 
     final ClientInterceptor[] interceptors;
-    interceptors = new ClientInterceptor[]{authInterceptor, new ClientInterceptorAdapter(middleware)};
+    if (sharedMemory == null) {
+      interceptors = new ClientInterceptor[]{authInterceptor, new ClientInterceptorAdapter(middleware)};
+    } else {
+      interceptors = new ClientInterceptor[]{authInterceptor, new ClientInterceptorAdapter(middleware),
+          sharedMemory.clientInterceptor()};
+    }
 
     // Create a channel with interceptors pre-applied for DoGet and DoPut
     this.interceptedChannel = ClientInterceptors.intercept(channel, interceptors);
 
     blockingStub = FlightServiceGrpc.newBlockingStub(interceptedChannel);
     asyncStub = FlightServiceGrpc.newStub(interceptedChannel);
-    doGetDescriptor = FlightBindingService.getDoGetDescriptor(allocator);
-    doPutDescriptor = FlightBindingService.getDoPutDescriptor(allocator);
+    doGetDescriptor = FlightBindingService.getDoGetDescriptor(allocator, sharedMemory);
+    doPutDescriptor = FlightBindingService.getDoPutDescriptor(allocator, sharedMemory);
+    doExchangeDescriptor = FlightBindingService.getDoExchangeDescriptor(allocator, sharedMemory);
   }
 
   /**
@@ -205,7 +230,13 @@ public class FlightClient implements AutoCloseable {
 
     try {
       SetStreamObserver resultObserver = new SetStreamObserver(allocator, metadataListener);
-      final io.grpc.CallOptions callOptions = CallOptions.wrapStub(asyncStub, options).getCallOptions();
+      final CompositeMessageListener messageListener = new CompositeMessageListener();
+      final String sharedMemoryCall = newSharedMemoryCall();
+      final SharedMemoryTransport.Writer sharedBodyWriter = newSharedBodyWriter(sharedMemoryCall);
+      final io.grpc.CallOptions callOptions = withSharedMemoryCall(
+          CallOptions.wrapStub(asyncStub, options).getCallOptions()
+              .withOption(ClientInterceptorAdapter.MIDDLEWARE_CALLBACK, messageListener::addMiddleware),
+          sharedMemoryCall, sharedBodyWriter);
       ClientCallStreamObserver<ArrowMessage> observer = (ClientCallStreamObserver<ArrowMessage>)
           ClientCalls.asyncBidiStreamingCall(
               interceptedChannel.newCall(doPutDescriptor, callOptions), resultObserver);
@@ -213,7 +244,7 @@ public class FlightClient implements AutoCloseable {
       DictionaryUtils.generateSchemaMessages(root.getSchema(), descriptor, provider, observer::onNext);
       return new PutObserver(new VectorUnloader(
           root, true /* include # of nulls in vectors */, true /* must align buffers to be C++-compatible */),
-          observer, metadataListener);
+          observer, metadataListener, messageListener, sharedBodyWriter);
     } catch (StatusRuntimeException sre) {
       throw StatusUtils.fromGrpcRuntimeException(sre);
     }
@@ -251,13 +282,19 @@ public class FlightClient implements AutoCloseable {
    * @param options RPC-layer hints for this call.
    */
   public FlightStream getStream(Ticket ticket, CallOption... options) {
-    final io.grpc.CallOptions callOptions = CallOptions.wrapStub(asyncStub, options).getCallOptions();
+    final CompositeMessageListener messageListener = new CompositeMessageListener();
+    final String sharedMemoryCall = newSharedMemoryCall();
+    final io.grpc.CallOptions callOptions = withSharedMemoryCall(
+        CallOptions.wrapStub(asyncStub, options).getCallOptions()
+            .withOption(ClientInterceptorAdapter.MIDDLEWARE_CALLBACK, messageListener::addMiddleware),
+        sharedMemoryCall, null);
     ClientCall<Flight.Ticket, ArrowMessage> call = interceptedChannel.newCall(doGetDescriptor, callOptions);
     FlightStream stream = new FlightStream(
         allocator,
         PENDING_REQUESTS,
-        (String message, Throwable cause) -> call.cancel(message, cause),
-        (count) -> call.request(count));
+        (String message, Throwable cause) -> cancel(call, sharedMemoryCall, message, cause),
+        (count) -> call.request(count),
+        messageListener);
 
     final StreamObserver<ArrowMessage> delegate = stream.asObserver();
     ClientResponseObserver<Flight.Ticket, ArrowMessage> clientResponseObserver =
@@ -289,6 +326,120 @@ public class FlightClient implements AutoCloseable {
     return stream;
   }
 
+  /**
+   * Start a bidirectional data exchange with the server.
+   * @param descriptor The descriptor of the exchange, sent to the server with the schema.
+   * @param root The root containing the data to send.
+   * @param options RPC-layer hints for this call.
+   * @return A pair of a stream for reading data from the server, and a listener for sending data to the server.
+   */
+  public ExchangeReaderWriter doExchange(FlightDescriptor descriptor, VectorSchemaRoot root, CallOption... options) {
+    return doExchange(descriptor, root, new MapDictionaryProvider(), options);
+  }
+
+  /**
+   * Start a bidirectional data exchange with the server.
+   * @param descriptor The descriptor of the exchange, sent to the server with the schema.
+   * @param root The root containing the data to send.
+   * @param provider The dictionaries of the data to send.
+   * @param options RPC-layer hints for this call.
+   * @return A pair of a stream for reading data from the server, and a listener for sending data to the server.
+   */
+  public ExchangeReaderWriter doExchange(FlightDescriptor descriptor, VectorSchemaRoot root,
+      DictionaryProvider provider, CallOption... options) {
+    Preconditions.checkNotNull(descriptor);
+    Preconditions.checkNotNull(root);
+
+    final CompositeMessageListener messageListener = new CompositeMessageListener();
+    final String sharedMemoryCall = newSharedMemoryCall();
+    final SharedMemoryTransport.Writer sharedBodyWriter = newSharedBodyWriter(sharedMemoryCall);
+    final io.grpc.CallOptions callOptions = withSharedMemoryCall(
+        CallOptions.wrapStub(asyncStub, options).getCallOptions()
+            .withOption(ClientInterceptorAdapter.MIDDLEWARE_CALLBACK, messageListener::addMiddleware),
+        sharedMemoryCall, sharedBodyWriter);
+    final ClientCall<ArrowMessage, ArrowMessage> call = interceptedChannel.newCall(doExchangeDescriptor, callOptions);
+    final FlightStream stream = new FlightStream(
+        allocator,
+        PENDING_REQUESTS,
+        (String message, Throwable cause) -> cancel(call, sharedMemoryCall, message, cause),
+        (count) -> call.request(count),
+        messageListener);
+
+    final StreamObserver<ArrowMessage> delegate = stream.asObserver();
+    ClientResponseObserver<ArrowMessage, ArrowMessage> clientResponseObserver =
+        new ClientResponseObserver<ArrowMessage, ArrowMessage>() {
+
+          @Override
+          public void beforeStart(ClientCallStreamObserver<ArrowMessage> requestStream) {
+            requestStream.disableAutoInboundFlowControl();
+          }
+
+          @Override
+          public void onNext(ArrowMessage value) {
+            delegate.onNext(value);
+          }
+
+          @Override
+          public void onError(Throwable t) {
+            delegate.onError(StatusUtils.toGrpcException(t));
+          }
+
+          @Override
+          public void onCompleted() {
+            delegate.onCompleted();
+          }
+
+        };
+
+    try {
+      final ClientCallStreamObserver<ArrowMessage> observer = (ClientCallStreamObserver<ArrowMessage>)
+          ClientCalls.asyncBidiStreamingCall(call, clientResponseObserver);
+      // send the schema to start.
+      DictionaryUtils.generateSchemaMessages(root.getSchema(), descriptor, provider, observer::onNext);
+      final ClientStreamListener writer = new PutObserver(new VectorUnloader(
+          root, true /* include # of nulls in vectors */, true /* must align buffers to be C++-compatible */),
+          observer, null, messageListener, sharedBodyWriter);
+      return new ExchangeReaderWriter(stream, writer);
+    } catch (StatusRuntimeException sre) {
+      throw StatusUtils.fromGrpcRuntimeException(sre);
+    }
+  }
+
+  /**
+   * The streams of a data exchange: a stream for reading the data sent by the server, and a listener for sending data
+   * to the server. Both may be used concurrently.
+   */
+  public static class ExchangeReaderWriter implements AutoCloseable {
+    private final FlightStream reader;
+    private final ClientStreamListener writer;
+
+    ExchangeReaderWriter(FlightStream reader, ClientStreamListener writer) {
+      this.reader = reader;
+      this.writer = writer;
+    }
+
+    /** Get the stream of data sent by the server. Errors of the exchange are raised when reading it. */
+    public FlightStream getReader() {
+      return reader;
+    }
+
+    /**
+     * Get the listener for sending data to the server. {@link ClientStreamListener#getResult()} returns immediately;
+     * errors are raised when reading from {@link #getReader()}.
+     */
+    public ClientStreamListener getWriter() {
+      return writer;
+    }
+
+    /**
+     * Close the reader, cancelling the exchange if it was not read to the end. The writer must be completed first.
+     */
+    @Override
+    public void close() throws Exception {
+      reader.close();
+    }
+  }
+
   private static class SetStreamObserver implements StreamObserver<Flight.PutResult> {
     private final BufferAllocator allocator;
     private final StreamListener<PutResult> listener;
@@ -317,17 +468,64 @@ public class FlightClient implements AutoCloseable {
     }
   }
 
+  /**
+   * Set up a call to send or receive bodies through shared memory, if enabled.
+   * @return The identifier of the call, or null.
+   */
+  private String newSharedMemoryCall() {
+    return sharedMemory == null ? null : SharedMemoryTransport.newCallId();
+  }
+
+  /**
+   * Add the identifier of a call, and the writer of the bodies it sends if any, to its options.
+   */
+  private static io.grpc.CallOptions withSharedMemoryCall(io.grpc.CallOptions callOptions, String sharedMemoryCall,
+      SharedMemoryTransport.Writer sharedBodyWriter) {
+    if (sharedMemoryCall == null) {
+      return callOptions;
+    }
+    callOptions = callOptions.withOption(SharedMemoryTransport.CALL_ID, sharedMemoryCall);
+    return sharedBodyWriter == null ? callOptions :
+        callOptions.withOption(SharedMemoryTransport.CLIENT_WRITER, sharedBodyWriter);
+  }
+
+  /**
+   * Make a writer for the bodies sent in a call, which is enabled once the server accepts them.
+   */
+  private SharedMemoryTransport.Writer newSharedBodyWriter(String sharedMemoryCall) {
+    return sharedMemoryCall == null ? null : sharedMemory.newClientWriter(sharedMemoryCall);
+  }
+
+  /**
+   * Cancel a call, deleting the bodies sent by the server through shared memory which were not read.
+   */
+  private void cancel(ClientCall<?, ?> call, String sharedMemoryCall, String message, Throwable cause) {
+    call.cancel(message, cause);
+    if (sharedMemoryCall != null) {
+      synchronized (cancelledSharedMemoryCalls) {
+        cancelledSharedMemoryCalls.add(sharedMemoryCall);
+        sharedMemory.deleteCallFiles(cancelledSharedMemoryCalls);
+        cancelledSharedMemoryCalls.clear();
+        cancelledSharedMemoryCalls.add(sharedMemoryCall);
+      }
+    }
+  }
+
   private static class PutObserver implements ClientStreamListener {
 
     private final ClientCallStreamObserver<ArrowMessage> observer;
     private final VectorUnloader unloader;
     private final PutListener listener;
+    private final FlightMessageListener messageListener;
+    private final SharedMemoryTransport.Writer sharedBodyWriter;
 
     public PutObserver(VectorUnloader unloader, ClientCallStreamObserver<ArrowMessage> observer,
-        PutListener listener) {
+        PutListener listener, FlightMessageListener messageListener, SharedMemoryTransport.Writer sharedBodyWriter) {
       this.observer = observer;
+      this.sharedBodyWriter = sharedBodyWriter;
       this.unloader = unloader;
       this.listener = listener;
+      this.messageListener = messageListener;
     }
 
     @Override
@@ -338,12 +536,22 @@ public class FlightClient implements AutoCloseable {
     @Override
     public void putNext(ArrowBuf appMetadata) {
       ArrowRecordBatch batch = unloader.getRecordBatch();
-      while (!observer.isReady()) {
-        /* busy wait */
+      if (!observer.isReady()) {
+        final long stallStart = System.nanoTime();
+        while (!observer.isReady()) {
+          /* busy wait */
+        }
+        messageListener.onStalled(System.nanoTime() - stallStart);
       }
       try {
         // Takes ownership of appMetadata
-        observer.onNext(new ArrowMessage(batch, appMetadata));
+        final ArrowMessage message = new ArrowMessage(batch, appMetadata);
+        if (sharedBodyWriter != null) {
+          message.writeBodyTo(sharedBodyWriter);
+        }
+        final long start = System.nanoTime();
+        observer.onNext(message);
+        messageListener.onBatchSent(message.getSerializedSize(), System.nanoTime() - start);
       } catch (StatusRuntimeException sre) {
         throw StatusUtils.fromGrpcRuntimeException(sre);
       }
@@ -351,6 +559,9 @@ public class FlightClient implements AutoCloseable {
 
     @Override
     public void error(Throwable ex) {
+      if (sharedBodyWriter != null) {
+        sharedBodyWriter.close();
+      }
       observer.onError(StatusUtils.toGrpcException(ex));
     }
 
@@ -361,7 +572,10 @@ public class FlightClient implements AutoCloseable {
 
     @Override
     public void getResult() {
-      listener.getResult();
+      // no listener for exchanges: the result is the stream sent by the server
+      if (listener != null) {
+        listener.getResult();
+      }
     }
   }
 
@@ -420,11 +634,26 @@ public class FlightClient implements AutoCloseable {
     void onNext(PutResult val);
   }
 
+  /**
+   * Checks whether the channel of this client is usable, i.e. neither shut down nor failing to connect. This does
+   * not make a call, nor try to connect an idle channel.
+   */
+  boolean isHealthy() {
+    final ConnectivityState state = channel.getState(false);
+    return state != ConnectivityState.SHUTDOWN && state != ConnectivityState.TRANSIENT_FAILURE;
+  }
+
   /**
    * Shut down this client.
    */
   public void close() throws InterruptedException {
     channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+    if (sharedMemory != null) {
+      synchronized (cancelledSharedMemoryCalls) {
+        sharedMemory.deleteCallFiles(cancelledSharedMemoryCalls);
+        cancelledSharedMemoryCalls.clear();
+      }
+    }
     allocator.close();
   }
 
@@ -458,6 +687,7 @@ public class FlightClient implements AutoCloseable {
     private InputStream clientKey = null;
     private String overrideHostname = null;
     private List<FlightClientMiddleware.Factory> middleware = new ArrayList<>();
+    private SharedMemoryTransport sharedMemory = null;
 
     private Builder() {
     }
@@ -517,6 +747,17 @@ public class FlightClient implements AutoCloseable {
       return this;
     }
 
+    /**
+     * Receive the bodies of large batches through shared memory from a server on the same host which enabled it
+     * with the same directory, and send bodies to the server this way. This is negotiated for each call, so servers
+     * which do not support it receive bodies inline. Disabled by default.
+     * @see SharedMemoryTransport
+     */
+    public Builder sharedMemory(SharedMemoryTransport sharedMemory) {
+      this.sharedMemory = Preconditions.checkNotNull(sharedMemory);
+      return this;
+    }
+
     /**
      * Create the client from this builder.
      */
@@ -587,7 +828,7 @@ public class FlightClient implements AutoCloseable {
       builder
           .maxTraceEvents(MAX_CHANNEL_TRACE_EVENTS)
           .maxInboundMessageSize(maxInboundMessageSize);
-      return new FlightClient(allocator, builder.build(), middleware);
+      return new FlightClient(allocator, builder.build(), middleware, sharedMemory);
     }
   }
 }
@@ -0,0 +1,514 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.util.Preconditions;
+
+/**
+ * A thread-safe pool of {@link FlightClient}s, keyed by location and credentials, so that the connections to a
+ * service are reused across calls instead of being set up for each of them.
+ *
+ * <p>Clients are shared: gRPC multiplexes concurrent calls over a channel, so a client can be lent to several users at
+ * once. A lease gets an idle client if there is one, otherwise a new client while there are fewer than the maximum per
+ * location, otherwise the client with the fewest leases. Only once every client has the maximum number of leases do
+ * users wait for one to be returned, up to the acquire timeout.
+ *
+ * <p>Clients without leases for longer than the idle timeout are closed. Before an idle client is lent again, a health
+ * check is run on it; by default, it checks that the channel is neither shut down nor failing to connect. A user that
+ * sees a client fail can also {@link Lease#invalidate() invalidate} it, so it is not lent again and is closed once
+ * its last lease is returned.
+ */
+public class FlightClientPool implements AutoCloseable {
+
+  private final Function<Location, FlightClient> clientFactory;
+  private final int maxPerLocation;
+  private final int maxLeasesPerClient;
+  private final long idleTimeoutNanos;
+  private final long acquireTimeoutNanos;
+  private final Predicate<FlightClient> healthCheck;
+  private final ScheduledExecutorService evictor;
+
+  // guarded by this
+  private final Map<PoolKey, LocationPool> pools = new HashMap<>();
+  private boolean closed = false;
+
+  private FlightClientPool(Builder builder) {
+    this.clientFactory = builder.clientFactory != null ? builder.clientFactory :
+        location -> FlightClient.builder(builder.allocator, location).build();
+    this.maxPerLocation = builder.maxPerLocation;
+    this.maxLeasesPerClient = builder.maxLeasesPerClient;
+    this.idleTimeoutNanos = builder.idleTimeoutNanos;
+    this.acquireTimeoutNanos = builder.acquireTimeoutNanos;
+    this.healthCheck = builder.healthCheck;
+    if (idleTimeoutNanos > 0) {
+      this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "flight-client-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+      });
+      final long period = Math.max(idleTimeoutNanos / 2, TimeUnit.MILLISECONDS.toNanos(1));
+      evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+    } else {
+      this.evictor = null;
+    }
+  }
+
+  /**
+   * Create a builder for a pool.
+   * @param allocator The allocator for the clients created by the pool.
+   */
+  public static Builder builder(BufferAllocator allocator) {
+    return new Builder(allocator);
+  }
+
+  /**
+   * Borrow a client for a location, blocking if all the clients for it have the maximum number of leases.
+   *
+   * @param location The location to connect to.
+   * @return The lease of the client, to be closed once the client is no longer used.
+   * @throws FlightRuntimeException with TIMED_OUT if no client became available within the acquire timeout.
+   */
+  public Lease acquire(Location location) {
+    return acquire(new PoolKey(location, null, null));
+  }
+
+  /**
+   * Borrow a client for a location, authenticated with a username and password.
+   *
+   * @see #acquire(Location)
+   */
+  public Lease acquire(Location location, String username, String password) {
+    Preconditions.checkNotNull(username);
+    Preconditions.checkNotNull(password);
+    return acquire(new PoolKey(location, username, password));
+  }
+
+  private Lease acquire(PoolKey key) {
+    final long deadline = acquireTimeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE :
+        System.nanoTime() + acquireTimeoutNanos;
+    while (true) {
+      final PooledClient pooled;
+      final boolean wasIdle;
+      synchronized (this) {
+        pooled = reserve(key, deadline);
+        wasIdle = pooled != null && pooled.leases == 1;
+      }
+      if (pooled == null) {
+        return new Lease(key, create(key));
+      }
+      if (!wasIdle) {
+        // The client is in use, so it was checked when it was lent while idle
+        return new Lease(key, pooled);
+      }
+      // The check may make a call, so it runs outside of the lock
+      boolean healthy = false;
+      try {
+        healthy = healthCheck.test(pooled.client);
+      } catch (RuntimeException e) {
+        // unhealthy
+      }
+      if (healthy) {
+        return new Lease(key, pooled);
+      }
+      release(key, pooled, false);
+    }
+  }
+
+  /**
+   * Wait until a client of the key can take another lease, or there is room for a new one.
+   *
+   * @return The client, whose lease is already counted; or null if the caller must create a client, which is then
+   *     counted as being created.
+   */
+  private PooledClient reserve(PoolKey key, long deadline) {
+    while (true) {
+      Preconditions.checkState(!closed, "The pool is closed");
+      final LocationPool pool = pools.computeIfAbsent(key, k -> new LocationPool());
+      PooledClient leastLoaded = null;
+      for (final PooledClient pooled : pool.clients) {
+        if (leastLoaded == null || pooled.leases < leastLoaded.leases) {
+          leastLoaded = pooled;
+        }
+      }
+      if (leastLoaded != null && leastLoaded.leases == 0) {
+        leastLoaded.leases++;
+        return leastLoaded;
+      }
+      if (pool.total() < maxPerLocation) {
+        pool.creating++;
+        return null;
+      }
+      if (leastLoaded != null && leastLoaded.leases < maxLeasesPerClient) {
+        leastLoaded.leases++;
+        return leastLoaded;
+      }
+      final long remaining = deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+      if (remaining <= 0) {
+        throw CallStatus.TIMED_OUT
+            .withDescription("No client available for " + key.location.getUri() + " after " +
+                TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + " ms")
+            .toRuntimeException();
+      }
+      try {
+        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw CallStatus.CANCELLED.withCause(e).withDescription("Interrupted while waiting for a client")
+            .toRuntimeException();
+      }
+    }
+  }
+
+  private PooledClient create(PoolKey key) {
+    FlightClient client = null;
+    try {
+      client = clientFactory.apply(key.location);
+      if (key.username != null) {
+        client.authenticateBasic(key.username, key.password);
+      }
+    } catch (RuntimeException e) {
+      if (client != null) {
+        AutoCloseables.closeNoChecked(client);
+      }
+      synchronized (this) {
+        final LocationPool pool = pools.get(key);
+        pool.creating--;
+        removeIfEmpty(key, pool);
+        notifyAll();
+      }
+      throw e;
+    }
+    final PooledClient pooled = new PooledClient(client);
+    pooled.leases = 1;
+    synchronized (this) {
+      final LocationPool pool = pools.get(key);
+      pool.creating--;
+      pool.clients.add(pooled);
+      // Other users may share the new client
+      notifyAll();
+    }
+    return pooled;
+  }
+
+  /**
+   * Return a lease of a client. A client that is not valid is not lent again, and is closed once it has no leases.
+   */
+  private void release(PoolKey key, PooledClient pooled, boolean valid) {
+    synchronized (this) {
+      pooled.leases--;
+      final LocationPool pool = pools.get(key);
+      if (!valid && !pooled.retired) {
+        // Not lent again, but may still be in use
+        pooled.retired = true;
+        pool.clients.remove(pooled);
+        pool.retired.add(pooled);
+      }
+      notifyAll();
+      if (pooled.leases > 0) {
+        return;
+      }
+      if (!pooled.retired && !closed) {
+        pooled.idleSinceNanos = System.nanoTime();
+        return;
+      }
+      pool.clients.remove(pooled);
+      pool.retired.remove(pooled);
+      removeIfEmpty(key, pool);
+    }
+    AutoCloseables.closeNoChecked(pooled.client);
+  }
+
+  /** Must hold the lock. */
+  private void removeIfEmpty(PoolKey key, LocationPool pool) {
+    if (pool.total() == 0 && pool.retired.isEmpty()) {
+      pools.remove(key);
+    }
+  }
+
+  /**
+   * Close the clients idle for longer than the idle timeout. This is also done periodically in the background.
+   */
+  public void evictIdle() {
+    if (idleTimeoutNanos == 0) {
+      return;
+    }
+    final List<AutoCloseable> evicted = new ArrayList<>();
+    final long now = System.nanoTime();
+    synchronized (this) {
+      final Iterator<LocationPool> pools = this.pools.values().iterator();
+      while (pools.hasNext()) {
+        final LocationPool pool = pools.next();
+        final Iterator<PooledClient> clients = pool.clients.iterator();
+        while (clients.hasNext()) {
+          final PooledClient pooled = clients.next();
+          if (pooled.leases == 0 && now - pooled.idleSinceNanos >= idleTimeoutNanos) {
+            evicted.add(pooled.client);
+            clients.remove();
+          }
+        }
+        if (pool.total() == 0 && pool.retired.isEmpty()) {
+          pools.remove();
+        }
+      }
+      if (!evicted.isEmpty()) {
+        notifyAll();
+      }
+    }
+    evicted.forEach(AutoCloseables::closeNoChecked);
+  }
+
+  /**
+   * Get the number of clients for a location that can be lent, idle or in use, across all credentials.
+   */
+  public synchronized int getClientCount(Location location) {
+    return pools.entrySet().stream().filter(e -> e.getKey().location.equals(location))
+        .mapToInt(e -> e.getValue().total()).sum();
+  }
+
+  /**
+   * Get the number of clients for a location without leases, across all credentials.
+   */
+  public synchronized int getIdleCount(Location location) {
+    return pools.entrySet().stream().filter(e -> e.getKey().location.equals(location))
+        .mapToInt(e -> (int) e.getValue().clients.stream().filter(pooled -> pooled.leases == 0).count()).sum();
+  }
+
+  /**
+   * Close the idle clients. Clients in use are closed when their last lease is returned.
+   */
+  @Override
+  public void close() throws Exception {
+    final List<AutoCloseable> idle = new ArrayList<>();
+    synchronized (this) {
+      closed = true;
+      final Iterator<LocationPool> pools = this.pools.values().iterator();
+      while (pools.hasNext()) {
+        final LocationPool pool = pools.next();
+        final Iterator<PooledClient> clients = pool.clients.iterator();
+        while (clients.hasNext()) {
+          final PooledClient pooled = clients.next();
+          if (pooled.leases == 0) {
+            idle.add(pooled.client);
+            clients.remove();
+          }
+        }
+        if (pool.total() == 0 && pool.retired.isEmpty()) {
+          pools.remove();
+        }
+      }
+      notifyAll();
+    }
+    if (evictor != null) {
+      evictor.shutdownNow();
+    }
+    AutoCloseables.close(idle);
+  }
+
+  /**
+   * A client borrowed from the pool, which may be lent to other users at the same time.
+   */
+  public final class Lease implements AutoCloseable {
+    private final PoolKey key;
+    private final PooledClient pooled;
+    private boolean valid = true;
+    private boolean returned = false;
+
+    private Lease(PoolKey key, PooledClient pooled) {
+      this.key = key;
+      this.pooled = pooled;
+    }
+
+    /**
+     * Get the client, which must not be closed, nor used after the lease is closed.
+     */
+    public FlightClient getClient() {
+      Preconditions.checkState(!returned, "The client was returned to the pool");
+      return pooled.client;
+    }
+
+    /**
+     * Mark the client as broken, so it is not lent again, and is closed once all of its leases are returned.
+     */
+    public void invalidate() {
+      valid = false;
+    }
+
+    /**
+     * Return the client to the pool.
+     */
+    @Override
+    public void close() {
+      if (!returned) {
+        returned = true;
+        release(key, pooled, valid);
+      }
+    }
+  }
+
+  /**
+   * The identity of a client: its location, and the credentials it is authenticated with, if any.
+   */
+  private static final class PoolKey {
+    private final Location location;
+    private final String username;
+    private final String password;
+
+    PoolKey(Location location, String username, String password) {
+      this.location = Preconditions.checkNotNull(location);
+      this.username = username;
+      this.password = password;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final PoolKey that = (PoolKey) o;
+      return location.equals(that.location) && Objects.equals(username, that.username) &&
+          Objects.equals(password, that.password);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(location, username, password);
+    }
+  }
+
+  /**
+   * The clients of a key.
+   */
+  private static final class LocationPool {
+    // clients that can be lent, idle or in use
+    private final List<PooledClient> clients = new ArrayList<>();
+    // invalidated clients that still have leases
+    private final List<PooledClient> retired = new ArrayList<>();
+    // clients being created, counted against the maximum
+    private int creating = 0;
+
+    int total() {
+      return clients.size() + creating;
+    }
+  }
+
+  private static final class PooledClient {
+    private final FlightClient client;
+    private int leases = 0;
+    private long idleSinceNanos;
+    private boolean retired = false;
+
+    PooledClient(FlightClient client) {
+      this.client = client;
+    }
+  }
+
+  /**
+   * A builder for {@link FlightClientPool}.
+   */
+  public static final class Builder {
+    private final BufferAllocator allocator;
+    private Function<Location, FlightClient> clientFactory;
+    private int maxPerLocation = 8;
+    private int maxLeasesPerClient = 100;
+    private long idleTimeoutNanos = TimeUnit.MINUTES.toNanos(5);
+    private long acquireTimeoutNanos = TimeUnit.SECONDS.toNanos(30);
+    private Predicate<FlightClient> healthCheck = FlightClient::isHealthy;
+
+    private Builder(BufferAllocator allocator) {
+      this.allocator = Preconditions.checkNotNull(allocator);
+    }
+
+    /**
+     * Set how clients are created, e.g. to configure TLS or middleware. By default, a plaintext or TLS client is
+     * created from the location, with the pool's allocator.
+     */
+    public Builder clientFactory(Function<Location, FlightClient> clientFactory) {
+      this.clientFactory = Preconditions.checkNotNull(clientFactory);
+      return this;
+    }
+
+    /**
+     * Set the maximum number of clients, i.e. channels, for each location and credentials. Defaults to 8.
+     */
+    public Builder maxPerLocation(int maxPerLocation) {
+      Preconditions.checkArgument(maxPerLocation > 0, "At least one client per location is needed");
+      this.maxPerLocation = maxPerLocation;
+      return this;
+    }
+
+    /**
+     * Set the maximum number of leases of a client at once. Defaults to 100, the number of concurrent streams most
+     * HTTP/2 servers allow on a connection; with 1, each client is lent to one user at a time.
+     */
+    public Builder maxLeasesPerClient(int maxLeasesPerClient) {
+      Preconditions.checkArgument(maxLeasesPerClient > 0, "At least one lease per client is needed");
+      this.maxLeasesPerClient = maxLeasesPerClient;
+      return this;
+    }
+
+    /**
+     * Set how long a client may be idle before it is closed; zero disables eviction. Defaults to 5 minutes.
+     */
+    public Builder idleTimeout(long timeout, TimeUnit unit) {
+      Preconditions.checkArgument(timeout >= 0, "The idle timeout must not be negative");
+      this.idleTimeoutNanos = unit.toNanos(timeout);
+      return this;
+    }
+
+    /**
+     * Set how long to wait for a client when all of them have the maximum number of leases. Defaults to 30 seconds.
+     */
+    public Builder acquireTimeout(long timeout, TimeUnit unit) {
+      Preconditions.checkArgument(timeout >= 0, "The acquire timeout must not be negative");
+      this.acquireTimeoutNanos = unit.toNanos(timeout);
+      return this;
+    }
+
+    /**
+     * Set the check run on an idle client before it is lent; clients failing it are closed.
+     */
+    public Builder healthCheck(Predicate<FlightClient> healthCheck) {
+      this.healthCheck = Preconditions.checkNotNull(healthCheck);
+      return this;
+    }
+
+    /**
+     * Create the pool.
+     */
+    public FlightClientPool build() {
+      return new FlightClientPool(this);
+    }
+  }
+}
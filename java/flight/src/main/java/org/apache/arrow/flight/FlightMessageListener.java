@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+/**
+ * Callbacks for the Arrow data sent and received by a DoGet, DoPut or DoExchange call, e.g. to collect metrics.
+ *
+ * <p>Flight calls these methods on the middleware instances of a call that implement this interface, on both clients
+ * and servers. Methods may be called from any thread, and concurrently when the call sends and receives data.
+ */
+public interface FlightMessageListener {
+
+  /**
+   * Called after a record batch was handed to the transport.
+   *
+   * @param bytes The size of the message on the wire.
+   * @param nanos The time taken to serialize the message and hand it to the transport.
+   */
+  void onBatchSent(long bytes, long nanos);
+
+  /**
+   * Called when a record batch was received, before it is read by the application.
+   *
+   * @param bytes The size of the message on the wire.
+   * @param nanos The time taken to parse the message.
+   */
+  void onBatchReceived(long bytes, long nanos);
+
+  /**
+   * Called when sending was delayed because the transport was not ready, i.e. the peer is reading too slowly.
+   *
+   * <p>A client calls this after each wait. A server does not wait, as it queues the messages: it calls this once
+   * the transport is ready again, for each period during which messages were put while it was not ready.
+   *
+   * @param nanos The time spent waiting for the transport to be ready.
+   */
+  void onStalled(long nanos);
+}
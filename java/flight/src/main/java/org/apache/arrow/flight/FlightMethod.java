@@ -29,6 +29,7 @@ public enum FlightMethod {
   GET_SCHEMA,
   DO_GET,
   DO_PUT,
+  DO_EXCHANGE,
   DO_ACTION,
   LIST_ACTIONS,
   ;
@@ -51,6 +52,8 @@ public enum FlightMethod {
       return DO_GET;
     } else if (FlightServiceGrpc.getDoPutMethod().getFullMethodName().equals(methodName)) {
       return DO_PUT;
+    } else if (FlightServiceGrpc.getDoExchangeMethod().getFullMethodName().equals(methodName)) {
+      return DO_EXCHANGE;
     } else if (FlightServiceGrpc.getDoActionMethod().getFullMethodName().equals(methodName)) {
       return DO_ACTION;
     } else if (FlightServiceGrpc.getListActionsMethod().getFullMethodName().equals(methodName)) {
@@ -79,6 +79,20 @@ public interface FlightProducer {
   Runnable acceptPut(CallContext context,
       FlightStream flightStream, StreamListener<PutResult> ackStream);
 
+  /**
+   * Exchange data with a client: read a stream of Arrow data from the client and, at the same time, send a stream of
+   * Arrow data back. The streams are independent; the producer may read and write them in any order.
+   *
+   * <p>The descriptor sent by the client is available from the reader once its schema is received.
+   *
+   * @param context Per-call context.
+   * @param reader The data stream sent by the client.
+   * @param writer An interface for sending data back to the client.
+   */
+  default void doExchange(CallContext context, FlightStream reader, ServerStreamListener writer) {
+    throw CallStatus.UNIMPLEMENTED.withDescription("DoExchange is unimplemented").toRuntimeException();
+  }
+
   /**
    * Generic handler for application-defined RPCs.
    *
@@ -108,9 +122,27 @@ public interface FlightProducer {
 
     /**
      * A hint indicating whether the client is ready to receive data without excessive buffering.
+     *
+     * <p>If the server has backpressure watermarks, this is false from the time the batches held for a slow client
+     * reach the high watermark, until they drain below the low watermark.
      */
     boolean isReady();
 
+    /**
+     * Set a callback invoked when the listener becomes ready to send more data, so producers need neither poll
+     * {@link #isReady()} nor block a thread while the client is slow.
+     *
+     * <p>The handler should send batches while {@link #isReady()} is true, then return; it is called again when
+     * the listener becomes ready. It is also called soon after being set, if the listener is ready then. Calls may be
+     * spurious, but are never concurrent. The handler runs on a server thread and must not block.
+     *
+     * <p>The default implementation throws UNIMPLEMENTED, for listeners written before this method was added.
+     */
+    default void setOnReadyHandler(Runnable handler) {
+      throw CallStatus.UNIMPLEMENTED.withDescription("This listener does not support on-ready handlers.")
+          .toRuntimeException();
+    }
+
     /**
      * Start sending data, using the schema of the given {@link VectorSchemaRoot}.
      *
@@ -136,6 +168,17 @@ public interface FlightProducer {
      */
     void putNext(ArrowBuf metadata);
 
+    /**
+     * Send a batch serialized ahead of time, which must match the schema the stream was started with. The batch
+     * remains owned by the caller, and can be sent to other listeners as well.
+     *
+     * <p>The default implementation throws UNIMPLEMENTED, for listeners written before this method was added.
+     */
+    default void putSerialized(SerializedBatch batch) {
+      throw CallStatus.UNIMPLEMENTED.withDescription("This listener does not support serialized batches.")
+          .toRuntimeException();
+    }
+
     /**
      * Indicate an error to the client. Terminates the stream; do not call {@link #completed()} afterwards.
      */
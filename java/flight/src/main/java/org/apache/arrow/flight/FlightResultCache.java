@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.util.Preconditions;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * An off-heap cache of DoGet streams, kept in the form they are sent on the wire, so a stream can be replayed to the
+ * transport without calling the producer nor serializing its batches again. See {@link CachingFlightProducer}.
+ *
+ * <p>Streams are keyed by the bytes of their ticket and a version supplied by the producer. They are allocated from a
+ * child allocator limited to the maximum size of the cache, and the least recently used streams are evicted to make
+ * room for new ones; a stream larger than the cache is not cached. A stream evicted while it is being replayed is
+ * released once it is sent.
+ */
+public class FlightResultCache implements AutoCloseable {
+
+  private final BufferAllocator parent;
+  private final BufferAllocator allocator;
+  private final long maxBytes;
+
+  // guarded by this, in access order
+  private final LinkedHashMap<CacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long cachedBytes = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+  private boolean closed = false;
+
+  /**
+   * Create a cache.
+   * @param allocator The parent of the cache's allocator, also used for the messages that are not cached.
+   * @param maxBytes The maximum memory held by the cache.
+   */
+  public FlightResultCache(BufferAllocator allocator, long maxBytes) {
+    Preconditions.checkArgument(maxBytes > 0, "The size of the cache must be positive");
+    this.parent = allocator;
+    this.allocator = allocator.newChildAllocator("flight-result-cache", 0, maxBytes);
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Get a cached stream, retained until it is released.
+   *
+   * @return The stream, or null if it is not cached.
+   */
+  synchronized Entry acquire(CacheKey key) {
+    final Entry entry = closed ? null : entries.get(key);
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    entry.refCount++;
+    return entry;
+  }
+
+  /**
+   * Release a stream acquired from the cache.
+   */
+  synchronized void release(Entry entry) {
+    entry.refCount--;
+    if (entry.refCount == 0) {
+      entry.messages.forEach(AutoCloseables::closeNoChecked);
+    }
+  }
+
+  /**
+   * Start recording a stream, which is cached once it is committed.
+   */
+  Recording record(CacheKey key) {
+    return new Recording(key);
+  }
+
+  /**
+   * Allocate a buffer for a cached message, evicting streams as needed.
+   *
+   * @return The buffer, or null if the message does not fit in the cache.
+   */
+  private synchronized ArrowBuf allocate(int size) {
+    if (closed) {
+      return null;
+    }
+    final Iterator<Entry> lru = entries.values().iterator();
+    while (allocator.getAllocatedMemory() + size > maxBytes && lru.hasNext()) {
+      evict(lru.next());
+      lru.remove();
+    }
+    while (true) {
+      try {
+        return allocator.buffer(size);
+      } catch (OutOfMemoryException e) {
+        // The allocation may be rounded up
+        if (!lru.hasNext()) {
+          return null;
+        }
+        evict(lru.next());
+        lru.remove();
+      }
+    }
+  }
+
+  private synchronized void put(CacheKey key, Entry entry) {
+    if (closed) {
+      release(entry);
+      return;
+    }
+    final Entry previous = entries.put(key, entry);
+    if (previous != null) {
+      evict(previous);
+    }
+    cachedBytes += entry.bytes;
+  }
+
+  /** Must hold the lock. */
+  private void evict(Entry entry) {
+    evictionCount++;
+    cachedBytes -= entry.bytes;
+    release(entry);
+  }
+
+  /**
+   * Remove all the streams from the cache.
+   */
+  public synchronized void invalidateAll() {
+    entries.values().forEach(this::evict);
+    entries.clear();
+  }
+
+  /**
+   * Get the number of streams in the cache.
+   */
+  public synchronized int getEntryCount() {
+    return entries.size();
+  }
+
+  /**
+   * Get the memory held by the streams in the cache, not including evicted streams still being replayed.
+   */
+  public synchronized long getCachedBytes() {
+    return cachedBytes;
+  }
+
+  /**
+   * Get the number of streams found in the cache.
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Get the number of cacheable streams not found in the cache.
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Get the number of streams removed from the cache to make room for others, or replaced by a new version.
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Release the cached streams, and the allocator of the cache. The server must be shut down first.
+   */
+  @Override
+  public void close() throws Exception {
+    synchronized (this) {
+      closed = true;
+      invalidateAll();
+    }
+    allocator.close();
+  }
+
+  /**
+   * A cached stream: its messages, serialized, with the memory they hold.
+   */
+  static final class Entry {
+    private final List<ArrowMessage> messages;
+    private final long bytes;
+    // guarded by the cache; one reference is held by the cache, and one by each replay
+    private int refCount = 1;
+
+    private Entry(List<ArrowMessage> messages, long bytes) {
+      this.messages = messages;
+      this.bytes = bytes;
+    }
+
+    List<ArrowMessage> getMessages() {
+      return messages;
+    }
+  }
+
+  /**
+   * Serializes the messages of a stream being sent into the cache. Messages are sent and recorded as long as they
+   * fit; if the stream becomes larger than the cache, the recording is abandoned.
+   */
+  final class Recording implements UnaryOperator<ArrowMessage> {
+    private final CacheKey key;
+    private final List<ArrowMessage> messages = new ArrayList<>();
+    private long bytes = 0;
+    private boolean done = false;
+
+    private Recording(CacheKey key) {
+      this.key = key;
+    }
+
+    @Override
+    public synchronized ArrowMessage apply(ArrowMessage message) {
+      if (done) {
+        return message;
+      }
+      final ArrowMessage serialized = message.serialize(parent, size -> {
+        final ArrowBuf buf = allocate(size);
+        if (buf != null) {
+          bytes += buf.getReferenceManager().getAccountedSize();
+          return buf;
+        }
+        abort();
+        return parent.buffer(size);
+      });
+      if (done) {
+        return serialized;
+      }
+      messages.add(serialized);
+      return serialized.duplicate();
+    }
+
+    /**
+     * Cache the stream, once it was sent completely.
+     */
+    synchronized void commit() {
+      if (!done) {
+        done = true;
+        put(key, new Entry(new ArrayList<>(messages), bytes));
+        messages.clear();
+      }
+    }
+
+    /**
+     * Abandon the recording, e.g. if the stream failed.
+     */
+    synchronized void abort() {
+      if (!done) {
+        done = true;
+        messages.forEach(AutoCloseables::closeNoChecked);
+        messages.clear();
+      }
+    }
+  }
+
+  /**
+   * The key of a stream: the bytes of its ticket, the identity of the peer it is served to, and its version.
+   */
+  static final class CacheKey {
+    private final byte[] ticket;
+    private final String peerIdentity;
+    private final long version;
+
+    CacheKey(byte[] ticket, String peerIdentity, long version) {
+      this.ticket = ticket;
+      this.peerIdentity = peerIdentity;
+      this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final CacheKey that = (CacheKey) o;
+      return version == that.version && Arrays.equals(ticket, that.ticket) &&
+          Objects.equals(peerIdentity, that.peerIdentity);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * Arrays.hashCode(ticket) + Objects.hashCode(peerIdentity)) + Long.hashCode(version);
+    }
+  }
+}
@@ -156,6 +156,9 @@ public class FlightServer implements AutoCloseable {
     private ServerAuthHandler authHandler = ServerAuthHandler.NO_OP;
     private ExecutorService executor = null;
     private int maxInboundMessageSize = MAX_GRPC_MESSAGE_SIZE;
+    private long lowWatermark = 0;
+    private long highWatermark = 0;
+    private SharedMemoryTransport sharedMemory = null;
     private InputStream certChain;
     private InputStream key;
     private final List<KeyFactory<?>> interceptors;
@@ -233,8 +236,12 @@ public class FlightServer implements AutoCloseable {
           .maxInboundMessageSize(maxInboundMessageSize)
           .addService(
               ServerInterceptors.intercept(
-                  new FlightBindingService(allocator, producer, authHandler, exec),
+                  new FlightBindingService(allocator, producer, authHandler, exec, lowWatermark, highWatermark,
+                      sharedMemory),
                   new ServerAuthInterceptor(authHandler)));
+      if (sharedMemory != null) {
+        builder.intercept(sharedMemory.serverInterceptor());
+      }
 
       // Allow hooking into the gRPC builder. This is not guaranteed to be available on all Arrow versions or
       // Flight implementations.
@@ -270,6 +277,39 @@ public class FlightServer implements AutoCloseable {
       return this;
     }
 
+    /**
+     * Bound the memory held for each stream sent to a slow client (DoGet and DoExchange).
+     *
+     * <p>Without watermarks, batches are handed to gRPC as soon as they are sent, and gRPC buffers them without
+     * bound if the producer does not check {@link FlightProducer.ServerStreamListener#isReady()}. With watermarks,
+     * batches the transport cannot accept yet are held without copying; once they reach the high watermark, the
+     * listener is not ready until they drain below the low watermark, which is when the
+     * {@link FlightProducer.ServerStreamListener#setOnReadyHandler(Runnable) on-ready handler} is called again.
+     *
+     * <p>As held batches share the buffers of the producer's root, producers must allocate new buffers for each batch
+     * (e.g. with {@code allocateNew()} or after {@code clear()}) rather than overwrite them in place.
+     *
+     * @param lowWatermark The size in bytes of the held batches below which the listener is ready again.
+     * @param highWatermark The size in bytes of the held batches above which the listener is not ready.
+     */
+    public Builder backpressureWatermarks(long lowWatermark, long highWatermark) {
+      Preconditions.checkArgument(0 <= lowWatermark && lowWatermark <= highWatermark && highWatermark > 0,
+          "Watermarks must satisfy 0 <= low <= high and high > 0");
+      this.lowWatermark = lowWatermark;
+      this.highWatermark = highWatermark;
+      return this;
+    }
+
+    /**
+     * Send the bodies of large batches through shared memory to the clients on the same host which enabled it
+     * with the same directory, and accept such bodies from clients. Disabled by default.
+     * @see SharedMemoryTransport
+     */
+    public Builder sharedMemory(SharedMemoryTransport sharedMemory) {
+      this.sharedMemory = Preconditions.checkNotNull(sharedMemory);
+      return this;
+    }
+
     /**
      * Enable TLS on the server.
      * @param certChain The certificate chain to use.
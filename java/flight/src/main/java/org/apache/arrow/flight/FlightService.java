@@ -17,13 +17,17 @@
 
 package org.apache.arrow.flight;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
-import org.apache.arrow.flight.FlightProducer.ServerStreamListener;
 import org.apache.arrow.flight.FlightServerMiddleware.Key;
 import org.apache.arrow.flight.auth.AuthConstants;
 import org.apache.arrow.flight.auth.ServerAuthHandler;
@@ -34,11 +38,14 @@ import org.apache.arrow.flight.grpc.StatusUtils;
 import org.apache.arrow.flight.impl.Flight;
 import org.apache.arrow.flight.impl.FlightServiceGrpc.FlightServiceImplBase;
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.ReferenceManager;
+import org.apache.arrow.util.AutoCloseables;
 import org.apache.arrow.util.Preconditions;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.VectorUnloader;
 import org.apache.arrow.vector.dictionary.DictionaryProvider;
 import org.apache.arrow.vector.dictionary.DictionaryProvider.MapDictionaryProvider;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,19 +66,49 @@ class FlightService extends FlightServiceImplBase {
   private final FlightProducer producer;
   private final ServerAuthHandler authHandler;
   private final ExecutorService executors;
+  private final long lowWatermark;
+  private final long highWatermark;
+  private final SharedMemoryTransport sharedMemory;
 
   FlightService(BufferAllocator allocator, FlightProducer producer, ServerAuthHandler authHandler,
       ExecutorService executors) {
+    this(allocator, producer, authHandler, executors, 0, 0, null);
+  }
+
+  FlightService(BufferAllocator allocator, FlightProducer producer, ServerAuthHandler authHandler,
+      ExecutorService executors, long lowWatermark, long highWatermark, SharedMemoryTransport sharedMemory) {
     this.allocator = allocator;
     this.producer = producer;
     this.authHandler = authHandler;
     this.executors = new ContextPropagatingExecutorService(executors);
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+    this.sharedMemory = sharedMemory;
   }
 
   private CallContext makeContext(ServerCallStreamObserver<?> responseObserver) {
     return new CallContext(AuthConstants.PEER_IDENTITY_KEY.get(), responseObserver::isCancelled);
   }
 
+  /**
+   * Make a listener for the messages of the current call, forwarding to its middleware.
+   */
+  private static FlightMessageListener makeMessageListener() {
+    final CompositeMessageListener listener = new CompositeMessageListener();
+    final Map<Key<?>, FlightServerMiddleware> middleware = ServerInterceptorAdapter.SERVER_MIDDLEWARE_KEY.get();
+    if (middleware != null) {
+      listener.addMiddleware(middleware.values());
+    }
+    return listener;
+  }
+
+  /**
+   * Make a writer for the bodies sent to the client of the current call, if both use shared memory.
+   */
+  private SharedMemoryTransport.Writer newSharedBodyWriter() {
+    return sharedMemory == null ? null : sharedMemory.newWriterForCurrentClient();
+  }
+
   @Override
   public StreamObserver<Flight.HandshakeRequest> handshake(StreamObserver<Flight.HandshakeResponse> responseObserver) {
     return ServerAuthWrapper.wrapHandshake(authHandler, responseObserver, executors);
@@ -91,7 +128,8 @@ class FlightService extends FlightServiceImplBase {
   }
 
   public void doGetCustom(Flight.Ticket ticket, StreamObserver<ArrowMessage> responseObserver) {
-    final GetListener listener = new GetListener(responseObserver, this::handleExceptionWithMiddleware);
+    final GetListener listener = new GetListener(responseObserver, this::handleExceptionWithMiddleware,
+        makeMessageListener(), executors, lowWatermark, highWatermark, newSharedBodyWriter());
     try {
       producer.getStream(makeContext((ServerCallStreamObserver<?>) responseObserver), new Ticket(ticket), listener);
     } catch (Exception ex) {
@@ -126,29 +164,123 @@ class FlightService extends FlightServiceImplBase {
     // Do NOT call StreamPipe#onCompleted, as the FlightProducer implementation may be asynchronous
   }
 
-  private static class GetListener implements ServerStreamListener {
+  private static class GetListener implements SerializedStreamListener {
     private ServerCallStreamObserver<ArrowMessage> responseObserver;
     private final Consumer<Throwable> errorHandler;
-    // null until stream started
+    private final FlightMessageListener messageListener;
+    private final Executor executor;
+    private final long lowWatermark;
+    private final long highWatermark;
+    // Batches waiting for the transport to be ready, only used with watermarks. Guarded by this.
+    private final ArrayDeque<QueuedBatch> queue = new ArrayDeque<>();
+    private long queuedBytes;
+    private boolean paused;
+    private boolean completionPending;
+    // When a message was first put while the transport was not ready, or 0. Guarded by this.
+    private long stallStart;
+    // Serializes the invocations of the on-ready handler
+    private final Object handlerLock = new Object();
+    private volatile Runnable onReadyHandler;
+    private volatile Runnable onCancelHandler;
+    private volatile UnaryOperator<ArrowMessage> interceptor;
+    // null until stream started, or if only serialized messages are sent
     private volatile VectorUnloader unloader;
-    private boolean completed;
-
-    public GetListener(StreamObserver<ArrowMessage> responseObserver, Consumer<Throwable> errorHandler) {
+    private volatile boolean started;
+    private volatile boolean completed;
+    // null unless the bodies are sent through shared memory
+    private final SharedMemoryTransport.Writer sharedBodyWriter;
+
+    public GetListener(StreamObserver<ArrowMessage> responseObserver, Consumer<Throwable> errorHandler,
+        FlightMessageListener messageListener, Executor executor, long lowWatermark, long highWatermark,
+        SharedMemoryTransport.Writer sharedBodyWriter) {
       super();
+      this.sharedBodyWriter = sharedBodyWriter;
       this.errorHandler = errorHandler;
+      this.messageListener = messageListener;
+      this.executor = executor;
+      this.lowWatermark = lowWatermark;
+      this.highWatermark = highWatermark;
       this.completed = false;
       this.responseObserver = (ServerCallStreamObserver<ArrowMessage>) responseObserver;
       this.responseObserver.setOnCancelHandler(this::onCancel);
+      this.responseObserver.setOnReadyHandler(this::onReady);
       this.responseObserver.disableAutoInboundFlowControl();
     }
 
     private void onCancel() {
       logger.debug("Stream cancelled by client.");
+      synchronized (this) {
+        discardQueue();
+      }
+      if (sharedBodyWriter != null) {
+        sharedBodyWriter.close();
+      }
+      final Runnable handler = onCancelHandler;
+      if (handler != null) {
+        handler.run();
+      }
+    }
+
+    @Override
+    public void setOnCancelHandler(Runnable handler) {
+      onCancelHandler = handler;
+    }
+
+    @Override
+    public void setMessageInterceptor(UnaryOperator<ArrowMessage> interceptor) {
+      this.interceptor = interceptor;
+    }
+
+    private ArrowMessage intercept(ArrowMessage message) {
+      final UnaryOperator<ArrowMessage> interceptor = this.interceptor;
+      return interceptor == null ? message : interceptor.apply(message);
+    }
+
+    private void onReady() {
+      synchronized (this) {
+        if (stallStart != 0) {
+          messageListener.onStalled(System.nanoTime() - stallStart);
+          stallStart = 0;
+        }
+        drain();
+      }
+      runOnReadyHandler();
+    }
+
+    private void runOnReadyHandler() {
+      final Runnable handler = onReadyHandler;
+      if (handler == null) {
+        return;
+      }
+      synchronized (handlerLock) {
+        if (completed || isCancelled() || !isReady()) {
+          return;
+        }
+        try {
+          handler.run();
+        } catch (RuntimeException e) {
+          error(e);
+        }
+      }
+    }
+
+    @Override
+    public void setOnReadyHandler(Runnable handler) {
+      onReadyHandler = handler;
+      // The transport may have become ready before the handler was set
+      executor.execute(this::runOnReadyHandler);
     }
 
     @Override
     public boolean isReady() {
-      return responseObserver.isReady();
+      if (highWatermark <= 0) {
+        return responseObserver.isReady();
+      }
+      synchronized (this) {
+        // A producer polling on the gRPC thread would otherwise never see the queue drain
+        drain();
+        return !paused;
+      }
     }
 
     public boolean isCancelled() {
@@ -163,8 +295,10 @@ class FlightService extends FlightServiceImplBase {
     @Override
     public void start(VectorSchemaRoot root, DictionaryProvider provider) {
       unloader = new VectorUnloader(root, true, true);
+      started = true;
 
-      DictionaryUtils.generateSchemaMessages(root.getSchema(), null, provider, responseObserver::onNext);
+      DictionaryUtils.generateSchemaMessages(root.getSchema(), null, provider,
+          message -> responseObserver.onNext(intercept(message)));
     }
 
     @Override
@@ -175,13 +309,139 @@ class FlightService extends FlightServiceImplBase {
     @Override
     public void putNext(ArrowBuf metadata) {
       Preconditions.checkNotNull(unloader);
-      responseObserver.onNext(new ArrowMessage(unloader.getRecordBatch(), metadata));
+      final ArrowRecordBatch batch = unloader.getRecordBatch();
+      if (interceptor != null) {
+        final ArrowMessage message = intercept(new ArrowMessage(batch, metadata));
+        put(message, message.getSerializedSize());
+      } else {
+        put(new ArrowMessage(batch, metadata), highWatermark <= 0 ? 0 : heldBytes(batch));
+      }
+    }
+
+    @Override
+    public void putSerialized(SerializedBatch batch) {
+      Preconditions.checkState(started, "The stream must be started before sending batches");
+      put(batch.newMessage(), batch.getSize());
+    }
+
+    @Override
+    public void putMessage(ArrowMessage message) {
+      started = true;
+      put(message, message.getSerializedSize());
+    }
+
+    /**
+     * Send a message, or queue it if the transport is not ready and watermarks are set.
+     * @param size The memory held by the message, only needed with watermarks.
+     */
+    private void put(ArrowMessage message, long size) {
+      if (highWatermark <= 0) {
+        if (!responseObserver.isReady()) {
+          // gRPC queues the message until the client catches up
+          synchronized (this) {
+            markStalled();
+          }
+        }
+        send(message);
+        return;
+      }
+
+      synchronized (this) {
+        drain();
+        if (queue.isEmpty() && responseObserver.isReady()) {
+          send(message);
+          return;
+        }
+        if (responseObserver.isCancelled()) {
+          AutoCloseables.closeNoChecked(message);
+          throw CallStatus.CANCELLED.withDescription("Call was cancelled by the client.").toRuntimeException();
+        }
+        // Hold the batch without copying until the transport is ready
+        markStalled();
+        queue.add(new QueuedBatch(message, size));
+        queuedBytes += size;
+        if (queuedBytes >= highWatermark) {
+          paused = true;
+        }
+      }
+    }
+
+    /**
+     * Get the memory held by the buffers of a batch, i.e. the size of the allocations they are slices of.
+     */
+    private static long heldBytes(ArrowRecordBatch batch) {
+      final Set<ReferenceManager> managers = Collections.newSetFromMap(new IdentityHashMap<>());
+      long size = 0;
+      for (final ArrowBuf buf : batch.getBuffers()) {
+        if (managers.add(buf.getReferenceManager())) {
+          size += buf.getReferenceManager().getAccountedSize();
+        }
+      }
+      return size;
+    }
+
+    private void send(ArrowMessage message) {
+      final long start = System.nanoTime();
+      if (sharedBodyWriter != null) {
+        message.writeBodyTo(sharedBodyWriter);
+      }
+      try {
+        responseObserver.onNext(message);
+      } finally {
+        // Buffers are only released by serializing the message. Once a cancel handler is set, gRPC silently drops
+        // messages sent on a cancelled call instead of throwing, so check whether the message was taken either way.
+        if (!message.isStreamed()) {
+          AutoCloseables.closeNoChecked(message);
+        }
+      }
+      if (message.isStreamed()) {
+        messageListener.onBatchSent(message.getSerializedSize(), System.nanoTime() - start);
+      }
+    }
+
+    /** Start timing a stall, which ends when the transport is ready again. Must hold the lock. */
+    private void markStalled() {
+      if (stallStart == 0) {
+        stallStart = System.nanoTime();
+      }
+    }
+
+    /** Send the queued batches the transport can accept. Must hold the lock. */
+    private void drain() {
+      while (!queue.isEmpty() && responseObserver.isReady() && !responseObserver.isCancelled()) {
+        final QueuedBatch next = queue.poll();
+        queuedBytes -= next.size;
+        send(next.message);
+      }
+      if (paused && queuedBytes <= lowWatermark) {
+        paused = false;
+      }
+      if (completionPending && queue.isEmpty()) {
+        completionPending = false;
+        responseObserver.onCompleted();
+      }
+    }
+
+    /** Release the queued batches. Must hold the lock. */
+    private void discardQueue() {
+      for (final QueuedBatch queued : queue) {
+        AutoCloseables.closeNoChecked(queued.message);
+      }
+      queue.clear();
+      queuedBytes = 0;
+      completionPending = false;
     }
 
     @Override
     public void error(Throwable ex) {
       if (!completed) {
         completed = true;
+        synchronized (this) {
+          discardQueue();
+        }
+        if (sharedBodyWriter != null) {
+          sharedBodyWriter.close();
+        }
         responseObserver.onError(StatusUtils.toGrpcException(ex));
       } else {
         errorHandler.accept(ex);
@@ -190,12 +450,19 @@ class FlightService extends FlightServiceImplBase {
 
     @Override
     public void completed() {
-      if (unloader == null) {
+      if (!started) {
         throw new IllegalStateException("Can't complete stream before starting it");
       }
       if (!completed) {
         completed = true;
-        responseObserver.onCompleted();
+        synchronized (this) {
+          if (queue.isEmpty()) {
+            responseObserver.onCompleted();
+          } else {
+            // Completed once the queue is drained
+            completionPending = true;
+          }
+        }
       } else {
         errorHandler.accept(new IllegalStateException("Tried to complete already-completed call"));
       }
@@ -203,6 +470,19 @@ class FlightService extends FlightServiceImplBase {
 
   }
 
+  /**
+   * A batch held by a {@link GetListener}, with the size of the memory it holds.
+   */
+  private static class QueuedBatch {
+    private final ArrowMessage message;
+    private final long size;
+
+    QueuedBatch(ArrowMessage message, long size) {
+      this.message = message;
+      this.size = size;
+    }
+  }
+
   public StreamObserver<ArrowMessage> doPutCustom(final StreamObserver<Flight.PutResult> responseObserverSimple) {
     ServerCallStreamObserver<Flight.PutResult> responseObserver =
         (ServerCallStreamObserver<Flight.PutResult>) responseObserverSimple;
@@ -211,7 +491,7 @@ class FlightService extends FlightServiceImplBase {
 
     final FlightStream fs = new FlightStream(allocator, PENDING_REQUESTS, (String message, Throwable cause) -> {
       responseObserver.onError(Status.CANCELLED.withCause(cause).withDescription(message).asException());
-    }, responseObserver::request);
+    }, responseObserver::request, makeMessageListener());
     final StreamObserver<ArrowMessage> observer = fs.asObserver();
     executors.submit(() -> {
       final StreamPipe<PutResult, Flight.PutResult> ackStream = StreamPipe
@@ -235,6 +515,39 @@ class FlightService extends FlightServiceImplBase {
     return observer;
   }
 
+  public StreamObserver<ArrowMessage> doExchangeCustom(final StreamObserver<ArrowMessage> responseObserverSimple) {
+    final ServerCallStreamObserver<ArrowMessage> responseObserver =
+        (ServerCallStreamObserver<ArrowMessage>) responseObserverSimple;
+    // GetListener disables automatic flow control; requests for the incoming stream are made by FlightStream
+    final FlightMessageListener messageListener = makeMessageListener();
+    final GetListener listener = new GetListener(responseObserver, this::handleExceptionWithMiddleware,
+        messageListener, executors, lowWatermark, highWatermark, newSharedBodyWriter());
+    responseObserver.request(1);
+
+    final FlightStream fs = new FlightStream(allocator, PENDING_REQUESTS, (String message, Throwable cause) -> {
+      // The producer may finish writing without reading the whole client stream, which is not an error
+      if (!listener.completed) {
+        listener.error(Status.CANCELLED.withCause(cause).withDescription(message).asException());
+      }
+    }, responseObserver::request, messageListener);
+    final StreamObserver<ArrowMessage> observer = fs.asObserver();
+    executors.submit(() -> {
+      try {
+        producer.doExchange(makeContext(responseObserver), fs, listener);
+      } catch (Exception ex) {
+        listener.error(ex);
+      } finally {
+        try {
+          fs.close();
+        } catch (Exception e) {
+          handleExceptionWithMiddleware(e);
+        }
+      }
+    });
+
+    return observer;
+  }
+
   @Override
   public void getFlightInfo(Flight.FlightDescriptor request, StreamObserver<Flight.FlightInfo> responseObserver) {
     final FlightInfo info;
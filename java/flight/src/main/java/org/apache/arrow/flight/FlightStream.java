@@ -64,9 +64,12 @@ public class FlightStream implements AutoCloseable {
   private final SettableFuture<VectorSchemaRoot> root = SettableFuture.create();
   private final int pendingTarget;
   private final Requestor requestor;
+  private final FlightMessageListener messageListener;
 
   private volatile int pending = 1;
   private boolean completed = false;
+  // guarded by queue, so messages received after the stream is closed are released
+  private boolean closed = false;
   private volatile VectorSchemaRoot fulfilledRoot;
   private DictionaryProvider.MapDictionaryProvider dictionaries;
   private volatile VectorLoader loader;
@@ -84,10 +87,19 @@ public class FlightStream implements AutoCloseable {
    * @param requestor A callback do determine how many pending items there are.
    */
   public FlightStream(BufferAllocator allocator, int pendingTarget, Cancellable cancellable, Requestor requestor) {
+    this(allocator, pendingTarget, cancellable, requestor, new CompositeMessageListener());
+  }
+
+  /**
+   * Constructs a new instance, reporting the received batches to a listener.
+   */
+  FlightStream(BufferAllocator allocator, int pendingTarget, Cancellable cancellable, Requestor requestor,
+      FlightMessageListener messageListener) {
     this.allocator = allocator;
     this.pendingTarget = pendingTarget;
     this.cancellable = cancellable;
     this.requestor = requestor;
+    this.messageListener = messageListener;
     this.dictionaries = new DictionaryProvider.MapDictionaryProvider();
   }
 
@@ -144,20 +156,29 @@ public class FlightStream implements AutoCloseable {
     if (!completed && cancellable != null) {
       cancel("Stream closed before end.", null);
     }
-    List<AutoCloseable> closeables = ImmutableList.copyOf(queue.toArray()).stream()
-        .filter(t -> AutoCloseable.class.isAssignableFrom(t.getClass()))
-        .map(t -> ((AutoCloseable) t))
-        .collect(Collectors.toList());
+    final List<AutoCloseable> closeables;
+    synchronized (queue) {
+      closed = true;
+      closeables = ImmutableList.copyOf(queue.toArray()).stream()
+          .filter(t -> AutoCloseable.class.isAssignableFrom(t.getClass()))
+          .map(t -> ((AutoCloseable) t))
+          .collect(Collectors.toList());
+    }
 
     final List<FieldVector> dictionaryVectors =
         dictionaries == null ? Collections.emptyList() : dictionaries.getDictionaryIds().stream()
         .map(id -> dictionaries.lookup(id).getVector()).collect(Collectors.toList());
 
-    // Must check for null since ImmutableList doesn't accept nulls
-    AutoCloseables.close(Iterables.concat(closeables,
-        dictionaryVectors,
-        applicationMetadata != null ? ImmutableList.of(root.get(), applicationMetadata)
-            : ImmutableList.of(root.get())));
+    // The root may never be created if the stream failed before receiving the schema, e.g. in an exchange
+    // rejected by the server. It is assigned before the future completes, so never wait for the future here.
+    final List<AutoCloseable> rootAndMetadata = new ArrayList<>();
+    if (fulfilledRoot != null) {
+      rootAndMetadata.add(fulfilledRoot);
+    }
+    if (applicationMetadata != null) {
+      rootAndMetadata.add(applicationMetadata);
+    }
+    AutoCloseables.close(Iterables.concat(closeables, dictionaryVectors, rootAndMetadata));
   }
 
   /**
@@ -235,6 +256,19 @@ public class FlightStream implements AutoCloseable {
     }
   }
 
+  /**
+   * Reads this stream ahead on a background thread, into a pool of roots.
+   *
+   * <p>The returned stream takes over this one, which must not be used directly anymore; closing the
+   * returned stream closes this one.
+   *
+   * @param rootCount the number of roots in the pool, i.e. the number of batches loaded ahead.
+   * @return the pipelined stream.
+   */
+  public PipelinedFlightStream pipelined(int rootCount) {
+    return new PipelinedFlightStream(this, allocator, rootCount);
+  }
+
   /** Get the current vector data from the stream. */
   public VectorSchemaRoot getRoot() {
     try {
@@ -272,6 +306,13 @@ public class FlightStream implements AutoCloseable {
 
     @Override
     public void onNext(ArrowMessage msg) {
+      synchronized (queue) {
+        if (closed) {
+          // e.g. delivered while the stream was being cancelled
+          AutoCloseables.closeNoChecked(msg);
+          return;
+        }
+      }
       requestOutstanding();
       switch (msg.getMessageType()) {
         case SCHEMA: {
@@ -294,10 +335,11 @@ public class FlightStream implements AutoCloseable {
           break;
         }
         case RECORD_BATCH:
-          queue.add(msg);
+          messageListener.onBatchReceived(msg.getSerializedSize(), msg.getDeserializationNanos());
+          enqueue(msg);
           break;
         case DICTIONARY_BATCH:
-          queue.add(msg);
+          enqueue(msg);
           break;
         case NONE:
         case TENSOR:
@@ -309,6 +351,16 @@ public class FlightStream implements AutoCloseable {
 
     }
 
+    private void enqueue(ArrowMessage msg) {
+      synchronized (queue) {
+        if (closed) {
+          AutoCloseables.closeNoChecked(msg);
+        } else {
+          queue.add(msg);
+        }
+      }
+    }
+
     @Override
     public void onError(Throwable t) {
       ex = t;
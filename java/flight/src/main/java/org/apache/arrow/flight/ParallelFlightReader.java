@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.arrow.flight.grpc.StatusUtils;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.Field;
+
+/**
+ * Reads all the endpoints of a {@link FlightInfo} concurrently, as a single stream of batches.
+ *
+ * <p>Each endpoint is read by a background thread from the first of its locations that can be reached, with one
+ * client per location, or clients borrowed from a {@link FlightClientPool}; endpoints without locations are read
+ * from a default client, i.e. the service that returned the FlightInfo. At most a given number of endpoints are read
+ * at once. Batches are returned in the order of the endpoints (and of the batches within an endpoint), or in the
+ * order they arrive, which keeps all the streams busy.
+ *
+ * <p>Each batch is transferred without copying to a root owned by the application, allocated from the reader's
+ * allocator; the clients created by the reader allocate from it too, so the memory of the whole read is accounted to
+ * one allocator. Dictionary-encoded streams are not supported.
+ */
+public class ParallelFlightReader implements AutoCloseable {
+
+  private static final Object END = new Object();
+
+  private final BufferAllocator allocator;
+  private final List<FlightEndpoint> endpoints;
+  private final FlightClient defaultClient;
+  private final Function<Location, FlightClient> clientFactory;
+  private final FlightClientPool pool;
+  private final boolean ownsClients;
+  private final boolean ordered;
+  private final CallOption[] options;
+  // the queue of each endpoint if ordered, otherwise a single shared queue
+  private final List<BlockingQueue<Object>> queues;
+  private final Map<Location, FlightClient> clients = new HashMap<>();
+  private final List<FlightStream> openStreams = new ArrayList<>();
+  private final ExecutorService executor;
+
+  private int currentQueue = 0;
+  private int remainingEndpoints;
+  private volatile boolean closed = false;
+  private volatile FlightRuntimeException exception;
+
+  private ParallelFlightReader(Builder builder) {
+    this.allocator = builder.allocator;
+    this.endpoints = builder.info.getEndpoints();
+    this.defaultClient = builder.defaultClient;
+    this.pool = builder.pool;
+    this.ownsClients = builder.clientFactory == null && pool == null;
+    this.clientFactory = ownsClients ?
+        location -> FlightClient.builder(allocator, location).build() : builder.clientFactory;
+    this.ordered = builder.ordered;
+    this.options = builder.options;
+    this.remainingEndpoints = endpoints.size();
+
+    for (final FlightEndpoint endpoint : endpoints) {
+      Preconditions.checkArgument(!endpoint.getLocations().isEmpty() || defaultClient != null,
+          "A default client is needed for endpoints without locations");
+    }
+
+    this.queues = new ArrayList<>();
+    if (ordered) {
+      for (int i = 0; i < endpoints.size(); i++) {
+        queues.add(new ArrayBlockingQueue<>(builder.bufferedBatches + 1));
+      }
+    } else {
+      queues.add(new ArrayBlockingQueue<>(builder.bufferedBatches * builder.maxConcurrentStreams));
+    }
+
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ThreadFactory threadFactory = r -> {
+      final Thread thread = new Thread(r, "flight-parallel-reader-" + threadCount.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    };
+    // Endpoints are started in order, so an ordered read never waits on an endpoint that is not being read
+    this.executor = Executors.newFixedThreadPool(Math.min(builder.maxConcurrentStreams, Math.max(endpoints.size(), 1)),
+        threadFactory);
+    for (int i = 0; i < endpoints.size(); i++) {
+      final int index = i;
+      executor.execute(() -> read(index));
+    }
+    executor.shutdown();
+  }
+
+  /**
+   * Create a builder for reading the endpoints of a FlightInfo.
+   * @param allocator The allocator for the batches, and for the clients created by the reader.
+   * @param info The FlightInfo to read.
+   */
+  public static Builder builder(BufferAllocator allocator, FlightInfo info) {
+    return new Builder(allocator, info);
+  }
+
+  private BlockingQueue<Object> queueOf(int endpoint) {
+    return ordered ? queues.get(endpoint) : queues.get(0);
+  }
+
+  private void read(int index) {
+    final BlockingQueue<Object> queue = queueOf(index);
+    final List<FlightClientPool.Lease> leases = new ArrayList<>();
+    FlightStream stream = null;
+    try {
+      stream = open(endpoints.get(index), leases);
+      if (stream == null) {
+        return;
+      }
+      final VectorSchemaRoot streamRoot = stream.getRoot();
+      for (final Field field : streamRoot.getSchema().getFields()) {
+        if (field.getDictionary() != null) {
+          throw CallStatus.UNIMPLEMENTED.withDescription("Dictionary-encoded streams are not supported")
+              .toRuntimeException();
+        }
+      }
+      while (!closed && exception == null && stream.next()) {
+        final VectorSchemaRoot root = VectorSchemaRoot.create(streamRoot.getSchema(), allocator);
+        for (int i = 0; i < streamRoot.getFieldVectors().size(); i++) {
+          streamRoot.getVector(i).makeTransferPair(root.getVector(i)).transfer();
+        }
+        root.setRowCount(streamRoot.getRowCount());
+        try {
+          queue.put(root);
+        } catch (InterruptedException e) {
+          root.close();
+          return;
+        }
+      }
+    } catch (Exception e) {
+      if (!closed) {
+        fail(StatusUtils.fromThrowable(e));
+      }
+    } finally {
+      if (stream != null) {
+        synchronized (clients) {
+          openStreams.remove(stream);
+        }
+        AutoCloseables.closeNoChecked(stream);
+      }
+      leases.forEach(FlightClientPool.Lease::close);
+      if (!closed) {
+        try {
+          queue.put(END);
+        } catch (InterruptedException e) {
+          // closed
+        }
+      }
+    }
+  }
+
+  /**
+   * Record the first error, and cancel the other streams.
+   */
+  private void fail(FlightRuntimeException e) {
+    synchronized (clients) {
+      if (exception != null) {
+        return;
+      }
+      exception = e;
+      cancelStreams("Another endpoint failed.");
+    }
+  }
+
+  private void cancelStreams(String message) {
+    synchronized (clients) {
+      for (final FlightStream stream : openStreams) {
+        try {
+          stream.cancel(message, null);
+        } catch (RuntimeException e) {
+          // the stream may already be complete
+        }
+      }
+    }
+  }
+
+  /**
+   * Open a stream from the first reachable location of an endpoint.
+   *
+   * @return The stream, with its schema received, or null if the reader was closed or another endpoint failed.
+   */
+  private FlightStream open(FlightEndpoint endpoint, List<FlightClientPool.Lease> leases) {
+    final List<Location> locations = endpoint.getLocations();
+    RuntimeException lastError = null;
+    for (int i = 0; i < Math.max(locations.size(), 1); i++) {
+      FlightClientPool.Lease lease = null;
+      final FlightClient client;
+      synchronized (clients) {
+        if (closed || exception != null) {
+          return null;
+        }
+        if (locations.isEmpty()) {
+          client = defaultClient;
+        } else if (pool == null) {
+          client = clients.computeIfAbsent(locations.get(i), clientFactory);
+        } else {
+          client = null;
+        }
+      }
+      final FlightStream stream;
+      if (client == null) {
+        lease = pool.acquire(locations.get(i));
+        leases.add(lease);
+        stream = lease.getClient().getStream(endpoint.getTicket(), options);
+      } else {
+        stream = client.getStream(endpoint.getTicket(), options);
+      }
+      synchronized (clients) {
+        openStreams.add(stream);
+      }
+      try {
+        // Wait for the schema, so unreachable locations can be skipped
+        stream.getRoot();
+        return stream;
+      } catch (RuntimeException e) {
+        lastError = e;
+        synchronized (clients) {
+          openStreams.remove(stream);
+        }
+        AutoCloseables.closeNoChecked(stream);
+        if (lease != null) {
+          if (StatusUtils.fromThrowable(e).status().code() == FlightStatusCode.UNAVAILABLE) {
+            lease.invalidate();
+          }
+          lease.close();
+        }
+        if (closed || exception != null) {
+          return null;
+        }
+      }
+    }
+    throw lastError;
+  }
+
+  /**
+   * Get the next batch, blocking until one is available.
+   *
+   * @return A root owned by the caller, who must close it, or null once all endpoints were read.
+   * @throws FlightRuntimeException if reading any endpoint failed.
+   */
+  public VectorSchemaRoot next() {
+    Preconditions.checkState(!closed, "The reader is closed");
+    while (remainingEndpoints > 0) {
+      if (exception != null) {
+        throw exception;
+      }
+      final Object item;
+      try {
+        item = queues.get(currentQueue).take();
+      } catch (InterruptedException e) {
+        throw CallStatus.INTERNAL.withCause(e).toRuntimeException();
+      }
+      if (item != END) {
+        return (VectorSchemaRoot) item;
+      }
+      remainingEndpoints--;
+      if (ordered) {
+        currentQueue++;
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+    return null;
+  }
+
+  /**
+   * Stop reading, cancelling the streams in progress, and release the batches not returned yet.
+   */
+  @Override
+  public void close() throws Exception {
+    closed = true;
+    final List<AutoCloseable> closeables = new ArrayList<>();
+    cancelStreams("Reader closed.");
+    executor.shutdownNow();
+    for (final BlockingQueue<Object> queue : queues) {
+      drain(queue, closeables);
+    }
+    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    for (final BlockingQueue<Object> queue : queues) {
+      drain(queue, closeables);
+    }
+    if (ownsClients) {
+      synchronized (clients) {
+        closeables.addAll(clients.values());
+        clients.clear();
+      }
+    }
+    AutoCloseables.close(closeables);
+  }
+
+  private static void drain(BlockingQueue<Object> queue, List<AutoCloseable> closeables) {
+    Object item;
+    while ((item = queue.poll()) != null) {
+      if (item != END) {
+        closeables.add((VectorSchemaRoot) item);
+      }
+    }
+  }
+
+  /**
+   * A builder for {@link ParallelFlightReader}.
+   */
+  public static final class Builder {
+    private final BufferAllocator allocator;
+    private final FlightInfo info;
+    private FlightClient defaultClient;
+    private Function<Location, FlightClient> clientFactory;
+    private FlightClientPool pool;
+    private int maxConcurrentStreams = 4;
+    private int bufferedBatches = 2;
+    private boolean ordered = true;
+    private CallOption[] options = new CallOption[0];
+
+    private Builder(BufferAllocator allocator, FlightInfo info) {
+      this.allocator = Preconditions.checkNotNull(allocator);
+      this.info = Preconditions.checkNotNull(info);
+    }
+
+    /**
+     * Set the client for endpoints without locations, usually the client that returned the FlightInfo. It is not
+     * closed by the reader.
+     */
+    public Builder defaultClient(FlightClient defaultClient) {
+      this.defaultClient = defaultClient;
+      return this;
+    }
+
+    /**
+     * Set how to get the client of a location; by default, the reader creates a client per location, and closes them
+     * when it is closed. Clients from a factory are not closed by the reader.
+     */
+    public Builder clientFactory(Function<Location, FlightClient> clientFactory) {
+      this.clientFactory = clientFactory;
+      return this;
+    }
+
+    /**
+     * Borrow the clients of the locations from a pool, instead of creating them. The clients are returned as soon as
+     * their stream is read, and invalidated if their location is unavailable.
+     */
+    public Builder clientPool(FlightClientPool pool) {
+      this.pool = pool;
+      return this;
+    }
+
+    /**
+     * Set the maximum number of endpoints read at once. Defaults to 4.
+     */
+    public Builder maxConcurrentStreams(int maxConcurrentStreams) {
+      Preconditions.checkArgument(maxConcurrentStreams > 0, "At least one stream must be read at once");
+      this.maxConcurrentStreams = maxConcurrentStreams;
+      return this;
+    }
+
+    /**
+     * Set the number of batches read ahead for each stream. Defaults to 2.
+     */
+    public Builder bufferedBatches(int bufferedBatches) {
+      Preconditions.checkArgument(bufferedBatches > 0, "At least one batch must be buffered");
+      this.bufferedBatches = bufferedBatches;
+      return this;
+    }
+
+    /**
+     * Set whether batches are returned in the order of the endpoints (the default), or as they arrive.
+     */
+    public Builder ordered(boolean ordered) {
+      this.ordered = ordered;
+      return this;
+    }
+
+    /**
+     * Set the RPC-layer hints for the calls.
+     */
+    public Builder callOptions(CallOption... options) {
+      this.options = options;
+      return this;
+    }
+
+    /**
+     * Create the reader, and start reading.
+     */
+    public ParallelFlightReader build() {
+      Preconditions.checkState(clientFactory == null || pool == null, "Set either a client factory or a client pool");
+      return new ParallelFlightReader(this);
+    }
+  }
+}
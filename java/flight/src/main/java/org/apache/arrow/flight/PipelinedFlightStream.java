@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * A {@link FlightStream} read ahead on a background thread into a pool of roots.
+ *
+ * <p>While the application works on a batch, the following ones are deserialized and loaded, up to
+ * the number of roots in the pool. Roots returned by {@link #next()} are lent to the application,
+ * which gives them back with {@link #release(VectorSchemaRoot)}; several roots can be held at once.
+ * Alternatively, {@link #takeRoot()} transfers the buffers of the next batch to a root owned by the
+ * application, which frees the pooled root immediately. Loading into the pool transfers buffers
+ * from the root of the underlying stream, so no data is copied.
+ *
+ * <p>Dictionaries are loaded ahead too, so a dictionary may be replaced before the application
+ * reaches the batches encoded with its previous version.
+ */
+public class PipelinedFlightStream implements AutoCloseable {
+
+  private static final Object END = new Object();
+
+  private final FlightStream stream;
+  private final BufferAllocator allocator;
+  private final int rootCount;
+  private final List<VectorSchemaRoot> roots;
+  private final BlockingQueue<VectorSchemaRoot> freeRoots;
+  private final BlockingQueue<Object> loadedRoots = new LinkedBlockingQueue<>();
+  private final Map<VectorSchemaRoot, ArrowBuf> metadata = new IdentityHashMap<>();
+  private final Thread loader;
+
+  private volatile boolean closed = false;
+  private volatile boolean completed = false;
+  private volatile RuntimeException exception;
+
+  /**
+   * Constructs a new instance, and starts reading the stream.
+   * @param stream the stream to read ahead, which is closed with this instance.
+   * @param allocator the allocator for the pooled roots.
+   * @param rootCount the number of roots in the pool.
+   */
+  PipelinedFlightStream(FlightStream stream, BufferAllocator allocator, int rootCount) {
+    Preconditions.checkArgument(rootCount > 0, "At least one root is needed");
+    this.stream = stream;
+    this.allocator = allocator;
+    this.rootCount = rootCount;
+    this.roots = new ArrayList<>(rootCount);
+    this.freeRoots = new ArrayBlockingQueue<>(rootCount);
+    this.loader = new Thread(this::load, "flight-stream-loader");
+    this.loader.setDaemon(true);
+    this.loader.start();
+  }
+
+  /**
+   * Gets the schema of the stream, blocking until it is received.
+   */
+  public Schema getSchema() {
+    return stream.getRoot().getSchema();
+  }
+
+  /**
+   * Gets the provider for dictionaries in this stream.
+   * @see FlightStream#getDictionaryProvider()
+   */
+  public DictionaryProvider getDictionaryProvider() {
+    return stream.getDictionaryProvider();
+  }
+
+  private void load() {
+    try {
+      final VectorSchemaRoot streamRoot = stream.getRoot();
+      while (!closed && stream.next()) {
+        final VectorSchemaRoot root = acquireRoot(streamRoot.getSchema());
+        for (int i = 0; i < streamRoot.getFieldVectors().size(); i++) {
+          streamRoot.getVector(i).makeTransferPair(root.getVector(i)).transfer();
+        }
+        root.setRowCount(streamRoot.getRowCount());
+
+        final ArrowBuf latestMetadata = stream.getLatestMetadata();
+        if (latestMetadata != null) {
+          latestMetadata.getReferenceManager().retain();
+          synchronized (metadata) {
+            metadata.put(root, latestMetadata);
+          }
+        }
+        loadedRoots.add(root);
+      }
+      completed = true;
+    } catch (InterruptedException e) {
+      exception = CallStatus.CANCELLED.withCause(e).withDescription("Stream closed before end.").toRuntimeException();
+    } catch (RuntimeException e) {
+      exception = e;
+    } finally {
+      loadedRoots.add(END);
+    }
+  }
+
+  private VectorSchemaRoot acquireRoot(Schema schema) throws InterruptedException {
+    VectorSchemaRoot root = freeRoots.poll();
+    if (root == null) {
+      synchronized (roots) {
+        if (roots.size() < rootCount) {
+          root = VectorSchemaRoot.create(schema, allocator);
+          roots.add(root);
+          return root;
+        }
+      }
+      root = freeRoots.take();
+    }
+    return root;
+  }
+
+  /**
+   * Gets the next batch, blocking until it is loaded.
+   *
+   * @return a pooled root, lent until it is given back with {@link #release(VectorSchemaRoot)},
+   *     or null at the end of the stream.
+   */
+  public VectorSchemaRoot next() {
+    Preconditions.checkState(!closed, "The stream is closed");
+    final Object loaded;
+    try {
+      loaded = loadedRoots.take();
+    } catch (InterruptedException e) {
+      throw CallStatus.INTERNAL.withCause(e).toRuntimeException();
+    }
+    if (loaded == END) {
+      loadedRoots.add(END);
+      if (exception != null) {
+        throw exception;
+      }
+      return null;
+    }
+    return (VectorSchemaRoot) loaded;
+  }
+
+  /**
+   * Gets the application metadata sent with a batch lent by {@link #next()} or taken with {@link #takeRoot()}.
+   * The buffer is owned by the stream, and released with a lent root, or with the stream for a taken root.
+   *
+   * @return the application metadata. May be null.
+   */
+  public ArrowBuf getMetadata(VectorSchemaRoot root) {
+    synchronized (metadata) {
+      return metadata.get(root);
+    }
+  }
+
+  /**
+   * Gives back a root lent by {@link #next()}, so the stream can load another batch into it.
+   */
+  public void release(VectorSchemaRoot root) {
+    final ArrowBuf rootMetadata;
+    synchronized (metadata) {
+      rootMetadata = metadata.remove(root);
+    }
+    if (rootMetadata != null) {
+      rootMetadata.close();
+    }
+    root.clear();
+    if (!closed) {
+      freeRoots.add(root);
+    }
+  }
+
+  /**
+   * Gets the next batch in a root owned by the caller, blocking until it is loaded.
+   * The buffers are transferred, and the pooled root is released immediately. The application metadata of the
+   * batch moves to the returned root, see {@link #getMetadata(VectorSchemaRoot)} and
+   * {@link #takeMetadata(VectorSchemaRoot)}.
+   *
+   * @return the root, which must be closed by the caller, or null at the end of the stream.
+   */
+  public VectorSchemaRoot takeRoot() {
+    final VectorSchemaRoot pooled = next();
+    if (pooled == null) {
+      return null;
+    }
+    final VectorSchemaRoot root = VectorSchemaRoot.create(pooled.getSchema(), allocator);
+    for (int i = 0; i < pooled.getFieldVectors().size(); i++) {
+      pooled.getVector(i).makeTransferPair(root.getVector(i)).transfer();
+    }
+    root.setRowCount(pooled.getRowCount());
+    synchronized (metadata) {
+      final ArrowBuf rootMetadata = metadata.remove(pooled);
+      if (rootMetadata != null) {
+        metadata.put(root, rootMetadata);
+      }
+    }
+    release(pooled);
+    return root;
+  }
+
+  /**
+   * Takes ownership of the application metadata sent with a batch taken with {@link #takeRoot()}.
+   * Otherwise the buffer is released when the stream is closed.
+   *
+   * @return the application metadata, which must be closed by the caller. May be null.
+   */
+  public ArrowBuf takeMetadata(VectorSchemaRoot root) {
+    synchronized (metadata) {
+      return metadata.remove(root);
+    }
+  }
+
+  /**
+   * Closes the stream, cancelling it if it was not read to the end, and the pooled roots.
+   * Lent roots must not be used afterwards.
+   */
+  @Override
+  public void close() throws Exception {
+    closed = true;
+    if (!completed) {
+      try {
+        stream.cancel("Stream closed before end.", null);
+      } catch (UnsupportedOperationException e) {
+        // streams uploaded by a client cannot be cancelled, the loader is interrupted instead
+      }
+    }
+    loader.interrupt();
+    loader.join();
+
+    final List<AutoCloseable> closeables;
+    synchronized (metadata) {
+      closeables = new ArrayList<>(metadata.values());
+      metadata.clear();
+    }
+    synchronized (roots) {
+      closeables.addAll(roots);
+      roots.clear();
+    }
+    closeables.add(stream);
+    AutoCloseables.close(closeables);
+  }
+}
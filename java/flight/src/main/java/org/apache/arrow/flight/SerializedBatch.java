@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.VectorUnloader;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * A record batch serialized once in the form it is sent on the wire, so it can be sent to any number of clients
+ * with {@link FlightProducer.ServerStreamListener#putSerialized(SerializedBatch)} without being unloaded nor serialized
+ * again, e.g. to broadcast a dataset to many subscribers.
+ *
+ * <p>The batch is immutable, and can be sent concurrently by several listeners. Its buffer is reference counted: it is
+ * released once the batch is closed and all the calls it was sent to have written it to the network.
+ */
+public final class SerializedBatch implements AutoCloseable {
+
+  private final ArrowMessage message;
+  // guarded by this
+  private boolean closed = false;
+
+  private SerializedBatch(ArrowMessage message) {
+    this.message = message;
+  }
+
+  /**
+   * Serialize the current contents of a root.
+   *
+   * @param allocator The allocator for the serialized batch.
+   * @param root The data to serialize, which is not modified.
+   * @param metadata Application-defined metadata sent with the batch. May be null. Takes ownership of the buffer.
+   */
+  public static SerializedBatch serialize(BufferAllocator allocator, VectorSchemaRoot root, ArrowBuf metadata) {
+    try (final ArrowRecordBatch batch = new VectorUnloader(root, true, true).getRecordBatch()) {
+      return serialize(allocator, batch, metadata);
+    }
+  }
+
+  /**
+   * Serialize a record batch.
+   *
+   * @param allocator The allocator for the serialized batch.
+   * @param batch The batch to serialize, which remains owned by the caller.
+   * @param metadata Application-defined metadata sent with the batch. May be null. Takes ownership of the buffer.
+   */
+  public static SerializedBatch serialize(BufferAllocator allocator, ArrowRecordBatch batch, ArrowBuf metadata) {
+    // The message releases the buffers it holds once serialized
+    batch.getBuffers().forEach(buf -> buf.getReferenceManager().retain());
+    final ArrowMessage message = new ArrowMessage(batch, metadata);
+    return new SerializedBatch(message.serialize(allocator, allocator::buffer));
+  }
+
+  /**
+   * Get the size of the batch on the wire.
+   */
+  public long getSize() {
+    return message.getSerializedSize();
+  }
+
+  /**
+   * Get a message to send the batch once, which owns a reference to its buffer.
+   */
+  synchronized ArrowMessage newMessage() {
+    // Holding the lock, so the buffer cannot be released by close() before the duplicate retains it
+    Preconditions.checkState(!closed, "The batch is closed");
+    return message.duplicate();
+  }
+
+  /**
+   * Release the batch. Calls it was sent to keep it alive until it is written to the network.
+   */
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      AutoCloseables.closeNoChecked(message);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.util.function.UnaryOperator;
+
+import org.apache.arrow.flight.FlightProducer.ServerStreamListener;
+
+/**
+ * A {@link ServerStreamListener} of the transport, which can also send messages serialized ahead of time.
+ */
+interface SerializedStreamListener extends ServerStreamListener {
+
+  /**
+   * Send a message serialized with {@link ArrowMessage#serialize}, i.e. the schema or a batch; the message is owned
+   * by the listener afterwards. Like {@link #putNext()}, this does not block, see {@link #isReady()}.
+   */
+  void putMessage(ArrowMessage message);
+
+  /**
+   * Set a function applied to the messages created by the listener (the schema, dictionaries and batches) before
+   * they are sent, e.g. to serialize and keep them. The function owns the given message, and returns the one to send.
+   */
+  void setMessageInterceptor(UnaryOperator<ArrowMessage> interceptor);
+
+  /**
+   * Set a handler run once if the client cancels the call.
+   */
+  void setOnCancelHandler(Runnable handler);
+}
@@ -0,0 +1,439 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.apache.arrow.flight.grpc.ByteBufReferenceManager;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.netty.buffer.ArrowBuf;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.buffer.UnpooledUnsafeDirectByteBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Sends the bodies of large batches through files in shared memory instead of the socket, between a
+ * client and a server on the same host (e.g. connected through a domain socket).
+ *
+ * <p>The sender writes the body of a batch to a new file in a directory shared by both peers, by
+ * default the tmpfs mounted at /dev/shm, and only sends the name of the file in the FlightData
+ * message. The receiver maps the file privately, deletes it, and wraps the mapping in an
+ * {@link ArrowBuf} accounted to its allocator, so the body is not copied on the receiving side nor
+ * through the socket. Batches smaller than the minimum body size are sent inline as usual.
+ *
+ * <p>Shared memory is negotiated for each call, in each direction. The directory is identified by
+ * a token stored in it, created by the first peer using it, so peers on different hosts never
+ * match even if their directories have the same path. A client enabled with
+ * {@link FlightClient.Builder#sharedMemory(SharedMemoryTransport)} advertises its token in the
+ * headers of DoGet, DoPut and DoExchange calls. A server enabled with
+ * {@link FlightServer.Builder#sharedMemory(SharedMemoryTransport)} with the same token sends the
+ * bodies of the call through shared memory, and replies with its token in the response headers;
+ * only then does the client send its own bodies through shared memory, so peers which do not
+ * support it, e.g. other Flight implementations, always receive bodies inline. Only the names of
+ * files created by this class are accepted, so a peer cannot make the receiver map or delete
+ * other files.
+ *
+ * <p>Files are deleted by the receiver when it reads them. When a call fails or is cancelled, the
+ * files not read yet are deleted by the sender, and by a client receiving them, as the name of
+ * each file starts with an identifier of its call. Files sent to a peer which exits before reading
+ * them are left in the directory.
+ */
+public final class SharedMemoryTransport {
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedMemoryTransport.class);
+
+  /** The minimum size of the bodies sent through shared memory, by default. */
+  public static final int DEFAULT_MIN_BODY_SIZE = 64 * 1024;
+
+  private static final String FILE_PREFIX = "arrow-flight-";
+  private static final String CALL_ID_REGEX = "[0-9a-f-]{1,36}";
+  private static final Pattern CALL_ID_PATTERN = Pattern.compile(CALL_ID_REGEX);
+  private static final Pattern FILE_NAME_PATTERN =
+      Pattern.compile(Pattern.quote(FILE_PREFIX) + CALL_ID_REGEX + "-[0-9a-f-]{36}");
+  // Not matched by FILE_NAME_PATTERN, so a peer cannot make the receiver delete it
+  private static final String TOKEN_FILE = ".arrow-flight-shared-memory-token";
+  private static final Metadata.Key<String> TOKEN_HEADER =
+      Metadata.Key.of("arrow-flight-shared-memory", Metadata.ASCII_STRING_MARSHALLER);
+  private static final Metadata.Key<String> CALL_ID_HEADER =
+      Metadata.Key.of("arrow-flight-shared-memory-call", Metadata.ASCII_STRING_MARSHALLER);
+  private static final Context.Key<String> CLIENT_CALL_ID = Context.key("arrow-flight-shared-memory-call");
+
+  /** The identifier of a client call, sent to the server by the client interceptor. */
+  static final CallOptions.Key<String> CALL_ID = CallOptions.Key.create("arrow-flight-shared-memory-call");
+  /** The writer of the bodies a client sends in a call, enabled once the server accepts them. */
+  static final CallOptions.Key<Writer> CLIENT_WRITER = CallOptions.Key.create("arrow-flight-shared-memory-writer");
+
+  private final Path directory;
+  private final int minBodySize;
+  private final String token;
+
+  private SharedMemoryTransport(Path directory, int minBodySize, String token) {
+    this.directory = directory;
+    this.minBodySize = minBodySize;
+    this.token = token;
+  }
+
+  /**
+   * Create an instance using /dev/shm, or the temporary directory if there is none, for the bodies of
+   * at least {@link #DEFAULT_MIN_BODY_SIZE} bytes.
+   */
+  public static SharedMemoryTransport create() {
+    final File shm = new File("/dev/shm");
+    final Path directory = shm.isDirectory() ? shm.toPath() : Paths.get(System.getProperty("java.io.tmpdir"));
+    return create(directory, DEFAULT_MIN_BODY_SIZE);
+  }
+
+  /**
+   * Create an instance.
+   * @param directory The directory of the files, which should be in memory (e.g. on a tmpfs).
+   * @param minBodySize The minimum size of the bodies sent through shared memory.
+   */
+  public static SharedMemoryTransport create(Path directory, int minBodySize) {
+    Preconditions.checkArgument(Files.isDirectory(directory), "Not a directory: %s", directory);
+    Preconditions.checkArgument(minBodySize > 0, "The minimum body size must be positive");
+    final Path normalized = directory.toAbsolutePath().normalize();
+    try {
+      return new SharedMemoryTransport(normalized, minBodySize, readOrCreateToken(normalized));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read the shared memory token in " + normalized, e);
+    }
+  }
+
+  /**
+   * Read the token identifying a directory, creating it if this is the first use of the directory.
+   */
+  private static String readOrCreateToken(Path directory) throws IOException {
+    final Path file = directory.resolve(TOKEN_FILE);
+    if (!Files.exists(file)) {
+      final Path temp = directory.resolve(TOKEN_FILE + "-" + UUID.randomUUID());
+      try {
+        Files.write(temp, UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII),
+            StandardOpenOption.CREATE_NEW);
+        // Publish the token atomically, without replacing one created concurrently by another peer
+        Files.createLink(file, temp);
+      } catch (FileAlreadyExistsException e) {
+        // created concurrently
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    }
+    return new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).trim();
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  public int getMinBodySize() {
+    return minBodySize;
+  }
+
+  /**
+   * Make an identifier for a client call, which is part of the names of the files of the call.
+   */
+  static String newCallId() {
+    return UUID.randomUUID().toString();
+  }
+
+  /**
+   * Get a writer for the bodies a client sends in one call, which only writes to shared memory once
+   * the server accepted it.
+   */
+  Writer newClientWriter(String callId) {
+    return new Writer(callId, false);
+  }
+
+  /**
+   * Get a writer for the bodies sent to the client of the current call, or null if the client did
+   * not advertise the same token.
+   */
+  Writer newWriterForCurrentClient() {
+    final String callId = CLIENT_CALL_ID.get();
+    return callId == null ? null : new Writer(callId, true);
+  }
+
+  /**
+   * Delete the files of calls which were not read, after the receiver cancelled them.
+   */
+  void deleteCallFiles(Collection<String> callIds) {
+    final File[] files = directory.toFile().listFiles(
+        (dir, name) -> callIds.stream().anyMatch(callId -> name.startsWith(FILE_PREFIX + callId + "-")));
+    if (files != null) {
+      for (final File file : files) {
+        delete(file.toPath());
+      }
+    }
+  }
+
+  /**
+   * Map a body written by the peer, and delete its file.
+   * @param name The name of the file.
+   * @param length The length of the body.
+   * @param allocator The allocator to account the memory to.
+   * @return The buffer of the body, which unmaps the file when released.
+   */
+  ArrowBuf map(String name, long length, BufferAllocator allocator) throws IOException {
+    if (!FILE_NAME_PATTERN.matcher(name).matches() || length <= 0 || length > Integer.MAX_VALUE) {
+      throw CallStatus.INVALID_ARGUMENT.withDescription("Invalid shared body: " + name).toRuntimeException();
+    }
+    final Path file = directory.resolve(name);
+    final MappedByteBuffer mapped;
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      if (channel.size() < length) {
+        throw CallStatus.INVALID_ARGUMENT.withDescription("Truncated shared body: " + name).toRuntimeException();
+      }
+      // A private mapping, so the receiver may modify the buffers without affecting the file
+      mapped = channel.map(MapMode.PRIVATE, 0, length);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+
+    final int size = (int) length;
+    final ByteBuf byteBuf = new MappedByteBuf(mapped);
+    try {
+      final ArrowBuf buf = ByteBufReferenceManager.wrap(byteBuf, size, allocator);
+      if (buf != null) {
+        return buf;
+      }
+      // Not enough headroom to account the mapping: copy, failing like any other allocation
+      final ArrowBuf copy = allocator.buffer(size);
+      copy.setBytes(0, mapped, 0, size);
+      copy.writerIndex(size);
+      return copy;
+    } finally {
+      byteBuf.release();
+    }
+  }
+
+  /**
+   * Get the interceptor advertising the token of a client to servers in the calls sending batches,
+   * and enabling the writer of a call once the server replies with the same token.
+   */
+  ClientInterceptor clientInterceptor() {
+    return new ClientInterceptor() {
+      @Override
+      public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+          CallOptions callOptions, Channel next) {
+        final String callId = callOptions.getOption(CALL_ID);
+        if (callId == null) {
+          return next.newCall(method, callOptions);
+        }
+        final Writer writer = callOptions.getOption(CLIENT_WRITER);
+        return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+          @Override
+          public void start(Listener<RespT> responseListener, Metadata headers) {
+            headers.put(TOKEN_HEADER, token);
+            headers.put(CALL_ID_HEADER, callId);
+            if (writer == null) {
+              super.start(responseListener, headers);
+              return;
+            }
+            super.start(new SimpleForwardingClientCallListener<RespT>(responseListener) {
+              @Override
+              public void onHeaders(Metadata headers) {
+                if (token.equals(headers.get(TOKEN_HEADER))) {
+                  writer.enable();
+                }
+                super.onHeaders(headers);
+              }
+            }, headers);
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Get the interceptor accepting shared memory for the calls of clients advertising the same token.
+   * The server replies with its token right away, so the client can send its bodies through shared
+   * memory before the server sends any message.
+   */
+  ServerInterceptor serverInterceptor() {
+    return new ServerInterceptor() {
+      @Override
+      public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+          ServerCallHandler<ReqT, RespT> next) {
+        final String callId = headers.get(CALL_ID_HEADER);
+        // The identifier is part of file names, so it must not contain separators
+        if (!token.equals(headers.get(TOKEN_HEADER)) || callId == null ||
+            !CALL_ID_PATTERN.matcher(callId).matches()) {
+          return next.startCall(call, headers);
+        }
+        final Metadata responseHeaders = new Metadata();
+        responseHeaders.put(TOKEN_HEADER, token);
+        call.sendHeaders(responseHeaders);
+        final ServerCall<ReqT, RespT> headersSent = new SimpleForwardingServerCall<ReqT, RespT>(call) {
+          @Override
+          public void sendHeaders(Metadata headers) {
+            // Already sent, with the headers of the middleware wrapping this call
+          }
+        };
+        final Context context = Context.current().withValue(CLIENT_CALL_ID, callId);
+        return Contexts.interceptCall(context, headersSent, headers, next);
+      }
+    };
+  }
+
+  /**
+   * Writes the bodies sent in one call, and deletes the files not received yet when the call fails.
+   */
+  final class Writer implements AutoCloseable {
+
+    private final String callId;
+    // Files which may not have been received yet, oldest first
+    private final Deque<Path> pending = new ArrayDeque<>();
+    private boolean closed = false;
+    // Whether the receiver accepts bodies through shared memory
+    private volatile boolean enabled;
+
+    private Writer(String callId, boolean enabled) {
+      this.callId = callId;
+      this.enabled = enabled;
+    }
+
+    /**
+     * Start writing bodies to shared memory, once the receiver accepted them.
+     */
+    void enable() {
+      enabled = true;
+    }
+
+    /**
+     * Write a body to a new file.
+     * @param buffers The buffers of the body, including padding.
+     * @param size The total size of the buffers.
+     * @return The name of the file, or null if the body is too small or could not be written, in
+     *     which case it must be sent inline.
+     */
+    String write(List<ByteBuf> buffers, int size) {
+      if (!enabled || size < minBodySize) {
+        return null;
+      }
+      synchronized (this) {
+        if (closed) {
+          return null;
+        }
+        // The receiver deletes the files in order
+        while (!pending.isEmpty() && !Files.exists(pending.peek())) {
+          pending.poll();
+        }
+      }
+
+      final Path file = directory.resolve(FILE_PREFIX + callId + "-" + UUID.randomUUID());
+      final ByteBuffer[] nioBuffers = new ByteBuffer[buffers.size()];
+      for (int i = 0; i < nioBuffers.length; i++) {
+        nioBuffers[i] = buffers.get(i).nioBuffer();
+      }
+      try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+          StandardOpenOption.WRITE)) {
+        long written = 0;
+        while (written < size) {
+          written += channel.write(nioBuffers);
+        }
+      } catch (IOException e) {
+        // e.g. the directory is full
+        logger.debug("Could not write body to shared memory, sending it inline", e);
+        delete(file);
+        return null;
+      }
+
+      synchronized (this) {
+        if (closed) {
+          delete(file);
+          return null;
+        }
+        pending.add(file);
+      }
+      return file.getFileName().toString();
+    }
+
+    /**
+     * Delete the files not received yet, after the call failed or was cancelled.
+     */
+    @Override
+    public synchronized void close() {
+      closed = true;
+      pending.forEach(SharedMemoryTransport::delete);
+      pending.clear();
+    }
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      logger.debug("Could not delete shared memory file {}", file, e);
+    }
+  }
+
+  /**
+   * A Netty buffer over a mapped file, which unmaps it when released.
+   */
+  private static class MappedByteBuf extends UnpooledUnsafeDirectByteBuf {
+
+    private final MappedByteBuffer mapped;
+
+    MappedByteBuf(MappedByteBuffer mapped) {
+      super(UnpooledByteBufAllocator.DEFAULT, mapped, mapped.capacity());
+      this.mapped = mapped;
+    }
+
+    @Override
+    protected void deallocate() {
+      super.deallocate();
+      PlatformDependent.freeDirectBuffer(mapped);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight.grpc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.ForeignMemoryAccounting;
+import org.apache.arrow.memory.OwnershipTransferResult;
+import org.apache.arrow.memory.ReferenceManager;
+import org.apache.arrow.util.Preconditions;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A {@link ReferenceManager} for memory owned by a Netty {@link ByteBuf} (e.g. received by gRPC),
+ * so it can be used as an {@link ArrowBuf} without copying.
+ *
+ * <p>The manager holds one reference to the ByteBuf, released when the last ArrowBuf sharing the
+ * memory is released. The memory is accounted to the owning allocator, like an allocation of its
+ * own; transferring the ownership moves the accounting to the target allocator.
+ */
+public final class ByteBufReferenceManager implements ReferenceManager {
+
+  private final ByteBuf byteBuf;
+  private final int size;
+  private final AtomicInteger refCount = new AtomicInteger(1);
+  private BufferAllocator owningAllocator;
+
+  private ByteBufReferenceManager(ByteBuf byteBuf, int size, BufferAllocator owningAllocator) {
+    this.byteBuf = byteBuf;
+    this.size = size;
+    this.owningAllocator = owningAllocator;
+  }
+
+  /**
+   * Wraps the readable bytes at the start of a direct ByteBuf. A reference to the ByteBuf is taken,
+   * but its reader index is not changed.
+   * @param byteBuf the buffer to wrap, which must have a memory address.
+   * @param size the number of bytes to wrap.
+   * @param allocator the allocator to account the memory to.
+   * @return the wrapping buffer, or null if the allocator has not enough headroom.
+   */
+  public static ArrowBuf wrap(ByteBuf byteBuf, int size, BufferAllocator allocator) {
+    Preconditions.checkArgument(byteBuf.hasMemoryAddress(), "The buffer must have a memory address");
+    Preconditions.checkArgument(size <= byteBuf.readableBytes(), "Not enough readable bytes");
+    if (!ForeignMemoryAccounting.tryReserve(allocator, size)) {
+      return null;
+    }
+    ByteBufReferenceManager manager = new ByteBufReferenceManager(byteBuf.retain(), size, allocator);
+    ArrowBuf buf = new ArrowBuf(manager, null, size, byteBuf.memoryAddress() + byteBuf.readerIndex(), false);
+    buf.writerIndex(size);
+    return buf;
+  }
+
+  @Override
+  public int getRefCount() {
+    return refCount.get();
+  }
+
+  @Override
+  public boolean release() {
+    return release(1);
+  }
+
+  @Override
+  public boolean release(int decrement) {
+    Preconditions.checkState(decrement >= 1, "ref count decrement should be greater than or equal to 1");
+    final int count = refCount.addAndGet(-decrement);
+    Preconditions.checkState(count >= 0, "RefCnt has gone negative");
+    if (count == 0) {
+      synchronized (this) {
+        ForeignMemoryAccounting.release(owningAllocator, size);
+      }
+      byteBuf.release();
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void retain() {
+    retain(1);
+  }
+
+  @Override
+  public void retain(int increment) {
+    Preconditions.checkArgument(increment > 0, "retain(%d) argument is not positive", increment);
+    final int count = refCount.getAndAdd(increment);
+    Preconditions.checkState(count > 0, "retain called but memory was already released");
+  }
+
+  @Override
+  public ArrowBuf retain(ArrowBuf srcBuffer, BufferAllocator targetAllocator) {
+    retain();
+    ArrowBuf targetBuffer = deriveBuffer(srcBuffer, 0, srcBuffer.capacity());
+    targetBuffer.readerIndex(srcBuffer.readerIndex());
+    targetBuffer.writerIndex(srcBuffer.writerIndex());
+    return targetBuffer;
+  }
+
+  @Override
+  public ArrowBuf deriveBuffer(ArrowBuf sourceBuffer, int index, int length) {
+    return new ArrowBuf(this, null, length, sourceBuffer.memoryAddress() + index, false);
+  }
+
+  @Override
+  public OwnershipTransferResult transferOwnership(ArrowBuf sourceBuffer, BufferAllocator targetAllocator) {
+    final ArrowBuf targetBuffer = retain(sourceBuffer, targetAllocator);
+    final boolean allocationFit;
+    synchronized (this) {
+      if (targetAllocator == owningAllocator) {
+        allocationFit = true;
+      } else {
+        allocationFit = ForeignMemoryAccounting.forceReserve(targetAllocator, size);
+        ForeignMemoryAccounting.release(owningAllocator, size);
+        owningAllocator = targetAllocator;
+      }
+    }
+    return new OwnershipTransferResult() {
+      @Override
+      public boolean getAllocationFit() {
+        return allocationFit;
+      }
+
+      @Override
+      public ArrowBuf getTransferredBuffer() {
+        return targetBuffer;
+      }
+    };
+  }
+
+  @Override
+  public synchronized BufferAllocator getAllocator() {
+    return owningAllocator;
+  }
+
+  @Override
+  public int getSize() {
+    return size;
+  }
+
+  @Override
+  public int getAccountedSize() {
+    return size;
+  }
+}
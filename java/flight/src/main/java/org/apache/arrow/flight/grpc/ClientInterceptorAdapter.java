@@ -18,7 +18,9 @@
 package org.apache.arrow.flight.grpc;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.arrow.flight.CallInfo;
 import org.apache.arrow.flight.CallStatus;
@@ -46,6 +48,13 @@ import io.grpc.StatusRuntimeException;
  */
 public class ClientInterceptorAdapter implements ClientInterceptor {
 
+  /**
+   * A {@link CallOptions.Key} for a callback receiving the middleware instances created for a call, so that Flight can
+   * report the data messages of the call to them.
+   */
+  public static final CallOptions.Key<Consumer<List<FlightClientMiddleware>>> MIDDLEWARE_CALLBACK =
+      CallOptions.Key.create("arrow.flight.client_middleware_callback");
+
   private final List<Factory> factories;
 
   public ClientInterceptorAdapter(List<Factory> factories) {
@@ -70,6 +79,10 @@ public class ClientInterceptorAdapter implements ClientInterceptor {
     } catch (RuntimeException e) {
       throw StatusUtils.fromThrowable(e);
     }
+    final Consumer<List<FlightClientMiddleware>> callback = callOptions.getOption(MIDDLEWARE_CALLBACK);
+    if (callback != null) {
+      callback.accept(Collections.unmodifiableList(middleware));
+    }
     return new FlightClientCall<>(next.newCall(method, callOptions), middleware);
   }
 
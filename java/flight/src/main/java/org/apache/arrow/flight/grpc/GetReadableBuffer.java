@@ -20,12 +20,18 @@ package org.apache.arrow.flight.grpc;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.util.Queue;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Throwables;
 import com.google.common.io.ByteStreams;
 
 import io.grpc.internal.ReadableBuffer;
 import io.netty.buffer.ArrowBuf;
+import io.netty.buffer.ByteBuf;
 
 /**
  * Enable access to ReadableBuffer directly to copy data from an BufferInputStream into a target
@@ -35,8 +41,13 @@ import io.netty.buffer.ArrowBuf;
  */
 public class GetReadableBuffer {
 
+  private static final Logger logger = LoggerFactory.getLogger(GetReadableBuffer.class);
   private static final Field READABLE_BUFFER;
   private static final Class<?> BUFFER_INPUT_STREAM;
+  private static final Field COMPOSITE_BUFFERS;
+  private static final Class<?> COMPOSITE_READABLE_BUFFER;
+  private static final Field NETTY_BUFFER;
+  private static final Class<?> NETTY_READABLE_BUFFER;
 
   static {
     Field tmpField = null;
@@ -50,10 +61,40 @@ public class GetReadableBuffer {
       tmpField = f;
       tmpClazz = clazz;
     } catch (Exception e) {
-      e.printStackTrace();
+      logger.warn("Cannot access the buffer of gRPC input streams, received messages will be copied.", e);
     }
     READABLE_BUFFER = tmpField;
     BUFFER_INPUT_STREAM = tmpClazz;
+
+    tmpField = null;
+    tmpClazz = null;
+    try {
+      Class<?> clazz = Class.forName("io.grpc.internal.CompositeReadableBuffer");
+
+      Field f = clazz.getDeclaredField("buffers");
+      f.setAccessible(true);
+      tmpField = f;
+      tmpClazz = clazz;
+    } catch (Exception e) {
+      logger.warn("Cannot access the buffers of gRPC composite buffers, received messages will be copied.", e);
+    }
+    COMPOSITE_BUFFERS = tmpField;
+    COMPOSITE_READABLE_BUFFER = tmpClazz;
+
+    tmpField = null;
+    tmpClazz = null;
+    try {
+      Class<?> clazz = Class.forName("io.grpc.netty.NettyReadableBuffer");
+
+      Field f = clazz.getDeclaredField("buffer");
+      f.setAccessible(true);
+      tmpField = f;
+      tmpClazz = clazz;
+    } catch (Exception e) {
+      // not using the Netty transport
+    }
+    NETTY_BUFFER = tmpField;
+    NETTY_READABLE_BUFFER = tmpClazz;
   }
 
   /**
@@ -95,4 +136,52 @@ public class GetReadableBuffer {
     }
     buf.writerIndex(size);
   }
+
+  /**
+   * Helper method to take the next bytes of a gRPC-provided InputStream as an ArrowBuf, without copying.
+   *
+   * <p>This is only possible when the bytes are in a single direct Netty buffer, which gRPC receives as
+   * one HTTP/2 data frame; bytes spanning several frames are not contiguous in memory. The returned
+   * buffer holds a reference to the Netty buffer, and its memory is accounted to the allocator.
+   *
+   * @param stream The stream to read from. Should be an instance of {@link #BUFFER_INPUT_STREAM}.
+   * @param size The number of bytes to take.
+   * @param allocator The allocator to account the memory to.
+   * @return The buffer, or null if the bytes have to be copied, in which case the stream is not advanced.
+   */
+  public static ArrowBuf tryWrapBuffer(final InputStream stream, final int size, final BufferAllocator allocator) {
+    ReadableBuffer readableBuffer = getReadableBuffer(stream);
+    if (readableBuffer == null || size == 0) {
+      return null;
+    }
+    ByteBuf byteBuf = getFirstByteBuf(readableBuffer);
+    if (byteBuf == null || !byteBuf.hasMemoryAddress() || byteBuf.readableBytes() < size) {
+      return null;
+    }
+    ArrowBuf buf = ByteBufReferenceManager.wrap(byteBuf, size, allocator);
+    if (buf != null) {
+      // the wrapped bytes are now owned by the ArrowBuf, gRPC may release its reference
+      readableBuffer.skipBytes(size);
+    }
+    return buf;
+  }
+
+  private static ByteBuf getFirstByteBuf(ReadableBuffer readableBuffer) {
+    try {
+      if (COMPOSITE_READABLE_BUFFER != null && readableBuffer.getClass().equals(COMPOSITE_READABLE_BUFFER)) {
+        Queue<?> buffers = (Queue<?>) COMPOSITE_BUFFERS.get(readableBuffer);
+        Object first = buffers.peek();
+        if (!(first instanceof ReadableBuffer)) {
+          return null;
+        }
+        readableBuffer = (ReadableBuffer) first;
+      }
+      if (NETTY_READABLE_BUFFER != null && readableBuffer.getClass().equals(NETTY_READABLE_BUFFER)) {
+        return (ByteBuf) NETTY_BUFFER.get(readableBuffer);
+      }
+      return null;
+    } catch (Exception ex) {
+      throw Throwables.propagate(ex);
+    }
+  }
 }
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.arrow.flight.FlightClientMiddleware;
+import org.apache.arrow.flight.FlightMethod;
+import org.apache.arrow.flight.FlightServerMiddleware;
+
+/**
+ * Metrics of the calls of a Flight client or server, per method: bytes and batches transferred, throughput,
+ * serialization and stall times, and histograms of call durations and of times to first batch.
+ *
+ * <p>Install the middleware on a server with
+ * {@code FlightServer.builder(...).middleware(FlightMetricsMiddleware.KEY, metrics.serverMiddleware())}, or on a client
+ * with {@code FlightClient.builder(...).intercept(metrics.clientMiddleware())}. The metrics can be read directly, or
+ * exported to JMX with {@link #registerMBeans()}.
+ *
+ * <p>Comparing serialization, stall and call times tells a slow producer apart from a slow network or peer: stalls
+ * grow when the peer does not read fast enough, while a long time to first batch with few stalls points at the
+ * producer.
+ */
+public class FlightMetrics implements AutoCloseable {
+
+  /** The JMX domain of the metrics. */
+  public static final String JMX_DOMAIN = "org.apache.arrow.flight";
+
+  private final String name;
+  private final Map<FlightMethod, MethodMetrics> metrics;
+  private final List<ObjectName> registeredNames = new ArrayList<>();
+
+  /**
+   * Create a new set of metrics.
+   * @param name The name of the metrics, used to tell several clients or servers apart in JMX.
+   */
+  public FlightMetrics(String name) {
+    this.name = name;
+    final Map<FlightMethod, MethodMetrics> map = new EnumMap<>(FlightMethod.class);
+    for (final FlightMethod method : FlightMethod.values()) {
+      map.put(method, new MethodMetrics());
+    }
+    this.metrics = Collections.unmodifiableMap(map);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Get the metrics of a method. */
+  public MethodMetrics getMetrics(FlightMethod method) {
+    return metrics.get(method);
+  }
+
+  /** Get a factory for the server middleware recording the calls into these metrics. */
+  public FlightServerMiddleware.Factory<FlightMetricsMiddleware> serverMiddleware() {
+    return (info, incomingHeaders) -> new FlightMetricsMiddleware(getMetrics(info.method()));
+  }
+
+  /** Get a factory for the client middleware recording the calls into these metrics. */
+  public FlightClientMiddleware.Factory clientMiddleware() {
+    return info -> new FlightMetricsMiddleware(getMetrics(info.method()));
+  }
+
+  /**
+   * Get the JMX name of the metrics of a method.
+   */
+  public ObjectName getObjectName(FlightMethod method) {
+    try {
+      return new ObjectName(JMX_DOMAIN + ":type=FlightMetrics,name=" + ObjectName.quote(name) + ",method=" + method);
+    } catch (JMException e) {
+      throw new IllegalArgumentException("Invalid metrics name: " + name, e);
+    }
+  }
+
+  /**
+   * Register the metrics of all methods in the platform MBean server.
+   *
+   * @throws IllegalStateException if the metrics are already registered, or metrics with the same name exist.
+   */
+  public synchronized void registerMBeans() {
+    if (!registeredNames.isEmpty()) {
+      throw new IllegalStateException("Metrics already registered: " + name);
+    }
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      for (final Map.Entry<FlightMethod, MethodMetrics> entry : metrics.entrySet()) {
+        final ObjectName objectName = getObjectName(entry.getKey());
+        server.registerMBean(entry.getValue(), objectName);
+        registeredNames.add(objectName);
+      }
+    } catch (JMException e) {
+      unregisterMBeans();
+      throw new IllegalStateException("Could not register metrics: " + name, e);
+    }
+  }
+
+  /**
+   * Unregister the metrics from the platform MBean server, if they were registered.
+   */
+  public synchronized void unregisterMBeans() {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (final ObjectName objectName : registeredNames) {
+      try {
+        server.unregisterMBean(objectName);
+      } catch (JMException e) {
+        // already unregistered
+      }
+    }
+    registeredNames.clear();
+  }
+
+  @Override
+  public void close() {
+    unregisterMBeans();
+  }
+}
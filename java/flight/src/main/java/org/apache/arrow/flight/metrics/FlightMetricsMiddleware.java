@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.arrow.flight.CallHeaders;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightClientMiddleware;
+import org.apache.arrow.flight.FlightMessageListener;
+import org.apache.arrow.flight.FlightServerMiddleware;
+import org.apache.arrow.flight.FlightStatusCode;
+
+/**
+ * Middleware measuring a single Flight call, on a client or a server, and adding it to the {@link FlightMetrics}
+ * of the method when the call completes.
+ *
+ * <p>Producers can read the metrics of the call in progress with
+ * {@link org.apache.arrow.flight.FlightProducer.CallContext#getMiddleware(FlightServerMiddleware.Key)} and
+ * {@link #KEY}.
+ */
+public final class FlightMetricsMiddleware
+    implements FlightServerMiddleware, FlightClientMiddleware, FlightMessageListener {
+
+  /** The key of the middleware on a server. */
+  public static final FlightServerMiddleware.Key<FlightMetricsMiddleware> KEY =
+      FlightServerMiddleware.Key.of("arrow.flight.metrics");
+
+  private final MethodMetrics metrics;
+  private final long startNanos;
+  private final AtomicBoolean sawFirstBatch = new AtomicBoolean(false);
+  private final AtomicBoolean completed = new AtomicBoolean(false);
+  private final LongAdder bytesSent = new LongAdder();
+  private final LongAdder bytesReceived = new LongAdder();
+  private final LongAdder batchesSent = new LongAdder();
+  private final LongAdder batchesReceived = new LongAdder();
+  private final LongAdder stallNanos = new LongAdder();
+  private volatile long timeToFirstBatchNanos = -1;
+
+  FlightMetricsMiddleware(MethodMetrics metrics) {
+    this.metrics = metrics;
+    this.startNanos = System.nanoTime();
+    metrics.onCallStarted();
+  }
+
+  /** Get the bytes of the batches sent so far. */
+  public long getBytesSent() {
+    return bytesSent.sum();
+  }
+
+  /** Get the bytes of the batches received so far. */
+  public long getBytesReceived() {
+    return bytesReceived.sum();
+  }
+
+  public long getBatchesSent() {
+    return batchesSent.sum();
+  }
+
+  public long getBatchesReceived() {
+    return batchesReceived.sum();
+  }
+
+  /** Get the time spent waiting for the peer to be ready to receive more data, in nanoseconds. */
+  public long getStallNanos() {
+    return stallNanos.sum();
+  }
+
+  /**
+   * Get the time between the start of the call and its first batch, sent or received, in nanoseconds.
+   *
+   * @return The time, or -1 if no batch was sent or received yet.
+   */
+  public long getTimeToFirstBatchNanos() {
+    return timeToFirstBatchNanos;
+  }
+
+  private void onBatch() {
+    if (sawFirstBatch.compareAndSet(false, true)) {
+      timeToFirstBatchNanos = System.nanoTime() - startNanos;
+      metrics.onFirstBatch(timeToFirstBatchNanos);
+    }
+  }
+
+  @Override
+  public void onBatchSent(long bytes, long nanos) {
+    onBatch();
+    batchesSent.increment();
+    bytesSent.add(bytes);
+    metrics.onBatchSent(bytes, nanos);
+  }
+
+  @Override
+  public void onBatchReceived(long bytes, long nanos) {
+    onBatch();
+    batchesReceived.increment();
+    bytesReceived.add(bytes);
+    metrics.onBatchReceived(bytes, nanos);
+  }
+
+  @Override
+  public void onStalled(long nanos) {
+    stallNanos.add(nanos);
+    metrics.onStalled(nanos);
+  }
+
+  @Override
+  public void onBeforeSendingHeaders(CallHeaders outgoingHeaders) {
+  }
+
+  @Override
+  public void onHeadersReceived(CallHeaders incomingHeaders) {
+  }
+
+  @Override
+  public void onCallCompleted(CallStatus status) {
+    // A cancelled client call may be completed twice
+    if (completed.compareAndSet(false, true)) {
+      metrics.onCallCompleted(this, System.nanoTime() - startNanos, status.code() != FlightStatusCode.OK);
+    }
+  }
+
+  @Override
+  public void onCallErrored(Throwable err) {
+  }
+
+  @Override
+  public String toString() {
+    return "FlightMetricsMiddleware{" +
+        "batchesSent=" + getBatchesSent() +
+        ", bytesSent=" + getBytesSent() +
+        ", batchesReceived=" + getBatchesReceived() +
+        ", bytesReceived=" + getBytesReceived() +
+        ", stallMicros=" + TimeUnit.NANOSECONDS.toMicros(getStallNanos()) +
+        '}';
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations, with buckets growing by powers of two.
+ *
+ * <p>Bucket 0 counts durations below 2 microseconds, and bucket i (i &gt; 0) counts durations in
+ * [2<sup>i</sup>, 2<sup>i + 1</sup>) microseconds; the last bucket also counts all longer durations.
+ */
+public final class LatencyHistogram {
+
+  /** The number of buckets, the last one covering durations of about 12 days and more. */
+  public static final int BUCKET_COUNT = 40;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sumNanos = new LongAdder();
+
+  /**
+   * Record a duration.
+   * @param nanos the duration in nanoseconds.
+   */
+  public void record(long nanos) {
+    final long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0));
+    buckets.incrementAndGet(bucketOf(micros));
+    count.increment();
+    sumNanos.add(nanos);
+  }
+
+  static int bucketOf(long micros) {
+    if (micros < 2) {
+      return 0;
+    }
+    return Math.min(63 - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+  }
+
+  /** Get the number of recorded durations. */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /** Get the mean of the recorded durations in microseconds, or 0 if there are none. */
+  public double getMeanMicros() {
+    final long n = count.sum();
+    return n == 0 ? 0 : sumNanos.sum() / 1000.0 / n;
+  }
+
+  /** Get a snapshot of the bucket counts. */
+  public long[] getBuckets() {
+    final long[] result = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      result[i] = buckets.get(i);
+    }
+    return result;
+  }
+
+  /**
+   * Estimate a percentile of the recorded durations.
+   * @param percentile the percentile, between 0 and 100.
+   * @return the upper bound in microseconds of the bucket holding the percentile, or 0 if there are no durations.
+   */
+  public long getPercentileMicros(double percentile) {
+    final long[] snapshot = getBuckets();
+    long total = 0;
+    for (long c : snapshot) {
+      total += c;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    final long rank = (long) Math.ceil(percentile / 100 * total);
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += snapshot[i];
+      if (seen >= rank && seen > 0) {
+        return i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << (i + 1);
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics aggregated over all the calls of a Flight method.
+ */
+public final class MethodMetrics implements MethodMetricsMXBean {
+
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder failedCalls = new LongAdder();
+  private final LongAdder activeCalls = new LongAdder();
+  private final LongAdder bytesSent = new LongAdder();
+  private final LongAdder bytesReceived = new LongAdder();
+  private final LongAdder batchesSent = new LongAdder();
+  private final LongAdder batchesReceived = new LongAdder();
+  private final LongAdder serializationNanos = new LongAdder();
+  private final LongAdder deserializationNanos = new LongAdder();
+  private final LongAdder stalls = new LongAdder();
+  private final LongAdder stallNanos = new LongAdder();
+  // the duration of the calls that sent or received batches, to compute the throughput
+  private final LongAdder streamingNanos = new LongAdder();
+  private final LatencyHistogram callDuration = new LatencyHistogram();
+  private final LatencyHistogram timeToFirstBatch = new LatencyHistogram();
+
+  void onCallStarted() {
+    activeCalls.increment();
+  }
+
+  void onCallCompleted(FlightMetricsMiddleware call, long durationNanos, boolean failed) {
+    activeCalls.decrement();
+    calls.increment();
+    if (failed) {
+      failedCalls.increment();
+    }
+    callDuration.record(durationNanos);
+    if (call.getBatchesSent() > 0 || call.getBatchesReceived() > 0) {
+      streamingNanos.add(durationNanos);
+    }
+  }
+
+  void onFirstBatch(long nanos) {
+    timeToFirstBatch.record(nanos);
+  }
+
+  void onBatchSent(long bytes, long nanos) {
+    batchesSent.increment();
+    bytesSent.add(bytes);
+    serializationNanos.add(nanos);
+  }
+
+  void onBatchReceived(long bytes, long nanos) {
+    batchesReceived.increment();
+    bytesReceived.add(bytes);
+    deserializationNanos.add(nanos);
+  }
+
+  void onStalled(long nanos) {
+    stalls.increment();
+    stallNanos.add(nanos);
+  }
+
+  @Override
+  public long getCalls() {
+    return calls.sum();
+  }
+
+  @Override
+  public long getFailedCalls() {
+    return failedCalls.sum();
+  }
+
+  @Override
+  public long getActiveCalls() {
+    return activeCalls.sum();
+  }
+
+  @Override
+  public long getBytesSent() {
+    return bytesSent.sum();
+  }
+
+  @Override
+  public long getBytesReceived() {
+    return bytesReceived.sum();
+  }
+
+  @Override
+  public long getBatchesSent() {
+    return batchesSent.sum();
+  }
+
+  @Override
+  public long getBatchesReceived() {
+    return batchesReceived.sum();
+  }
+
+  @Override
+  public double getBatchesPerSecond() {
+    final long nanos = streamingNanos.sum();
+    if (nanos == 0) {
+      return 0;
+    }
+    return (batchesSent.sum() + batchesReceived.sum()) * 1e9 / nanos;
+  }
+
+  @Override
+  public long getSerializationMicros() {
+    return TimeUnit.NANOSECONDS.toMicros(serializationNanos.sum());
+  }
+
+  @Override
+  public long getDeserializationMicros() {
+    return TimeUnit.NANOSECONDS.toMicros(deserializationNanos.sum());
+  }
+
+  @Override
+  public long getStalls() {
+    return stalls.sum();
+  }
+
+  @Override
+  public long getStallMicros() {
+    return TimeUnit.NANOSECONDS.toMicros(stallNanos.sum());
+  }
+
+  @Override
+  public double getMeanCallDurationMicros() {
+    return callDuration.getMeanMicros();
+  }
+
+  @Override
+  public long getCallDurationP50Micros() {
+    return callDuration.getPercentileMicros(50);
+  }
+
+  @Override
+  public long getCallDurationP99Micros() {
+    return callDuration.getPercentileMicros(99);
+  }
+
+  @Override
+  public long[] getCallDurationHistogram() {
+    return callDuration.getBuckets();
+  }
+
+  @Override
+  public double getMeanTimeToFirstBatchMicros() {
+    return timeToFirstBatch.getMeanMicros();
+  }
+
+  @Override
+  public long getTimeToFirstBatchP50Micros() {
+    return timeToFirstBatch.getPercentileMicros(50);
+  }
+
+  @Override
+  public long getTimeToFirstBatchP99Micros() {
+    return timeToFirstBatch.getPercentileMicros(99);
+  }
+
+  @Override
+  public long[] getTimeToFirstBatchHistogram() {
+    return timeToFirstBatch.getBuckets();
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight.metrics;
+
+/**
+ * The JMX interface of the metrics of a Flight method. Sizes are in bytes, and durations in microseconds
+ * unless stated otherwise.
+ */
+public interface MethodMetricsMXBean {
+
+  /** The number of completed calls. */
+  long getCalls();
+
+  /** The number of calls that completed with an error status, including cancellations. */
+  long getFailedCalls();
+
+  /** The number of calls in progress. */
+  long getActiveCalls();
+
+  long getBytesSent();
+
+  long getBytesReceived();
+
+  long getBatchesSent();
+
+  long getBatchesReceived();
+
+  /**
+   * The batches sent and received per second of call, over all the calls that sent or received batches.
+   */
+  double getBatchesPerSecond();
+
+  /** The time spent serializing batches and handing them to the transport. */
+  long getSerializationMicros();
+
+  /** The time spent parsing received batches. */
+  long getDeserializationMicros();
+
+  /** The number of times batches were sent while the peer was not ready to receive more data. */
+  long getStalls();
+
+  /** The time spent waiting for the peer to be ready to receive more data. */
+  long getStallMicros();
+
+  double getMeanCallDurationMicros();
+
+  long getCallDurationP50Micros();
+
+  long getCallDurationP99Micros();
+
+  /** The bucket counts of call durations, see {@link LatencyHistogram}. */
+  long[] getCallDurationHistogram();
+
+  double getMeanTimeToFirstBatchMicros();
+
+  long getTimeToFirstBatchP50Micros();
+
+  long getTimeToFirstBatchP99Micros();
+
+  /** The bucket counts of the times between the start of calls and their first batch, see {@link LatencyHistogram}. */
+  long[] getTimeToFirstBatchHistogram();
+}
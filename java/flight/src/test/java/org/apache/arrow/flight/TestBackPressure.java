@@ -17,13 +17,18 @@
 
 package org.apache.arrow.flight;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.arrow.flight.perf.PerformanceTestServer;
 import org.apache.arrow.flight.perf.TestPerf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
 import org.apache.arrow.vector.types.Types.MinorType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -33,6 +38,8 @@ import org.junit.Test;
 
 import com.google.common.collect.ImmutableList;
 
+import io.netty.buffer.ArrowBuf;
+
 public class TestBackPressure {
 
   private static final int BATCH_SIZE = 4095;
@@ -144,6 +151,204 @@ public class TestBackPressure {
     }
   }
 
+  /**
+   * Make sure that a producer driven by the on-ready handler sends the whole stream without blocking a thread.
+   */
+  @Test
+  public void onReadyHandler() throws Exception {
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new OnReadyProducer(allocator, 200)).build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation()).build();
+         final FlightStream stream = client.getStream(new Ticket(new byte[0]))) {
+      Thread.sleep(500);
+      assertStream(stream, 200);
+    }
+  }
+
+  /**
+   * Make sure that the batches held for a slow client are bounded by the high watermark.
+   */
+  @Test
+  public void watermarksBoundMemory() throws Exception {
+    final long lowWatermark = 256 * 1024;
+    final long highWatermark = 1024 * 1024;
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final BufferAllocator serverAllocator = allocator.newChildAllocator("server", 0, Long.MAX_VALUE)) {
+      final OnReadyProducer producer = new OnReadyProducer(serverAllocator, 400);
+      try (final FlightServer server = FlightTestUtil.getStartedServer(
+          location -> FlightServer.builder(serverAllocator, location, producer)
+              .backpressureWatermarks(lowWatermark, highWatermark)
+              .build());
+           final FlightClient client = FlightClient.builder(allocator, server.getLocation()).build();
+           final FlightStream stream = client.getStream(new Ticket(new byte[0]))) {
+        Thread.sleep(1000);
+        assertStream(stream, 400);
+      }
+      // The producer was paused, and resumed from the handler
+      Assert.assertTrue(producer.invocations.get() > 1);
+      // the values and validity buffers of a batch share one allocation
+      final long batchSize = 64 * 1024;
+      Assert.assertTrue("Peak memory: " + serverAllocator.getPeakMemoryAllocation(),
+          serverAllocator.getPeakMemoryAllocation() < highWatermark + 4 * batchSize);
+    }
+  }
+
+  /**
+   * Make sure that batches sent after the client cancelled the call are released.
+   */
+  @Test
+  public void putNextAfterCancel() throws Exception {
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final BufferAllocator serverAllocator = allocator.newChildAllocator("server", 0, Long.MAX_VALUE)) {
+      final CancelledProducer producer = new CancelledProducer(serverAllocator);
+      try (final FlightServer server = FlightTestUtil.getStartedServer(
+          location -> FlightServer.builder(serverAllocator, location, producer).build());
+           final FlightClient client = FlightClient.builder(allocator, server.getLocation()).build()) {
+        try (final FlightStream stream = client.getStream(new Ticket(new byte[0]))) {
+          Assert.assertTrue(stream.next());
+          stream.cancel("Cancelled by the test.", null);
+        }
+        Assert.assertTrue(producer.done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, serverAllocator.getAllocatedMemory());
+      }
+    }
+  }
+
+  /**
+   * Make sure that listeners implemented before the on-ready handler still compile, and reject the handler.
+   */
+  @Test
+  public void onReadyHandlerUnsupported() {
+    final FlightProducer.ServerStreamListener listener = new FlightProducer.ServerStreamListener() {
+      @Override
+      public boolean isCancelled() {
+        return false;
+      }
+
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void start(VectorSchemaRoot root) {
+      }
+
+      @Override
+      public void start(VectorSchemaRoot root, DictionaryProvider dictionaries) {
+      }
+
+      @Override
+      public void putNext() {
+      }
+
+      @Override
+      public void putNext(ArrowBuf metadata) {
+      }
+
+      @Override
+      public void error(Throwable ex) {
+      }
+
+      @Override
+      public void completed() {
+      }
+    };
+    try {
+      listener.setOnReadyHandler(() -> { });
+      Assert.fail("The handler should be rejected");
+    } catch (FlightRuntimeException e) {
+      Assert.assertEquals(FlightStatusCode.UNIMPLEMENTED, e.status().code());
+    }
+  }
+
+  private static void assertStream(FlightStream stream, int batches) {
+    final VectorSchemaRoot root = stream.getRoot();
+    int batch = 0;
+    while (stream.next()) {
+      Assert.assertEquals(BATCH_SIZE, root.getRowCount());
+      final BigIntVector vector = (BigIntVector) root.getVector("a");
+      Assert.assertEquals(batch, vector.get(0));
+      Assert.assertEquals(batch, vector.get(BATCH_SIZE - 1));
+      batch++;
+    }
+    Assert.assertEquals(batches, batch);
+  }
+
+  /**
+   * Sends batches from the on-ready handler, returning from getStream right away.
+   */
+  private static class OnReadyProducer extends NoOpFlightProducer {
+    private final BufferAllocator allocator;
+    private final int batches;
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    OnReadyProducer(BufferAllocator allocator, int batches) {
+      this.allocator = allocator;
+      this.batches = batches;
+    }
+
+    @Override
+    public void getStream(CallContext context, Ticket ticket, ServerStreamListener listener) {
+      final Schema schema = new Schema(ImmutableList.of(Field.nullable("a", MinorType.BIGINT.getType())));
+      final VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+      final BigIntVector vector = (BigIntVector) root.getVector("a");
+      listener.start(root);
+      final AtomicInteger sent = new AtomicInteger();
+      listener.setOnReadyHandler(() -> {
+        invocations.incrementAndGet();
+        while (listener.isReady() && sent.get() < batches) {
+          vector.allocateNew(BATCH_SIZE);
+          for (int i = 0; i < BATCH_SIZE; i++) {
+            vector.set(i, sent.get());
+          }
+          root.setRowCount(BATCH_SIZE);
+          listener.putNext();
+          sent.incrementAndGet();
+        }
+        if (sent.get() == batches) {
+          sent.incrementAndGet();
+          listener.completed();
+          root.close();
+        }
+      });
+    }
+  }
+
+  /**
+   * Sends one batch and returns, then sends another from the cancel handler, as an asynchronous producer would.
+   */
+  private static class CancelledProducer extends NoOpFlightProducer {
+    private final BufferAllocator allocator;
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    CancelledProducer(BufferAllocator allocator) {
+      this.allocator = allocator;
+    }
+
+    @Override
+    public void getStream(CallContext context, Ticket ticket, ServerStreamListener listener) {
+      final Schema schema = new Schema(ImmutableList.of(Field.nullable("a", MinorType.BIGINT.getType())));
+      final VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+      final BigIntVector vector = (BigIntVector) root.getVector("a");
+      listener.start(root);
+      vector.allocateNew(BATCH_SIZE);
+      root.setRowCount(BATCH_SIZE);
+      listener.putNext();
+      ((SerializedStreamListener) listener).setOnCancelHandler(() -> {
+        try {
+          vector.allocateNew(BATCH_SIZE);
+          root.setRowCount(BATCH_SIZE);
+          listener.putNext();
+        } finally {
+          root.close();
+          done.countDown();
+        }
+      });
+    }
+  }
+
   private static void consume(FlightStream stream) {
     VectorSchemaRoot root = stream.getRoot();
     while (stream.next()) {
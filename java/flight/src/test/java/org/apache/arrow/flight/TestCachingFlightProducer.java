@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.arrow.flight.auth.BasicServerAuthHandler;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Tests for {@link CachingFlightProducer} and {@link FlightResultCache}.
+ */
+public class TestCachingFlightProducer {
+
+  private static final int BATCH_COUNT = 10;
+  private static final int BATCH_SIZE = 100;
+  private static final Schema SCHEMA =
+      new Schema(Collections.singletonList(Field.nullable("a", new ArrowType.Int(32, true))));
+  private static final Ticket FIRST = new Ticket("first".getBytes(StandardCharsets.UTF_8));
+  private static final Ticket SECOND = new Ticket("second".getBytes(StandardCharsets.UTF_8));
+  private static final Ticket FAILING = new Ticket("failing".getBytes(StandardCharsets.UTF_8));
+  private static final String PASSWORD = "password";
+
+  /**
+   * Ensure that a stream is replayed from the cache until its version changes.
+   */
+  @Test
+  public void replay() {
+    test(1 << 20, (client, producer, cache, version) -> {
+      readAndCheck(client, FIRST);
+      readAndCheck(client, FIRST);
+      readAndCheck(client, FIRST);
+      Assert.assertEquals(1, producer.calls.get());
+      Assert.assertEquals(2, cache.getHitCount());
+      Assert.assertEquals(1, cache.getEntryCount());
+
+      version.incrementAndGet();
+      readAndCheck(client, FIRST);
+      readAndCheck(client, FIRST);
+      Assert.assertEquals(2, producer.calls.get());
+      Assert.assertEquals(2, cache.getEntryCount());
+    });
+  }
+
+  /**
+   * Ensure that the least recently used streams are evicted to bound the memory of the cache.
+   */
+  @Test
+  public void eviction() throws Exception {
+    final long streamBytes;
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      try (final FlightResultCache cache = new FlightResultCache(allocator, 1 << 20)) {
+        run(allocator, cache, (client, producer, ignored, version) -> readAndCheck(client, FIRST));
+        streamBytes = cache.getCachedBytes();
+      }
+    }
+    Assert.assertTrue(streamBytes > 0);
+
+    // Room for one stream only
+    test(streamBytes + streamBytes / 2, (client, producer, cache, version) -> {
+      readAndCheck(client, FIRST);
+      readAndCheck(client, SECOND);
+      Assert.assertEquals(1, cache.getEntryCount());
+      Assert.assertEquals(1, cache.getEvictionCount());
+      readAndCheck(client, SECOND);
+      readAndCheck(client, FIRST);
+      Assert.assertEquals(3, producer.calls.get());
+      Assert.assertTrue(cache.getCachedBytes() <= streamBytes);
+    });
+  }
+
+  /**
+   * Ensure that streams larger than the cache, or failing, are served but not cached.
+   */
+  @Test
+  public void notCached() {
+    test(1024, (client, producer, cache, version) -> {
+      readAndCheck(client, FIRST);
+      readAndCheck(client, FIRST);
+      Assert.assertEquals(2, producer.calls.get());
+      Assert.assertEquals(0, cache.getEntryCount());
+    });
+
+    test(1 << 20, (client, producer, cache, version) -> {
+      for (int i = 0; i < 2; i++) {
+        try (final FlightStream stream = client.getStream(FAILING)) {
+          final RuntimeException e = Assertions.assertThrows(RuntimeException.class, () -> {
+            while (stream.next()) {
+              // drain
+            }
+          });
+          Assert.assertTrue(e.getMessage().contains("Stream failed"));
+        }
+      }
+      Assert.assertEquals(2, producer.calls.get());
+      Assert.assertEquals(0, cache.getEntryCount());
+    });
+  }
+
+  /**
+   * Ensure that a replay can be cancelled.
+   */
+  @Test
+  public void cancelReplay() {
+    test(1 << 20, (client, producer, cache, version) -> {
+      readAndCheck(client, FIRST);
+      try (final FlightStream stream = client.getStream(FIRST)) {
+        Assert.assertTrue(stream.next());
+        stream.cancel("Cancelled by the test.", null);
+      }
+      readAndCheck(client, FIRST);
+      Assert.assertEquals(1, producer.calls.get());
+    });
+  }
+
+  /**
+   * Ensure that a stream is not replayed to another peer, whose access the underlying producer did not check.
+   */
+  @Test
+  public void replayPerPeer() throws Exception {
+    final BasicServerAuthHandler.BasicAuthValidator validator = new BasicServerAuthHandler.BasicAuthValidator() {
+      @Override
+      public byte[] getToken(String username, String password) {
+        if (!PASSWORD.equals(password)) {
+          throw new IllegalArgumentException("invalid credentials");
+        }
+        return username.getBytes(StandardCharsets.UTF_8);
+      }
+
+      @Override
+      public Optional<String> isValid(byte[] token) {
+        return Optional.of(new String(token, StandardCharsets.UTF_8));
+      }
+    };
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightResultCache cache = new FlightResultCache(allocator, 1 << 20)) {
+      final Producer producer = new Producer(allocator);
+      try (final FlightServer server = FlightTestUtil.getStartedServer(
+          location -> FlightServer.builder(allocator, location,
+              new CachingFlightProducer(producer, cache, (context, ticket) -> 0))
+              .authHandler(new BasicServerAuthHandler(validator))
+              .build());
+           final FlightClient first = FlightClient.builder(allocator, server.getLocation()).build();
+           final FlightClient second = FlightClient.builder(allocator, server.getLocation()).build()) {
+        first.authenticateBasic("first", PASSWORD);
+        second.authenticateBasic("second", PASSWORD);
+        readAndCheck(first, FIRST);
+        readAndCheck(second, FIRST);
+        Assert.assertEquals(2, producer.calls.get());
+        Assert.assertEquals(Arrays.asList("first", "second"), producer.peers);
+
+        readAndCheck(first, FIRST);
+        readAndCheck(second, FIRST);
+        Assert.assertEquals(2, producer.calls.get());
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(2, cache.getEntryCount());
+      }
+    }
+  }
+
+  private static void readAndCheck(FlightClient client, Ticket ticket) throws Exception {
+    try (final FlightStream stream = client.getStream(ticket)) {
+      final VectorSchemaRoot root = stream.getRoot();
+      Assert.assertEquals(SCHEMA, root.getSchema());
+      int batch = 0;
+      while (stream.next()) {
+        Assert.assertEquals(BATCH_SIZE, root.getRowCount());
+        final IntVector vector = (IntVector) root.getVector("a");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+          Assert.assertEquals(batch * BATCH_SIZE + i, vector.get(i));
+        }
+        Assert.assertEquals(batch, stream.getLatestMetadata().getInt(0));
+        batch++;
+      }
+      Assert.assertEquals(BATCH_COUNT, batch);
+    }
+  }
+
+  private interface CacheTest {
+    void run(FlightClient client, Producer producer, FlightResultCache cache, AtomicLong version) throws Exception;
+  }
+
+  private static void test(long cacheBytes, CacheTest test) {
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightResultCache cache = new FlightResultCache(allocator, cacheBytes)) {
+      run(allocator, cache, test);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static void run(BufferAllocator allocator, FlightResultCache cache, CacheTest test) throws Exception {
+    final Producer producer = new Producer(allocator);
+    final AtomicLong version = new AtomicLong();
+    try (final FlightServer server = FlightTestUtil.getStartedServer(
+        location -> FlightServer.builder(allocator, location,
+            new CachingFlightProducer(producer, cache, (context, ticket) -> version.get())).build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation()).build()) {
+      test.run(client, producer, cache, version);
+    }
+  }
+
+  private static class Producer extends NoOpFlightProducer {
+    private final BufferAllocator allocator;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final List<String> peers = Collections.synchronizedList(new ArrayList<>());
+
+    Producer(BufferAllocator allocator) {
+      this.allocator = allocator;
+    }
+
+    @Override
+    public void getStream(CallContext context, Ticket ticket, ServerStreamListener listener) {
+      calls.incrementAndGet();
+      peers.add(context.peerIdentity());
+      try (final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+        listener.start(root);
+        final IntVector vector = (IntVector) root.getVector("a");
+        for (int batch = 0; batch < BATCH_COUNT; batch++) {
+          if (ticket.equals(FAILING) && batch == 2) {
+            listener.error(CallStatus.INTERNAL.withDescription("Stream failed").toRuntimeException());
+            return;
+          }
+          vector.allocateNew(BATCH_SIZE);
+          for (int i = 0; i < BATCH_SIZE; i++) {
+            vector.set(i, batch * BATCH_SIZE + i);
+          }
+          root.setRowCount(BATCH_SIZE);
+          final ArrowBuf metadata = allocator.buffer(4);
+          metadata.writeInt(batch);
+          listener.putNext(metadata);
+        }
+        listener.completed();
+      }
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for DoExchange.
+ */
+public class TestDoExchange {
+
+  private static final int BATCH_COUNT = 10;
+  private static final int BATCH_SIZE = 64;
+  private static final Schema SCHEMA =
+      new Schema(Collections.singletonList(Field.nullable("a", new ArrowType.Int(32, true))));
+  private static final FlightDescriptor DESCRIPTOR =
+      FlightDescriptor.command("double".getBytes(StandardCharsets.UTF_8));
+
+  /**
+   * Send batches to the server, and read them back transformed.
+   */
+  @Test
+  public void transform() throws Exception {
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new DoublingProducer(allocator)).build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation()).build();
+         final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator);
+         final FlightClient.ExchangeReaderWriter exchange = client.doExchange(DESCRIPTOR, root)) {
+      final IntVector vector = (IntVector) root.getVector("a");
+      for (int batch = 0; batch < BATCH_COUNT; batch++) {
+        vector.allocateNew(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+          vector.set(i, batch * BATCH_SIZE + i);
+        }
+        root.setRowCount(BATCH_SIZE);
+        exchange.getWriter().putNext();
+      }
+      exchange.getWriter().completed();
+
+      final FlightStream reader = exchange.getReader();
+      int batch = 0;
+      while (reader.next()) {
+        final IntVector result = (IntVector) reader.getRoot().getVector("a");
+        Assert.assertEquals(BATCH_SIZE, reader.getRoot().getRowCount());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+          Assert.assertEquals(2 * (batch * BATCH_SIZE + i), result.get(i));
+        }
+        batch++;
+      }
+      Assert.assertEquals(BATCH_COUNT, batch);
+    }
+  }
+
+  /**
+   * Ensure that the producer can answer before reading the whole stream sent by the client.
+   */
+  @Test
+  public void respondWithoutReading() throws Exception {
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new CountingProducer(allocator)).build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation()).build();
+         final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator);
+         final FlightClient.ExchangeReaderWriter exchange = client.doExchange(DESCRIPTOR, root)) {
+      final FlightStream reader = exchange.getReader();
+      Assert.assertTrue(reader.next());
+      Assert.assertEquals(0, reader.getRoot().getRowCount());
+      Assert.assertFalse(reader.next());
+      exchange.getWriter().completed();
+    }
+  }
+
+  /**
+   * Ensure that producers which do not support exchanges fail the call.
+   */
+  @Test
+  public void unimplemented() throws Exception {
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new NoOpFlightProducer()).build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation()).build();
+         final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator);
+         final FlightClient.ExchangeReaderWriter exchange = client.doExchange(DESCRIPTOR, root)) {
+      exchange.getWriter().completed();
+      FlightTestUtil.assertCode(FlightStatusCode.UNIMPLEMENTED, () -> exchange.getReader().next());
+    }
+  }
+
+  /** Doubles the values sent by the client. */
+  private static class DoublingProducer extends NoOpFlightProducer {
+    private final BufferAllocator allocator;
+
+    DoublingProducer(BufferAllocator allocator) {
+      this.allocator = allocator;
+    }
+
+    @Override
+    public void doExchange(CallContext context, FlightStream reader, ServerStreamListener writer) {
+      final VectorSchemaRoot in = reader.getRoot();
+      Assert.assertEquals(DESCRIPTOR, reader.getDescriptor());
+      try (final VectorSchemaRoot out = VectorSchemaRoot.create(in.getSchema(), allocator)) {
+        writer.start(out);
+        final IntVector outVector = (IntVector) out.getVector("a");
+        while (reader.next()) {
+          final IntVector inVector = (IntVector) in.getVector("a");
+          outVector.allocateNew(in.getRowCount());
+          for (int i = 0; i < in.getRowCount(); i++) {
+            outVector.set(i, 2 * inVector.get(i));
+          }
+          out.setRowCount(in.getRowCount());
+          writer.putNext();
+        }
+        writer.completed();
+      }
+    }
+  }
+
+  /** Sends a single empty batch, without reading the data sent by the client. */
+  private static class CountingProducer extends NoOpFlightProducer {
+    private final BufferAllocator allocator;
+
+    CountingProducer(BufferAllocator allocator) {
+      this.allocator = allocator;
+    }
+
+    @Override
+    public void doExchange(CallContext context, FlightStream reader, ServerStreamListener writer) {
+      try (final VectorSchemaRoot out = VectorSchemaRoot.create(SCHEMA, allocator)) {
+        writer.start(out);
+        out.setRowCount(0);
+        writer.putNext();
+        writer.completed();
+      }
+    }
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.arrow.flight.auth.BasicServerAuthHandler;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.util.AutoCloseables;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FlightClientPool}.
+ */
+public class TestFlightClientPool {
+
+  private static final String USERNAME = "flight";
+  private static final String PASSWORD = "woohoo";
+  private static final byte[] VALID_TOKEN = "my_token".getBytes();
+
+  private BufferAllocator allocator;
+  private FlightServer server;
+
+  @Before
+  public void setup() throws IOException {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    server = FlightTestUtil.getStartedServer(
+        location -> FlightServer.builder(allocator, location, new NoOpFlightProducer()).build());
+  }
+
+  @After
+  public void shutdown() throws Exception {
+    AutoCloseables.close(server, allocator);
+  }
+
+  /**
+   * Ensure that a returned client is lent again.
+   */
+  @Test
+  public void reuse() throws Exception {
+    try (final FlightClientPool pool = FlightClientPool.builder(allocator).build()) {
+      final FlightClient client;
+      try (final FlightClientPool.Lease lease = pool.acquire(server.getLocation())) {
+        client = lease.getClient();
+        Assert.assertEquals(0, pool.getIdleCount(server.getLocation()));
+      }
+      Assert.assertEquals(1, pool.getIdleCount(server.getLocation()));
+      try (final FlightClientPool.Lease first = pool.acquire(server.getLocation());
+           final FlightClientPool.Lease second = pool.acquire(server.getLocation())) {
+        Assert.assertSame(client, first.getClient());
+        Assert.assertNotSame(client, second.getClient());
+        Assert.assertEquals(2, pool.getClientCount(server.getLocation()));
+      }
+    }
+  }
+
+  /**
+   * Ensure that clients are not shared across credentials.
+   */
+  @Test
+  public void credentials() throws Exception {
+    final BasicServerAuthHandler.BasicAuthValidator validator = new BasicServerAuthHandler.BasicAuthValidator() {
+      @Override
+      public byte[] getToken(String username, String password) {
+        if (USERNAME.equals(username) && PASSWORD.equals(password)) {
+          return VALID_TOKEN;
+        }
+        throw new IllegalArgumentException("invalid credentials");
+      }
+
+      @Override
+      public Optional<String> isValid(byte[] token) {
+        return Arrays.equals(token, VALID_TOKEN) ? Optional.of(USERNAME) : Optional.empty();
+      }
+    };
+    try (final FlightServer authServer = FlightTestUtil.getStartedServer(
+        location -> FlightServer.builder(allocator, location, new NoOpFlightProducer() {
+          @Override
+          public void listFlights(CallContext context, Criteria criteria, StreamListener<FlightInfo> listener) {
+            listener.onCompleted();
+          }
+        }).authHandler(new BasicServerAuthHandler(validator)).build());
+         final FlightClientPool pool = FlightClientPool.builder(allocator).build()) {
+      final Location location = authServer.getLocation();
+      try (final FlightClientPool.Lease lease = pool.acquire(location, USERNAME, PASSWORD)) {
+        lease.getClient().listFlights(Criteria.ALL).forEach(info -> Assert.fail());
+      }
+      try (final FlightClientPool.Lease lease = pool.acquire(location)) {
+        FlightTestUtil.assertCode(FlightStatusCode.UNAUTHENTICATED,
+            () -> lease.getClient().listFlights(Criteria.ALL).forEach(info -> Assert.fail()));
+      }
+      FlightTestUtil.assertCode(FlightStatusCode.UNAUTHENTICATED, () -> pool.acquire(location, USERNAME, "WRONG"));
+      Assert.assertEquals(2, pool.getClientCount(location));
+      try (final FlightClientPool.Lease lease = pool.acquire(location, USERNAME, PASSWORD)) {
+        lease.getClient().listFlights(Criteria.ALL).forEach(info -> Assert.fail());
+      }
+    }
+  }
+
+  /**
+   * Ensure that clients are shared once there are as many as allowed per location.
+   */
+  @Test
+  public void sharedClients() throws Exception {
+    final int maxPerLocation = 2;
+    try (final FlightClientPool pool = FlightClientPool.builder(allocator).maxPerLocation(maxPerLocation).build()) {
+      final List<FlightClientPool.Lease> leases = new ArrayList<>();
+      final Map<FlightClient, Integer> leasesPerClient = new IdentityHashMap<>();
+      for (int i = 0; i < 5; i++) {
+        final FlightClientPool.Lease lease = pool.acquire(server.getLocation());
+        leases.add(lease);
+        leasesPerClient.merge(lease.getClient(), 1, Integer::sum);
+      }
+      Assert.assertEquals(maxPerLocation, pool.getClientCount(server.getLocation()));
+      // Leases go to the least loaded client
+      Assert.assertEquals(Arrays.asList(2, 3), leasesPerClient.values().stream().sorted().collect(Collectors.toList()));
+
+      // An invalidated client is not lent again, but stays open until its last lease is returned
+      final FlightClient invalid = leases.get(0).getClient();
+      leases.get(0).invalidate();
+      leases.get(0).close();
+      Assert.assertEquals(1, pool.getClientCount(server.getLocation()));
+      Assert.assertTrue(invalid.isHealthy());
+      for (final FlightClientPool.Lease lease : leases) {
+        lease.close();
+      }
+      Assert.assertFalse(invalid.isHealthy());
+      Assert.assertEquals(1, pool.getIdleCount(server.getLocation()));
+    }
+  }
+
+  /**
+   * Ensure that the number of clients per location and of leases per client are bounded.
+   */
+  @Test
+  public void maxPerLocation() throws Exception {
+    try (final FlightClientPool pool = FlightClientPool.builder(allocator)
+        .maxPerLocation(1).maxLeasesPerClient(1).acquireTimeout(100, TimeUnit.MILLISECONDS).build()) {
+      final FlightClientPool.Lease lease = pool.acquire(server.getLocation());
+      FlightTestUtil.assertCode(FlightStatusCode.TIMED_OUT, () -> pool.acquire(server.getLocation()));
+
+      final CompletableFuture<FlightClient> waiting = CompletableFuture.supplyAsync(() -> {
+        try (final FlightClientPool.Lease next = pool.acquire(server.getLocation())) {
+          return next.getClient();
+        }
+      });
+      final FlightClient client = lease.getClient();
+      lease.close();
+      Assert.assertSame(client, waiting.get());
+      Assert.assertEquals(1, pool.getClientCount(server.getLocation()));
+    }
+  }
+
+  /**
+   * Ensure that idle clients are closed after the idle timeout.
+   */
+  @Test
+  public void idleEviction() throws Exception {
+    try (final FlightClientPool pool = FlightClientPool.builder(allocator)
+        .idleTimeout(50, TimeUnit.MILLISECONDS).build()) {
+      pool.acquire(server.getLocation()).close();
+      Assert.assertEquals(1, pool.getClientCount(server.getLocation()));
+      final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (pool.getClientCount(server.getLocation()) > 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(0, pool.getClientCount(server.getLocation()));
+    }
+  }
+
+  /**
+   * Ensure that clients failing the health check, or invalidated, are not lent again.
+   */
+  @Test
+  public void healthCheckAndInvalidate() throws Exception {
+    try (final FlightClientPool pool = FlightClientPool.builder(allocator).healthCheck(client -> false).build()) {
+      final FlightClient unhealthy;
+      try (final FlightClientPool.Lease lease = pool.acquire(server.getLocation())) {
+        unhealthy = lease.getClient();
+      }
+      try (final FlightClientPool.Lease lease = pool.acquire(server.getLocation())) {
+        Assert.assertNotSame(unhealthy, lease.getClient());
+        Assert.assertEquals(1, pool.getClientCount(server.getLocation()));
+      }
+    }
+
+    try (final FlightClientPool pool = FlightClientPool.builder(allocator).build()) {
+      final FlightClient invalid;
+      try (final FlightClientPool.Lease lease = pool.acquire(server.getLocation())) {
+        invalid = lease.getClient();
+        lease.invalidate();
+      }
+      Assert.assertEquals(0, pool.getClientCount(server.getLocation()));
+      try (final FlightClientPool.Lease lease = pool.acquire(server.getLocation())) {
+        Assert.assertNotSame(invalid, lease.getClient());
+      }
+    }
+  }
+}
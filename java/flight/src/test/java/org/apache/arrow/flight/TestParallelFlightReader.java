@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ParallelFlightReader}.
+ */
+public class TestParallelFlightReader {
+
+  private static final int BATCH_COUNT = 10;
+  private static final int BATCH_SIZE = 100;
+  private static final int FAILING_ENDPOINT = -1;
+  private static final Schema SCHEMA =
+      new Schema(Collections.singletonList(Field.nullable("a", new ArrowType.Int(32, true))));
+
+  /**
+   * Ensure that an ordered read returns the batches of each endpoint in turn.
+   */
+  @Test
+  public void ordered() {
+    test((first, second, client) -> {
+      final FlightInfo info = info(
+          endpoint(0, first), endpoint(1, second), endpoint(2, first), endpoint(3, second), endpoint(4, first));
+      try (final ParallelFlightReader reader = ParallelFlightReader.builder(first.allocator, info)
+          .maxConcurrentStreams(2).bufferedBatches(1).build()) {
+        for (int endpoint = 0; endpoint < 5; endpoint++) {
+          for (int batch = 0; batch < BATCH_COUNT; batch++) {
+            try (final VectorSchemaRoot root = reader.next()) {
+              assertBatch(root, endpoint, batch);
+            }
+          }
+        }
+        Assert.assertNull(reader.next());
+      }
+    });
+  }
+
+  /**
+   * Ensure that an unordered read returns all the batches, in order within each endpoint.
+   */
+  @Test
+  public void unordered() {
+    test((first, second, client) -> {
+      final FlightInfo info = info(
+          endpoint(0, first), endpoint(1, second), endpoint(2, first), endpoint(3, second));
+      try (final ParallelFlightReader reader = ParallelFlightReader.builder(first.allocator, info)
+          .maxConcurrentStreams(3).ordered(false).build()) {
+        final int[] nextBatch = new int[4];
+        VectorSchemaRoot root;
+        while ((root = reader.next()) != null) {
+          try (final VectorSchemaRoot batch = root) {
+            final int endpoint = ((IntVector) batch.getVector("a")).get(0) / (BATCH_COUNT * BATCH_SIZE);
+            assertBatch(batch, endpoint, nextBatch[endpoint]++);
+          }
+        }
+        for (int batches : nextBatch) {
+          Assert.assertEquals(BATCH_COUNT, batches);
+        }
+      }
+    });
+  }
+
+  /**
+   * Ensure that endpoints without locations are read from the default client, and that unreachable locations
+   * are skipped.
+   */
+  @Test
+  public void defaultClientAndFallback() {
+    test((first, second, client) -> {
+      final Location unreachable;
+      try (final FlightServer closed = FlightTestUtil.getStartedServer(
+          location -> FlightServer.builder(first.allocator, location, new NoOpFlightProducer()).build())) {
+        unreachable = closed.getLocation();
+      }
+      final FlightInfo info = info(
+          endpoint(0), endpoint(1, unreachable, second.server.getLocation()));
+      final Set<Integer> endpoints = new HashSet<>();
+      try (final ParallelFlightReader reader = ParallelFlightReader.builder(first.allocator, info)
+          .defaultClient(client).ordered(false).build()) {
+        VectorSchemaRoot root;
+        while ((root = reader.next()) != null) {
+          try (final VectorSchemaRoot batch = root) {
+            endpoints.add(((IntVector) batch.getVector("a")).get(0) / (BATCH_COUNT * BATCH_SIZE));
+          }
+        }
+      }
+      Assert.assertEquals(new HashSet<>(Arrays.asList(0, 1)), endpoints);
+    });
+  }
+
+  /**
+   * Ensure that clients borrowed from a pool are returned to it.
+   */
+  @Test
+  public void pooledClients() {
+    test((first, second, client) -> {
+      final FlightInfo info = info(endpoint(0, first), endpoint(1, second), endpoint(2, first));
+      try (final FlightClientPool pool = FlightClientPool.builder(first.allocator).build()) {
+        for (int read = 0; read < 2; read++) {
+          try (final ParallelFlightReader reader = ParallelFlightReader.builder(first.allocator, info)
+              .clientPool(pool).maxConcurrentStreams(2).build()) {
+            for (int endpoint = 0; endpoint < 3; endpoint++) {
+              for (int batch = 0; batch < BATCH_COUNT; batch++) {
+                try (final VectorSchemaRoot root = reader.next()) {
+                  assertBatch(root, endpoint, batch);
+                }
+              }
+            }
+            Assert.assertNull(reader.next());
+          }
+        }
+        // a reader reads at most two endpoints of the first location at once
+        Assert.assertTrue(pool.getClientCount(first.server.getLocation()) <= 2);
+        Assert.assertEquals(1, pool.getClientCount(second.server.getLocation()));
+      }
+    });
+  }
+
+  /**
+   * Ensure that the failure of an endpoint is reported, and that everything is released.
+   */
+  @Test
+  public void failure() {
+    test((first, second, client) -> {
+      final FlightInfo info = info(
+          endpoint(0, first), endpoint(FAILING_ENDPOINT, second), endpoint(2, first));
+      try (final ParallelFlightReader reader = ParallelFlightReader.builder(first.allocator, info)
+          .maxConcurrentStreams(3).build()) {
+        final CallStatus status = FlightTestUtil.assertCode(FlightStatusCode.INTERNAL, () -> {
+          VectorSchemaRoot root;
+          while ((root = reader.next()) != null) {
+            root.close();
+          }
+        });
+        Assert.assertEquals("Endpoint failed", status.description());
+      }
+    });
+  }
+
+  /**
+   * Ensure that a reader can be closed before all endpoints are read.
+   */
+  @Test
+  public void closeEarly() {
+    test((first, second, client) -> {
+      final FlightInfo info = info(endpoint(0, first), endpoint(1, second), endpoint(2, first));
+      try (final ParallelFlightReader reader = ParallelFlightReader.builder(first.allocator, info).build()) {
+        try (final VectorSchemaRoot root = reader.next()) {
+          assertBatch(root, 0, 0);
+        }
+      }
+    });
+  }
+
+  private static FlightInfo info(FlightEndpoint... endpoints) {
+    final List<FlightEndpoint> list = new ArrayList<>();
+    Collections.addAll(list, endpoints);
+    return new FlightInfo(SCHEMA, FlightDescriptor.path("test"), list, -1, -1);
+  }
+
+  private static FlightEndpoint endpoint(int index, Location... locations) {
+    return new FlightEndpoint(new Ticket(ByteBuffer.allocate(4).putInt(index).array()), locations);
+  }
+
+  private static FlightEndpoint endpoint(int index, TestServer server) {
+    return endpoint(index, server.server.getLocation());
+  }
+
+  private static void assertBatch(VectorSchemaRoot root, int endpoint, int batch) {
+    Assert.assertEquals(BATCH_SIZE, root.getRowCount());
+    final IntVector vector = (IntVector) root.getVector("a");
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      Assert.assertEquals((endpoint * BATCH_COUNT + batch) * BATCH_SIZE + i, vector.get(i));
+    }
+  }
+
+  private static class TestServer {
+    final BufferAllocator allocator;
+    final FlightServer server;
+
+    TestServer(BufferAllocator allocator, FlightServer server) {
+      this.allocator = allocator;
+      this.server = server;
+    }
+  }
+
+  private interface ReaderTest {
+    void run(TestServer first, TestServer second, FlightClient client) throws Exception;
+  }
+
+  private static void test(ReaderTest test) {
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer first = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new Producer(allocator)).build());
+         final FlightServer second = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new Producer(allocator)).build());
+         final FlightClient client = FlightClient.builder(allocator, first.getLocation()).build()) {
+      test.run(new TestServer(allocator, first), new TestServer(allocator, second), client);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static class Producer extends NoOpFlightProducer {
+    private final BufferAllocator allocator;
+
+    Producer(BufferAllocator allocator) {
+      this.allocator = allocator;
+    }
+
+    @Override
+    public void getStream(CallContext context, Ticket ticket, ServerStreamListener listener) {
+      final int endpoint = ByteBuffer.wrap(ticket.getBytes()).getInt();
+      try (final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+        listener.start(root);
+        final IntVector vector = (IntVector) root.getVector("a");
+        for (int batch = 0; batch < BATCH_COUNT; batch++) {
+          if (endpoint == FAILING_ENDPOINT && batch == 2) {
+            listener.error(CallStatus.INTERNAL.withDescription("Endpoint failed").toRuntimeException());
+            return;
+          }
+          vector.allocateNew(BATCH_SIZE);
+          for (int i = 0; i < BATCH_SIZE; i++) {
+            vector.set(i, (endpoint * BATCH_COUNT + batch) * BATCH_SIZE + i);
+          }
+          root.setRowCount(BATCH_SIZE);
+          listener.putNext();
+        }
+        listener.completed();
+      }
+    }
+  }
+}
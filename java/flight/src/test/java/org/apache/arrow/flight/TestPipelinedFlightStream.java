@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Tests for {@link PipelinedFlightStream}.
+ */
+public class TestPipelinedFlightStream {
+
+  private static final int BATCH_COUNT = 20;
+  private static final int BATCH_SIZE = 100;
+  private static final Schema SCHEMA =
+      new Schema(Collections.singletonList(Field.nullable("a", new ArrowType.Int(32, true))));
+
+  /**
+   * Ensure that batches are read in order, and that several roots can be held at once.
+   */
+  @Test
+  public void readWithRelease() {
+    test(client -> {
+      try (final PipelinedFlightStream stream = client.getStream(new Ticket(new byte[0])).pipelined(3)) {
+        final List<VectorSchemaRoot> held = new ArrayList<>();
+        int batch = 0;
+        VectorSchemaRoot root;
+        while ((root = stream.next()) != null) {
+          Assert.assertEquals(batch, stream.getMetadata(root).getInt(0));
+          assertBatch(root, batch++);
+          held.add(root);
+          if (held.size() == 3) {
+            held.forEach(stream::release);
+            held.clear();
+          }
+        }
+        held.forEach(stream::release);
+        Assert.assertEquals(BATCH_COUNT, batch);
+        Assert.assertNull(stream.next());
+      }
+    });
+  }
+
+  /**
+   * Ensure that batches and their metadata can be owned by the application after the stream is closed.
+   */
+  @Test
+  public void readWithTakeRoot() {
+    test(client -> {
+      final List<VectorSchemaRoot> taken = new ArrayList<>();
+      try (final PipelinedFlightStream stream = client.getStream(new Ticket(new byte[0])).pipelined(2)) {
+        VectorSchemaRoot root;
+        while ((root = stream.takeRoot()) != null) {
+          try (final ArrowBuf metadata = stream.takeMetadata(root)) {
+            Assert.assertEquals(taken.size(), metadata.getInt(0));
+          }
+          taken.add(root);
+        }
+      }
+      Assert.assertEquals(BATCH_COUNT, taken.size());
+      for (int i = 0; i < taken.size(); i++) {
+        try (final VectorSchemaRoot root = taken.get(i)) {
+          assertBatch(root, i);
+        }
+      }
+    });
+  }
+
+  /**
+   * Ensure that a stream can be closed before it is read to the end.
+   */
+  @Test
+  public void closeEarly() {
+    test(client -> {
+      try (final PipelinedFlightStream stream = client.getStream(new Ticket(new byte[0])).pipelined(2)) {
+        final VectorSchemaRoot root = stream.next();
+        assertBatch(root, 0);
+      }
+    });
+  }
+
+  private static void assertBatch(VectorSchemaRoot root, int batch) {
+    Assert.assertEquals(BATCH_SIZE, root.getRowCount());
+    final IntVector vector = (IntVector) root.getVector("a");
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      Assert.assertEquals(batch * BATCH_SIZE + i, vector.get(i));
+    }
+  }
+
+  private interface ClientTest {
+    void run(FlightClient client) throws Exception;
+  }
+
+  private static void test(ClientTest test) {
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      final Producer producer = new Producer(allocator);
+      try (final FlightServer server = FlightTestUtil.getStartedServer(
+          location -> FlightServer.builder(allocator, location, producer).build());
+           final FlightClient client = FlightClient.builder(allocator, server.getLocation()).build()) {
+        test.run(client);
+        // The server does not wait for running calls when it shuts down, so a producer still sending to a
+        // cancelled call could otherwise close its root after the allocator
+        Assert.assertTrue(producer.done.await(10, TimeUnit.SECONDS));
+      }
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static class Producer extends NoOpFlightProducer {
+    private final BufferAllocator allocator;
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    Producer(BufferAllocator allocator) {
+      this.allocator = allocator;
+    }
+
+    @Override
+    public void getStream(CallContext context, Ticket ticket, ServerStreamListener listener) {
+      try (final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+        listener.start(root);
+        final IntVector vector = (IntVector) root.getVector("a");
+        for (int batch = 0; batch < BATCH_COUNT; batch++) {
+          vector.allocateNew(BATCH_SIZE);
+          for (int i = 0; i < BATCH_SIZE; i++) {
+            vector.set(i, batch * BATCH_SIZE + i);
+          }
+          root.setRowCount(BATCH_SIZE);
+          final ArrowBuf metadata = allocator.buffer(4);
+          metadata.writeInt(batch);
+          listener.putNext(metadata);
+        }
+        listener.completed();
+      } finally {
+        done.countDown();
+      }
+    }
+  }
+}
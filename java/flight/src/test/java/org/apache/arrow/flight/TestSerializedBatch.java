@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Tests for {@link SerializedBatch}.
+ */
+public class TestSerializedBatch {
+
+  private static final int BATCH_COUNT = 5;
+  private static final int BATCH_SIZE = 100;
+  private static final int CLIENT_COUNT = 8;
+  private static final Schema SCHEMA =
+      new Schema(Collections.singletonList(Field.nullable("a", new ArrowType.Int(32, true))));
+
+  /**
+   * Ensure that batches serialized once can be sent to many clients concurrently, and are released afterwards.
+   */
+  @Test
+  public void broadcast() throws Exception {
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final BufferAllocator producerAllocator = allocator.newChildAllocator("producer", 0, Long.MAX_VALUE)) {
+      final List<SerializedBatch> batches = serialize(producerAllocator);
+      final long serializedBytes = producerAllocator.getAllocatedMemory();
+      try (final FlightServer server = FlightTestUtil.getStartedServer(
+          location -> FlightServer.builder(allocator, location, new BroadcastProducer(producerAllocator, batches))
+              .build())) {
+        final List<CompletableFuture<Void>> reads = new ArrayList<>();
+        for (int i = 0; i < CLIENT_COUNT; i++) {
+          reads.add(CompletableFuture.runAsync(() -> {
+            try (final FlightClient client = FlightClient.builder(allocator, server.getLocation()).build()) {
+              readAndCheck(client);
+            } catch (Exception e) {
+              throw new RuntimeException(e);
+            }
+          }));
+        }
+        for (final CompletableFuture<Void> read : reads) {
+          read.get();
+        }
+        // Sending did not copy nor serialize the batches again in the producer's allocator
+        Assert.assertEquals(serializedBytes, producerAllocator.getAllocatedMemory());
+      } finally {
+        AutoCloseables.close(batches);
+      }
+    }
+  }
+
+  private static List<SerializedBatch> serialize(BufferAllocator allocator) {
+    final List<SerializedBatch> batches = new ArrayList<>();
+    try (final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+      final IntVector vector = (IntVector) root.getVector("a");
+      for (int batch = 0; batch < BATCH_COUNT; batch++) {
+        vector.allocateNew(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+          vector.set(i, batch * BATCH_SIZE + i);
+        }
+        root.setRowCount(BATCH_SIZE);
+        final ArrowBuf metadata = allocator.buffer(4);
+        metadata.writeInt(batch);
+        batches.add(SerializedBatch.serialize(allocator, root, metadata));
+      }
+    }
+    return batches;
+  }
+
+  private static void readAndCheck(FlightClient client) throws Exception {
+    try (final FlightStream stream = client.getStream(new Ticket(new byte[0]))) {
+      final VectorSchemaRoot root = stream.getRoot();
+      int batch = 0;
+      while (stream.next()) {
+        Assert.assertEquals(BATCH_SIZE, root.getRowCount());
+        final IntVector vector = (IntVector) root.getVector("a");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+          Assert.assertEquals(batch * BATCH_SIZE + i, vector.get(i));
+        }
+        Assert.assertEquals(batch, stream.getLatestMetadata().getInt(0));
+        batch++;
+      }
+      Assert.assertEquals(BATCH_COUNT, batch);
+    }
+  }
+
+  private static class BroadcastProducer extends NoOpFlightProducer {
+    private final BufferAllocator allocator;
+    private final List<SerializedBatch> batches;
+
+    BroadcastProducer(BufferAllocator allocator, List<SerializedBatch> batches) {
+      this.allocator = allocator;
+      this.batches = batches;
+    }
+
+    @Override
+    public void getStream(CallContext context, Ticket ticket, ServerStreamListener listener) {
+      try (final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+        listener.start(root);
+        for (final SerializedBatch batch : batches) {
+          listener.putSerialized(batch);
+        }
+        listener.completed();
+      }
+    }
+  }
+}
@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.arrow.flight.metrics.FlightMetrics;
+import org.apache.arrow.flight.metrics.FlightMetricsMiddleware;
+import org.apache.arrow.flight.metrics.MethodMetrics;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link SharedMemoryTransport}.
+ */
+public class TestSharedMemoryTransport {
+
+  private static final int BATCH_COUNT = 10;
+  private static final int BATCH_SIZE = 4096;
+  private static final int MIN_BODY_SIZE = 1024;
+  private static final Schema SCHEMA =
+      new Schema(Collections.singletonList(Field.nullable("a", new ArrowType.Int(32, true))));
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Ensure that DoGet bodies are sent through shared memory when both peers enable it.
+   */
+  @Test
+  public void doGet() throws Exception {
+    final SharedMemoryTransport sharedMemory = SharedMemoryTransport.create(folder.getRoot().toPath(), MIN_BODY_SIZE);
+    try (final FlightMetrics clientMetrics = new FlightMetrics("client");
+         final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new Producer(allocator))
+                 .sharedMemory(sharedMemory)
+                 .build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation())
+             .sharedMemory(sharedMemory)
+             .intercept(clientMetrics.clientMiddleware())
+             .build()) {
+      readStream(client);
+      final MethodMetrics metrics = clientMetrics.getMetrics(FlightMethod.DO_GET);
+      Assert.assertEquals(BATCH_COUNT, metrics.getBatchesReceived());
+      // Only the headers went through the socket
+      Assert.assertTrue(metrics.getBytesReceived() < BATCH_COUNT * MIN_BODY_SIZE);
+      assertNoFiles();
+    }
+  }
+
+  /**
+   * Ensure that bodies are sent inline to clients which did not enable shared memory.
+   */
+  @Test
+  public void doGetNotNegotiated() throws Exception {
+    final SharedMemoryTransport sharedMemory = SharedMemoryTransport.create(folder.getRoot().toPath(), MIN_BODY_SIZE);
+    try (final FlightMetrics clientMetrics = new FlightMetrics("client");
+         final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new Producer(allocator))
+                 .sharedMemory(sharedMemory)
+                 .build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation())
+             .intercept(clientMetrics.clientMiddleware())
+             .build()) {
+      readStream(client);
+      final MethodMetrics metrics = clientMetrics.getMetrics(FlightMethod.DO_GET);
+      Assert.assertTrue(metrics.getBytesReceived() > BATCH_COUNT * BATCH_SIZE * 4);
+    }
+  }
+
+  /**
+   * Ensure that DoPut bodies are received through shared memory by the server, once it accepted them.
+   */
+  @Test
+  public void doPut() throws Exception {
+    final SharedMemoryTransport sharedMemory = SharedMemoryTransport.create(folder.getRoot().toPath(), MIN_BODY_SIZE);
+    try (final FlightMetrics serverMetrics = new FlightMetrics("server");
+         final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final Producer producer = new Producer(allocator);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, producer)
+                 .sharedMemory(sharedMemory)
+                 .middleware(FlightMetricsMiddleware.KEY, serverMetrics.serverMiddleware())
+                 .build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation())
+             .sharedMemory(sharedMemory)
+             .build()) {
+      putStream(client, allocator);
+
+      Assert.assertEquals(BATCH_COUNT, producer.batchesReceived.get());
+      final MethodMetrics metrics = serverMetrics.getMetrics(FlightMethod.DO_PUT);
+      Assert.assertEquals(BATCH_COUNT, metrics.getBatchesReceived());
+      // The first batch may be sent inline, before the response headers of the server are received
+      Assert.assertTrue(metrics.getBytesReceived() < BATCH_SIZE * 4 + BATCH_COUNT * MIN_BODY_SIZE);
+      assertNoFiles();
+    }
+  }
+
+  /**
+   * Ensure that a client sends bodies inline to a server which did not enable shared memory.
+   */
+  @Test
+  public void doPutNotNegotiated() throws Exception {
+    final SharedMemoryTransport sharedMemory = SharedMemoryTransport.create(folder.getRoot().toPath(), MIN_BODY_SIZE);
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final Producer producer = new Producer(allocator);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, producer).build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation())
+             .sharedMemory(sharedMemory)
+             .build()) {
+      putStream(client, allocator);
+      Assert.assertEquals(BATCH_COUNT, producer.batchesReceived.get());
+      assertNoFiles();
+    }
+  }
+
+  /**
+   * Ensure that peers using different directories, e.g. on different hosts, send bodies inline.
+   */
+  @Test
+  public void differentDirectories() throws Exception {
+    final SharedMemoryTransport serverMemory =
+        SharedMemoryTransport.create(folder.newFolder("server").toPath(), MIN_BODY_SIZE);
+    final SharedMemoryTransport clientMemory =
+        SharedMemoryTransport.create(folder.newFolder("client").toPath(), MIN_BODY_SIZE);
+    try (final FlightMetrics clientMetrics = new FlightMetrics("client");
+         final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final Producer producer = new Producer(allocator);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, producer)
+                 .sharedMemory(serverMemory)
+                 .build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation())
+             .sharedMemory(clientMemory)
+             .intercept(clientMetrics.clientMiddleware())
+             .build()) {
+      readStream(client);
+      Assert.assertTrue(clientMetrics.getMetrics(FlightMethod.DO_GET).getBytesReceived() >
+          BATCH_COUNT * BATCH_SIZE * 4);
+      putStream(client, allocator);
+      Assert.assertEquals(BATCH_COUNT, producer.batchesReceived.get());
+    }
+  }
+
+  /**
+   * Ensure that the files not received are deleted when the client cancels the stream.
+   */
+  @Test
+  public void cancel() throws Exception {
+    final SharedMemoryTransport sharedMemory = SharedMemoryTransport.create(folder.getRoot().toPath(), MIN_BODY_SIZE);
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new Producer(allocator))
+                 .sharedMemory(sharedMemory)
+                 .build())) {
+      try (final FlightClient client = FlightClient.builder(allocator, server.getLocation())
+          .sharedMemory(sharedMemory)
+          .build()) {
+        try (final FlightStream stream = client.getStream(new Ticket(new byte[0]))) {
+          Assert.assertTrue(stream.next());
+          assertBatch(stream.getRoot(), 0);
+          stream.cancel("Stop", null);
+        }
+      }
+      // Files written after the cancellation are deleted by the server once it is notified
+      final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (listFiles().length > 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertNoFiles();
+    }
+  }
+
+  /**
+   * Ensure that only files created by the transport in its directory can be mapped.
+   */
+  @Test
+  public void rejectForeignFiles() throws Exception {
+    final SharedMemoryTransport sharedMemory = SharedMemoryTransport.create(folder.getRoot().toPath(), MIN_BODY_SIZE);
+    final File other = folder.newFile("other");
+    Files.write(other.toPath(), new byte[16]);
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      Assertions.assertThrows(FlightRuntimeException.class, () -> sharedMemory.map("other", 16, allocator));
+      Assertions.assertThrows(FlightRuntimeException.class,
+          () -> sharedMemory.map("arrow-flight-../other", 16, allocator));
+      Assertions.assertThrows(FlightRuntimeException.class,
+          () -> sharedMemory.map(".arrow-flight-shared-memory-token", 16, allocator));
+      Assert.assertTrue(other.exists());
+      // The token identifying the directory is shared by the instances using it
+      Assert.assertEquals(1, folder.getRoot().listFiles((dir, name) -> name.startsWith(".arrow-flight")).length);
+      SharedMemoryTransport.create(folder.getRoot().toPath(), MIN_BODY_SIZE);
+      Assert.assertEquals(1, folder.getRoot().listFiles((dir, name) -> name.startsWith(".arrow-flight")).length);
+    }
+  }
+
+  private void assertNoFiles() {
+    Assert.assertEquals(0, listFiles().length);
+  }
+
+  private File[] listFiles() {
+    final Path directory = folder.getRoot().toPath();
+    return directory.toFile().listFiles((dir, name) -> name.startsWith("arrow-flight-"));
+  }
+
+  private static void readStream(FlightClient client) throws Exception {
+    try (final FlightStream stream = client.getStream(new Ticket(new byte[0]))) {
+      int batch = 0;
+      while (stream.next()) {
+        assertBatch(stream.getRoot(), batch++);
+      }
+      Assert.assertEquals(BATCH_COUNT, batch);
+    }
+  }
+
+  /**
+   * Upload a stream, waiting for the server to acknowledge the first batch, so the response headers are received.
+   */
+  private static void putStream(FlightClient client, BufferAllocator allocator) throws Exception {
+    try (final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+      final SyncPutListener putListener = new SyncPutListener();
+      final FlightClient.ClientStreamListener listener =
+          client.startPut(FlightDescriptor.path("test"), root, putListener);
+      for (int batch = 0; batch < BATCH_COUNT; batch++) {
+        fill(root, batch);
+        listener.putNext();
+        if (batch == 0) {
+          putListener.read().close();
+        }
+      }
+      listener.completed();
+      listener.getResult();
+    }
+  }
+
+  private static void assertBatch(VectorSchemaRoot root, int batch) {
+    Assert.assertEquals(BATCH_SIZE, root.getRowCount());
+    final IntVector vector = (IntVector) root.getVector("a");
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      Assert.assertEquals(batch * BATCH_SIZE + i, vector.get(i));
+    }
+  }
+
+  private static void fill(VectorSchemaRoot root, int batch) {
+    final IntVector vector = (IntVector) root.getVector("a");
+    vector.allocateNew(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      vector.set(i, batch * BATCH_SIZE + i);
+    }
+    root.setRowCount(BATCH_SIZE);
+  }
+
+  private static class Producer extends NoOpFlightProducer implements AutoCloseable {
+    private final BufferAllocator allocator;
+    private final AtomicInteger batchesReceived = new AtomicInteger();
+
+    Producer(BufferAllocator allocator) {
+      this.allocator = allocator;
+    }
+
+    @Override
+    public void getStream(CallContext context, Ticket ticket, ServerStreamListener listener) {
+      try (final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+        listener.start(root);
+        for (int batch = 0; batch < BATCH_COUNT && !context.isCancelled(); batch++) {
+          fill(root, batch);
+          listener.putNext();
+        }
+        listener.completed();
+      }
+    }
+
+    @Override
+    public Runnable acceptPut(CallContext context, FlightStream flightStream, StreamListener<PutResult> ackStream) {
+      return () -> {
+        batchesReceived.set(0);
+        while (flightStream.next()) {
+          if (batchesReceived.get() == 0) {
+            ackStream.onNext(PutResult.empty());
+          }
+          assertBatch(flightStream.getRoot(), batchesReceived.getAndIncrement());
+        }
+        ackStream.onCompleted();
+      };
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight.grpc;
+
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.grpc.internal.CompositeReadableBuffer;
+import io.grpc.internal.ReadableBuffer;
+import io.grpc.internal.ReadableBuffers;
+import io.netty.buffer.ArrowBuf;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+public class TestGetReadableBuffer {
+
+  /** Creates a stream like the ones gRPC hands to marshallers, over the given Netty buffers. */
+  private static InputStream createStream(ByteBuf... byteBufs) throws Exception {
+    Constructor<?> constructor =
+        Class.forName("io.grpc.netty.NettyReadableBuffer").getDeclaredConstructor(ByteBuf.class);
+    constructor.setAccessible(true);
+    CompositeReadableBuffer composite = new CompositeReadableBuffer();
+    for (ByteBuf byteBuf : byteBufs) {
+      composite.addBuffer((ReadableBuffer) constructor.newInstance(byteBuf));
+    }
+    return ReadableBuffers.openStream(composite, true);
+  }
+
+  private static ByteBuf createByteBuf(int size, int start) {
+    ByteBuf byteBuf = PooledByteBufAllocator.DEFAULT.directBuffer(size);
+    for (int i = 0; i < size; i++) {
+      byteBuf.writeByte(start + i);
+    }
+    return byteBuf;
+  }
+
+  @Test
+  public void testWrapWithoutCopy() throws Exception {
+    final ByteBuf byteBuf = createByteBuf(64, 0);
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      try (final InputStream stream = createStream(byteBuf)) {
+        Assert.assertEquals(0, stream.read());
+        try (final ArrowBuf buf = GetReadableBuffer.tryWrapBuffer(stream, 32, allocator)) {
+          Assert.assertNotNull(buf);
+          Assert.assertEquals(32, allocator.getAllocatedMemory());
+          Assert.assertEquals(1, buf.getByte(0));
+          Assert.assertEquals(32, buf.getByte(31));
+          Assert.assertEquals(31, stream.available());
+
+          // closing the stream releases the reference of gRPC, not the one of the ArrowBuf
+          stream.close();
+          Assert.assertEquals(1, byteBuf.refCnt());
+          Assert.assertEquals(32, buf.getByte(31));
+
+          try (final ArrowBuf slice = buf.slice(8, 8)) {
+            slice.getReferenceManager().retain();
+            Assert.assertEquals(9, slice.getByte(0));
+          }
+        }
+        Assert.assertEquals(0, allocator.getAllocatedMemory());
+        Assert.assertEquals(0, byteBuf.refCnt());
+      }
+    }
+  }
+
+  @Test
+  public void testTransferOwnership() throws Exception {
+    final ByteBuf byteBuf = createByteBuf(16, 0);
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final BufferAllocator child1 = allocator.newChildAllocator("child1", 0, Long.MAX_VALUE);
+         final BufferAllocator child2 = allocator.newChildAllocator("child2", 0, Long.MAX_VALUE);
+         final InputStream stream = createStream(byteBuf)) {
+      final ArrowBuf buf = GetReadableBuffer.tryWrapBuffer(stream, 16, child1);
+      Assert.assertNotNull(buf);
+      Assert.assertEquals(16, child1.getAllocatedMemory());
+
+      final ArrowBuf transferred = buf.getReferenceManager().transferOwnership(buf, child2).getTransferredBuffer();
+      buf.close();
+      Assert.assertEquals(0, child1.getAllocatedMemory());
+      Assert.assertEquals(16, child2.getAllocatedMemory());
+      Assert.assertEquals(15, transferred.getByte(15));
+
+      transferred.close();
+      Assert.assertEquals(0, child2.getAllocatedMemory());
+    }
+    Assert.assertEquals(0, byteBuf.refCnt());
+  }
+
+  @Test
+  public void testFallBackToCopy() throws Exception {
+    final ByteBuf byteBuf1 = createByteBuf(8, 0);
+    final ByteBuf byteBuf2 = createByteBuf(8, 8);
+    try (final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final InputStream stream = createStream(byteBuf1, byteBuf2)) {
+      // the bytes span two buffers, so they are not contiguous
+      Assert.assertNull(GetReadableBuffer.tryWrapBuffer(stream, 12, allocator));
+      Assert.assertEquals(16, stream.available());
+      Assert.assertEquals(0, allocator.getAllocatedMemory());
+    }
+  }
+}
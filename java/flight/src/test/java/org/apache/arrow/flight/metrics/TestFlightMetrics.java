@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.flight.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.flight.FlightClient;
+import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightMethod;
+import org.apache.arrow.flight.FlightServer;
+import org.apache.arrow.flight.FlightStream;
+import org.apache.arrow.flight.FlightTestUtil;
+import org.apache.arrow.flight.NoOpFlightProducer;
+import org.apache.arrow.flight.PutResult;
+import org.apache.arrow.flight.SyncPutListener;
+import org.apache.arrow.flight.Ticket;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * Tests for {@link FlightMetrics}.
+ */
+public class TestFlightMetrics {
+
+  private static final int BATCH_COUNT = 10;
+  private static final int BATCH_SIZE = 1024;
+  private static final int STALLED_BATCH_COUNT = 500;
+  private static final Schema SCHEMA =
+      new Schema(Collections.singletonList(Field.nullable("a", new ArrowType.Int(32, true))));
+
+  @Test
+  public void doGet() throws Exception {
+    try (final FlightMetrics serverMetrics = new FlightMetrics("server");
+         final FlightMetrics clientMetrics = new FlightMetrics("client");
+         final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new Producer(allocator))
+                 .middleware(FlightMetricsMiddleware.KEY, serverMetrics.serverMiddleware())
+                 .build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation())
+             .intercept(clientMetrics.clientMiddleware())
+             .build()) {
+      try (final FlightStream stream = client.getStream(new Ticket(new byte[0]))) {
+        while (stream.next()) {
+          // drain the stream
+        }
+      }
+
+      final MethodMetrics clientGet = clientMetrics.getMetrics(FlightMethod.DO_GET);
+      Assert.assertEquals(1, clientGet.getCalls());
+      Assert.assertEquals(0, clientGet.getFailedCalls());
+      Assert.assertEquals(BATCH_COUNT, clientGet.getBatchesReceived());
+      Assert.assertTrue(clientGet.getBytesReceived() > BATCH_COUNT * BATCH_SIZE * 4);
+      Assert.assertTrue(clientGet.getBatchesPerSecond() > 0);
+      Assert.assertEquals(1, sum(clientGet.getTimeToFirstBatchHistogram()));
+
+      final MethodMetrics serverGet = serverMetrics.getMetrics(FlightMethod.DO_GET);
+      awaitCalls(serverGet, 1);
+      Assert.assertEquals(BATCH_COUNT, serverGet.getBatchesSent());
+      Assert.assertEquals(clientGet.getBytesReceived(), serverGet.getBytesSent());
+      Assert.assertEquals(1, sum(serverGet.getCallDurationHistogram()));
+      Assert.assertEquals(0, serverMetrics.getMetrics(FlightMethod.DO_PUT).getCalls());
+    }
+  }
+
+  @Test
+  public void doGetStalled() throws Exception {
+    try (final FlightMetrics serverMetrics = new FlightMetrics("server");
+         final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new Producer(allocator, STALLED_BATCH_COUNT))
+                 .middleware(FlightMetricsMiddleware.KEY, serverMetrics.serverMiddleware())
+                 .build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation()).build()) {
+      try (final FlightStream stream = client.getStream(new Ticket(new byte[0]))) {
+        // read slowly, so the transport of the server fills up
+        int batches = 0;
+        while (stream.next()) {
+          if (batches++ % 10 == 0) {
+            Thread.sleep(50);
+          }
+        }
+        Assert.assertEquals(STALLED_BATCH_COUNT, batches);
+      }
+
+      final MethodMetrics serverGet = serverMetrics.getMetrics(FlightMethod.DO_GET);
+      awaitCalls(serverGet, 1);
+      Assert.assertTrue(serverGet.getStalls() > 0);
+      // each stall lasts until the client reads again
+      Assert.assertTrue("Stall time: " + serverGet.getStallMicros(),
+          serverGet.getStallMicros() >= TimeUnit.MILLISECONDS.toMicros(10) * serverGet.getStalls());
+    }
+  }
+
+  @Test
+  public void doPut() throws Exception {
+    try (final FlightMetrics serverMetrics = new FlightMetrics("server");
+         final FlightMetrics clientMetrics = new FlightMetrics("client");
+         final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         final FlightServer server = FlightTestUtil.getStartedServer(
+             location -> FlightServer.builder(allocator, location, new Producer(allocator))
+                 .middleware(FlightMetricsMiddleware.KEY, serverMetrics.serverMiddleware())
+                 .build());
+         final FlightClient client = FlightClient.builder(allocator, server.getLocation())
+             .intercept(clientMetrics.clientMiddleware())
+             .build();
+         final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+      final FlightClient.ClientStreamListener listener =
+          client.startPut(FlightDescriptor.path("test"), root, new SyncPutListener());
+      for (int batch = 0; batch < BATCH_COUNT; batch++) {
+        fill(root, batch);
+        listener.putNext();
+      }
+      listener.completed();
+      listener.getResult();
+
+      final MethodMetrics clientPut = clientMetrics.getMetrics(FlightMethod.DO_PUT);
+      Assert.assertEquals(BATCH_COUNT, clientPut.getBatchesSent());
+      final MethodMetrics serverPut = serverMetrics.getMetrics(FlightMethod.DO_PUT);
+      awaitCalls(serverPut, 1);
+      Assert.assertEquals(BATCH_COUNT, serverPut.getBatchesReceived());
+      Assert.assertEquals(clientPut.getBytesSent(), serverPut.getBytesReceived());
+    }
+  }
+
+  @Test
+  public void jmx() throws Exception {
+    try (final FlightMetrics metrics = new FlightMetrics("jmx-test")) {
+      metrics.registerMBeans();
+      metrics.getMetrics(FlightMethod.DO_GET).onBatchSent(100, 1000);
+      final Object batches = ManagementFactory.getPlatformMBeanServer()
+          .getAttribute(metrics.getObjectName(FlightMethod.DO_GET), "BatchesSent");
+      Assert.assertEquals(1L, batches);
+      Assertions.assertThrows(IllegalStateException.class, metrics::registerMBeans);
+    }
+    Assert.assertTrue(ManagementFactory.getPlatformMBeanServer()
+        .queryNames(new FlightMetrics("jmx-test").getObjectName(FlightMethod.DO_GET), null).isEmpty());
+  }
+
+  @Test
+  public void histogram() {
+    Assert.assertEquals(0, LatencyHistogram.bucketOf(0));
+    Assert.assertEquals(0, LatencyHistogram.bucketOf(1));
+    Assert.assertEquals(1, LatencyHistogram.bucketOf(2));
+    Assert.assertEquals(1, LatencyHistogram.bucketOf(3));
+    Assert.assertEquals(10, LatencyHistogram.bucketOf(1024));
+    Assert.assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+
+    final LatencyHistogram histogram = new LatencyHistogram();
+    Assert.assertEquals(0, histogram.getPercentileMicros(50));
+    for (int i = 0; i < 99; i++) {
+      histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+    }
+    histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+    Assert.assertEquals(100, histogram.getCount());
+    Assert.assertEquals(16, histogram.getPercentileMicros(50));
+    Assert.assertEquals(16, histogram.getPercentileMicros(99));
+    Assert.assertEquals(1L << 17, histogram.getPercentileMicros(100));
+    Assert.assertEquals(1009.9, histogram.getMeanMicros(), 0.01);
+  }
+
+  private static long sum(long[] buckets) {
+    long sum = 0;
+    for (long bucket : buckets) {
+      sum += bucket;
+    }
+    return sum;
+  }
+
+  /** Server calls complete asynchronously to the client. */
+  private static void awaitCalls(MethodMetrics metrics, long calls) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (metrics.getCalls() < calls && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(calls, metrics.getCalls());
+  }
+
+  private static void fill(VectorSchemaRoot root, int batch) {
+    final IntVector vector = (IntVector) root.getVector("a");
+    vector.allocateNew(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      vector.set(i, batch * BATCH_SIZE + i);
+    }
+    root.setRowCount(BATCH_SIZE);
+  }
+
+  private static class Producer extends NoOpFlightProducer {
+    private final BufferAllocator allocator;
+    private final int batches;
+
+    Producer(BufferAllocator allocator) {
+      this(allocator, BATCH_COUNT);
+    }
+
+    Producer(BufferAllocator allocator, int batches) {
+      this.allocator = allocator;
+      this.batches = batches;
+    }
+
+    @Override
+    public void getStream(CallContext context, Ticket ticket, ServerStreamListener listener) {
+      try (final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+        listener.start(root);
+        for (int batch = 0; batch < batches; batch++) {
+          fill(root, batch);
+          listener.putNext();
+        }
+        listener.completed();
+        Assert.assertEquals(batches, context.getMiddleware(FlightMetricsMiddleware.KEY).getBatchesSent());
+      }
+    }
+
+    @Override
+    public Runnable acceptPut(CallContext context, FlightStream flightStream, StreamListener<PutResult> ackStream) {
+      return () -> {
+        while (flightStream.next()) {
+          // drain the stream
+        }
+        ackStream.onCompleted();
+      };
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.memory;
+
+/**
+ * Accounts memory which is not allocated by an allocator, e.g. buffers received by a transport and wrapped
+ * without copying, to an allocator, so that its limits and leak checks cover that memory too.
+ *
+ * <p>Only the allocators of this package keep accounts; the memory is not accounted to other allocators.
+ */
+public final class ForeignMemoryAccounting {
+
+  private ForeignMemoryAccounting() {
+  }
+
+  /**
+   * Account memory to an allocator, if it fits within its limits.
+   *
+   * @param allocator the allocator to account the memory to
+   * @param size the number of bytes
+   * @return whether the memory was accounted, i.e. it fits and the allocator keeps accounts
+   */
+  public static boolean tryReserve(BufferAllocator allocator, long size) {
+    if (!(allocator instanceof BaseAllocator)) {
+      return false;
+    }
+    final BaseAllocator accountant = (BaseAllocator) allocator;
+    if (!accountant.forceAllocate(size)) {
+      accountant.releaseBytes(size);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Account memory to an allocator even if it exceeds its limits, e.g. when transferring the ownership of memory
+   * already in use.
+   *
+   * @param allocator the allocator to account the memory to
+   * @param size the number of bytes
+   * @return whether the memory fit within the limits of the allocator
+   */
+  public static boolean forceReserve(BufferAllocator allocator, long size) {
+    if (!(allocator instanceof BaseAllocator)) {
+      return true;
+    }
+    return ((BaseAllocator) allocator).forceAllocate(size);
+  }
+
+  /**
+   * Release memory accounted by {@link #tryReserve} or {@link #forceReserve}.
+   *
+   * @param allocator the allocator the memory is accounted to
+   * @param size the number of bytes
+   */
+  public static void release(BufferAllocator allocator, long size) {
+    if (allocator instanceof BaseAllocator) {
+      ((BaseAllocator) allocator).releaseBytes(size);
+    }
+  }
+}
@@ -37,6 +37,28 @@ public class TestAccountant {
     assertEquals(parent.getLimit() - parent.getAllocatedMemory(), parent.getHeadroom());
   }
 
+  @Test
+  public void foreignMemory() {
+    try (final RootAllocator root = new RootAllocator(1024);
+         final BufferAllocator child = root.newChildAllocator("child", 0, 512)) {
+      Assert.assertTrue(ForeignMemoryAccounting.tryReserve(child, 500));
+      assertEquals(500, child.getAllocatedMemory());
+      assertEquals(500, root.getAllocatedMemory());
+
+      // a reservation over the limit is not accounted
+      Assert.assertFalse(ForeignMemoryAccounting.tryReserve(child, 100));
+      assertEquals(500, child.getAllocatedMemory());
+
+      // unless forced
+      Assert.assertFalse(ForeignMemoryAccounting.forceReserve(child, 100));
+      assertEquals(600, child.getAllocatedMemory());
+
+      ForeignMemoryAccounting.release(child, 600);
+      assertEquals(0, child.getAllocatedMemory());
+      assertEquals(0, root.getAllocatedMemory());
+    }
+  }
+
   @Test
   public void multiThread() throws InterruptedException {
     final Accountant parent = new Accountant(null,  "test", 0, Long.MAX_VALUE);
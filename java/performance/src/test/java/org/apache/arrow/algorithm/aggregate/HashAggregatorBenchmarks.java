@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.aggregate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks for {@link HashAggregator}.
+ */
+@State(Scope.Benchmark)
+public class HashAggregatorBenchmarks {
+
+  private static final int BATCH_SIZE = 64 * 1024;
+
+  private static final int BATCH_COUNT = 16;
+
+  private static final int LOW_CARDINALITY = 100;
+
+  private static final int HIGH_CARDINALITY = BATCH_SIZE * BATCH_COUNT / 2;
+
+  private static final Schema SCHEMA = new Schema(Arrays.asList(
+      Field.nullable("low", new ArrowType.Int(32, true)),
+      Field.nullable("high", new ArrowType.Int(32, true)),
+      Field.nullable("value", new ArrowType.Int(64, true))));
+
+  private static final List<AggregateFunction> FUNCTIONS = Arrays.asList(
+      AggregateFunction.countAll(),
+      AggregateFunction.sum("value"),
+      AggregateFunction.min("value"),
+      AggregateFunction.max("value"),
+      AggregateFunction.avg("value"));
+
+  private BufferAllocator allocator;
+
+  private VectorSchemaRoot[] batches;
+
+  /**
+   * Setup benchmarks.
+   */
+  @Setup
+  public void prepare() {
+    allocator = new RootAllocator(Integer.MAX_VALUE);
+    final Random random = new Random(0);
+    batches = new VectorSchemaRoot[BATCH_COUNT];
+    for (int i = 0; i < BATCH_COUNT; i++) {
+      batches[i] = VectorSchemaRoot.create(SCHEMA, allocator);
+      final IntVector low = (IntVector) batches[i].getVector("low");
+      final IntVector high = (IntVector) batches[i].getVector("high");
+      final BigIntVector value = (BigIntVector) batches[i].getVector("value");
+      low.allocateNew(BATCH_SIZE);
+      high.allocateNew(BATCH_SIZE);
+      value.allocateNew(BATCH_SIZE);
+      for (int j = 0; j < BATCH_SIZE; j++) {
+        low.set(j, random.nextInt(LOW_CARDINALITY));
+        high.set(j, random.nextInt(HIGH_CARDINALITY));
+        value.set(j, random.nextInt());
+      }
+      batches[i].setRowCount(BATCH_SIZE);
+    }
+  }
+
+  /**
+   * Tear down benchmarks.
+   */
+  @TearDown
+  public void tearDown() {
+    for (VectorSchemaRoot batch : batches) {
+      batch.close();
+    }
+    allocator.close();
+  }
+
+  private int aggregate(String keyColumn) {
+    try (HashAggregator aggregator =
+             new HashAggregator(SCHEMA, Collections.singletonList(keyColumn), FUNCTIONS, allocator);
+         VectorSchemaRoot output = VectorSchemaRoot.create(aggregator.getOutputSchema(), allocator)) {
+      for (VectorSchemaRoot batch : batches) {
+        aggregator.add(batch);
+      }
+      aggregator.emit(output);
+      return output.getRowCount();
+    }
+  }
+
+  /**
+   * Test {@link HashAggregator} with {@value #LOW_CARDINALITY} groups.
+   * @return the number of groups. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int aggregateLowCardinality() {
+    return aggregate("low");
+  }
+
+  /**
+   * Test {@link HashAggregator} with about as many groups as half the rows.
+   * @return the number of groups. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int aggregateHighCardinality() {
+    return aggregate("high");
+  }
+
+  @Test
+  public void evaluate() throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(HashAggregatorBenchmarks.class.getSimpleName())
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
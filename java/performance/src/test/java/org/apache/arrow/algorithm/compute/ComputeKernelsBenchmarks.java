@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.compute;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks for the compute kernels, compared with the same computations written with the get and
+ * set methods of the vectors, one value at a time.
+ */
+@State(Scope.Benchmark)
+public class ComputeKernelsBenchmarks {
+
+  private static final int VECTOR_LENGTH = 64 * 1024;
+
+  /**
+   * The percentage of null values in the inputs.
+   */
+  @Param({"0", "10"})
+  public int nullPercentage;
+
+  private BufferAllocator allocator;
+
+  private BigIntVector left;
+
+  private BigIntVector right;
+
+  private BigIntVector longOutput;
+
+  private BitVector bitOutput;
+
+  private BitVector bitLeft;
+
+  private BitVector bitRight;
+
+  private IntVector ints;
+
+  private Float8Vector doubleOutput;
+
+  /**
+   * Setup benchmarks.
+   */
+  @Setup
+  public void prepare() {
+    allocator = new RootAllocator(Integer.MAX_VALUE);
+    left = new BigIntVector("left", allocator);
+    right = new BigIntVector("right", allocator);
+    longOutput = new BigIntVector("longOutput", allocator);
+    bitOutput = new BitVector("bitOutput", allocator);
+    bitLeft = new BitVector("bitLeft", allocator);
+    bitRight = new BitVector("bitRight", allocator);
+    ints = new IntVector("ints", allocator);
+    doubleOutput = new Float8Vector("doubleOutput", allocator);
+    left.allocateNew(VECTOR_LENGTH);
+    right.allocateNew(VECTOR_LENGTH);
+    bitLeft.allocateNew(VECTOR_LENGTH);
+    bitRight.allocateNew(VECTOR_LENGTH);
+    ints.allocateNew(VECTOR_LENGTH);
+    final Random random = new Random(0);
+    for (int i = 0; i < VECTOR_LENGTH; i++) {
+      if (random.nextInt(100) < nullPercentage) {
+        left.setNull(i);
+        bitLeft.setNull(i);
+        ints.setNull(i);
+      } else {
+        left.set(i, random.nextLong());
+        bitLeft.set(i, random.nextInt(2));
+        ints.set(i, random.nextInt());
+      }
+      right.set(i, random.nextLong());
+      bitRight.set(i, random.nextInt(2));
+    }
+    left.setValueCount(VECTOR_LENGTH);
+    right.setValueCount(VECTOR_LENGTH);
+    bitLeft.setValueCount(VECTOR_LENGTH);
+    bitRight.setValueCount(VECTOR_LENGTH);
+    ints.setValueCount(VECTOR_LENGTH);
+  }
+
+  /**
+   * Tear down benchmarks.
+   */
+  @TearDown
+  public void tearDown() {
+    left.close();
+    right.close();
+    longOutput.close();
+    bitOutput.close();
+    bitLeft.close();
+    bitRight.close();
+    ints.close();
+    doubleOutput.close();
+    allocator.close();
+  }
+
+  /**
+   * Test {@link ArithmeticKernels} adding 64-bit integers.
+   * @return the value count of the output. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int addKernel() {
+    ArithmeticKernels.evaluate(ArithmeticKernels.Operator.ADD, left, right, longOutput);
+    return longOutput.getValueCount();
+  }
+
+  /**
+   * Test adding 64-bit integers one value at a time.
+   * @return the value count of the output. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int addRowByRow() {
+    longOutput.allocateNew(VECTOR_LENGTH);
+    for (int i = 0; i < VECTOR_LENGTH; i++) {
+      if (left.isNull(i) || right.isNull(i)) {
+        longOutput.setNull(i);
+      } else {
+        longOutput.set(i, left.get(i) + right.get(i));
+      }
+    }
+    longOutput.setValueCount(VECTOR_LENGTH);
+    return longOutput.getValueCount();
+  }
+
+  /**
+   * Test {@link ComparisonKernels} comparing 64-bit integers.
+   * @return the value count of the output. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int lessThanKernel() {
+    ComparisonKernels.evaluate(ComparisonKernels.Operator.LESS_THAN, left, right, bitOutput);
+    return bitOutput.getValueCount();
+  }
+
+  /**
+   * Test comparing 64-bit integers one value at a time.
+   * @return the value count of the output. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int lessThanRowByRow() {
+    bitOutput.allocateNew(VECTOR_LENGTH);
+    for (int i = 0; i < VECTOR_LENGTH; i++) {
+      if (left.isNull(i) || right.isNull(i)) {
+        bitOutput.setNull(i);
+      } else {
+        bitOutput.set(i, left.get(i) < right.get(i) ? 1 : 0);
+      }
+    }
+    bitOutput.setValueCount(VECTOR_LENGTH);
+    return bitOutput.getValueCount();
+  }
+
+  /**
+   * Test {@link BooleanKernels#and}.
+   * @return the value count of the output. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int andKernel() {
+    BooleanKernels.and(bitLeft, bitRight, bitOutput);
+    return bitOutput.getValueCount();
+  }
+
+  /**
+   * Test the conjunction of booleans one value at a time, with the same null semantics.
+   * @return the value count of the output. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int andRowByRow() {
+    bitOutput.allocateNew(VECTOR_LENGTH);
+    for (int i = 0; i < VECTOR_LENGTH; i++) {
+      final boolean leftNull = bitLeft.isNull(i);
+      final boolean rightNull = bitRight.isNull(i);
+      if ((!leftNull && bitLeft.get(i) == 0) || (!rightNull && bitRight.get(i) == 0)) {
+        bitOutput.set(i, 0);
+      } else if (leftNull || rightNull) {
+        bitOutput.setNull(i);
+      } else {
+        bitOutput.set(i, 1);
+      }
+    }
+    bitOutput.setValueCount(VECTOR_LENGTH);
+    return bitOutput.getValueCount();
+  }
+
+  /**
+   * Test {@link CastKernels} casting 32-bit integers to doubles.
+   * @return the value count of the output. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int castKernel() {
+    CastKernels.cast(ints, doubleOutput);
+    return doubleOutput.getValueCount();
+  }
+
+  /**
+   * Test casting 32-bit integers to doubles one value at a time.
+   * @return the value count of the output. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int castRowByRow() {
+    doubleOutput.allocateNew(VECTOR_LENGTH);
+    for (int i = 0; i < VECTOR_LENGTH; i++) {
+      if (ints.isNull(i)) {
+        doubleOutput.setNull(i);
+      } else {
+        doubleOutput.set(i, ints.get(i));
+      }
+    }
+    doubleOutput.setValueCount(VECTOR_LENGTH);
+    return doubleOutput.getValueCount();
+  }
+
+  @Test
+  public void evaluate() throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(ComputeKernelsBenchmarks.class.getSimpleName())
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
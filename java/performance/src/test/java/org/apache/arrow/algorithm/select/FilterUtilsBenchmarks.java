@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.algorithm.select;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks for {@link FilterUtils}, compared with copying the selected values one by one.
+ */
+@State(Scope.Benchmark)
+public class FilterUtilsBenchmarks {
+
+  private static final int VECTOR_LENGTH = 64 * 1024;
+
+  private BufferAllocator allocator;
+
+  private BitVector mask;
+
+  private BigIntVector longs;
+
+  private VarCharVector strings;
+
+  /**
+   * Setup benchmarks.
+   */
+  @Setup
+  public void prepare() {
+    allocator = new RootAllocator(Integer.MAX_VALUE);
+    mask = new BitVector("mask", allocator);
+    longs = new BigIntVector("longs", allocator);
+    strings = new VarCharVector("strings", allocator);
+    mask.allocateNew(VECTOR_LENGTH);
+    longs.allocateNew(VECTOR_LENGTH);
+    strings.allocateNew(VECTOR_LENGTH * 8, VECTOR_LENGTH);
+    final Random random = new Random(0);
+    for (int i = 0; i < VECTOR_LENGTH; i++) {
+      mask.set(i, random.nextInt(2));
+      longs.set(i, random.nextLong());
+      strings.setSafe(i, String.valueOf(random.nextInt()).getBytes(StandardCharsets.UTF_8));
+    }
+    mask.setValueCount(VECTOR_LENGTH);
+    longs.setValueCount(VECTOR_LENGTH);
+    strings.setValueCount(VECTOR_LENGTH);
+  }
+
+  /**
+   * Tear down benchmarks.
+   */
+  @TearDown
+  public void tearDown() {
+    mask.close();
+    longs.close();
+    strings.close();
+    allocator.close();
+  }
+
+  /**
+   * Test {@link FilterUtils#filter} on a fixed-width and a variable-width vector.
+   * @return the number of selected values. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int filter() {
+    try (BigIntVector longsOut = new BigIntVector("longs", allocator);
+         VarCharVector stringsOut = new VarCharVector("strings", allocator)) {
+      FilterUtils.filter(longs, mask, longsOut);
+      FilterUtils.filter(strings, mask, stringsOut);
+      return longsOut.getValueCount() + stringsOut.getValueCount();
+    }
+  }
+
+  /**
+   * Test filtering the same vectors with {@link org.apache.arrow.vector.ValueVector#copyFromSafe}.
+   * @return the number of selected values. To avoid DCE by JIT.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int filterRowByRow() {
+    try (BigIntVector longsOut = new BigIntVector("longs", allocator);
+         VarCharVector stringsOut = new VarCharVector("strings", allocator)) {
+      longsOut.allocateNew();
+      stringsOut.allocateNew();
+      int count = 0;
+      for (int i = 0; i < VECTOR_LENGTH; i++) {
+        if (!mask.isNull(i) && mask.get(i) != 0) {
+          longsOut.copyFromSafe(i, count, longs);
+          stringsOut.copyFromSafe(i, count, strings);
+          count++;
+        }
+      }
+      longsOut.setValueCount(count);
+      stringsOut.setValueCount(count);
+      return longsOut.getValueCount() + stringsOut.getValueCount();
+    }
+  }
+
+  @Test
+  public void evaluate() throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(FilterUtilsBenchmarks.class.getSimpleName())
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
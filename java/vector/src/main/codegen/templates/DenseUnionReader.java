@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Field;
+
+<@pp.dropOutputFile />
+<@pp.changeOutputFile name="/org/apache/arrow/vector/complex/impl/DenseUnionReader.java" />
+
+
+<#include "/@includes/license.ftl" />
+
+package org.apache.arrow.vector.complex.impl;
+
+<#include "/@includes/vv_imports.ftl" />
+/**
+ * Reader for {@link DenseUnionVector}. It delegates to the reader of the child selected by the
+ * type id of the current position, positioned at the offset of the current value.
+ * Source code generated using FreeMarker template ${.template_name}
+ */
+@SuppressWarnings("unused")
+public class DenseUnionReader extends AbstractFieldReader {
+
+  private final FieldReader[] readers = new FieldReader[DenseUnionVector.MAX_TYPE_ID + 1];
+  /* the union index each child reader was last positioned for, or -1 */
+  private final int[] readerIndices = new int[DenseUnionVector.MAX_TYPE_ID + 1];
+  public DenseUnionVector data;
+
+  public DenseUnionReader(DenseUnionVector data) {
+    this.data = data;
+    java.util.Arrays.fill(readerIndices, -1);
+  }
+
+  @Override
+  public void setPosition(int index) {
+    super.setPosition(index);
+    java.util.Arrays.fill(readerIndices, -1);
+  }
+
+  public MinorType getMinorType() {
+    if (data.isNull(idx())) {
+      return MinorType.NULL;
+    }
+    return data.getVectorByType(data.getTypeId(idx())).getMinorType();
+  }
+
+  @Override
+  public Field getField() {
+    return data.getField();
+  }
+
+  public boolean isSet(){
+    return !data.isNull(idx());
+  }
+
+  public void read(UnionHolder holder) {
+    holder.reader = this;
+    holder.isSet = this.isSet() ? 1 : 0;
+  }
+
+  private FieldReader getReaderForIndex(int index) {
+    if (data.isNull(index)) {
+      return NullReader.INSTANCE;
+    }
+    byte typeId = data.getTypeId(index);
+    FieldReader reader = readers[typeId];
+    if (reader == null) {
+      reader = data.getVectorByType(typeId).getReader();
+      readers[typeId] = reader;
+    }
+    if (readerIndices[typeId] != index) {
+      /* only reposition when moving to another value, so that iteration state (e.g. next()) is kept */
+      reader.setPosition(data.getOffset(index));
+      readerIndices[typeId] = index;
+    }
+    return reader;
+  }
+
+  @Override
+  public java.util.Iterator<String> iterator() {
+    return getReaderForIndex(idx()).iterator();
+  }
+
+  @Override
+  public void copyAsValue(UnionWriter writer) {
+    ComplexCopier.copy(this, writer);
+  }
+
+  <#list ["Object", "BigDecimal", "Short", "Integer", "Long", "Boolean",
+          "LocalDateTime", "Duration", "Period", "Double", "Float",
+          "Character", "Text", "Byte", "byte[]"] as friendlyType>
+  <#assign safeType=friendlyType />
+  <#if safeType=="byte[]"><#assign safeType="ByteArray" /></#if>
+
+  @Override
+  public ${friendlyType} read${safeType}() {
+    return getReaderForIndex(idx()).read${safeType}();
+  }
+
+  </#list>
+
+  public int size() {
+    return getReaderForIndex(idx()).size();
+  }
+
+  <#list vv.types as type>
+    <#list type.minor as minor>
+      <#assign name = minor.class?cap_first />
+      <#assign uncappedName = name?uncap_first/>
+      <#if !minor.typeParams?? >
+
+  public void read(Nullable${name}Holder holder){
+    getReaderForIndex(idx()).read(holder);
+  }
+
+  public void copyAsValue(${name}Writer writer){
+    getReaderForIndex(idx()).copyAsValue(writer);
+  }
+      </#if>
+    </#list>
+  </#list>
+
+  @Override
+  public void copyAsValue(ListWriter writer) {
+    ComplexCopier.copy(this, (FieldWriter) writer);
+  }
+
+  public FieldReader reader(String name){
+    return getReaderForIndex(idx()).reader(name);
+  }
+
+  public FieldReader reader() {
+    return getReaderForIndex(idx()).reader();
+  }
+
+  public boolean next() {
+    return getReaderForIndex(idx()).next();
+  }
+}
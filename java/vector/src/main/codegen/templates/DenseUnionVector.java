@@ -0,0 +1,973 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.netty.buffer.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.ReferenceManager;
+import org.apache.arrow.memory.util.hash.ArrowBufHasher;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.compare.VectorVisitor;
+import org.apache.arrow.vector.types.UnionMode;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.util.CallBack;
+import org.apache.arrow.vector.util.ValueVectorUtility;
+
+<@pp.dropOutputFile />
+<@pp.changeOutputFile name="/org/apache/arrow/vector/complex/DenseUnionVector.java" />
+
+
+<#include "/@includes/license.ftl" />
+
+package org.apache.arrow.vector.complex;
+
+<#include "/@includes/vv_imports.ftl" />
+import io.netty.buffer.ArrowBuf;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import org.apache.arrow.vector.compare.VectorVisitor;
+import org.apache.arrow.vector.util.CallBack;
+import org.apache.arrow.vector.util.ValueVectorUtility;
+import org.apache.arrow.vector.ipc.message.ArrowFieldNode;
+import org.apache.arrow.memory.BaseAllocator;
+import org.apache.arrow.memory.util.ArrowBufPointer;
+import org.apache.arrow.memory.util.hash.ArrowBufHasher;
+import org.apache.arrow.vector.BaseValueVector;
+import org.apache.arrow.vector.util.OversizedAllocationException;
+import org.apache.arrow.util.Preconditions;
+
+import static org.apache.arrow.vector.types.UnionMode.Dense;
+
+/*
+ * This class is generated using freemarker and the ${.template_name} template.
+ */
+@SuppressWarnings("unused")
+/**
+ * A vector which can hold values of different types, using the dense union layout. Besides a validity
+ * buffer, it keeps a type id buffer (one byte per slot) and an offset buffer (four bytes per slot) that
+ * points into the child vector selected by the type id. Unlike {@link UnionVector}, each child only holds
+ * the values of its own type, so a child is usually much shorter than the union itself.
+ *
+ * <p>Children are registered against a type id, either explicitly through {@link #registerNewTypeId(Field)}
+ * or implicitly (one child per minor type) when values are written through the holder based setters or
+ * the {@link DenseUnionWriter}. New values are always appended to the end of their child vector, so a
+ * slot holding a value cannot be set again until the vector is reset; a slot set to null can be.
+ *
+ * Source code generated using FreeMarker template ${.template_name}
+ */
+public class DenseUnionVector implements FieldVector {
+
+  private String name;
+  private BufferAllocator allocator;
+  int valueCount;
+
+  NonNullableStructVector internalStruct;
+  protected ArrowBuf validityBuffer;
+  protected ArrowBuf typeBuffer;
+  protected ArrowBuf offsetBuffer;
+
+  /**
+   * Child vectors indexed by their type id.
+   */
+  private final FieldVector[] childVectors = new FieldVector[MAX_TYPE_ID + 1];
+
+  /**
+   * Type ids of the children, in the order of the children in {@link #internalStruct}.
+   */
+  private final List<Byte> typeIds = new ArrayList<>();
+
+  /**
+   * Number of values appended to each child, indexed by type id. A negative count means that
+   * it has to be taken from the child itself, e.g. after its buffers were loaded or transferred.
+   */
+  private final int[] childValueCounts = new int[MAX_TYPE_ID + 1];
+
+  private FieldReader reader;
+
+  private final CallBack callBack;
+  private int validityAllocationSizeInBytes;
+  private int typeBufferAllocationSizeInBytes;
+  private int offsetAllocationSizeInBytes;
+
+  private final FieldType fieldType;
+
+  public static final byte TYPE_WIDTH = 1;
+  public static final byte OFFSET_WIDTH = 4;
+  public static final byte MAX_TYPE_ID = Byte.MAX_VALUE;
+
+  private static final FieldType INTERNAL_STRUCT_TYPE = new FieldType(false /*nullable*/,
+      ArrowType.Struct.INSTANCE, null /*dictionary*/, null /*metadata*/);
+
+  public static DenseUnionVector empty(String name, BufferAllocator allocator) {
+    FieldType fieldType = FieldType.nullable(new ArrowType.Union(
+        UnionMode.Dense, null));
+    return new DenseUnionVector(name, allocator, fieldType, null);
+  }
+
+  public DenseUnionVector(String name, BufferAllocator allocator, FieldType fieldType, CallBack callBack) {
+    this.name = name;
+    this.allocator = allocator;
+    this.fieldType = fieldType;
+    this.internalStruct = new NonNullableStructVector("internal", allocator, INTERNAL_STRUCT_TYPE,
+        callBack);
+    this.validityBuffer = allocator.getEmpty();
+    this.typeBuffer = allocator.getEmpty();
+    this.offsetBuffer = allocator.getEmpty();
+    this.callBack = callBack;
+    this.validityAllocationSizeInBytes =
+        BitVectorHelper.getValidityBufferSize(BaseValueVector.INITIAL_VALUE_ALLOCATION);
+    this.typeBufferAllocationSizeInBytes = BaseValueVector.INITIAL_VALUE_ALLOCATION * TYPE_WIDTH;
+    this.offsetAllocationSizeInBytes = BaseValueVector.INITIAL_VALUE_ALLOCATION * OFFSET_WIDTH;
+  }
+
+  public BufferAllocator getAllocator() {
+    return allocator;
+  }
+
+  @Override
+  public MinorType getMinorType() {
+    return MinorType.DENSEUNION;
+  }
+
+  /**
+   * Initializes the children from the given fields. The type ids are taken from the
+   * union type of this vector if present, otherwise they are assigned in field order.
+   */
+  @Override
+  public void initializeChildrenFromFields(List<Field> children) {
+    int[] declaredTypeIds = null;
+    if (fieldType != null) {
+      declaredTypeIds = ((ArrowType.Union) fieldType.getType()).getTypeIds();
+    }
+    Preconditions.checkArgument(declaredTypeIds == null || declaredTypeIds.length == children.size(),
+        "Expected one type id per child, got %s type ids for %s children",
+        declaredTypeIds == null ? 0 : declaredTypeIds.length, children.size());
+    for (int i = 0; i < children.size(); i++) {
+      byte typeId = declaredTypeIds == null ? nextTypeId() : (byte) declaredTypeIds[i];
+      registerChild(typeId, children.get(i));
+    }
+  }
+
+  @Override
+  public List<FieldVector> getChildrenFromFields() {
+    return internalStruct.getChildrenFromFields();
+  }
+
+  /**
+   * Registers a new child vector for the given field, using the smallest type id that
+   * is greater than all the type ids registered so far.
+   *
+   * @param field the field describing the new child.
+   * @return the type id of the new child.
+   */
+  public byte registerNewTypeId(Field field) {
+    byte typeId = nextTypeId();
+    registerChild(typeId, field);
+    return typeId;
+  }
+
+  /**
+   * Gets the type id of the first child vector with the given minor type. If there is no such
+   * child, a new nullable child named after the type is registered.
+   *
+   * @param minorType the minor type of the child, which must not require type parameters.
+   * @return the type id of the child.
+   */
+  public byte addOrGetTypeId(MinorType minorType) {
+    for (byte typeId : typeIds) {
+      if (childVectors[typeId].getMinorType() == minorType) {
+        return typeId;
+      }
+    }
+    return registerNewTypeId(new Field(fieldName(minorType), fieldType(minorType), null));
+  }
+
+  private byte nextTypeId() {
+    int next = 0;
+    for (byte typeId : typeIds) {
+      next = Math.max(next, typeId + 1);
+    }
+    if (next > MAX_TYPE_ID) {
+      throw new IllegalStateException("Dense union vector can hold at most " + (MAX_TYPE_ID + 1) + " child types");
+    }
+    return (byte) next;
+  }
+
+  private FieldVector registerChild(byte typeId, Field field) {
+    Preconditions.checkArgument(typeId >= 0, "Type id %s must not be negative", typeId);
+    Preconditions.checkState(childVectors[typeId] == null, "Type id %s is already registered", typeId);
+    FieldVector child = (FieldVector) internalStruct.add(field.getName(), field.getFieldType());
+    if (!field.getChildren().isEmpty()) {
+      child.initializeChildrenFromFields(field.getChildren());
+    }
+    childVectors[typeId] = child;
+    childValueCounts[typeId] = 0;
+    typeIds.add(typeId);
+    return child;
+  }
+
+  private String fieldName(MinorType type) {
+    return type.name().toLowerCase();
+  }
+
+  private FieldType fieldType(MinorType type) {
+    return FieldType.nullable(type.getType());
+  }
+
+  /**
+   * Gets the child vector registered with the given type id.
+   *
+   * @param typeId the type id of the child.
+   * @return the child vector, or null if the type id is not registered.
+   */
+  public FieldVector getVectorByType(byte typeId) {
+    return childVectors[typeId];
+  }
+
+  private <T extends FieldVector> T getVectorByType(byte typeId, Class<T> clazz) {
+    FieldVector vector = childVectors[typeId];
+    Preconditions.checkArgument(vector != null, "Type id %s is not registered", typeId);
+    Preconditions.checkArgument(clazz.isInstance(vector), "Type id %s refers to a %s, not a %s",
+        typeId, vector.getClass().getSimpleName(), clazz.getSimpleName());
+    return clazz.cast(vector);
+  }
+
+  /**
+   * Gets the type ids of the registered children, in the order of {@link #getChildrenFromFields()}.
+   */
+  public List<Byte> getTypeIds() {
+    return Collections.unmodifiableList(typeIds);
+  }
+
+  @Override
+  public void loadFieldBuffers(ArrowFieldNode fieldNode, List<ArrowBuf> ownBuffers) {
+    if (ownBuffers.size() != 3) {
+      throw new IllegalArgumentException("Illegal buffer count, expected " + 3 + ", got: " + ownBuffers.size());
+    }
+
+    ArrowBuf bitBuffer = ownBuffers.get(0);
+    ArrowBuf typeBuf = ownBuffers.get(1);
+    ArrowBuf offBuffer = ownBuffers.get(2);
+
+    validityBuffer.getReferenceManager().release();
+    validityBuffer = BitVectorHelper.loadValidityBuffer(fieldNode, bitBuffer, allocator);
+    typeBuffer.getReferenceManager().release();
+    typeBuffer = typeBuf.getReferenceManager().retain(typeBuf, allocator);
+    offsetBuffer.getReferenceManager().release();
+    offsetBuffer = offBuffer.getReferenceManager().retain(offBuffer, allocator);
+
+    validityAllocationSizeInBytes = validityBuffer.capacity();
+    typeBufferAllocationSizeInBytes = typeBuffer.capacity();
+    offsetAllocationSizeInBytes = offsetBuffer.capacity();
+
+    this.valueCount = fieldNode.getLength();
+    /* the children are loaded after this vector */
+    Arrays.fill(childValueCounts, -1);
+  }
+
+  @Override
+  public List<ArrowBuf> getFieldBuffers() {
+    List<ArrowBuf> result = new ArrayList<>(3);
+    setReaderAndWriterIndex();
+    result.add(validityBuffer);
+    result.add(typeBuffer);
+    result.add(offsetBuffer);
+
+    return result;
+  }
+
+  private void setReaderAndWriterIndex() {
+    validityBuffer.readerIndex(0);
+    validityBuffer.writerIndex(BitVectorHelper.getValidityBufferSize(valueCount));
+    typeBuffer.readerIndex(0);
+    typeBuffer.writerIndex(valueCount * TYPE_WIDTH);
+    offsetBuffer.readerIndex(0);
+    offsetBuffer.writerIndex(valueCount * OFFSET_WIDTH);
+  }
+
+  @Override
+  @Deprecated
+  public List<BufferBacked> getFieldInnerVectors() {
+     throw new UnsupportedOperationException("There are no inner vectors. Use geFieldBuffers");
+  }
+
+  @Override
+  public long getValidityBufferAddress() {
+    return validityBuffer.memoryAddress();
+  }
+
+  @Override
+  public long getDataBufferAddress() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public long getOffsetBufferAddress() {
+    return offsetBuffer.memoryAddress();
+  }
+
+  @Override
+  public ArrowBuf getValidityBuffer() { return validityBuffer; }
+
+  @Override
+  public ArrowBuf getDataBuffer() { throw new UnsupportedOperationException(); }
+
+  @Override
+  public ArrowBuf getOffsetBuffer() { return offsetBuffer; }
+
+  public ArrowBuf getTypeBuffer() { return typeBuffer; }
+
+  public StructVector getStruct(byte typeId) {
+    return getVectorByType(typeId, StructVector.class);
+  }
+
+  public ListVector getList(byte typeId) {
+    return getVectorByType(typeId, ListVector.class);
+  }
+  <#list vv.types as type>
+    <#list type.minor as minor>
+      <#assign name = minor.class?cap_first />
+      <#assign fields = minor.fields!type.fields />
+      <#assign uncappedName = name?uncap_first/>
+      <#assign lowerCaseName = name?lower_case/>
+      <#if !minor.typeParams?? >
+
+  public ${name}Vector get${name}Vector(byte typeId) {
+    return getVectorByType(typeId, ${name}Vector.class);
+  }
+      </#if>
+    </#list>
+  </#list>
+
+  /**
+   * Gets the type id of the value at the given index.
+   */
+  public byte getTypeId(int index) {
+    return typeBuffer.getByte(index * TYPE_WIDTH);
+  }
+
+  /**
+   * Gets the offset of the value at the given index in the child vector of its type.
+   */
+  public int getOffset(int index) {
+    return offsetBuffer.getInt(index * OFFSET_WIDTH);
+  }
+
+  public void setTypeId(int index, byte typeId) {
+    while (index >= getTypeBufferValueCapacity()) {
+      reallocTypeBuffer();
+    }
+    typeBuffer.setByte(index * TYPE_WIDTH, typeId);
+  }
+
+  public void setOffset(int index, int offset) {
+    while (index >= getOffsetBufferValueCapacity()) {
+      reallocOffsetBuffer();
+    }
+    offsetBuffer.setInt(index * OFFSET_WIDTH, offset);
+  }
+
+  /**
+   * Marks the slot at the given index as holding a value of the given type, and reserves a
+   * slot for that value at the end of the corresponding child vector.
+   *
+   * <p>The slot must not hold a value already: as the values are only appended to the children,
+   * overwriting one would leave the previous value in its child.
+   *
+   * @param index the index of the value in this vector.
+   * @param typeId the type id of the value.
+   * @return the offset of the reserved slot in the child vector.
+   */
+  public int startValue(int index, byte typeId) {
+    FieldVector child = childVectors[typeId];
+    Preconditions.checkArgument(child != null, "Type id %s is not registered", typeId);
+    while (index >= getValidityBufferValueCapacity()) {
+      reallocValidityBuffer();
+    }
+    Preconditions.checkState(isSet(index) == 0, "The slot at index %s already holds a value", index);
+    BitVectorHelper.setValidityBitToOne(validityBuffer, index);
+    setTypeId(index, typeId);
+    int offset = getChildValueCount(typeId);
+    setOffset(index, offset);
+    childValueCounts[typeId] = offset + 1;
+    return offset;
+  }
+
+  private int getChildValueCount(byte typeId) {
+    if (childValueCounts[typeId] < 0) {
+      childValueCounts[typeId] = childVectors[typeId].getValueCount();
+    }
+    return childValueCounts[typeId];
+  }
+
+  /**
+   * Marks the slot at the given index as null.
+   */
+  public void setNull(int index) {
+    while (index >= getValidityBufferValueCapacity()) {
+      reallocValidityBuffer();
+    }
+    BitVectorHelper.setValidityBit(validityBuffer, index, 0);
+    setTypeId(index, (byte) 0);
+    setOffset(index, 0);
+  }
+
+  @Override
+  public void allocateNew() throws OutOfMemoryException {
+    /* new allocation -- clear the current buffers */
+    clear();
+    internalStruct.allocateNew();
+    try {
+      allocateValidityBuffer();
+      allocateTypeBuffer();
+      allocateOffsetBuffer();
+    } catch (Exception e) {
+      clear();
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean allocateNewSafe() {
+    /* new allocation -- clear the current buffers */
+    clear();
+    boolean safe = internalStruct.allocateNewSafe();
+    if (!safe) { return false; }
+    try {
+      allocateValidityBuffer();
+      allocateTypeBuffer();
+      allocateOffsetBuffer();
+    } catch (Exception e) {
+      clear();
+      return  false;
+    }
+
+    return true;
+  }
+
+  private void allocateValidityBuffer() {
+    validityBuffer = allocator.buffer(validityAllocationSizeInBytes);
+    validityBuffer.readerIndex(0);
+    validityBuffer.setZero(0, validityBuffer.capacity());
+  }
+
+  private void allocateTypeBuffer() {
+    typeBuffer = allocator.buffer(typeBufferAllocationSizeInBytes);
+    typeBuffer.readerIndex(0);
+    typeBuffer.setZero(0, typeBuffer.capacity());
+  }
+
+  private void allocateOffsetBuffer() {
+    offsetBuffer = allocator.buffer(offsetAllocationSizeInBytes);
+    offsetBuffer.readerIndex(0);
+    offsetBuffer.setZero(0, offsetBuffer.capacity());
+  }
+
+  /**
+   * Reallocates the buffers of this vector. The children are not touched, as their sizes
+   * are independent of the size of the union.
+   */
+  @Override
+  public void reAlloc() {
+    reallocValidityBuffer();
+    reallocTypeBuffer();
+    reallocOffsetBuffer();
+  }
+
+  private void reallocValidityBuffer() {
+    validityBuffer = reallocBuffer(validityBuffer, validityAllocationSizeInBytes);
+    validityAllocationSizeInBytes = validityBuffer.capacity();
+  }
+
+  private void reallocTypeBuffer() {
+    typeBuffer = reallocBuffer(typeBuffer, typeBufferAllocationSizeInBytes);
+    typeBufferAllocationSizeInBytes = typeBuffer.capacity();
+  }
+
+  private void reallocOffsetBuffer() {
+    offsetBuffer = reallocBuffer(offsetBuffer, offsetAllocationSizeInBytes);
+    offsetAllocationSizeInBytes = offsetBuffer.capacity();
+  }
+
+  private ArrowBuf reallocBuffer(ArrowBuf buffer, int allocationSizeInBytes) {
+    final int currentBufferCapacity = buffer.capacity();
+    long baseSize  = allocationSizeInBytes;
+
+    if (baseSize < (long)currentBufferCapacity) {
+      baseSize = (long)currentBufferCapacity;
+    }
+
+    long newAllocationSize = baseSize * 2L;
+    newAllocationSize = BaseAllocator.nextPowerOfTwo(newAllocationSize);
+    assert newAllocationSize >= 1;
+
+    if (newAllocationSize > BaseValueVector.MAX_ALLOCATION_SIZE) {
+      throw new OversizedAllocationException("Unable to expand the buffer");
+    }
+
+    final ArrowBuf newBuf = allocator.buffer((int)newAllocationSize);
+    newBuf.setBytes(0, buffer, 0, currentBufferCapacity);
+    newBuf.setZero(currentBufferCapacity, newBuf.capacity() - currentBufferCapacity);
+    buffer.getReferenceManager().release(1);
+    return newBuf;
+  }
+
+  @Override
+  public void setInitialCapacity(int numRecords) {
+    validityAllocationSizeInBytes = BitVectorHelper.getValidityBufferSize(numRecords);
+    typeBufferAllocationSizeInBytes = numRecords * TYPE_WIDTH;
+    offsetAllocationSizeInBytes = numRecords * OFFSET_WIDTH;
+  }
+
+  @Override
+  public int getValueCapacity() {
+    return Math.min(getValidityBufferValueCapacity(),
+        Math.min(getTypeBufferValueCapacity(), getOffsetBufferValueCapacity()));
+  }
+
+  @Override
+  public void close() {
+    clear();
+  }
+
+  @Override
+  public void clear() {
+    valueCount = 0;
+    validityBuffer.getReferenceManager().release();
+    validityBuffer = allocator.getEmpty();
+    typeBuffer.getReferenceManager().release();
+    typeBuffer = allocator.getEmpty();
+    offsetBuffer.getReferenceManager().release();
+    offsetBuffer = allocator.getEmpty();
+    internalStruct.clear();
+    Arrays.fill(childValueCounts, 0);
+  }
+
+  @Override
+  public void reset() {
+    valueCount = 0;
+    validityBuffer.setZero(0, validityBuffer.capacity());
+    typeBuffer.setZero(0, typeBuffer.capacity());
+    offsetBuffer.setZero(0, offsetBuffer.capacity());
+    internalStruct.reset();
+    Arrays.fill(childValueCounts, 0);
+  }
+
+  @Override
+  public Field getField() {
+    List<org.apache.arrow.vector.types.pojo.Field> childFields = new ArrayList<>();
+    List<FieldVector> children = internalStruct.getChildren();
+    int[] typeIdArray = new int[children.size()];
+    for (ValueVector v : children) {
+      typeIdArray[childFields.size()] = typeIds.get(childFields.size());
+      childFields.add(v.getField());
+    }
+
+    FieldType fieldType;
+    if (this.fieldType == null) {
+      fieldType = FieldType.nullable(new ArrowType.Union(Dense, typeIdArray));
+    } else {
+      fieldType = new FieldType(this.fieldType.isNullable(), new ArrowType.Union(Dense, typeIdArray),
+          this.fieldType.getDictionary(), this.fieldType.getMetadata());
+    }
+
+    return new Field(name, fieldType, childFields);
+  }
+
+  @Override
+  public TransferPair getTransferPair(BufferAllocator allocator) {
+    return getTransferPair(name, allocator);
+  }
+
+  @Override
+  public TransferPair getTransferPair(String ref, BufferAllocator allocator) {
+    return getTransferPair(ref, allocator, null);
+  }
+
+  @Override
+  public TransferPair getTransferPair(String ref, BufferAllocator allocator, CallBack callBack) {
+    return new org.apache.arrow.vector.complex.DenseUnionVector.TransferImpl(ref, allocator, callBack);
+  }
+
+  @Override
+  public TransferPair makeTransferPair(ValueVector target) {
+    return new TransferImpl((DenseUnionVector) target);
+  }
+
+  /**
+   * Copies the value at inIndex of from to outIndex of this vector. The value is appended to the
+   * child with the same type id, which is registered on demand with the field of the source child.
+   */
+  @Override
+  public void copyFrom(int inIndex, int outIndex, ValueVector from) {
+    Preconditions.checkArgument(this.getMinorType() == from.getMinorType());
+    DenseUnionVector fromCast = (DenseUnionVector) from;
+    if (fromCast.isNull(inIndex)) {
+      setNull(outIndex);
+      return;
+    }
+    byte typeId = fromCast.getTypeId(inIndex);
+    FieldVector fromChild = fromCast.getVectorByType(typeId);
+    if (childVectors[typeId] == null) {
+      registerChild(typeId, fromChild.getField());
+    }
+    int offset = startValue(outIndex, typeId);
+    childVectors[typeId].copyFromSafe(fromCast.getOffset(inIndex), offset, fromChild);
+  }
+
+  @Override
+  public void copyFromSafe(int inIndex, int outIndex, ValueVector from) {
+    copyFrom(inIndex, outIndex, from);
+  }
+
+  private class TransferImpl implements TransferPair {
+    private final DenseUnionVector to;
+    private final TransferPair[] childPairs = new TransferPair[MAX_TYPE_ID + 1];
+
+    public TransferImpl(String name, BufferAllocator allocator, CallBack callBack) {
+      this(new DenseUnionVector(name, allocator, fieldType, callBack));
+    }
+
+    public TransferImpl(DenseUnionVector to) {
+      this.to = to;
+      createChildPairs();
+    }
+
+    /**
+     * Registers the children of the source in the target and creates transfer pairs for them,
+     * skipping the children that already have a transfer pair.
+     */
+    private void createChildPairs() {
+      for (byte typeId : typeIds) {
+        if (childPairs[typeId] != null) {
+          continue;
+        }
+        FieldVector child = childVectors[typeId];
+        FieldVector toChild = to.childVectors[typeId];
+        if (toChild == null) {
+          toChild = to.registerChild(typeId, child.getField());
+        }
+        childPairs[typeId] = child.makeTransferPair(toChild);
+      }
+    }
+
+    @Override
+    public void transfer() {
+      createChildPairs();
+      to.clear();
+      to.validityBuffer = BaseValueVector.transferBuffer(validityBuffer, to.allocator);
+      to.typeBuffer = BaseValueVector.transferBuffer(typeBuffer, to.allocator);
+      to.offsetBuffer = BaseValueVector.transferBuffer(offsetBuffer, to.allocator);
+      for (byte typeId : typeIds) {
+        childPairs[typeId].transfer();
+        to.childValueCounts[typeId] = -1;
+      }
+      to.valueCount = valueCount;
+      clear();
+    }
+
+    /**
+     * Transfers the slots [startIndex, startIndex + length). For every child, the range of
+     * values referenced by these slots is split out, and the offsets are rebased accordingly.
+     */
+    @Override
+    public void splitAndTransfer(int startIndex, int length) {
+      Preconditions.checkArgument(startIndex + length <= valueCount);
+      createChildPairs();
+      to.clear();
+
+      int[] minOffsets = new int[MAX_TYPE_ID + 1];
+      int[] maxOffsets = new int[MAX_TYPE_ID + 1];
+      Arrays.fill(minOffsets, Integer.MAX_VALUE);
+      Arrays.fill(maxOffsets, -1);
+      for (int i = startIndex; i < startIndex + length; i++) {
+        if (!isNull(i)) {
+          byte typeId = getTypeId(i);
+          int offset = getOffset(i);
+          minOffsets[typeId] = Math.min(minOffsets[typeId], offset);
+          maxOffsets[typeId] = Math.max(maxOffsets[typeId], offset);
+        }
+      }
+      for (byte typeId : typeIds) {
+        if (maxOffsets[typeId] >= 0) {
+          childPairs[typeId].splitAndTransfer(minOffsets[typeId], maxOffsets[typeId] - minOffsets[typeId] + 1);
+          to.childValueCounts[typeId] = -1;
+        }
+      }
+
+      to.allocateValidityBuffer(BitVectorHelper.getValidityBufferSize(length));
+      to.allocateOffsetBuffer(length * OFFSET_WIDTH);
+      for (int i = 0; i < length; i++) {
+        if (!isNull(startIndex + i)) {
+          BitVectorHelper.setValidityBitToOne(to.validityBuffer, i);
+          byte typeId = getTypeId(startIndex + i);
+          to.offsetBuffer.setInt(i * OFFSET_WIDTH, getOffset(startIndex + i) - minOffsets[typeId]);
+        }
+      }
+
+      final int startPoint = startIndex * TYPE_WIDTH;
+      final int sliceLength = length * TYPE_WIDTH;
+      final ArrowBuf slicedBuffer = typeBuffer.slice(startPoint, sliceLength);
+      final ReferenceManager refManager = slicedBuffer.getReferenceManager();
+      to.typeBuffer = refManager.transferOwnership(slicedBuffer, to.allocator).getTransferredBuffer();
+      to.setValueCount(length);
+    }
+
+    @Override
+    public ValueVector getTo() {
+      return to;
+    }
+
+    @Override
+    public void copyValueSafe(int from, int to) {
+      this.to.copyFrom(from, to, DenseUnionVector.this);
+    }
+  }
+
+  private void allocateValidityBuffer(int size) {
+    validityAllocationSizeInBytes = size;
+    allocateValidityBuffer();
+  }
+
+  private void allocateOffsetBuffer(int size) {
+    offsetAllocationSizeInBytes = size;
+    allocateOffsetBuffer();
+  }
+
+  @Override
+  public FieldReader getReader() {
+    if (reader == null) {
+      reader = new DenseUnionReader(this);
+    }
+    return reader;
+  }
+
+  public FieldWriter getWriter() {
+    if (writer == null) {
+      writer = new DenseUnionWriter(this);
+    }
+    return writer;
+  }
+
+  @Override
+  public int getBufferSize() {
+    if (valueCount == 0) { return 0; }
+
+    return BitVectorHelper.getValidityBufferSize(valueCount) + (valueCount * (TYPE_WIDTH + OFFSET_WIDTH)) +
+        internalStruct.getBufferSize();
+  }
+
+  @Override
+  public int getBufferSizeFor(final int valueCount) {
+    if (valueCount == 0) {
+      return 0;
+    }
+
+    /* only the values referenced by the first valueCount slots are accounted for */
+    int[] childValueCounts = new int[MAX_TYPE_ID + 1];
+    for (int i = 0; i < valueCount; i++) {
+      if (!isNull(i)) {
+        byte typeId = getTypeId(i);
+        childValueCounts[typeId] = Math.max(childValueCounts[typeId], getOffset(i) + 1);
+      }
+    }
+
+    long bufferSize = 0;
+    for (byte typeId : typeIds) {
+      bufferSize += childVectors[typeId].getBufferSizeFor(childValueCounts[typeId]);
+    }
+
+    return (int) bufferSize + BitVectorHelper.getValidityBufferSize(valueCount) +
+        (valueCount * (TYPE_WIDTH + OFFSET_WIDTH));
+  }
+
+  @Override
+  public ArrowBuf[] getBuffers(boolean clear) {
+    List<ArrowBuf> list = new java.util.ArrayList<>();
+    setReaderAndWriterIndex();
+    if (getBufferSize() != 0) {
+      list.add(validityBuffer);
+      list.add(typeBuffer);
+      list.add(offsetBuffer);
+      list.addAll(java.util.Arrays.asList(internalStruct.getBuffers(clear)));
+    }
+    if (clear) {
+      valueCount = 0;
+      for (ArrowBuf buffer : new ArrowBuf[] {validityBuffer, typeBuffer, offsetBuffer}) {
+        buffer.getReferenceManager().retain();
+        buffer.getReferenceManager().release();
+      }
+      validityBuffer = allocator.getEmpty();
+      typeBuffer = allocator.getEmpty();
+      offsetBuffer = allocator.getEmpty();
+    }
+    return list.toArray(new ArrowBuf[list.size()]);
+  }
+
+  @Override
+  public Iterator<ValueVector> iterator() {
+    List<ValueVector> vectors = org.apache.arrow.util.Collections2.toList(internalStruct.iterator());
+    return vectors.iterator();
+  }
+
+    public Object getObject(int index) {
+      if (isNull(index)) {
+        return null;
+      }
+      return getVectorByType(getTypeId(index)).getObject(getOffset(index));
+    }
+
+    public void get(int index, UnionHolder holder) {
+      FieldReader reader = new DenseUnionReader(DenseUnionVector.this);
+      reader.setPosition(index);
+      holder.reader = reader;
+    }
+
+    public int getValueCount() {
+      return valueCount;
+    }
+
+    public boolean isNull(int index) {
+      return isSet(index) == 0;
+    }
+
+    @Override
+    public int getNullCount() {
+      return BitVectorHelper.getNullCount(validityBuffer, valueCount);
+    }
+
+    public int isSet(int index) {
+      final int byteIndex = index >> 3;
+      final byte b = validityBuffer.getByte(byteIndex);
+      final int bitIndex = index & 7;
+      return (b >> bitIndex) & 0x01;
+    }
+
+    DenseUnionWriter writer;
+
+    /**
+     * Sets the number of slots in this vector. The value count of every child is set to the
+     * number of values appended to it.
+     */
+    public void setValueCount(int valueCount) {
+      this.valueCount = valueCount;
+      while (valueCount > getValidityBufferValueCapacity()) {
+        reallocValidityBuffer();
+      }
+      while (valueCount > getTypeBufferValueCapacity()) {
+        reallocTypeBuffer();
+      }
+      while (valueCount > getOffsetBufferValueCapacity()) {
+        reallocOffsetBuffer();
+      }
+      for (byte typeId : typeIds) {
+        childVectors[typeId].setValueCount(getChildValueCount(typeId));
+      }
+    }
+
+    public void setSafe(int index, UnionHolder holder) {
+      FieldReader reader = holder.reader;
+      if (writer == null) {
+        writer = new DenseUnionWriter(DenseUnionVector.this);
+      }
+      writer.setPosition(index);
+      MinorType type = reader.getMinorType();
+      switch (type) {
+      <#list vv.types as type>
+        <#list type.minor as minor>
+          <#assign name = minor.class?cap_first />
+          <#assign fields = minor.fields!type.fields />
+          <#assign uncappedName = name?uncap_first/>
+          <#if !minor.typeParams?? >
+      case ${name?upper_case}:
+        Nullable${name}Holder ${uncappedName}Holder = new Nullable${name}Holder();
+        reader.read(${uncappedName}Holder);
+        setSafe(index, ${uncappedName}Holder);
+        break;
+          </#if>
+        </#list>
+      </#list>
+      case STRUCT:
+      case LIST:
+        ComplexCopier.copy(reader, writer);
+        break;
+      default:
+        throw new UnsupportedOperationException();
+      }
+    }
+    <#list vv.types as type>
+      <#list type.minor as minor>
+        <#assign name = minor.class?cap_first />
+        <#assign fields = minor.fields!type.fields />
+        <#assign uncappedName = name?uncap_first/>
+        <#if !minor.typeParams?? >
+
+    public void setSafe(int index, Nullable${name}Holder holder) {
+      setSafe(index, addOrGetTypeId(MinorType.${name?upper_case}), holder);
+    }
+
+    public void setSafe(int index, byte typeId, Nullable${name}Holder holder) {
+      ${name}Vector vector = get${name}Vector(typeId);
+      int offset = startValue(index, typeId);
+      vector.setSafe(offset, holder);
+    }
+        </#if>
+      </#list>
+    </#list>
+
+    private int getValidityBufferValueCapacity() {
+      return validityBuffer.capacity() * 8;
+    }
+
+    private int getTypeBufferValueCapacity() {
+      return typeBuffer.capacity() / TYPE_WIDTH;
+    }
+
+    private int getOffsetBufferValueCapacity() {
+      return offsetBuffer.capacity() / OFFSET_WIDTH;
+    }
+
+    @Override
+    public int hashCode(int index) {
+      return hashCode(index, null);
+    }
+
+    @Override
+    public int hashCode(int index, ArrowBufHasher hasher) {
+      if (isNull(index)) {
+        return ArrowBufPointer.NULL_HASH_CODE;
+      }
+      return getVectorByType(getTypeId(index)).hashCode(getOffset(index), hasher);
+    }
+
+    @Override
+    public <OUT, IN> OUT accept(VectorVisitor<OUT, IN> visitor, IN value) {
+      return visitor.visit(this, value);
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String toString() {
+      return ValueVectorUtility.getToString(this, 0, getValueCount());
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.apache.arrow.vector.complex.impl.NullableStructWriterFactory;
+
+<@pp.dropOutputFile />
+<@pp.changeOutputFile name="/org/apache/arrow/vector/complex/impl/DenseUnionWriter.java" />
+
+
+<#include "/@includes/license.ftl" />
+
+package org.apache.arrow.vector.complex.impl;
+
+<#include "/@includes/vv_imports.ftl" />
+import org.apache.arrow.vector.complex.writer.BaseWriter;
+import org.apache.arrow.vector.types.Types.MinorType;
+
+/*
+ * This class is generated using freemarker and the ${.template_name} template.
+ */
+
+/**
+ * Writer for {@link DenseUnionVector}. Every value is appended to the first child vector of its type,
+ * which is registered on demand. Struct values are written between {@link #start()} and {@link #end()},
+ * list values between {@link #startList()} and {@link #endList()}.
+ */
+@SuppressWarnings("unused")
+public class DenseUnionWriter extends AbstractFieldWriter implements FieldWriter {
+
+  DenseUnionVector data;
+  private final BaseWriter[] writers = new BaseWriter[DenseUnionVector.MAX_TYPE_ID + 1];
+  private final NullableStructWriterFactory nullableStructWriterFactory;
+
+  public DenseUnionWriter(DenseUnionVector vector) {
+    this(vector, NullableStructWriterFactory.getNullableStructWriterFactoryInstance());
+  }
+
+  public DenseUnionWriter(DenseUnionVector vector, NullableStructWriterFactory nullableStructWriterFactory) {
+    data = vector;
+    this.nullableStructWriterFactory = nullableStructWriterFactory;
+  }
+
+  /**
+   * Appends a slot for the value at the current position to the child with the given type id,
+   * and positions the writer of that child on it.
+   */
+  private <T extends BaseWriter> T startValue(byte typeId, T writer) {
+    writer.setPosition(data.startValue(idx(), typeId));
+    return writer;
+  }
+
+  @Override
+  public void start() {
+    startValue(data.addOrGetTypeId(MinorType.STRUCT), getStructWriter()).start();
+  }
+
+  @Override
+  public void end() {
+    getStructWriter().end();
+  }
+
+  @Override
+  public void startList() {
+    startValue(data.addOrGetTypeId(MinorType.LIST), getListWriter()).startList();
+  }
+
+  @Override
+  public void endList() {
+    getListWriter().endList();
+  }
+
+  private StructWriter getStructWriter() {
+    byte typeId = data.addOrGetTypeId(MinorType.STRUCT);
+    StructWriter structWriter = (StructWriter) writers[typeId];
+    if (structWriter == null) {
+      structWriter = nullableStructWriterFactory.build(data.getStruct(typeId));
+      writers[typeId] = structWriter;
+    }
+    return structWriter;
+  }
+
+  public StructWriter asStruct() {
+    return startValue(data.addOrGetTypeId(MinorType.STRUCT), getStructWriter());
+  }
+
+  private ListWriter getListWriter() {
+    byte typeId = data.addOrGetTypeId(MinorType.LIST);
+    ListWriter listWriter = (ListWriter) writers[typeId];
+    if (listWriter == null) {
+      listWriter = new UnionListWriter(data.getList(typeId), nullableStructWriterFactory);
+      writers[typeId] = listWriter;
+    }
+    return listWriter;
+  }
+
+  public ListWriter asList() {
+    return startValue(data.addOrGetTypeId(MinorType.LIST), getListWriter());
+  }
+  <#list vv.types as type>
+    <#list type.minor as minor>
+      <#assign name = minor.class?cap_first />
+      <#assign fields = minor.fields!type.fields />
+      <#assign uncappedName = name?uncap_first/>
+      <#if !minor.typeParams?? >
+
+  private ${name}Writer get${name}Writer() {
+    byte typeId = data.addOrGetTypeId(MinorType.${name?upper_case});
+    ${name}Writer ${uncappedName}Writer = (${name}Writer) writers[typeId];
+    if (${uncappedName}Writer == null) {
+      ${uncappedName}Writer = new ${name}WriterImpl(data.get${name}Vector(typeId));
+      writers[typeId] = ${uncappedName}Writer;
+    }
+    return ${uncappedName}Writer;
+  }
+
+  public ${name}Writer as${name}() {
+    return startValue(data.addOrGetTypeId(MinorType.${name?upper_case}), get${name}Writer());
+  }
+
+  @Override
+  public void write(${name}Holder holder) {
+    as${name}().write${name}(<#list fields as field>holder.${field.name}<#if field_has_next>, </#if></#list>);
+  }
+
+  public void write${minor.class}(<#list fields as field>${field.type} ${field.name}<#if field_has_next>, </#if></#list>) {
+    as${name}().write${name}(<#list fields as field>${field.name}<#if field_has_next>, </#if></#list>);
+  }
+      </#if>
+    </#list>
+  </#list>
+
+  public void writeNull() {
+    data.setNull(idx());
+  }
+
+  @Override
+  public StructWriter struct() {
+    return getListWriter().struct();
+  }
+
+  @Override
+  public ListWriter list() {
+    return getListWriter().list();
+  }
+
+  @Override
+  public ListWriter list(String name) {
+    return getStructWriter().list(name);
+  }
+
+  @Override
+  public StructWriter struct(String name) {
+    return getStructWriter().struct(name);
+  }
+
+  <#list vv.types as type><#list type.minor as minor>
+  <#assign lowerName = minor.class?uncap_first />
+  <#if lowerName == "int" ><#assign lowerName = "integer" /></#if>
+  <#assign upperName = minor.class?upper_case />
+  <#assign capName = minor.class?cap_first />
+  <#if !minor.typeParams?? >
+  @Override
+  public ${capName}Writer ${lowerName}(String name) {
+    return getStructWriter().${lowerName}(name);
+  }
+
+  @Override
+  public ${capName}Writer ${lowerName}() {
+    return getListWriter().${lowerName}();
+  }
+  </#if>
+  </#list></#list>
+
+  @Override
+  public void allocate() {
+    data.allocateNew();
+  }
+
+  @Override
+  public void clear() {
+    data.clear();
+  }
+
+  @Override
+  public void close() throws Exception {
+    data.close();
+  }
+
+  @Override
+  public Field getField() {
+    return data.getField();
+  }
+
+  @Override
+  public int getValueCapacity() {
+    return data.getValueCapacity();
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.arrow.vector;
 import static io.netty.util.internal.PlatformDependent.getByte;
 import static io.netty.util.internal.PlatformDependent.getInt;
 import static io.netty.util.internal.PlatformDependent.getLong;
+import static io.netty.util.internal.PlatformDependent.setMemory;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.util.DataSizeRoundingUtil;
@@ -306,6 +307,66 @@ public class BitVectorHelper {
     return newBuffer;
   }
 
+  /**
+   * Concatenates two bit sets into the output buffer. The bits of the second input are shifted
+   * a byte at a time, so the cost is proportional to the number of bytes rather than bits.
+   * The output may be the first input, in which case the first bit set is left in place.
+   *
+   * @param input1 the first bit set.
+   * @param numBits1 the number of bits in the first bit set.
+   * @param input2 the second bit set.
+   * @param numBits2 the number of bits in the second bit set.
+   * @param output the output buffer, with capacity for at least numBits1 + numBits2 bits.
+   */
+  public static void concatBits(ArrowBuf input1, int numBits1, ArrowBuf input2, int numBits2, ArrowBuf output) {
+    final int numBytes1 = DataSizeRoundingUtil.divideBy8Ceil(numBits1);
+    final int numBytes2 = DataSizeRoundingUtil.divideBy8Ceil(numBits2);
+    final int numBytesOut = DataSizeRoundingUtil.divideBy8Ceil(numBits1 + numBits2);
+
+    if (input1 != output) {
+      output.setBytes(0, input1, 0, numBytes1);
+    }
+
+    final int shift = bitIndex(numBits1);
+    if (shift == 0) {
+      /* the first bit set ends at a byte boundary, so the second one can be copied as is */
+      output.setBytes(numBytes1, input2, 0, numBytes2);
+      return;
+    }
+
+    /* the last byte of the first bit set is partially filled, keep only its valid bits */
+    int outIndex = numBytes1 - 1;
+    int carry = output.getByte(outIndex) & ((1 << shift) - 1);
+    final int trailingBits = bitIndex(numBits2);
+    for (int i = 0; i < numBytes2; i++) {
+      int current = input2.getByte(i) & 0xFF;
+      if (i == numBytes2 - 1 && trailingBits != 0) {
+        current &= (1 << trailingBits) - 1;
+      }
+      output.setByte(outIndex++, carry | (current << shift));
+      carry = current >>> (8 - shift);
+    }
+    if (outIndex < numBytesOut) {
+      output.setByte(outIndex, carry);
+    }
+  }
+
+  /**
+   * Sets the first bits of a buffer to 1, e.g. to mark the first values of a vector as non-null.
+   * Whole bytes are set in bulk, and the bits after the given number are left unchanged.
+   *
+   * @param validityBuffer the buffer to set.
+   * @param numBits the number of bits to set.
+   */
+  public static void setAllBitsToOne(ArrowBuf validityBuffer, int numBits) {
+    final int fullBytes = byteIndex(numBits);
+    setMemory(validityBuffer.memoryAddress(), fullBytes, (byte) 0xff);
+    final int remainingBits = bitIndex(numBits);
+    if (remainingBits != 0) {
+      setBitMaskedByte(validityBuffer, fullBytes, (byte) ((1 << remainingBits) - 1));
+    }
+  }
+
   /**
    * Set the byte of the given index in the data buffer by applying a bit mask to
    * the current byte at that index.
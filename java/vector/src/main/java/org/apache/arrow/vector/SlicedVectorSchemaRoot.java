@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.TransferPair;
+
+/**
+ * A zero-copy slice of a {@link VectorSchemaRoot}.
+ *
+ * <p>The slice holds vectors sharing the buffers of the sliced root, whose reference counts are
+ * retained, so the slice stays valid after the sliced root is closed. Rows are addressed relative
+ * to the slice, and translated to the shared vectors by adding {@link #getOffset()}.
+ * Creating a slice, or a slice of a slice, takes time proportional to the number of buffers,
+ * regardless of the position and length of the slice.
+ *
+ * <p>Unlike {@link VectorSchemaRoot#slice(int, int)}, no validity bits are shifted and no offsets
+ * are rewritten until the slice is rebased by {@link #toVectorSchemaRoot()}, which is only needed
+ * when the rows have to start at position 0 (e.g. to write them with an IPC writer).
+ */
+public class SlicedVectorSchemaRoot implements AutoCloseable {
+
+  private final VectorSchemaRoot sharedRoot;
+  private final BufferAllocator allocator;
+  private final int offset;
+  private final int length;
+
+  /**
+   * Constructs a slice sharing the buffers of the given root.
+   * @param root the root to slice.
+   * @param offset start position of the slice.
+   * @param length length of the slice.
+   * @param allocator allocator for the shared vectors.
+   */
+  SlicedVectorSchemaRoot(VectorSchemaRoot root, int offset, int length, BufferAllocator allocator) {
+    Preconditions.checkArgument(offset >= 0, "expecting non-negative index");
+    Preconditions.checkArgument(length >= 0, "expecting non-negative length");
+    Preconditions.checkArgument(offset + length <= root.getRowCount(),
+        "index + length should <= rowCount");
+    this.allocator = allocator;
+    this.offset = offset;
+    this.length = length;
+    this.sharedRoot = VectorSchemaRoot.create(root.getSchema(), allocator);
+    try (ArrowRecordBatch recordBatch = new VectorUnloader(root, true, false).getRecordBatch()) {
+      new VectorLoader(sharedRoot).load(recordBatch);
+    } catch (RuntimeException e) {
+      sharedRoot.close();
+      throw e;
+    }
+  }
+
+  public Schema getSchema() {
+    return sharedRoot.getSchema();
+  }
+
+  /**
+   * Gets the number of rows in the slice.
+   */
+  public int getRowCount() {
+    return length;
+  }
+
+  /**
+   * Gets the position of the first row of the slice in the shared vectors.
+   */
+  public int getOffset() {
+    return offset;
+  }
+
+  /**
+   * Gets the shared vectors. They hold all the rows of the sliced root,
+   * so row i of the slice is at position {@link #getOffset()} + i.
+   */
+  public List<FieldVector> getFieldVectors() {
+    return sharedRoot.getFieldVectors();
+  }
+
+  public FieldVector getVector(String name) {
+    return sharedRoot.getVector(name);
+  }
+
+  public FieldVector getVector(int index) {
+    return sharedRoot.getVector(index);
+  }
+
+  private void checkRow(int row) {
+    Preconditions.checkElementIndex(row, length);
+  }
+
+  /**
+   * Checks if a value of the slice is null.
+   * @param columnIndex index of the vector.
+   * @param row row in the slice.
+   * @return true if the value is null.
+   */
+  public boolean isNull(int columnIndex, int row) {
+    checkRow(row);
+    return getVector(columnIndex).isNull(offset + row);
+  }
+
+  /**
+   * Gets a value of the slice.
+   * @param columnIndex index of the vector.
+   * @param row row in the slice.
+   * @return the object representation of the value.
+   */
+  public Object getObject(int columnIndex, int row) {
+    checkRow(row);
+    return getVector(columnIndex).getObject(offset + row);
+  }
+
+  /**
+   * Gets the reader of a vector, positioned at a row of the slice.
+   * @param columnIndex index of the vector.
+   * @param row row in the slice.
+   * @return the reader.
+   */
+  public FieldReader getReader(int columnIndex, int row) {
+    checkRow(row);
+    FieldReader reader = getVector(columnIndex).getReader();
+    reader.setPosition(offset + row);
+    return reader;
+  }
+
+  /**
+   * Slices this slice, without copying.
+   * @param index start position, relative to this slice.
+   * @param length length of the new slice.
+   * @return the new slice, which must be closed separately.
+   */
+  public SlicedVectorSchemaRoot slice(int index, int length) {
+    Preconditions.checkArgument(index >= 0, "expecting non-negative index");
+    Preconditions.checkArgument(index + length <= this.length, "index + length should <= rowCount");
+    return new SlicedVectorSchemaRoot(sharedRoot, offset + index, length, allocator);
+  }
+
+  /**
+   * Rebases the slice to a root whose rows start at position 0.
+   * Buffers are still shared where possible (e.g. fixed width values), but validity bits at an
+   * unaligned offset are shifted and variable width offsets are rewritten.
+   * @return a root with the rows of the slice, which must be closed separately.
+   */
+  public VectorSchemaRoot toVectorSchemaRoot() {
+    List<FieldVector> vectors = new ArrayList<>(sharedRoot.getFieldVectors().size());
+    for (FieldVector vector : sharedRoot.getFieldVectors()) {
+      TransferPair transferPair = vector.getTransferPair(vector.getAllocator());
+      transferPair.splitAndTransfer(offset, length);
+      vectors.add((FieldVector) transferPair.getTo());
+    }
+    List<Field> fields = vectors.stream().map(ValueVector::getField).collect(Collectors.toList());
+    return new VectorSchemaRoot(fields, vectors, length);
+  }
+
+  /**
+   * Returns a tab separated value of the rows of the slice.
+   */
+  public String contentToTSVString() {
+    StringBuilder sb = new StringBuilder();
+    List<String> names = getSchema().getFields().stream().map(Field::getName).collect(Collectors.toList());
+    sb.append(String.join("\t", names)).append("\n");
+    for (int i = 0; i < length; i++) {
+      for (int j = 0; j < getFieldVectors().size(); j++) {
+        if (j > 0) {
+          sb.append("\t");
+        }
+        sb.append(getObject(j, i));
+      }
+      sb.append("\n");
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public void close() {
+    sharedRoot.close();
+  }
+}
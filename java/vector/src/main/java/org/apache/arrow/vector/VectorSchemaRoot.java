@@ -312,5 +312,15 @@ public class VectorSchemaRoot implements AutoCloseable {
     return new VectorSchemaRoot(sliceVectors);
   }
 
+  /**
+   * Slice this root at desired index and length, without copying any data.
+   * The slice shares the buffers of this root, see {@link SlicedVectorSchemaRoot}.
+   * @param index start position of the slice
+   * @param length length of the slice
+   * @return the slice, which must be closed separately
+   */
+  public SlicedVectorSchemaRoot zeroCopySlice(int index, int length) {
+    BufferAllocator allocator = fieldVectors.isEmpty() ? null : fieldVectors.get(0).getAllocator();
+    return new SlicedVectorSchemaRoot(this, index, length, allocator);
+  }
 }
-
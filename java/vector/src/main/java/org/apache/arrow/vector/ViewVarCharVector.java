@@ -0,0 +1,893 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.util.ArrowBufPointer;
+import org.apache.arrow.memory.util.ByteFunctionHelpers;
+import org.apache.arrow.memory.util.hash.ArrowBufHasher;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.compare.VectorVisitor;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.util.CallBack;
+import org.apache.arrow.vector.util.OversizedAllocationException;
+import org.apache.arrow.vector.util.Text;
+import org.apache.arrow.vector.util.TransferPair;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * ViewVarCharVector implements a variable width vector of VARCHAR
+ * values which could be NULL, in the "view" layout. Every element has a
+ * 16 byte view holding a 4 byte length, followed by the whole value if it
+ * is at most 12 bytes long, or else by the first 4 bytes of the value, the
+ * index of the data buffer holding the value and its offset in that buffer.
+ *
+ * <p>Compared to {@link VarCharVector}, short values never touch the data
+ * buffers, and most comparisons of long values are resolved from the prefix
+ * alone. The logical type is the same as {@link VarCharVector}, which should
+ * be used for IPC; see {@link #fromVarCharVector(VarCharVector, BufferAllocator)}
+ * and {@link #toVarCharVector(VarCharVector)}. The minor type is
+ * {@link MinorType#VIEWVARCHAR} though, so code relying on the layout of a
+ * VARCHAR vector does not accept this one.
+ *
+ * <p>Data buffers are append only: overwriting a long value does not reclaim
+ * the space of the previous one.
+ */
+public final class ViewVarCharVector extends BaseValueVector implements ElementAddressableVector {
+
+  public static final int VIEW_WIDTH = 16;
+  public static final int INLINE_SIZE = 12;
+  public static final int PREFIX_WIDTH = 4;
+
+  private static final int LENGTH_WIDTH = 4;
+  private static final int BUFFER_INDEX_OFFSET = 8;
+  private static final int BUFFER_OFFSET_OFFSET = 12;
+  private static final int DEFAULT_DATA_BUFFER_SIZE = 32 * 1024;
+
+  private final Field field;
+  private ArrowBuf validityBuffer;
+  private ArrowBuf viewBuffer;
+  private final List<ArrowBuf> dataBuffers = new ArrayList<>();
+  private int valueCount;
+  private int lastValueCapacity;
+
+  /**
+   * Instantiate a ViewVarCharVector. This doesn't allocate any memory for
+   * the data in vector.
+   * @param name name of the vector
+   * @param allocator allocator for memory management.
+   */
+  public ViewVarCharVector(String name, BufferAllocator allocator) {
+    this(name, FieldType.nullable(MinorType.VARCHAR.getType()), allocator);
+  }
+
+  /**
+   * Instantiate a ViewVarCharVector. This doesn't allocate any memory for
+   * the data in vector.
+   * @param name name of the vector
+   * @param fieldType type of Field materialized by this vector
+   * @param allocator allocator for memory management.
+   */
+  public ViewVarCharVector(String name, FieldType fieldType, BufferAllocator allocator) {
+    this(new Field(name, fieldType, null), allocator);
+  }
+
+  /**
+   * Instantiate a ViewVarCharVector. This doesn't allocate any memory for
+   * the data in vector.
+   * @param field field materialized by this vector
+   * @param allocator allocator for memory management.
+   */
+  public ViewVarCharVector(Field field, BufferAllocator allocator) {
+    super(allocator);
+    this.field = field;
+    lastValueCapacity = INITIAL_VALUE_ALLOCATION;
+    validityBuffer = allocator.getEmpty();
+    viewBuffer = allocator.getEmpty();
+  }
+
+  /**
+   * Creates a vector in the view layout with the content of a {@link VarCharVector}.
+   * @param source the vector to convert.
+   * @param allocator allocator for the new vector.
+   * @return the new vector.
+   */
+  public static ViewVarCharVector fromVarCharVector(VarCharVector source, BufferAllocator allocator) {
+    ViewVarCharVector result = new ViewVarCharVector(source.getName(), source.getField().getFieldType(), allocator);
+    try {
+      final int valueCount = source.getValueCount();
+      result.allocateNew(valueCount);
+      for (int i = 0; i < valueCount; i++) {
+        result.copyFrom(i, i, source);
+      }
+      result.setValueCount(valueCount);
+    } catch (RuntimeException e) {
+      result.close();
+      throw e;
+    }
+    return result;
+  }
+
+  /**
+   * Copies the content of this vector to a {@link VarCharVector}.
+   * @param target the vector to populate. Its previous content is discarded.
+   */
+  public void toVarCharVector(VarCharVector target) {
+    int totalBytes = 0;
+    for (int i = 0; i < valueCount; i++) {
+      if (isSet(i) != 0) {
+        totalBytes += getValueLength(i);
+      }
+    }
+    target.allocateNew(totalBytes, valueCount);
+    for (int i = 0; i < valueCount; i++) {
+      if (isSet(i) != 0) {
+        target.set(i, getValueStart(i), getValueLength(i), getValueBuffer(i));
+      }
+    }
+    target.setValueCount(valueCount);
+  }
+
+  @Override
+  public String getName() {
+    return field.getName();
+  }
+
+  @Override
+  public Field getField() {
+    return field;
+  }
+
+  /**
+   * Get minor type for this vector. The view layout holds values of the
+   * same logical type as {@link VarCharVector}, but has its own minor type.
+   * @return {@link org.apache.arrow.vector.types.Types.MinorType}
+   */
+  @Override
+  public MinorType getMinorType() {
+    return MinorType.VIEWVARCHAR;
+  }
+
+  /**
+   * Readers are not supported for the view layout, convert to a
+   * {@link VarCharVector} first.
+   */
+  @Override
+  public FieldReader getReader() {
+    throw new UnsupportedOperationException("There is no reader for the view layout");
+  }
+
+
+  /*----------------------------------------------------------------*
+   |                                                                |
+   |          memory management                                     |
+   |                                                                |
+   *----------------------------------------------------------------*/
+
+
+  /**
+   * Get buffer that manages the validity (NULL or NON-NULL nature) of
+   * elements in the vector.
+   * @return buffer
+   */
+  @Override
+  public ArrowBuf getValidityBuffer() {
+    return validityBuffer;
+  }
+
+  /**
+   * Get the buffer that stores the views of the elements in the vector.
+   * @return buffer
+   */
+  @Override
+  public ArrowBuf getDataBuffer() {
+    return viewBuffer;
+  }
+
+  /**
+   * There is no offset buffer in the view layout.
+   */
+  @Override
+  public ArrowBuf getOffsetBuffer() {
+    throw new UnsupportedOperationException("There is no offset buffer in the view layout");
+  }
+
+  /**
+   * Get the buffers holding the values longer than {@link #INLINE_SIZE} bytes.
+   * @return the data buffers, indexed by the buffer index of the views.
+   */
+  public List<ArrowBuf> getVariadicDataBuffers() {
+    return dataBuffers;
+  }
+
+  @Override
+  public void setInitialCapacity(int valueCount) {
+    computeAndCheckBufferSize(valueCount);
+    lastValueCapacity = valueCount;
+  }
+
+  @Override
+  public int getValueCapacity() {
+    return Math.min(viewBuffer.capacity() / VIEW_WIDTH, validityBuffer.capacity() * 8);
+  }
+
+  @Override
+  public void allocateNew() {
+    allocateNew(lastValueCapacity);
+  }
+
+  @Override
+  public boolean allocateNewSafe() {
+    try {
+      allocateNew(lastValueCapacity);
+      return true;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  /**
+   * Allocate memory for the views of at least the provided number of elements.
+   * Data buffers for long values are allocated on demand.
+   * @param valueCount the desired number of elements in the vector
+   */
+  public void allocateNew(int valueCount) {
+    computeAndCheckBufferSize(valueCount);
+
+    /* we are doing a new allocation -- release the current buffers */
+    clear();
+
+    try {
+      DataAndValidityBuffers buffers = allocFixedDataAndValidityBufs(valueCount, VIEW_WIDTH);
+      viewBuffer = buffers.getDataBuf();
+      validityBuffer = buffers.getValidityBuf();
+      viewBuffer.setZero(0, viewBuffer.capacity());
+      validityBuffer.setZero(0, validityBuffer.capacity());
+    } catch (Exception e) {
+      clear();
+      throw e;
+    }
+    lastValueCapacity = getValueCapacity();
+  }
+
+  private long computeAndCheckBufferSize(int valueCount) {
+    final long size = computeCombinedBufferSize(valueCount, VIEW_WIDTH);
+    if (size > MAX_ALLOCATION_SIZE) {
+      throw new OversizedAllocationException("Memory required for vector capacity " +
+          valueCount +
+          " is (" + size + "), which is more than max allowed (" + MAX_ALLOCATION_SIZE + ")");
+    }
+    return size;
+  }
+
+  /**
+   * Resize the validity and view buffers to double the current value capacity.
+   * The data buffers are not affected.
+   */
+  @Override
+  public void reAlloc() {
+    int targetValueCount = getValueCapacity() * 2;
+    if (targetValueCount == 0) {
+      targetValueCount = lastValueCapacity > 0 ? lastValueCapacity : INITIAL_VALUE_ALLOCATION * 2;
+    }
+    computeAndCheckBufferSize(targetValueCount);
+
+    DataAndValidityBuffers buffers = allocFixedDataAndValidityBufs(targetValueCount, VIEW_WIDTH);
+    final ArrowBuf newViewBuffer = buffers.getDataBuf();
+    newViewBuffer.setBytes(0, viewBuffer, 0, viewBuffer.capacity());
+    newViewBuffer.setZero(viewBuffer.capacity(), newViewBuffer.capacity() - viewBuffer.capacity());
+    viewBuffer.getReferenceManager().release();
+    viewBuffer = newViewBuffer;
+
+    final ArrowBuf newValidityBuffer = buffers.getValidityBuf();
+    newValidityBuffer.setBytes(0, validityBuffer, 0, validityBuffer.capacity());
+    newValidityBuffer.setZero(validityBuffer.capacity(), newValidityBuffer.capacity() - validityBuffer.capacity());
+    validityBuffer.getReferenceManager().release();
+    validityBuffer = newValidityBuffer;
+
+    lastValueCapacity = getValueCapacity();
+  }
+
+  /**
+   * Zero out the views and validity, and release the data buffers.
+   * The validity and view buffers are kept.
+   */
+  @Override
+  public void reset() {
+    viewBuffer.setZero(0, viewBuffer.capacity());
+    validityBuffer.setZero(0, validityBuffer.capacity());
+    releaseDataBuffers();
+    valueCount = 0;
+  }
+
+  @Override
+  public void clear() {
+    validityBuffer = releaseBuffer(validityBuffer);
+    viewBuffer = releaseBuffer(viewBuffer);
+    releaseDataBuffers();
+    valueCount = 0;
+  }
+
+  private void releaseDataBuffers() {
+    for (ArrowBuf buffer : dataBuffers) {
+      buffer.getReferenceManager().release();
+    }
+    dataBuffers.clear();
+  }
+
+  @Override
+  public int getBufferSize() {
+    return getBufferSizeFor(valueCount);
+  }
+
+  /**
+   * Get the buffer size for a particular number of records. The data buffers
+   * are accounted by the bytes used, regardless of the value count.
+   */
+  @Override
+  public int getBufferSizeFor(int valueCount) {
+    if (valueCount == 0) {
+      return 0;
+    }
+    int size = getValidityBufferSizeFromCount(valueCount) + valueCount * VIEW_WIDTH;
+    for (ArrowBuf buffer : dataBuffers) {
+      size += buffer.writerIndex();
+    }
+    return size;
+  }
+
+  @Override
+  public ArrowBuf[] getBuffers(boolean clear) {
+    final ArrowBuf[] buffers;
+    setReaderAndWriterIndex();
+    if (getBufferSize() == 0) {
+      buffers = new ArrowBuf[0];
+    } else {
+      buffers = new ArrowBuf[2 + dataBuffers.size()];
+      buffers[0] = validityBuffer;
+      buffers[1] = viewBuffer;
+      for (int i = 0; i < dataBuffers.size(); i++) {
+        buffers[2 + i] = dataBuffers.get(i);
+      }
+    }
+    if (clear) {
+      for (final ArrowBuf buffer : buffers) {
+        buffer.getReferenceManager().retain();
+      }
+      clear();
+    }
+    return buffers;
+  }
+
+  private void setReaderAndWriterIndex() {
+    validityBuffer.readerIndex(0);
+    viewBuffer.readerIndex(0);
+    if (valueCount == 0) {
+      validityBuffer.writerIndex(0);
+      viewBuffer.writerIndex(0);
+    } else {
+      validityBuffer.writerIndex(getValidityBufferSizeFromCount(valueCount));
+      viewBuffer.writerIndex(valueCount * VIEW_WIDTH);
+    }
+  }
+
+  /* gets a data buffer with room for length more bytes, allocating a new one if needed */
+  private ArrowBuf getDataBufferForAppend(int length) {
+    if (!dataBuffers.isEmpty()) {
+      ArrowBuf last = dataBuffers.get(dataBuffers.size() - 1);
+      if (last.capacity() - last.writerIndex() >= length) {
+        return last;
+      }
+    }
+    ArrowBuf buffer = allocator.buffer(Math.max(DEFAULT_DATA_BUFFER_SIZE, length));
+    buffer.readerIndex(0);
+    buffer.writerIndex(0);
+    dataBuffers.add(buffer);
+    return buffer;
+  }
+
+
+  /*----------------------------------------------------------------*
+   |                                                                |
+   |          vector value retrieval methods                        |
+   |                                                                |
+   *----------------------------------------------------------------*/
+
+
+  @Override
+  public int getValueCount() {
+    return valueCount;
+  }
+
+  /**
+   * Sets the value count for the vector.
+   * @param valueCount value count
+   */
+  @Override
+  public void setValueCount(int valueCount) {
+    assert valueCount >= 0;
+    this.valueCount = valueCount;
+    while (valueCount > getValueCapacity()) {
+      reAlloc();
+    }
+    setReaderAndWriterIndex();
+  }
+
+  @Override
+  public int getNullCount() {
+    return BitVectorHelper.getNullCount(validityBuffer, valueCount);
+  }
+
+  @Override
+  public boolean isNull(int index) {
+    return isSet(index) == 0;
+  }
+
+  /**
+   * Same as {@link #isNull(int)}.
+   * @param index position of element
+   * @return 1 if element at given index is not null, 0 otherwise
+   */
+  public int isSet(int index) {
+    final int byteIndex = index >> 3;
+    final byte b = validityBuffer.getByte(byteIndex);
+    final int bitIndex = index & 7;
+    return (b >> bitIndex) & 0x01;
+  }
+
+  /**
+   * Get the length of the element at specified index.
+   * @param index position of element
+   * @return the number of bytes of the element, regardless of its validity
+   */
+  public int getValueLength(int index) {
+    return viewBuffer.getInt(index * VIEW_WIDTH);
+  }
+
+  /* the buffer holding the bytes of the element at the given index */
+  private ArrowBuf getValueBuffer(int index) {
+    final int viewStart = index * VIEW_WIDTH;
+    if (viewBuffer.getInt(viewStart) <= INLINE_SIZE) {
+      return viewBuffer;
+    }
+    return dataBuffers.get(viewBuffer.getInt(viewStart + BUFFER_INDEX_OFFSET));
+  }
+
+  /* the start offset of the element at the given index in its buffer */
+  private int getValueStart(int index) {
+    final int viewStart = index * VIEW_WIDTH;
+    if (viewBuffer.getInt(viewStart) <= INLINE_SIZE) {
+      return viewStart + LENGTH_WIDTH;
+    }
+    return viewBuffer.getInt(viewStart + BUFFER_OFFSET_OFFSET);
+  }
+
+  /**
+   * Get the variable length element at specified index as byte array.
+   * @param index position of element to get
+   * @return array of bytes for non-null element, null otherwise
+   */
+  public byte[] get(int index) {
+    assert index >= 0;
+    if (isSet(index) == 0) {
+      return null;
+    }
+    final byte[] result = new byte[getValueLength(index)];
+    getValueBuffer(index).getBytes(getValueStart(index), result, 0, result.length);
+    return result;
+  }
+
+  /**
+   * Get the variable length element at specified index as Text.
+   * @param index position of element to get
+   * @return Text object for non-null element, null otherwise
+   */
+  @Override
+  public Text getObject(int index) {
+    byte[] b = get(index);
+    if (b == null) {
+      return null;
+    } else {
+      return new Text(b);
+    }
+  }
+
+  @Override
+  public ArrowBufPointer getDataPointer(int index) {
+    return getDataPointer(index, new ArrowBufPointer());
+  }
+
+  @Override
+  public ArrowBufPointer getDataPointer(int index, ArrowBufPointer reuse) {
+    if (isNull(index)) {
+      reuse.set(null, 0, 0);
+    } else {
+      reuse.set(getValueBuffer(index), getValueStart(index), getValueLength(index));
+    }
+    return reuse;
+  }
+
+  /**
+   * Checks if the element at the given index equals the element of another vector.
+   * Two views with different lengths or prefixes are unequal without touching the data;
+   * inline values are compared directly from the views.
+   * @param index position of the element in this vector
+   * @param other the other vector
+   * @param otherIndex position of the element in the other vector
+   * @return true if both elements are null, or have the same bytes
+   */
+  public boolean valueEquals(int index, ViewVarCharVector other, int otherIndex) {
+    final boolean isNull = isNull(index);
+    if (isNull || other.isNull(otherIndex)) {
+      return isNull && other.isNull(otherIndex);
+    }
+    final int viewStart = index * VIEW_WIDTH;
+    final int otherViewStart = otherIndex * VIEW_WIDTH;
+
+    // the length and the prefix
+    if (viewBuffer.getLong(viewStart) != other.viewBuffer.getLong(otherViewStart)) {
+      return false;
+    }
+
+    final int length = viewBuffer.getInt(viewStart);
+    if (length <= INLINE_SIZE) {
+      // the unused inline bytes are always zero
+      return viewBuffer.getLong(viewStart + BUFFER_INDEX_OFFSET) ==
+          other.viewBuffer.getLong(otherViewStart + BUFFER_INDEX_OFFSET);
+    }
+
+    final int start = getValueStart(index) + PREFIX_WIDTH;
+    final int otherStart = other.getValueStart(otherIndex) + PREFIX_WIDTH;
+    return ByteFunctionHelpers.equal(getValueBuffer(index), start, start + length - PREFIX_WIDTH,
+        other.getValueBuffer(otherIndex), otherStart, otherStart + length - PREFIX_WIDTH) != 0;
+  }
+
+  /**
+   * Compares the non-null element at the given index with the non-null element of another
+   * vector, as unsigned bytes. The result is resolved from the prefixes if they differ.
+   * @param index position of the element in this vector
+   * @param other the other vector
+   * @param otherIndex position of the element in the other vector
+   * @return 1 if this element is greater, -1 if it is smaller, 0 otherwise
+   */
+  public int compareNotNull(int index, ViewVarCharVector other, int otherIndex) {
+    // short values are padded with zeros, so differing prefixes order the same as the values
+    final int prefix = viewBuffer.getInt(index * VIEW_WIDTH + LENGTH_WIDTH);
+    final int otherPrefix = other.viewBuffer.getInt(otherIndex * VIEW_WIDTH + LENGTH_WIDTH);
+    if (prefix != otherPrefix) {
+      return ByteFunctionHelpers.unsignedIntCompare(Integer.reverseBytes(prefix), Integer.reverseBytes(otherPrefix));
+    }
+
+    final int start = getValueStart(index);
+    final int otherStart = other.getValueStart(otherIndex);
+    return ByteFunctionHelpers.compare(getValueBuffer(index), start, start + getValueLength(index),
+        other.getValueBuffer(otherIndex), otherStart, otherStart + other.getValueLength(otherIndex));
+  }
+
+  /**
+   * Computes the hash code of the element at the given index. It is the same as
+   * the hash code of the same bytes in a {@link VarCharVector}; inline values are
+   * hashed directly from the views.
+   */
+  @Override
+  public int hashCode(int index) {
+    return hashCode(index, null);
+  }
+
+  @Override
+  public int hashCode(int index, ArrowBufHasher hasher) {
+    if (isNull(index)) {
+      return ArrowBufPointer.NULL_HASH_CODE;
+    }
+    final int start = getValueStart(index);
+    return ByteFunctionHelpers.hash(hasher, getValueBuffer(index), start, start + getValueLength(index));
+  }
+
+
+  /*----------------------------------------------------------------*
+   |                                                                |
+   |          vector value setter methods                           |
+   |                                                                |
+   *----------------------------------------------------------------*/
+
+
+  /**
+   * Check if the given index is within the current value capacity
+   * of the vector.
+   * @param index position to check
+   * @return true if index is within the current value capacity
+   */
+  public boolean isSafe(int index) {
+    return index < getValueCapacity();
+  }
+
+  private void handleSafe(int index) {
+    while (index >= getValueCapacity()) {
+      reAlloc();
+    }
+  }
+
+  /**
+   * Set the element at the given index to null.
+   * @param index position of element
+   */
+  public void setNull(int index) {
+    handleSafe(index);
+    BitVectorHelper.setValidityBit(validityBuffer, index, 0);
+    viewBuffer.setZero(index * VIEW_WIDTH, VIEW_WIDTH);
+  }
+
+  /**
+   * Set the variable length element at the specified index to the supplied
+   * byte array. Data buffers are allocated as needed, but the view must
+   * be within the current capacity.
+   * @param index position of the element to set
+   * @param value array of bytes to write
+   */
+  public void set(int index, byte[] value) {
+    set(index, value, 0, value.length);
+  }
+
+  /**
+   * Same as {@link #set(int, byte[])} except that it handles the case where
+   * index is beyond the existing capacity of the vector.
+   * @param index position of the element to set
+   * @param value array of bytes to write
+   */
+  public void setSafe(int index, byte[] value) {
+    setSafe(index, value, 0, value.length);
+  }
+
+  /**
+   * Set the variable length element at the specified index to the supplied
+   * byte array range.
+   * @param index position of the element to set
+   * @param value array of bytes to write
+   * @param start start index in array of bytes
+   * @param length length of data in array of bytes
+   */
+  public void set(int index, byte[] value, int start, int length) {
+    assert index >= 0;
+    BitVectorHelper.setValidityBitToOne(validityBuffer, index);
+    final int viewStart = index * VIEW_WIDTH;
+    viewBuffer.setZero(viewStart, VIEW_WIDTH);
+    viewBuffer.setInt(viewStart, length);
+    if (length <= INLINE_SIZE) {
+      viewBuffer.setBytes(viewStart + LENGTH_WIDTH, value, start, length);
+    } else {
+      viewBuffer.setBytes(viewStart + LENGTH_WIDTH, value, start, PREFIX_WIDTH);
+      ArrowBuf dataBuffer = getDataBufferForAppend(length);
+      final int offset = dataBuffer.writerIndex();
+      dataBuffer.setBytes(offset, value, start, length);
+      dataBuffer.writerIndex(offset + length);
+      viewBuffer.setInt(viewStart + BUFFER_INDEX_OFFSET, dataBuffers.size() - 1);
+      viewBuffer.setInt(viewStart + BUFFER_OFFSET_OFFSET, offset);
+    }
+  }
+
+  /**
+   * Same as {@link #set(int, byte[], int, int)} except that it handles the
+   * case where index is beyond the existing capacity of the vector.
+   * @param index position of the element to set
+   * @param value array of bytes to write
+   * @param start start index in array of bytes
+   * @param length length of data in array of bytes
+   */
+  public void setSafe(int index, byte[] value, int start, int length) {
+    handleSafe(index);
+    set(index, value, start, length);
+  }
+
+  /**
+   * Set the variable length element at the specified index to the supplied
+   * buffer range.
+   * @param index position of the element to set
+   * @param start start index in the buffer
+   * @param length length of data in the buffer
+   * @param buffer the buffer holding the data
+   */
+  public void set(int index, int start, int length, ArrowBuf buffer) {
+    assert index >= 0;
+    BitVectorHelper.setValidityBitToOne(validityBuffer, index);
+    final int viewStart = index * VIEW_WIDTH;
+    viewBuffer.setZero(viewStart, VIEW_WIDTH);
+    viewBuffer.setInt(viewStart, length);
+    if (length <= INLINE_SIZE) {
+      viewBuffer.setBytes(viewStart + LENGTH_WIDTH, buffer, start, length);
+    } else {
+      viewBuffer.setBytes(viewStart + LENGTH_WIDTH, buffer, start, PREFIX_WIDTH);
+      ArrowBuf dataBuffer = getDataBufferForAppend(length);
+      final int offset = dataBuffer.writerIndex();
+      dataBuffer.setBytes(offset, buffer, start, length);
+      dataBuffer.writerIndex(offset + length);
+      viewBuffer.setInt(viewStart + BUFFER_INDEX_OFFSET, dataBuffers.size() - 1);
+      viewBuffer.setInt(viewStart + BUFFER_OFFSET_OFFSET, offset);
+    }
+  }
+
+  /**
+   * Same as {@link #set(int, int, int, ArrowBuf)} except that it handles the
+   * case where index is beyond the existing capacity of the vector.
+   * @param index position of the element to set
+   * @param start start index in the buffer
+   * @param length length of data in the buffer
+   * @param buffer the buffer holding the data
+   */
+  public void setSafe(int index, int start, int length, ArrowBuf buffer) {
+    handleSafe(index);
+    set(index, start, length, buffer);
+  }
+
+  /**
+   * Set the variable length element at the specified index to the
+   * content in supplied Text.
+   * @param index position of the element to set
+   * @param text Text object with data
+   */
+  public void setSafe(int index, Text text) {
+    setSafe(index, text.getBytes(), 0, text.getLength());
+  }
+
+  /**
+   * Copy a cell value from a particular index in source vector to a particular
+   * position in this vector. The source may be a {@link ViewVarCharVector} or a
+   * {@link VarCharVector}.
+   * @param fromIndex position to copy from in source vector
+   * @param thisIndex position to copy to in this vector
+   * @param from source vector
+   */
+  @Override
+  public void copyFrom(int fromIndex, int thisIndex, ValueVector from) {
+    Preconditions.checkArgument(from.getMinorType() == MinorType.VIEWVARCHAR ||
+        from.getMinorType() == MinorType.VARCHAR);
+    if (from == this && fromIndex == thisIndex) {
+      return;
+    }
+    if (from.isNull(fromIndex)) {
+      BitVectorHelper.setValidityBit(validityBuffer, thisIndex, 0);
+      viewBuffer.setZero(thisIndex * VIEW_WIDTH, VIEW_WIDTH);
+    } else if (from instanceof ViewVarCharVector) {
+      ViewVarCharVector fromVector = (ViewVarCharVector) from;
+      set(thisIndex, fromVector.getValueStart(fromIndex), fromVector.getValueLength(fromIndex),
+          fromVector.getValueBuffer(fromIndex));
+    } else {
+      ArrowBuf offsetBuffer = from.getOffsetBuffer();
+      final int start = offsetBuffer.getInt(fromIndex * BaseVariableWidthVector.OFFSET_WIDTH);
+      final int end = offsetBuffer.getInt((fromIndex + 1) * BaseVariableWidthVector.OFFSET_WIDTH);
+      set(thisIndex, start, end - start, from.getDataBuffer());
+    }
+  }
+
+  /**
+   * Same as {@link #copyFrom(int, int, ValueVector)} except that it handles the
+   * case when the capacity of the vector needs to be expanded before copy.
+   * @param fromIndex position to copy from in source vector
+   * @param thisIndex position to copy to in this vector
+   * @param from source vector
+   */
+  @Override
+  public void copyFromSafe(int fromIndex, int thisIndex, ValueVector from) {
+    handleSafe(thisIndex);
+    copyFrom(fromIndex, thisIndex, from);
+  }
+
+
+  /*----------------------------------------------------------------*
+   |                                                                |
+   |                      vector transfer                           |
+   |                                                                |
+   *----------------------------------------------------------------*/
+
+
+  @Override
+  public TransferPair getTransferPair(String ref, BufferAllocator allocator) {
+    return new TransferImpl(ref, allocator);
+  }
+
+  @Override
+  public TransferPair getTransferPair(String ref, BufferAllocator allocator, CallBack callBack) {
+    return getTransferPair(ref, allocator);
+  }
+
+  @Override
+  public TransferPair getTransferPair(BufferAllocator allocator) {
+    return getTransferPair(getName(), allocator);
+  }
+
+  @Override
+  public TransferPair makeTransferPair(ValueVector target) {
+    return new TransferImpl((ViewVarCharVector) target);
+  }
+
+  /**
+   * Transfer this vector's data to another vector. The memory associated
+   * with this vector is transferred to the allocator of target vector.
+   * @param target destination vector for transfer
+   */
+  public void transferTo(ViewVarCharVector target) {
+    target.clear();
+    target.validityBuffer = transferBuffer(validityBuffer, target.allocator);
+    target.viewBuffer = transferBuffer(viewBuffer, target.allocator);
+    for (ArrowBuf buffer : dataBuffers) {
+      target.dataBuffers.add(transferBuffer(buffer, target.allocator));
+    }
+    target.setValueCount(valueCount);
+    clear();
+  }
+
+  /**
+   * Copy a range of this vector to the target vector. Views are copied
+   * and long values are appended to the data buffers of the target.
+   * @param startIndex start position of the split in source vector.
+   * @param length length of the split.
+   * @param target destination vector
+   */
+  public void splitAndTransferTo(int startIndex, int length, ViewVarCharVector target) {
+    Preconditions.checkArgument(startIndex >= 0 && startIndex + length <= valueCount,
+        "Invalid startIndex: %s", startIndex);
+    target.allocateNew(length);
+    for (int i = 0; i < length; i++) {
+      target.copyFrom(startIndex + i, i, this);
+    }
+    target.setValueCount(length);
+  }
+
+  private class TransferImpl implements TransferPair {
+    ViewVarCharVector to;
+
+    public TransferImpl(String ref, BufferAllocator allocator) {
+      to = new ViewVarCharVector(ref, field.getFieldType(), allocator);
+    }
+
+    public TransferImpl(ViewVarCharVector to) {
+      this.to = to;
+    }
+
+    @Override
+    public ViewVarCharVector getTo() {
+      return to;
+    }
+
+    @Override
+    public void transfer() {
+      transferTo(to);
+    }
+
+    @Override
+    public void splitAndTransfer(int startIndex, int length) {
+      splitAndTransferTo(startIndex, length, to);
+    }
+
+    @Override
+    public void copyValueSafe(int fromIndex, int toIndex) {
+      to.copyFromSafe(fromIndex, toIndex, ViewVarCharVector.this);
+    }
+  }
+
+  @Override
+  public <OUT, IN> OUT accept(VectorVisitor<OUT, IN> visitor, IN value) {
+    return visitor.visit(this, value);
+  }
+}
@@ -26,7 +26,9 @@ import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.NullVector;
 import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.ViewVarCharVector;
 import org.apache.arrow.vector.complex.BaseRepeatedValueVector;
+import org.apache.arrow.vector.complex.DenseUnionVector;
 import org.apache.arrow.vector.complex.FixedSizeListVector;
 import org.apache.arrow.vector.complex.ListVector;
 import org.apache.arrow.vector.complex.NonNullableStructVector;
@@ -68,7 +70,9 @@ public class RangeEqualsVisitor implements VectorVisitor<Boolean, Range> {
     } else if (left == right) {
       typeCompareResult = true;
     } else {
-      typeCompareResult = left.getField().getType().equals(right.getField().getType());
+      // the minor types tell apart layouts of the same logical type, e.g. VARCHAR and VIEWVARCHAR
+      typeCompareResult = left.getMinorType() == right.getMinorType() &&
+          left.getField().getType().equals(right.getField().getType());
     }
   }
 
@@ -170,6 +174,14 @@ public class RangeEqualsVisitor implements VectorVisitor<Boolean, Range> {
     return compareUnionVectors(range);
   }
 
+  @Override
+  public Boolean visit(DenseUnionVector left, Range range) {
+    if (!validate(left)) {
+      return false;
+    }
+    return compareDenseUnionVectors(range);
+  }
+
   @Override
   public Boolean visit(NullVector left, Range range) {
     if (!validate(left)) {
@@ -178,6 +190,14 @@ public class RangeEqualsVisitor implements VectorVisitor<Boolean, Range> {
     return true;
   }
 
+  @Override
+  public Boolean visit(ViewVarCharVector left, Range range) {
+    if (!validate(left)) {
+      return false;
+    }
+    return compareViewVarCharVectors(range);
+  }
+
   /**
    * Creates a visitor to visit child vectors.
    * It is used for complex vector types.
@@ -207,6 +227,43 @@ public class RangeEqualsVisitor implements VectorVisitor<Boolean, Range> {
     return true;
   }
 
+  protected boolean compareDenseUnionVectors(Range range) {
+    DenseUnionVector leftVector = (DenseUnionVector) left;
+    DenseUnionVector rightVector = (DenseUnionVector) right;
+
+    RangeEqualsVisitor[] innerVisitors = new RangeEqualsVisitor[DenseUnionVector.MAX_TYPE_ID + 1];
+    Range innerRange = new Range(0, 0, 1);
+
+    for (int i = 0; i < range.getLength(); i++) {
+      int leftIndex = range.getLeftStart() + i;
+      int rightIndex = range.getRightStart() + i;
+
+      boolean isNull = leftVector.isNull(leftIndex);
+      if (isNull != rightVector.isNull(rightIndex)) {
+        return false;
+      }
+
+      if (!isNull) {
+        byte typeId = leftVector.getTypeId(leftIndex);
+        if (typeId != rightVector.getTypeId(rightIndex)) {
+          return false;
+        }
+
+        if (innerVisitors[typeId] == null) {
+          innerVisitors[typeId] = createInnerVisitor(
+              leftVector.getVectorByType(typeId), rightVector.getVectorByType(typeId));
+        }
+        innerRange = innerRange
+            .setLeftStart(leftVector.getOffset(leftIndex))
+            .setRightStart(rightVector.getOffset(rightIndex));
+        if (!innerVisitors[typeId].rangeEquals(innerRange)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   protected boolean compareStructVectors(Range range) {
     NonNullableStructVector leftVector = (NonNullableStructVector) left;
     NonNullableStructVector rightVector = (NonNullableStructVector) right;
@@ -260,6 +317,9 @@ public class RangeEqualsVisitor implements VectorVisitor<Boolean, Range> {
   }
 
   protected boolean compareBaseVariableWidthVectors(Range range) {
+    if (!(right instanceof BaseVariableWidthVector)) {
+      return false;
+    }
     BaseVariableWidthVector leftVector = (BaseVariableWidthVector) left;
     BaseVariableWidthVector rightVector = (BaseVariableWidthVector) right;
 
@@ -292,6 +352,21 @@ public class RangeEqualsVisitor implements VectorVisitor<Boolean, Range> {
     return true;
   }
 
+  protected boolean compareViewVarCharVectors(Range range) {
+    if (!(right instanceof ViewVarCharVector)) {
+      return false;
+    }
+    ViewVarCharVector leftVector = (ViewVarCharVector) left;
+    ViewVarCharVector rightVector = (ViewVarCharVector) right;
+
+    for (int i = 0; i < range.getLength(); i++) {
+      if (!leftVector.valueEquals(range.getLeftStart() + i, rightVector, range.getRightStart() + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   protected boolean compareListVectors(Range range) {
     ListVector leftVector = (ListVector) left;
     ListVector rightVector = (ListVector) right;
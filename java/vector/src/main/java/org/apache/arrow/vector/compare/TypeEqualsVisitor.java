@@ -24,6 +24,8 @@ import org.apache.arrow.vector.BaseFixedWidthVector;
 import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.NullVector;
 import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.ViewVarCharVector;
+import org.apache.arrow.vector.complex.DenseUnionVector;
 import org.apache.arrow.vector.complex.FixedSizeListVector;
 import org.apache.arrow.vector.complex.ListVector;
 import org.apache.arrow.vector.complex.NonNullableStructVector;
@@ -73,7 +75,7 @@ public class TypeEqualsVisitor implements VectorVisitor<Boolean, Void> {
 
   @Override
   public Boolean visit(BaseVariableWidthVector left, Void value) {
-    return compareField(left.getField(), right.getField());
+    return left.getMinorType() == right.getMinorType() && compareField(left.getField(), right.getField());
   }
 
   @Override
@@ -96,11 +98,21 @@ public class TypeEqualsVisitor implements VectorVisitor<Boolean, Void> {
     return compareField(left.getField(), right.getField());
   }
 
+  @Override
+  public Boolean visit(DenseUnionVector left, Void value) {
+    return compareField(left.getField(), right.getField());
+  }
+
   @Override
   public Boolean visit(NullVector left, Void value) {
     return compareField(left.getField(), right.getField());
   }
 
+  @Override
+  public Boolean visit(ViewVarCharVector left, Void value) {
+    return left.getMinorType() == right.getMinorType() && compareField(left.getField(), right.getField());
+  }
+
   private boolean compareField(Field leftField, Field rightField) {
 
     if (leftField == rightField) {
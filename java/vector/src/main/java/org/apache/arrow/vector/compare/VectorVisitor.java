@@ -20,6 +20,8 @@ package org.apache.arrow.vector.compare;
 import org.apache.arrow.vector.BaseFixedWidthVector;
 import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.NullVector;
+import org.apache.arrow.vector.ViewVarCharVector;
+import org.apache.arrow.vector.complex.DenseUnionVector;
 import org.apache.arrow.vector.complex.FixedSizeListVector;
 import org.apache.arrow.vector.complex.ListVector;
 import org.apache.arrow.vector.complex.NonNullableStructVector;
@@ -44,5 +46,21 @@ public interface VectorVisitor<OUT, IN> {
 
   OUT visit(UnionVector left, IN value);
 
+  /**
+   * Visit a dense union vector. The default implementation throws an
+   * {@link UnsupportedOperationException}, for visitors written before this vector type existed.
+   */
+  default OUT visit(DenseUnionVector left, IN value) {
+    throw new UnsupportedOperationException("Visiting a DenseUnionVector is not supported by " + getClass());
+  }
+
   OUT visit(NullVector left, IN value);
+
+  /**
+   * Visit a view varchar vector. The default implementation throws an
+   * {@link UnsupportedOperationException}, for visitors written before this vector type existed.
+   */
+  default OUT visit(ViewVarCharVector left, IN value) {
+    throw new UnsupportedOperationException("Visiting a ViewVarCharVector is not supported by " + getClass());
+  }
 }
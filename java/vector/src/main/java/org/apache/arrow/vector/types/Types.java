@@ -19,6 +19,7 @@ package org.apache.arrow.vector.types;
 
 import static org.apache.arrow.vector.types.FloatingPointPrecision.DOUBLE;
 import static org.apache.arrow.vector.types.FloatingPointPrecision.SINGLE;
+import static org.apache.arrow.vector.types.UnionMode.Dense;
 import static org.apache.arrow.vector.types.UnionMode.Sparse;
 
 import org.apache.arrow.memory.BufferAllocator;
@@ -58,6 +59,7 @@ import org.apache.arrow.vector.UInt8Vector;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.VarBinaryVector;
 import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.DenseUnionVector;
 import org.apache.arrow.vector.complex.FixedSizeListVector;
 import org.apache.arrow.vector.complex.ListVector;
 import org.apache.arrow.vector.complex.MapVector;
@@ -68,6 +70,7 @@ import org.apache.arrow.vector.complex.impl.BitWriterImpl;
 import org.apache.arrow.vector.complex.impl.DateDayWriterImpl;
 import org.apache.arrow.vector.complex.impl.DateMilliWriterImpl;
 import org.apache.arrow.vector.complex.impl.DecimalWriterImpl;
+import org.apache.arrow.vector.complex.impl.DenseUnionWriter;
 import org.apache.arrow.vector.complex.impl.DurationWriterImpl;
 import org.apache.arrow.vector.complex.impl.FixedSizeBinaryWriterImpl;
 import org.apache.arrow.vector.complex.impl.Float4WriterImpl;
@@ -691,6 +694,42 @@ public class Types {
         return ((ExtensionTypeVector) vector).getUnderlyingVector().getMinorType().getNewFieldWriter(vector);
       }
     },
+    DENSEUNION(new Union(Dense, null)) {
+      @Override
+      public FieldVector getNewVector(
+          Field field,
+          BufferAllocator allocator,
+          CallBack schemaChangeCallback) {
+        if (field.getFieldType().getDictionary() != null) {
+          throw new UnsupportedOperationException("Dictionary encoding not supported for complex " +
+              "types");
+        }
+        return new DenseUnionVector(field.getName(), allocator, field.getFieldType(), schemaChangeCallback);
+      }
+
+      @Override
+      public FieldWriter getNewFieldWriter(ValueVector vector) {
+        return new DenseUnionWriter((DenseUnionVector) vector);
+      }
+    },
+    /**
+     * Strings in the view layout of {@link org.apache.arrow.vector.ViewVarCharVector}, with the same logical type as
+     * {@link #VARCHAR}, so fields of this type are materialized as VARCHAR.
+     */
+    VIEWVARCHAR(Utf8.INSTANCE) {
+      @Override
+      public FieldVector getNewVector(
+          Field field,
+          BufferAllocator allocator,
+          CallBack schemaChangeCallback) {
+        throw new UnsupportedOperationException("The view layout is not a FieldVector, create a ViewVarCharVector");
+      }
+
+      @Override
+      public FieldWriter getNewFieldWriter(ValueVector vector) {
+        throw new UnsupportedOperationException("There is no writer for the view layout");
+      }
+    },
     ;
 
     private final ArrowType type;
@@ -754,7 +793,14 @@ public class Types {
 
       @Override
       public MinorType visit(Union type) {
-        return MinorType.UNION;
+        switch (type.getMode()) {
+          case Sparse:
+            return MinorType.UNION;
+          case Dense:
+            return MinorType.DENSEUNION;
+          default:
+            throw new IllegalArgumentException("only Dense or Sparse unions supported: " + type);
+        }
       }
 
       @Override
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.util;
+
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.NullVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.ViewVarCharVector;
+import org.apache.arrow.vector.ZeroVector;
+import org.apache.arrow.vector.compare.TypeEqualsVisitor;
+import org.apache.arrow.vector.compare.VectorVisitor;
+import org.apache.arrow.vector.complex.BaseRepeatedValueVector;
+import org.apache.arrow.vector.complex.DenseUnionVector;
+import org.apache.arrow.vector.complex.FixedSizeListVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.NonNullableStructVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.complex.UnionVector;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Utility to append the values of a vector to the end of another vector of the same type, in place.
+ * Usage: <code>deltaVector.accept(new VectorAppender(targetVector), null)</code>.
+ *
+ * <p>Buffers are appended in bulk: fixed width values are copied with a single memory copy,
+ * validity bits are shifted a byte at a time, and the offsets of variable width and list vectors
+ * are rebased to the end of the target data. Struct, list and map children are appended
+ * recursively. Union vectors have no contiguous data to copy, so they are appended value by value.
+ */
+public class VectorAppender implements VectorVisitor<ValueVector, Void> {
+
+  /**
+   * The targetVector to be appended.
+   */
+  private final ValueVector targetVector;
+
+  private final TypeEqualsVisitor typeVisitor;
+
+  /**
+   * Constructs a new targetVector appender, with the given targetVector.
+   * @param targetVector the targetVector to be appended.
+   */
+  public VectorAppender(ValueVector targetVector) {
+    this.targetVector = targetVector;
+    this.typeVisitor = new TypeEqualsVisitor(targetVector, false, true);
+  }
+
+  private void checkType(ValueVector deltaVector) {
+    Preconditions.checkArgument(typeVisitor.equals(deltaVector),
+        "The vector to append must have the same type as the targetVector being appended");
+  }
+
+  @Override
+  public ValueVector visit(BaseFixedWidthVector deltaVector, Void value) {
+    checkType(deltaVector);
+    if (deltaVector.getValueCount() == 0) {
+      return targetVector;
+    }
+
+    BaseFixedWidthVector target = (BaseFixedWidthVector) targetVector;
+    final int targetCount = target.getValueCount();
+    final int deltaCount = deltaVector.getValueCount();
+    final int newValueCount = targetCount + deltaCount;
+
+    /* reAlloc() changes the value count, so it has to be saved before */
+    while (target.getValueCapacity() < newValueCount) {
+      target.reAlloc();
+    }
+
+    BitVectorHelper.concatBits(target.getValidityBuffer(), targetCount,
+        deltaVector.getValidityBuffer(), deltaCount, target.getValidityBuffer());
+    if (target instanceof BitVector) {
+      /* bit vectors have no type width, their data is a bit set too */
+      BitVectorHelper.concatBits(target.getDataBuffer(), targetCount,
+          deltaVector.getDataBuffer(), deltaCount, target.getDataBuffer());
+    } else {
+      final int typeWidth = target.getTypeWidth();
+      target.getDataBuffer().setBytes(targetCount * typeWidth,
+          deltaVector.getDataBuffer(), 0, deltaCount * typeWidth);
+    }
+    target.setValueCount(newValueCount);
+    return target;
+  }
+
+  @Override
+  public ValueVector visit(BaseVariableWidthVector deltaVector, Void value) {
+    checkType(deltaVector);
+    if (deltaVector.getValueCount() == 0) {
+      return targetVector;
+    }
+
+    BaseVariableWidthVector target = (BaseVariableWidthVector) targetVector;
+    final int targetCount = target.getValueCount();
+    final int deltaCount = deltaVector.getValueCount();
+    final int newValueCount = targetCount + deltaCount;
+
+    while (target.getValueCapacity() < newValueCount) {
+      target.reallocValidityAndOffsetBuffers();
+    }
+
+    final ArrowBuf targetOffsets = target.getOffsetBuffer();
+    final ArrowBuf deltaOffsets = deltaVector.getOffsetBuffer();
+    final int targetDataSize = targetOffsets.getInt(targetCount * BaseVariableWidthVector.OFFSET_WIDTH);
+    final int deltaStart = deltaOffsets.getInt(0);
+    final int deltaDataSize = deltaOffsets.getInt(deltaCount * BaseVariableWidthVector.OFFSET_WIDTH) - deltaStart;
+
+    while (target.getDataBuffer().capacity() < targetDataSize + deltaDataSize) {
+      target.reallocDataBuffer();
+    }
+
+    BitVectorHelper.concatBits(target.getValidityBuffer(), targetCount,
+        deltaVector.getValidityBuffer(), deltaCount, target.getValidityBuffer());
+    target.getDataBuffer().setBytes(targetDataSize, deltaVector.getDataBuffer(), deltaStart, deltaDataSize);
+    rebaseOffsets(targetOffsets, targetCount, deltaOffsets, deltaCount, targetDataSize - deltaStart,
+        BaseVariableWidthVector.OFFSET_WIDTH);
+
+    target.setLastSet(newValueCount - 1);
+    target.setValueCount(newValueCount);
+    return target;
+  }
+
+  @Override
+  public ValueVector visit(ListVector deltaVector, Void value) {
+    ListVector target = (ListVector) targetVector;
+    addDataVectorIfMissing(target, deltaVector);
+    checkType(deltaVector);
+    if (deltaVector.getValueCount() == 0) {
+      return targetVector;
+    }
+
+    final int targetCount = target.getValueCount();
+    final int deltaCount = deltaVector.getValueCount();
+    final int newValueCount = targetCount + deltaCount;
+
+    /* grow the validity and offset buffers; the offsets it fills in for the new values are overwritten below */
+    target.setValueCount(newValueCount);
+
+    final ArrowBuf targetOffsets = target.getOffsetBuffer();
+    final ArrowBuf deltaOffsets = deltaVector.getOffsetBuffer();
+    final int targetChildCount = targetOffsets.getInt(targetCount * BaseRepeatedValueVector.OFFSET_WIDTH);
+    final int deltaStart = deltaOffsets.getInt(0);
+    final int deltaEnd = deltaOffsets.getInt(deltaCount * BaseRepeatedValueVector.OFFSET_WIDTH);
+
+    /* append the elements before the offsets, as setting the value count checks the element count */
+    appendRange(deltaVector.getDataVector(), deltaStart, deltaEnd - deltaStart, target.getDataVector());
+
+    BitVectorHelper.concatBits(target.getValidityBuffer(), targetCount,
+        deltaVector.getValidityBuffer(), deltaCount, target.getValidityBuffer());
+    rebaseOffsets(targetOffsets, targetCount, deltaOffsets, deltaCount, targetChildCount - deltaStart,
+        BaseRepeatedValueVector.OFFSET_WIDTH);
+
+    target.setLastSet(newValueCount - 1);
+    target.setValueCount(newValueCount);
+    return target;
+  }
+
+  @Override
+  public ValueVector visit(FixedSizeListVector deltaVector, Void value) {
+    FixedSizeListVector target = (FixedSizeListVector) targetVector;
+    addDataVectorIfMissing(target, deltaVector);
+    checkType(deltaVector);
+    if (deltaVector.getValueCount() == 0) {
+      return targetVector;
+    }
+
+    final int targetCount = target.getValueCount();
+    final int deltaCount = deltaVector.getValueCount();
+    final int newValueCount = targetCount + deltaCount;
+
+    appendRange(deltaVector.getDataVector(), 0, deltaCount * deltaVector.getListSize(), target.getDataVector());
+
+    /* setting the value count makes room for the validity bits */
+    target.setValueCount(newValueCount);
+    BitVectorHelper.concatBits(target.getValidityBuffer(), targetCount,
+        deltaVector.getValidityBuffer(), deltaCount, target.getValidityBuffer());
+    return target;
+  }
+
+  @Override
+  public ValueVector visit(NonNullableStructVector deltaVector, Void value) {
+    checkType(deltaVector);
+    if (deltaVector.getValueCount() == 0) {
+      return targetVector;
+    }
+
+    NonNullableStructVector target = (NonNullableStructVector) targetVector;
+    final int targetCount = target.getValueCount();
+    final int deltaCount = deltaVector.getValueCount();
+    final int newValueCount = targetCount + deltaCount;
+
+    /* the types are equal, so the children match by position */
+    for (int i = 0; i < deltaVector.size(); i++) {
+      ValueVector deltaChild = deltaVector.getChildByOrdinal(i);
+      deltaChild.accept(new VectorAppender(target.getChildByOrdinal(i)), null);
+    }
+
+    target.setValueCount(newValueCount);
+    if (target instanceof StructVector && deltaVector instanceof StructVector) {
+      StructVector nullableTarget = (StructVector) target;
+      BitVectorHelper.concatBits(nullableTarget.getValidityBuffer(), targetCount,
+          ((StructVector) deltaVector).getValidityBuffer(), deltaCount, nullableTarget.getValidityBuffer());
+    }
+    return target;
+  }
+
+  @Override
+  public ValueVector visit(UnionVector deltaVector, Void value) {
+    Preconditions.checkArgument(targetVector.getMinorType() == deltaVector.getMinorType(),
+        "The vector to append must have the same type as the targetVector being appended");
+    appendByValue(deltaVector);
+    return targetVector;
+  }
+
+  @Override
+  public ValueVector visit(DenseUnionVector deltaVector, Void value) {
+    Preconditions.checkArgument(targetVector.getMinorType() == deltaVector.getMinorType(),
+        "The vector to append must have the same type as the targetVector being appended");
+    appendByValue(deltaVector);
+    return targetVector;
+  }
+
+  @Override
+  public ValueVector visit(NullVector deltaVector, Void value) {
+    Preconditions.checkArgument(targetVector.getField().getType().equals(deltaVector.getField().getType()),
+        "The vector to append must have the same type as the targetVector being appended");
+    targetVector.setValueCount(targetVector.getValueCount() + deltaVector.getValueCount());
+    return targetVector;
+  }
+
+  @Override
+  public ValueVector visit(ViewVarCharVector deltaVector, Void value) {
+    checkType(deltaVector);
+    /* the views of long values point to data buffers of the delta vector, so they are copied one by one */
+    appendByValue(deltaVector);
+    return targetVector;
+  }
+
+  private void appendByValue(ValueVector deltaVector) {
+    final int targetCount = targetVector.getValueCount();
+    final int deltaCount = deltaVector.getValueCount();
+    for (int i = 0; i < deltaCount; i++) {
+      targetVector.copyFromSafe(i, targetCount + i, deltaVector);
+    }
+    targetVector.setValueCount(targetCount + deltaCount);
+  }
+
+  /**
+   * Writes the offsets of the delta vector after the target offsets, shifted by the given amount.
+   * The first delta offset is skipped, as it is the same as the last target offset once shifted.
+   */
+  private static void rebaseOffsets(ArrowBuf targetOffsets, int targetCount, ArrowBuf deltaOffsets,
+      int deltaCount, int shift, int offsetWidth) {
+    for (int i = 1; i <= deltaCount; i++) {
+      int offset = deltaOffsets.getInt(i * offsetWidth) + shift;
+      targetOffsets.setInt((targetCount + i) * offsetWidth, offset);
+    }
+  }
+
+  /**
+   * Appends a range of the delta data vector to the target data vector.
+   */
+  private static void appendRange(ValueVector deltaData, int start, int length, ValueVector targetData) {
+    if (length == 0) {
+      return;
+    }
+    if (start == 0 && length == deltaData.getValueCount()) {
+      deltaData.accept(new VectorAppender(targetData), null);
+      return;
+    }
+    TransferPair transferPair = deltaData.getTransferPair(deltaData.getAllocator());
+    transferPair.splitAndTransfer(start, length);
+    try (ValueVector range = transferPair.getTo()) {
+      range.accept(new VectorAppender(targetData), null);
+    }
+  }
+
+  /**
+   * Creates the data vector of an empty list target, whose data type is unknown until a value is added.
+   */
+  private static void addDataVectorIfMissing(BaseRepeatedValueVector target, BaseRepeatedValueVector delta) {
+    if (target.getDataVector() instanceof ZeroVector && !(delta.getDataVector() instanceof ZeroVector)) {
+      target.addOrGetVector(delta.getDataVector().getField().getFieldType());
+    }
+  }
+
+  private static void addDataVectorIfMissing(FixedSizeListVector target, FixedSizeListVector delta) {
+    if (target.getDataVector() instanceof ZeroVector && !(delta.getDataVector() instanceof ZeroVector)) {
+      target.addOrGetVector(delta.getDataVector().getField().getFieldType());
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.util;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.Preconditions;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * Coalesces small batches with the same schema (e.g. read from a stream) into larger ones.
+ *
+ * <p>Batches are appended in bulk with a {@link VectorSchemaRootAppender}. Once the coalesced
+ * batch reaches the target row count or buffer size, {@link #add(VectorSchemaRoot)} returns true,
+ * and the batch can be taken with {@link #takeBatch()}. Batches are never split, so a coalesced
+ * batch may exceed the target by less than the size of the last batch added.
+ */
+public class VectorSchemaRootCoalescer implements AutoCloseable {
+
+  private final Schema schema;
+  private final BufferAllocator allocator;
+  private final int targetRowCount;
+  private final long targetBufferSize;
+
+  private VectorSchemaRoot current;
+
+  /**
+   * Constructs a coalescer.
+   * @param schema the schema of the batches.
+   * @param allocator the allocator for the coalesced batches.
+   * @param targetRowCount the row count at which a coalesced batch is complete.
+   * @param targetBufferSize the buffer size, in bytes, at which a coalesced batch is complete.
+   */
+  public VectorSchemaRootCoalescer(Schema schema, BufferAllocator allocator, int targetRowCount,
+      long targetBufferSize) {
+    Preconditions.checkArgument(targetRowCount > 0, "the target row count must be positive");
+    Preconditions.checkArgument(targetBufferSize > 0, "the target buffer size must be positive");
+    this.schema = schema;
+    this.allocator = allocator;
+    this.targetRowCount = targetRowCount;
+    this.targetBufferSize = targetBufferSize;
+  }
+
+  /**
+   * Constructs a coalescer which only targets a row count.
+   */
+  public VectorSchemaRootCoalescer(Schema schema, BufferAllocator allocator, int targetRowCount) {
+    this(schema, allocator, targetRowCount, Long.MAX_VALUE);
+  }
+
+  /**
+   * Appends the rows of a batch to the coalesced batch. The batch is not modified.
+   * @param batch the batch to append.
+   * @return true if the coalesced batch has reached the target row count or buffer size.
+   */
+  public boolean add(VectorSchemaRoot batch) {
+    if (current == null) {
+      current = VectorSchemaRoot.create(schema, allocator);
+    }
+    VectorSchemaRootAppender.append(current, batch);
+    return isFull();
+  }
+
+  /**
+   * Checks if the coalesced batch has reached the target row count or buffer size.
+   */
+  public boolean isFull() {
+    return current != null && (current.getRowCount() >= targetRowCount ||
+        VectorSchemaRootAppender.getBufferSize(current) >= targetBufferSize);
+  }
+
+  /**
+   * Gets the number of rows in the coalesced batch.
+   */
+  public int getRowCount() {
+    return current == null ? 0 : current.getRowCount();
+  }
+
+  /**
+   * Takes the coalesced batch, whether it reached the target or not (e.g. at the end of a stream).
+   * The next batch added starts a new coalesced batch.
+   * @return the coalesced batch, to be closed by the caller, or null if no rows were added.
+   */
+  public VectorSchemaRoot takeBatch() {
+    VectorSchemaRoot batch = current;
+    current = null;
+    if (batch != null && batch.getRowCount() == 0) {
+      batch.close();
+      return null;
+    }
+    return batch;
+  }
+
+  @Override
+  public void close() {
+    if (current != null) {
+      current.close();
+      current = null;
+    }
+  }
+}
@@ -149,4 +149,56 @@ public class TestBitVectorHelper {
       assertFalse(BitVectorHelper.checkAllBitsEqualTo(validityBuffer, bitLength, true));
     }
   }
+
+  @Test
+  public void testConcatBits() {
+    try (RootAllocator allocator = new RootAllocator(1024 * 1024)) {
+      for (int numBits1 = 0; numBits1 < 20; numBits1++) {
+        for (int numBits2 = 0; numBits2 < 20; numBits2++) {
+          try (ArrowBuf input1 = allocator.buffer(8);
+               ArrowBuf input2 = allocator.buffer(8);
+               ArrowBuf output = allocator.buffer(8)) {
+            // fill the bits after the valid ones with garbage
+            input1.setLong(0, 0xFFFFFFFFFFFFFFFFL);
+            input2.setLong(0, 0xFFFFFFFFFFFFFFFFL);
+            output.setLong(0, 0xFFFFFFFFFFFFFFFFL);
+            for (int i = 0; i < numBits1; i++) {
+              BitVectorHelper.setValidityBit(input1, i, i % 3 == 0 ? 1 : 0);
+            }
+            for (int i = 0; i < numBits2; i++) {
+              BitVectorHelper.setValidityBit(input2, i, i % 5 == 0 ? 1 : 0);
+            }
+
+            BitVectorHelper.concatBits(input1, numBits1, input2, numBits2, output);
+            for (int i = 0; i < numBits1; i++) {
+              assertEquals(i % 3 == 0 ? 1 : 0, BitVectorHelper.get(output, i));
+            }
+            for (int i = 0; i < numBits2; i++) {
+              assertEquals(i % 5 == 0 ? 1 : 0, BitVectorHelper.get(output, numBits1 + i));
+            }
+
+            // in place concatenation
+            BitVectorHelper.concatBits(input1, numBits1, input2, numBits2, input1);
+            for (int i = 0; i < numBits1 + numBits2; i++) {
+              assertEquals(BitVectorHelper.get(output, i), BitVectorHelper.get(input1, i));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSetAllBitsToOne() {
+    try (RootAllocator allocator = new RootAllocator(1024 * 1024);
+         ArrowBuf buffer = allocator.buffer(8)) {
+      for (int numBits = 0; numBits < 40; numBits++) {
+        buffer.setZero(0, buffer.capacity());
+        BitVectorHelper.setAllBitsToOne(buffer, numBits);
+        for (int i = 0; i < 64; i++) {
+          assertEquals(i < numBits ? 1 : 0, BitVectorHelper.get(buffer, i));
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,427 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.compare.VectorEqualsVisitor;
+import org.apache.arrow.vector.complex.DenseUnionVector;
+import org.apache.arrow.vector.complex.impl.DenseUnionWriter;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.apache.arrow.vector.holders.NullableFloat4Holder;
+import org.apache.arrow.vector.holders.NullableIntHolder;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.UnionMode;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.TransferPair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.buffer.ArrowBuf;
+
+public class TestDenseUnionVector {
+  private static final String EMPTY_SCHEMA_PATH = "";
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void init() {
+    allocator = new DirtyRootAllocator(Long.MAX_VALUE, (byte) 100);
+  }
+
+  @After
+  public void terminate() throws Exception {
+    allocator.close();
+  }
+
+  @Test
+  public void testDenseUnionVector() throws Exception {
+    try (DenseUnionVector vector = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator)) {
+      vector.allocateNew();
+
+      // write some data
+      vector.setSafe(0, newIntHolder(100));
+      vector.setNull(1);
+      vector.setSafe(2, newFloat4Holder(1.5f));
+      vector.setSafe(3, newIntHolder(200));
+      vector.setValueCount(4);
+
+      // check that what we wrote is correct
+      assertEquals(4, vector.getValueCount());
+      assertEquals(1, vector.getNullCount());
+
+      assertFalse(vector.isNull(0));
+      assertEquals(100, vector.getObject(0));
+      assertTrue(vector.isNull(1));
+      assertNull(vector.getObject(1));
+      assertFalse(vector.isNull(2));
+      assertEquals(1.5f, vector.getObject(2));
+      assertFalse(vector.isNull(3));
+      assertEquals(200, vector.getObject(3));
+
+      // children only hold the values of their own type
+      byte intTypeId = vector.getTypeId(0);
+      byte floatTypeId = vector.getTypeId(2);
+      assertEquals(intTypeId, vector.getTypeId(3));
+      assertEquals(2, vector.getIntVector(intTypeId).getValueCount());
+      assertEquals(1, vector.getFloat4Vector(floatTypeId).getValueCount());
+      assertEquals(0, vector.getOffset(0));
+      assertEquals(1, vector.getOffset(3));
+      assertEquals(0, vector.getOffset(2));
+    }
+  }
+
+  @Test
+  public void testOverwriteSlot() throws Exception {
+    try (DenseUnionVector vector = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator)) {
+      vector.allocateNew();
+      vector.setSafe(0, newIntHolder(100));
+      byte intTypeId = vector.getTypeId(0);
+
+      // the value would stay in its child, so a set slot is rejected
+      try {
+        vector.setSafe(0, newIntHolder(200));
+        fail("Overwriting a value should fail");
+      } catch (IllegalStateException e) {
+        // expected
+      }
+
+      // a null slot can be set
+      vector.setNull(1);
+      vector.setSafe(1, newIntHolder(300));
+      vector.setValueCount(2);
+      assertEquals(100, vector.getObject(0));
+      assertEquals(300, vector.getObject(1));
+      assertEquals(2, vector.getIntVector(intTypeId).getValueCount());
+
+      // and so can all slots after a reset
+      vector.reset();
+      vector.setSafe(0, newFloat4Holder(2.5f));
+      vector.setValueCount(1);
+      assertEquals(2.5f, vector.getObject(0));
+      assertEquals(0, vector.getIntVector(intTypeId).getValueCount());
+    }
+  }
+
+  @Test
+  public void testRegisterTypeIds() throws Exception {
+    try (DenseUnionVector vector = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator)) {
+      vector.allocateNew();
+
+      // two children of the same type are told apart by their type id
+      byte firstTypeId = vector.registerNewTypeId(Field.nullable("first", MinorType.INT.getType()));
+      byte secondTypeId = vector.registerNewTypeId(Field.nullable("second", MinorType.INT.getType()));
+      assertEquals(0, firstTypeId);
+      assertEquals(1, secondTypeId);
+
+      vector.setSafe(0, secondTypeId, newIntHolder(1));
+      vector.setSafe(1, firstTypeId, newIntHolder(2));
+      vector.setSafe(2, secondTypeId, newIntHolder(3));
+      vector.setValueCount(3);
+
+      assertEquals(1, vector.getObject(0));
+      assertEquals(2, vector.getObject(1));
+      assertEquals(3, vector.getObject(2));
+      assertEquals(1, vector.getIntVector(firstTypeId).getValueCount());
+      assertEquals(2, vector.getIntVector(secondTypeId).getValueCount());
+
+      // writes without an explicit type id go to the first child of the type
+      assertEquals(firstTypeId, vector.addOrGetTypeId(MinorType.INT));
+
+      Field field = vector.getField();
+      assertEquals(new ArrowType.Union(UnionMode.Dense, new int[] {0, 1}), field.getType());
+      assertEquals(2, field.getChildren().size());
+    }
+  }
+
+  @Test
+  public void testWriterAndReader() throws Exception {
+    try (DenseUnionVector vector = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator)) {
+      vector.allocateNew();
+      DenseUnionWriter writer = (DenseUnionWriter) vector.getWriter();
+
+      writer.setPosition(0);
+      writer.writeInt(10);
+      writer.setPosition(1);
+      writer.writeBigInt(20L);
+      writer.setPosition(2);
+      writer.start();
+      writer.integer("a").writeInt(30);
+      writer.end();
+      writer.setPosition(3);
+      writer.writeNull();
+      writer.setPosition(4);
+      writer.startList();
+      writer.integer().writeInt(40);
+      writer.integer().writeInt(50);
+      writer.endList();
+      writer.setPosition(5);
+      writer.writeInt(60);
+      vector.setValueCount(6);
+
+      assertEquals(10, vector.getObject(0));
+      assertEquals(20L, vector.getObject(1));
+      assertEquals("{\"a\":30}", vector.getObject(2).toString());
+      assertTrue(vector.isNull(3));
+      assertEquals("[40,50]", vector.getObject(4).toString());
+      assertEquals(60, vector.getObject(5));
+
+      FieldReader reader = vector.getReader();
+      reader.setPosition(0);
+      assertEquals(MinorType.INT, reader.getMinorType());
+      assertEquals(Integer.valueOf(10), reader.readInteger());
+      reader.setPosition(2);
+      assertEquals(MinorType.STRUCT, reader.getMinorType());
+      assertEquals(Integer.valueOf(30), reader.reader("a").readInteger());
+      reader.setPosition(3);
+      assertFalse(reader.isSet());
+      reader.setPosition(4);
+      List<Integer> values = new ArrayList<>();
+      while (reader.next()) {
+        values.add(reader.reader().readInteger());
+      }
+      assertEquals(Arrays.asList(40, 50), values);
+    }
+  }
+
+  @Test
+  public void testTransfer() throws Exception {
+    try (DenseUnionVector srcVector = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator)) {
+      srcVector.allocateNew();
+      srcVector.setSafe(0, newIntHolder(5));
+      srcVector.setSafe(1, newFloat4Holder(1.5f));
+      srcVector.setNull(2);
+      srcVector.setSafe(3, newIntHolder(10));
+      srcVector.setValueCount(4);
+
+      try (DenseUnionVector destVector = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator)) {
+        TransferPair pair = srcVector.makeTransferPair(destVector);
+
+        // creating the transfer registers the children of the source in the target
+        assertEquals(srcVector.getField(), destVector.getField());
+
+        pair.transfer();
+
+        assertEquals(0, srcVector.getValueCount());
+        assertEquals(4, destVector.getValueCount());
+        assertEquals(5, destVector.getObject(0));
+        assertEquals(1.5f, destVector.getObject(1));
+        assertTrue(destVector.isNull(2));
+        assertEquals(10, destVector.getObject(3));
+      }
+    }
+  }
+
+  @Test
+  public void testSplitAndTransfer() throws Exception {
+    try (DenseUnionVector sourceVector = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator)) {
+      sourceVector.allocateNew();
+      for (int i = 0; i < 20; i++) {
+        if (i % 5 == 4) {
+          sourceVector.setNull(i);
+        } else if (i % 2 == 0) {
+          sourceVector.setSafe(i, newIntHolder(i));
+        } else {
+          sourceVector.setSafe(i, newFloat4Holder(i + 0.5f));
+        }
+      }
+      sourceVector.setValueCount(20);
+
+      try (DenseUnionVector toVector = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator)) {
+        TransferPair transferPair = sourceVector.makeTransferPair(toVector);
+
+        final int[][] transferLengths = {{0, 3}, {3, 1}, {4, 5}, {9, 0}, {9, 11}};
+
+        for (final int[] transferLength : transferLengths) {
+          final int start = transferLength[0];
+          final int length = transferLength[1];
+
+          transferPair.splitAndTransfer(start, length);
+
+          assertEquals(length, toVector.getValueCount());
+          for (int i = 0; i < length; i++) {
+            assertEquals("Different values at index: " + i, sourceVector.getObject(start + i), toVector.getObject(i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCopyFrom() throws Exception {
+    try (DenseUnionVector srcVector = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator);
+         DenseUnionVector destVector = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator)) {
+      srcVector.allocateNew();
+      srcVector.setSafe(0, newIntHolder(1));
+      srcVector.setSafe(1, newFloat4Holder(2.5f));
+      srcVector.setNull(2);
+      srcVector.setValueCount(3);
+
+      destVector.allocateNew();
+      for (int i = 0; i < 3; i++) {
+        destVector.copyFromSafe(2 - i, i, srcVector);
+      }
+      destVector.setValueCount(3);
+
+      assertTrue(destVector.isNull(0));
+      assertEquals(2.5f, destVector.getObject(1));
+      assertEquals(1, destVector.getObject(2));
+    }
+  }
+
+  @Test
+  public void testUnloadLoad() throws Exception {
+    try (DenseUnionVector vector = DenseUnionVector.empty("union", allocator);
+         ArrowBuf buf = allocator.buffer(16)) {
+      vector.allocateNew();
+      DenseUnionWriter writer = (DenseUnionWriter) vector.getWriter();
+      for (int i = 0; i < 10; i++) {
+        writer.setPosition(i);
+        if (i % 3 == 0) {
+          writer.writeInt(i);
+        } else if (i % 3 == 1) {
+          byte[] bytes = ("str" + i).getBytes(StandardCharsets.UTF_8);
+          buf.setBytes(0, bytes);
+          writer.writeVarChar(0, bytes.length, buf);
+        } else {
+          writer.writeNull();
+        }
+      }
+      vector.setValueCount(10);
+
+      VectorSchemaRoot root = new VectorSchemaRoot(Collections.singletonList(vector.getField()),
+          Collections.<FieldVector>singletonList(vector), 10);
+      VectorUnloader unloader = new VectorUnloader(root);
+      Schema schema = root.getSchema();
+
+      try (ArrowRecordBatch recordBatch = unloader.getRecordBatch();
+           VectorSchemaRoot newRoot = VectorSchemaRoot.create(schema, allocator)) {
+        // 3 buffers for the union, 2 for the int child and 3 for the varchar child
+        assertEquals(8, recordBatch.getBuffers().size());
+
+        VectorLoader loader = new VectorLoader(newRoot);
+        loader.load(recordBatch);
+
+        DenseUnionVector loaded = (DenseUnionVector) newRoot.getVector("union");
+        assertEquals(10, loaded.getValueCount());
+        assertTrue(VectorEqualsVisitor.vectorEquals(vector, loaded));
+        for (int i = 0; i < 10; i++) {
+          assertEquals(vector.getObject(i), loaded.getObject(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testStreamRoundTrip() throws Exception {
+    List<Field> children = Arrays.asList(
+        Field.nullable("i", MinorType.INT.getType()),
+        Field.nullable("f", MinorType.FLOAT4.getType()));
+    Field field = new Field("union",
+        FieldType.nullable(new ArrowType.Union(UnionMode.Dense, new int[] {5, 7})), children);
+    Schema schema = new Schema(Collections.singletonList(field));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+         ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(out))) {
+      DenseUnionVector vector = (DenseUnionVector) root.getVector("union");
+      vector.allocateNew();
+      vector.setSafe(0, (byte) 7, newFloat4Holder(0.5f));
+      vector.setSafe(1, (byte) 5, newIntHolder(1));
+      vector.setNull(2);
+      vector.setSafe(3, (byte) 5, newIntHolder(2));
+      root.setRowCount(4);
+      writer.start();
+      writer.writeBatch();
+      writer.end();
+    }
+
+    try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      assertEquals(schema, root.getSchema());
+      assertTrue(reader.loadNextBatch());
+      DenseUnionVector vector = (DenseUnionVector) root.getVector("union");
+      assertEquals(4, vector.getValueCount());
+      assertEquals(0.5f, vector.getObject(0));
+      assertEquals(1, vector.getObject(1));
+      assertTrue(vector.isNull(2));
+      assertEquals(2, vector.getObject(3));
+      assertEquals(2, vector.getVectorByType((byte) 5).getValueCount());
+      assertEquals(1, vector.getVectorByType((byte) 7).getValueCount());
+    }
+  }
+
+  @Test
+  public void testHashCodeAndEquals() throws Exception {
+    try (DenseUnionVector vector1 = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator);
+         DenseUnionVector vector2 = DenseUnionVector.empty(EMPTY_SCHEMA_PATH, allocator)) {
+      vector1.allocateNew();
+      vector1.setSafe(0, newIntHolder(1));
+      vector1.setSafe(1, newFloat4Holder(2.5f));
+      vector1.setValueCount(2);
+
+      // same values, different layout of the children
+      vector2.allocateNew();
+      vector2.addOrGetTypeId(MinorType.INT);
+      vector2.addOrGetTypeId(MinorType.FLOAT4);
+      vector2.setSafe(0, newFloat4Holder(9.5f));
+      vector2.setSafe(1, newIntHolder(1));
+      vector2.setSafe(2, newFloat4Holder(2.5f));
+      vector2.setValueCount(3);
+
+      assertEquals(vector1.hashCode(0), vector2.hashCode(1));
+      assertEquals(vector1.hashCode(1), vector2.hashCode(2));
+      assertFalse(VectorEqualsVisitor.vectorEquals(vector1, vector2));
+    }
+  }
+
+  private static NullableIntHolder newIntHolder(int value) {
+    final NullableIntHolder holder = new NullableIntHolder();
+    holder.isSet = 1;
+    holder.value = value;
+    return holder;
+  }
+
+  private static NullableFloat4Holder newFloat4Holder(float value) {
+    final NullableFloat4Holder holder = new NullableFloat4Holder();
+    holder.isSet = 1;
+    holder.value = value;
+    return holder;
+  }
+}
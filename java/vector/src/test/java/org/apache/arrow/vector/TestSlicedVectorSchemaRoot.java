@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSlicedVectorSchemaRoot {
+
+  private static final int ROW_COUNT = 1000;
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void init() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @After
+  public void terminate() {
+    allocator.close();
+  }
+
+  private VectorSchemaRoot createRoot() {
+    IntVector intVector = new IntVector("int", allocator);
+    VarCharVector varCharVector = new VarCharVector("varchar", allocator);
+    intVector.allocateNew(ROW_COUNT);
+    varCharVector.allocateNew();
+    for (int i = 0; i < ROW_COUNT; i++) {
+      if (i % 7 == 0) {
+        intVector.setNull(i);
+        varCharVector.setNull(i);
+      } else {
+        intVector.set(i, i);
+        varCharVector.setSafe(i, ("value" + i).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    intVector.setValueCount(ROW_COUNT);
+    varCharVector.setValueCount(ROW_COUNT);
+    return new VectorSchemaRoot(Arrays.asList(intVector, varCharVector));
+  }
+
+  private static void assertRow(SlicedVectorSchemaRoot slice, int row, int expected) {
+    if (expected % 7 == 0) {
+      assertTrue(slice.isNull(0, row));
+      assertTrue(slice.isNull(1, row));
+    } else {
+      assertFalse(slice.isNull(0, row));
+      assertEquals(expected, slice.getObject(0, row));
+      assertEquals("value" + expected, slice.getObject(1, row).toString());
+    }
+  }
+
+  @Test
+  public void testSliceWithoutCopy() {
+    try (VectorSchemaRoot original = createRoot()) {
+      long allocated = allocator.getAllocatedMemory();
+
+      try (SlicedVectorSchemaRoot slice = original.zeroCopySlice(13, 100)) {
+        // the buffers are shared, not copied
+        assertEquals(allocated, allocator.getAllocatedMemory());
+        assertEquals(100, slice.getRowCount());
+        assertEquals(13, slice.getOffset());
+        assertEquals(original.getSchema(), slice.getSchema());
+
+        for (int i = 0; i < slice.getRowCount(); i++) {
+          assertRow(slice, i, 13 + i);
+        }
+
+        FieldReader reader = slice.getReader(0, 2);
+        assertEquals(15, reader.readInteger().intValue());
+      }
+    }
+  }
+
+  @Test
+  public void testSliceOutlivesOriginal() {
+    SlicedVectorSchemaRoot slice;
+    try (VectorSchemaRoot original = createRoot()) {
+      slice = original.zeroCopySlice(101, 500);
+    }
+    try (SlicedVectorSchemaRoot nested = slice.slice(3, 50)) {
+      assertEquals(104, nested.getOffset());
+      assertEquals(50, nested.getRowCount());
+      for (int i = 0; i < nested.getRowCount(); i++) {
+        assertRow(nested, i, 104 + i);
+      }
+    } finally {
+      slice.close();
+    }
+  }
+
+  @Test
+  public void testRebase() {
+    try (VectorSchemaRoot original = createRoot();
+         SlicedVectorSchemaRoot slice = original.zeroCopySlice(5, 30);
+         VectorSchemaRoot rebased = slice.toVectorSchemaRoot()) {
+      assertEquals(30, rebased.getRowCount());
+      IntVector intVector = (IntVector) rebased.getVector("int");
+      VarCharVector varCharVector = (VarCharVector) rebased.getVector("varchar");
+      for (int i = 0; i < 30; i++) {
+        assertEquals(slice.getObject(0, i), intVector.getObject(i));
+        assertEquals(slice.getObject(1, i), varCharVector.getObject(i));
+      }
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testOutOfBoundsRow() {
+    try (VectorSchemaRoot original = createRoot();
+         SlicedVectorSchemaRoot slice = original.zeroCopySlice(0, 10)) {
+      slice.getObject(0, 10);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSlice() {
+    try (VectorSchemaRoot original = createRoot()) {
+      original.zeroCopySlice(ROW_COUNT - 10, 20);
+    }
+  }
+}
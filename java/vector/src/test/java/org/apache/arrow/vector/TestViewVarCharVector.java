@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.util.hash.MurmurHasher;
+import org.apache.arrow.vector.compare.Range;
+import org.apache.arrow.vector.compare.RangeEqualsVisitor;
+import org.apache.arrow.vector.compare.TypeEqualsVisitor;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.util.TransferPair;
+import org.apache.arrow.vector.util.VectorAppender;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestViewVarCharVector {
+
+  private static final String[] VALUES = new String[] {
+      "a", "", null, "short value", "exactly 12 b", "a value longer than twelve bytes",
+      "a value longer than 12 bytes, with the same prefix", null, "z"
+  };
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void init() {
+    allocator = new DirtyRootAllocator(Long.MAX_VALUE, (byte) 100);
+  }
+
+  @After
+  public void terminate() throws Exception {
+    allocator.close();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private void populate(ViewVarCharVector vector) {
+    for (int i = 0; i < VALUES.length; i++) {
+      if (VALUES[i] == null) {
+        vector.setNull(i);
+      } else {
+        vector.setSafe(i, bytes(VALUES[i]));
+      }
+    }
+    vector.setValueCount(VALUES.length);
+  }
+
+  @Test
+  public void testSetAndGet() {
+    try (ViewVarCharVector vector = new ViewVarCharVector("vector", allocator)) {
+      vector.allocateNew(4);
+      populate(vector);
+
+      assertEquals(VALUES.length, vector.getValueCount());
+      assertEquals(2, vector.getNullCount());
+      for (int i = 0; i < VALUES.length; i++) {
+        if (VALUES[i] == null) {
+          assertTrue(vector.isNull(i));
+          assertNull(vector.get(i));
+        } else {
+          assertFalse(vector.isNull(i));
+          assertArrayEquals(bytes(VALUES[i]), vector.get(i));
+          assertEquals(VALUES[i], vector.getObject(i).toString());
+        }
+      }
+
+      // only the two long values go to a data buffer
+      assertEquals(1, vector.getVariadicDataBuffers().size());
+      assertEquals(bytes(VALUES[5]).length + bytes(VALUES[6]).length,
+          vector.getVariadicDataBuffers().get(0).writerIndex());
+    }
+  }
+
+  @Test
+  public void testConversion() {
+    try (VarCharVector source = new VarCharVector("source", allocator);
+         VarCharVector target = new VarCharVector("target", allocator)) {
+      source.allocateNew();
+      for (int i = 0; i < VALUES.length; i++) {
+        if (VALUES[i] != null) {
+          source.setSafe(i, bytes(VALUES[i]));
+        }
+      }
+      source.setValueCount(VALUES.length);
+
+      try (ViewVarCharVector view = ViewVarCharVector.fromVarCharVector(source, allocator)) {
+        assertEquals(VALUES.length, view.getValueCount());
+        for (int i = 0; i < VALUES.length; i++) {
+          assertEquals(source.getObject(i), view.getObject(i));
+          assertEquals(source.hashCode(i), view.hashCode(i));
+        }
+
+        view.toVarCharVector(target);
+      }
+
+      assertEquals(VALUES.length, target.getValueCount());
+      for (int i = 0; i < VALUES.length; i++) {
+        assertEquals(source.getObject(i), target.getObject(i));
+      }
+    }
+  }
+
+  @Test
+  public void testMixedWithVarCharVector() {
+    try (VarCharVector varChar = new VarCharVector("varchar", allocator);
+         ViewVarCharVector view = new ViewVarCharVector("view", allocator)) {
+      varChar.allocateNew();
+      view.allocateNew(4);
+      populate(view);
+      for (int i = 0; i < VALUES.length; i++) {
+        if (VALUES[i] != null) {
+          varChar.setSafe(i, bytes(VALUES[i]));
+        }
+      }
+      varChar.setValueCount(VALUES.length);
+
+      // same logical type, different layouts
+      assertEquals(varChar.getField().getType(), view.getField().getType());
+      assertEquals(MinorType.VIEWVARCHAR, view.getMinorType());
+      assertFalse(new TypeEqualsVisitor(varChar).equals(view));
+      assertFalse(new TypeEqualsVisitor(view).equals(varChar));
+
+      final Range range = new Range(0, 0, VALUES.length);
+      assertFalse(new RangeEqualsVisitor(varChar, view).rangeEquals(range));
+      assertFalse(new RangeEqualsVisitor(view, varChar).rangeEquals(range));
+      assertFalse(new RangeEqualsVisitor(varChar, view, false).rangeEquals(range));
+
+      assertThrowsIllegalArgument(() -> varChar.copyFromSafe(0, 0, view));
+      assertThrowsIllegalArgument(() -> view.accept(new VectorAppender(varChar), null));
+      assertThrowsIllegalArgument(() -> varChar.accept(new VectorAppender(view), null));
+
+      // a view can still be populated from a VarCharVector
+      view.copyFromSafe(5, 0, varChar);
+      assertEquals(VALUES[5], view.getObject(0).toString());
+    }
+  }
+
+  private static void assertThrowsIllegalArgument(Runnable runnable) {
+    try {
+      runnable.run();
+    } catch (IllegalArgumentException e) {
+      return;
+    }
+    throw new AssertionError("Expected an IllegalArgumentException");
+  }
+
+  @Test
+  public void testCompare() {
+    try (ViewVarCharVector vector = new ViewVarCharVector("vector", allocator)) {
+      vector.allocateNew();
+      populate(vector);
+
+      for (int i = 0; i < VALUES.length; i++) {
+        for (int j = 0; j < VALUES.length; j++) {
+          if (VALUES[i] == null || VALUES[j] == null) {
+            continue;
+          }
+          int expected = Integer.signum(VALUES[i].compareTo(VALUES[j]));
+          assertEquals(expected, vector.compareNotNull(i, vector, j));
+          assertEquals(expected == 0, vector.valueEquals(i, vector, j));
+        }
+      }
+      assertTrue(vector.valueEquals(2, vector, 7));
+      assertFalse(vector.valueEquals(1, vector, 2));
+    }
+  }
+
+  @Test
+  public void testCompareWithTrailingZeros() {
+    try (ViewVarCharVector vector = new ViewVarCharVector("vector", allocator)) {
+      vector.allocateNew();
+      vector.setSafe(0, new byte[] {1});
+      vector.setSafe(1, new byte[] {1, 0});
+      vector.setSafe(2, new byte[] {1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+      vector.setSafe(3, new byte[] {1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+      vector.setValueCount(4);
+
+      assertEquals(-1, vector.compareNotNull(0, vector, 1));
+      assertEquals(1, vector.compareNotNull(1, vector, 0));
+      assertEquals(-1, vector.compareNotNull(2, vector, 3));
+      assertFalse(vector.valueEquals(0, vector, 1));
+      assertFalse(vector.valueEquals(2, vector, 3));
+    }
+  }
+
+  @Test
+  public void testEqualsAndHash() {
+    try (ViewVarCharVector vector1 = new ViewVarCharVector("vector1", allocator);
+         ViewVarCharVector vector2 = new ViewVarCharVector("vector2", allocator)) {
+      vector1.allocateNew();
+      vector2.allocateNew();
+      populate(vector1);
+      populate(vector2);
+
+      RangeEqualsVisitor visitor = new RangeEqualsVisitor(vector1, vector2);
+      assertTrue(visitor.rangeEquals(new Range(0, 0, VALUES.length)));
+
+      MurmurHasher hasher = new MurmurHasher();
+      for (int i = 0; i < VALUES.length; i++) {
+        assertEquals(vector1.hashCode(i), vector2.hashCode(i));
+        assertEquals(vector1.hashCode(i, hasher), vector2.hashCode(i, hasher));
+      }
+
+      vector2.setSafe(6, bytes("a value longer than 12 bytes, with the same prefiX"));
+      assertFalse(visitor.rangeEquals(new Range(0, 0, VALUES.length)));
+      assertTrue(visitor.rangeEquals(new Range(0, 0, 6)));
+    }
+  }
+
+  @Test
+  public void testTransfer() {
+    try (ViewVarCharVector vector = new ViewVarCharVector("vector", allocator)) {
+      vector.allocateNew();
+      populate(vector);
+
+      TransferPair transferPair = vector.getTransferPair(allocator);
+      transferPair.splitAndTransfer(4, 3);
+      try (ViewVarCharVector split = (ViewVarCharVector) transferPair.getTo()) {
+        assertEquals(3, split.getValueCount());
+        for (int i = 0; i < 3; i++) {
+          assertEquals(vector.getObject(4 + i), split.getObject(i));
+        }
+
+        transferPair.transfer();
+        assertEquals(0, vector.getValueCount());
+        assertEquals(VALUES.length, split.getValueCount());
+        for (int i = 0; i < VALUES.length; i++) {
+          assertEquals(VALUES[i], VALUES[i] == null ? split.getObject(i) : split.getObject(i).toString());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReAlloc() {
+    try (ViewVarCharVector vector = new ViewVarCharVector("vector", allocator)) {
+      vector.setInitialCapacity(16);
+      vector.allocateNew();
+      int valueCount = 10000;
+      for (int i = 0; i < valueCount; i++) {
+        vector.setSafe(i, bytes("value number " + i));
+      }
+      vector.setValueCount(valueCount);
+
+      assertTrue(vector.getValueCapacity() >= valueCount);
+      for (int i = 0; i < valueCount; i++) {
+        assertEquals("value number " + i, vector.getObject(i).toString());
+      }
+    }
+  }
+}
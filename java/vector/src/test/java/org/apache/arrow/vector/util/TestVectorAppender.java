@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.NullVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.complex.UnionVector;
+import org.apache.arrow.vector.complex.impl.UnionListWriter;
+import org.apache.arrow.vector.holders.NullableIntHolder;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link VectorAppender}.
+ */
+public class TestVectorAppender {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  private static void populate(IntVector vector, int start, int count) {
+    vector.allocateNew(count);
+    for (int i = 0; i < count; i++) {
+      if ((start + i) % 3 == 0) {
+        vector.setNull(i);
+      } else {
+        vector.set(i, start + i);
+      }
+    }
+    vector.setValueCount(count);
+  }
+
+  @Test
+  public void testAppendFixedWidthVector() {
+    final int length1 = 11;
+    final int length2 = 5000;
+    try (IntVector target = new IntVector("", allocator);
+         IntVector delta = new IntVector("", allocator)) {
+      populate(target, 0, length1);
+      populate(delta, length1, length2);
+
+      VectorAppender appender = new VectorAppender(target);
+      delta.accept(appender, null);
+
+      assertEquals(length1 + length2, target.getValueCount());
+      for (int i = 0; i < length1 + length2; i++) {
+        if (i % 3 == 0) {
+          assertTrue(target.isNull(i));
+        } else {
+          assertEquals(i, target.get(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAppendToEmptyVector() {
+    try (IntVector target = new IntVector("", allocator);
+         IntVector delta = new IntVector("", allocator)) {
+      populate(delta, 0, 10);
+
+      delta.accept(new VectorAppender(target), null);
+
+      assertEquals(10, target.getValueCount());
+      for (int i = 0; i < 10; i++) {
+        assertEquals(delta.getObject(i), target.getObject(i));
+      }
+    }
+  }
+
+  @Test
+  public void testAppendBitVector() {
+    final int length1 = 13;
+    final int length2 = 21;
+    try (BitVector target = new BitVector("", allocator);
+         BitVector delta = new BitVector("", allocator)) {
+      target.allocateNew(length1);
+      for (int i = 0; i < length1; i++) {
+        target.set(i, i % 2);
+      }
+      target.setValueCount(length1);
+      delta.allocateNew(length2);
+      for (int i = 0; i < length2; i++) {
+        if (i % 7 == 0) {
+          delta.setNull(i);
+        } else {
+          delta.set(i, i % 3 == 0 ? 1 : 0);
+        }
+      }
+      delta.setValueCount(length2);
+
+      delta.accept(new VectorAppender(target), null);
+
+      assertEquals(length1 + length2, target.getValueCount());
+      for (int i = 0; i < length1; i++) {
+        assertEquals(i % 2, target.get(i));
+      }
+      for (int i = 0; i < length2; i++) {
+        assertEquals(delta.getObject(i), target.getObject(length1 + i));
+      }
+    }
+  }
+
+  @Test
+  public void testAppendVariableWidthVector() {
+    final int length1 = 10;
+    final int length2 = 1000;
+    try (VarCharVector target = new VarCharVector("", allocator);
+         VarCharVector delta = new VarCharVector("", allocator)) {
+      target.allocateNew(length1);
+      for (int i = 0; i < length1; i++) {
+        target.setSafe(i, ("target" + i).getBytes(StandardCharsets.UTF_8));
+      }
+      target.setNull(3);
+      target.setValueCount(length1);
+
+      delta.allocateNew(length2);
+      for (int i = 0; i < length2; i++) {
+        if (i % 5 == 0) {
+          delta.setNull(i);
+        } else {
+          delta.setSafe(i, ("delta" + i).getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      delta.setValueCount(length2);
+
+      delta.accept(new VectorAppender(target), null);
+
+      assertEquals(length1 + length2, target.getValueCount());
+      for (int i = 0; i < length1; i++) {
+        if (i == 3) {
+          assertTrue(target.isNull(i));
+        } else {
+          assertEquals("target" + i, target.getObject(i).toString());
+        }
+      }
+      for (int i = 0; i < length2; i++) {
+        assertEquals(delta.getObject(i), target.getObject(length1 + i));
+      }
+
+      // the target is still usable after appending
+      target.setSafe(length1 + length2, "last".getBytes(StandardCharsets.UTF_8));
+      target.setValueCount(length1 + length2 + 1);
+      assertEquals("last", target.getObject(length1 + length2).toString());
+    }
+  }
+
+  private static void writeLists(ListVector vector, int[][] values) {
+    UnionListWriter writer = vector.getWriter();
+    writer.allocate();
+    for (int i = 0; i < values.length; i++) {
+      writer.setPosition(i);
+      if (values[i] == null) {
+        continue;
+      }
+      writer.startList();
+      for (int value : values[i]) {
+        writer.integer().writeInt(value);
+      }
+      writer.endList();
+    }
+    writer.setValueCount(values.length);
+  }
+
+  @Test
+  public void testAppendListVector() {
+    int[][] targetValues = {{1, 2}, null, {3}};
+    int[][] deltaValues = {{}, {4, 5, 6}, null, {7}};
+    try (ListVector target = ListVector.empty("target", allocator);
+         ListVector delta = ListVector.empty("delta", allocator)) {
+      writeLists(target, targetValues);
+      writeLists(delta, deltaValues);
+
+      delta.accept(new VectorAppender(target), null);
+
+      assertEquals(targetValues.length + deltaValues.length, target.getValueCount());
+      assertEquals(7, target.getDataVector().getValueCount());
+      int[][] expected = {{1, 2}, null, {3}, {}, {4, 5, 6}, null, {7}};
+      for (int i = 0; i < expected.length; i++) {
+        if (expected[i] == null) {
+          assertNull(target.getObject(i));
+        } else {
+          assertEquals(Arrays.toString(expected[i]), target.getObject(i).toString().replace(",", ", "));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAppendListVectorBeyondCapacity() {
+    final int length = 5000;
+    int[][] targetValues = new int[length][];
+    int[][] deltaValues = new int[length][];
+    for (int i = 0; i < length; i++) {
+      targetValues[i] = i % 3 == 0 ? null : new int[] {i};
+      deltaValues[i] = i % 5 == 0 ? null : new int[] {-i, i};
+    }
+    try (ListVector target = ListVector.empty("target", allocator);
+         ListVector delta = ListVector.empty("delta", allocator)) {
+      writeLists(target, targetValues);
+      writeLists(delta, deltaValues);
+      final int capacity = target.getValueCapacity();
+      assertTrue(capacity < 2 * length);
+
+      delta.accept(new VectorAppender(target), null);
+
+      assertEquals(2 * length, target.getValueCount());
+      for (int i = 0; i < length; i++) {
+        assertEquals(delta.getObject(i), target.getObject(length + i));
+        assertEquals(targetValues[i] == null ? null : Arrays.toString(targetValues[i]),
+            target.isNull(i) ? null : target.getObject(i).toString());
+      }
+    }
+  }
+
+  @Test
+  public void testAppendListToEmptyList() {
+    try (ListVector target = ListVector.empty("target", allocator);
+         ListVector delta = ListVector.empty("delta", allocator)) {
+      delta.addOrGetVector(FieldType.nullable(MinorType.BIGINT.getType()));
+      writeBigIntLists(delta);
+
+      delta.accept(new VectorAppender(target), null);
+
+      assertTrue(target.getDataVector() instanceof BigIntVector);
+      assertEquals(2, target.getValueCount());
+      assertEquals(delta.getObject(0), target.getObject(0));
+      assertEquals(delta.getObject(1), target.getObject(1));
+    }
+  }
+
+  private static void writeBigIntLists(ListVector vector) {
+    UnionListWriter writer = vector.getWriter();
+    writer.allocate();
+    writer.setPosition(0);
+    writer.startList();
+    writer.bigInt().writeBigInt(10);
+    writer.bigInt().writeBigInt(11);
+    writer.endList();
+    writer.setPosition(1);
+    writer.startList();
+    writer.bigInt().writeBigInt(12);
+    writer.endList();
+    writer.setValueCount(2);
+  }
+
+  private static StructVector createStruct(String name, BufferAllocator allocator, int start, int count) {
+    StructVector vector = StructVector.empty(name, allocator);
+    IntVector intChild = vector.addOrGet("int", FieldType.nullable(MinorType.INT.getType()), IntVector.class);
+    VarCharVector varCharChild =
+        vector.addOrGet("varchar", FieldType.nullable(MinorType.VARCHAR.getType()), VarCharVector.class);
+    vector.allocateNew();
+    for (int i = 0; i < count; i++) {
+      if ((start + i) % 4 == 0) {
+        vector.setNull(i);
+      } else {
+        intChild.setSafe(i, start + i);
+        varCharChild.setSafe(i, String.valueOf(start + i).getBytes(StandardCharsets.UTF_8));
+        vector.setIndexDefined(i);
+      }
+    }
+    vector.setValueCount(count);
+    return vector;
+  }
+
+  @Test
+  public void testAppendStructVector() {
+    final int length1 = 5;
+    final int length2 = 12;
+    try (StructVector target = createStruct("target", allocator, 0, length1);
+         StructVector delta = createStruct("delta", allocator, length1, length2)) {
+      delta.accept(new VectorAppender(target), null);
+
+      assertEquals(length1 + length2, target.getValueCount());
+      IntVector intChild = (IntVector) target.getChild("int");
+      VarCharVector varCharChild = (VarCharVector) target.getChild("varchar");
+      for (int i = 0; i < length1 + length2; i++) {
+        if (i % 4 == 0) {
+          assertTrue(target.isNull(i));
+        } else {
+          assertEquals(i, intChild.get(i));
+          assertEquals(String.valueOf(i), varCharChild.getObject(i).toString());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAppendUnionVector() {
+    final NullableIntHolder holder = new NullableIntHolder();
+    holder.isSet = 1;
+    try (UnionVector target = UnionVector.empty("target", allocator);
+         UnionVector delta = UnionVector.empty("delta", allocator)) {
+      target.allocateNew();
+      holder.value = 1;
+      target.setType(0, MinorType.INT);
+      target.setSafe(0, holder);
+      target.setValueCount(2);
+
+      delta.allocateNew();
+      holder.value = 2;
+      delta.setType(1, MinorType.INT);
+      delta.setSafe(1, holder);
+      delta.setValueCount(2);
+
+      delta.accept(new VectorAppender(target), null);
+
+      assertEquals(4, target.getValueCount());
+      assertEquals(1, target.getObject(0));
+      assertTrue(target.isNull(1));
+      assertTrue(target.isNull(2));
+      assertEquals(2, target.getObject(3));
+    }
+  }
+
+  @Test
+  public void testAppendNullVector() {
+    NullVector target = new NullVector();
+    NullVector delta = new NullVector();
+    target.setValueCount(10);
+    delta.setValueCount(5);
+
+    delta.accept(new VectorAppender(target), null);
+    assertEquals(15, target.getValueCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAppendDifferentTypes() {
+    try (IntVector target = new IntVector("", allocator);
+         BigIntVector delta = new BigIntVector("", allocator)) {
+      delta.allocateNew(1);
+      delta.set(0, 1L);
+      delta.setValueCount(1);
+      delta.accept(new VectorAppender(target), null);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link VectorSchemaRootAppender}.
+ */
+public class TestVectorSchemaRootAppender {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  static VectorSchemaRoot createRoot(BufferAllocator allocator, int start, int count) {
+    IntVector intVector = new IntVector("int", allocator);
+    VarCharVector varCharVector = new VarCharVector("varchar", allocator);
+    intVector.allocateNew(count);
+    varCharVector.allocateNew(count);
+    for (int i = 0; i < count; i++) {
+      intVector.set(i, start + i);
+      varCharVector.setSafe(i, String.valueOf(start + i).getBytes(StandardCharsets.UTF_8));
+    }
+    intVector.setValueCount(count);
+    varCharVector.setValueCount(count);
+    return new VectorSchemaRoot(Arrays.asList(intVector, varCharVector));
+  }
+
+  static void assertRows(VectorSchemaRoot root, int start, int count) {
+    assertEquals(count, root.getRowCount());
+    IntVector intVector = (IntVector) root.getVector(0);
+    VarCharVector varCharVector = (VarCharVector) root.getVector(1);
+    for (int i = 0; i < count; i++) {
+      assertEquals(start + i, intVector.get(i));
+      assertEquals(String.valueOf(start + i), varCharVector.getObject(i).toString());
+    }
+  }
+
+  @Test
+  public void testAppendRoots() {
+    try (VectorSchemaRoot target = createRoot(allocator, 0, 10);
+         VectorSchemaRoot delta1 = createRoot(allocator, 10, 7);
+         VectorSchemaRoot delta2 = createRoot(allocator, 17, 100)) {
+      VectorSchemaRootAppender.append(target, delta1, delta2);
+      assertRows(target, 0, 117);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAppendDifferentSchemas() {
+    try (VectorSchemaRoot target = createRoot(allocator, 0, 10);
+         VectorSchemaRoot source = createRoot(allocator, 10, 10);
+         VectorSchemaRoot delta = new VectorSchemaRoot(Arrays.asList(source.getVector(1), source.getVector(0)))) {
+      VectorSchemaRootAppender.append(target, delta);
+    }
+  }
+}
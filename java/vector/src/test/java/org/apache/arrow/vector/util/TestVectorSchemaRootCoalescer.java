@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.util;
+
+import static org.apache.arrow.vector.util.TestVectorSchemaRootAppender.assertRows;
+import static org.apache.arrow.vector.util.TestVectorSchemaRootAppender.createRoot;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link VectorSchemaRootCoalescer}.
+ */
+public class TestVectorSchemaRootCoalescer {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void prepare() {
+    allocator = new RootAllocator(16 * 1024 * 1024);
+  }
+
+  @After
+  public void shutdown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testCoalesceByRowCount() {
+    try (VectorSchemaRoot batch1 = createRoot(allocator, 0, 30);
+         VectorSchemaRoot batch2 = createRoot(allocator, 30, 30);
+         VectorSchemaRoot batch3 = createRoot(allocator, 60, 30);
+         VectorSchemaRootCoalescer coalescer =
+             new VectorSchemaRootCoalescer(batch1.getSchema(), allocator, 50)) {
+      assertFalse(coalescer.add(batch1));
+      assertTrue(coalescer.add(batch2));
+      try (VectorSchemaRoot coalesced = coalescer.takeBatch()) {
+        assertRows(coalesced, 0, 60);
+      }
+
+      assertFalse(coalescer.add(batch3));
+      try (VectorSchemaRoot coalesced = coalescer.takeBatch()) {
+        assertRows(coalesced, 60, 30);
+      }
+      assertNull(coalescer.takeBatch());
+    }
+  }
+
+  @Test
+  public void testCoalesceByBufferSize() {
+    try (VectorSchemaRoot batch = createRoot(allocator, 0, 10);
+         VectorSchemaRootCoalescer coalescer =
+             new VectorSchemaRootCoalescer(batch.getSchema(), allocator, Integer.MAX_VALUE, 1)) {
+      assertTrue(coalescer.add(batch));
+      try (VectorSchemaRoot coalesced = coalescer.takeBatch()) {
+        assertRows(coalesced, 0, 10);
+      }
+    }
+  }
+}